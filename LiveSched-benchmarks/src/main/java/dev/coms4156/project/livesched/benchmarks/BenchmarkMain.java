@@ -0,0 +1,49 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, adding the GC profiler so that every
+ * result reports the allocation rate alongside the time, as {@code -prof gc} would.
+ */
+public final class BenchmarkMain {
+
+  private BenchmarkMain() {
+  }
+
+  /**
+   * Runs the benchmarks selected by the command line.
+   *
+   * @param args the JMH command line
+   * @throws Exception if the command line is invalid or a benchmark fails
+   */
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+        || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+      Main.main(args);
+      return;
+    }
+    OptionsBuilder options = new OptionsBuilder();
+    options.parent(commandLine);
+    if (!hasGcProfiler(commandLine)) {
+      options.addProfiler(GCProfiler.class);
+    }
+    new Runner(options.build()).run();
+  }
+
+  private static boolean hasGcProfiler(CommandLineOptions commandLine) {
+    for (ProfilerConfig profiler : commandLine.getProfilers()) {
+      if ("gc".equals(profiler.getKlass())
+          || GCProfiler.class.getName().equals(profiler.getKlass())) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
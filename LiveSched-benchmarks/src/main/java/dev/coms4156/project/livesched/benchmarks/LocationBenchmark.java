@@ -0,0 +1,62 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import dev.coms4156.project.livesched.Location;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code Location.getDistance} between pairs of random locations. Each invocation
+ * measures {@link #PAIRS} pairs, so the time reported is per distance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationBenchmark {
+
+  private static final int PAIRS = 1024;
+
+  @Param({"0.01", "1.0", "45.0"})
+  private double spreadDegrees;
+
+  private Location[] from;
+  private Location[] to;
+
+  /**
+   * Generates the pairs of locations.
+   */
+  @Setup
+  public void createData() {
+    SyntheticData data = new SyntheticData(SyntheticData.SEED, spreadDegrees);
+    from = data.locations(PAIRS);
+    to = data.locations(PAIRS);
+  }
+
+  /**
+   * Sums the distances so that none of them can be optimized away.
+   *
+   * @return the sum of the distances
+   */
+  @Benchmark
+  @OperationsPerInvocation(PAIRS)
+  public double getDistance() {
+    double total = 0;
+    for (int i = 0; i < PAIRS; i++) {
+      total += from[i].getDistance(to[i]);
+    }
+    return total;
+  }
+}
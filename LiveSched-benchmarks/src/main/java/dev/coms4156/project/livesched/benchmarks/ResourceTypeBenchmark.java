@@ -0,0 +1,64 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import dev.coms4156.project.livesched.Resource;
+import dev.coms4156.project.livesched.ResourceType;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the availability lookups of {@code ResourceType} that a scheduling pass makes for
+ * every requirement of every task. A share of the units is assigned past the time looked up,
+ * so the lookups have to skip busy units.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceTypeBenchmark {
+
+  @Param({"10", "100", "1000", "10000"})
+  private int unitsPerType;
+
+  @Param({"0", "50", "90"})
+  private int busyPercent;
+
+  private ResourceType resourceType;
+  private LocalDateTime time;
+
+  /**
+   * Creates the resource type and assigns its busy units.
+   */
+  @Setup
+  public void createData() {
+    SyntheticData data = new SyntheticData(SyntheticData.SEED, 0.1);
+    resourceType = data.resourceTypes(1, unitsPerType).get(0);
+    time = data.getStart();
+    int busyUnits = unitsPerType * busyPercent / 100;
+    for (int i = 0; i < busyUnits; i++) {
+      resourceType.findAvailableResource(time).assignUntil(time.plusHours(1));
+    }
+  }
+
+  @Benchmark
+  public Resource findAvailableResource() {
+    return resourceType.findAvailableResource(time);
+  }
+
+  @Benchmark
+  public int countAvailableUnits() {
+    return resourceType.countAvailableUnits(time);
+  }
+}
@@ -0,0 +1,82 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import dev.coms4156.project.livesched.Resource;
+import dev.coms4156.project.livesched.ResourceType;
+import dev.coms4156.project.livesched.Schedule;
+import dev.coms4156.project.livesched.Task;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full scheduling pass with {@code Schedule.updateSchedule}. The schedule is emptied
+ * and its resources released before every pass, so each pass schedules the same tasks from
+ * scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ScheduleBenchmark {
+
+  /**
+   * The maximum distance between tasks and resources, in kilometers.
+   */
+  private static final double MAX_DISTANCE = 50;
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  private int tasks;
+
+  @Param({"10", "100"})
+  private int unitsPerType;
+
+  @Param({"1", "10"})
+  private int resourceTypes;
+
+  @Param({"0.1", "1.0"})
+  private double spreadDegrees;
+
+  private List<Task> taskList;
+  private Schedule schedule;
+
+  /**
+   * Generates the tasks and resource types of the trial.
+   */
+  @Setup(Level.Trial)
+  public void createData() {
+    SyntheticData data = new SyntheticData(SyntheticData.SEED, spreadDegrees);
+    List<ResourceType> resourceTypeList = data.resourceTypes(resourceTypes, unitsPerType);
+    taskList = data.tasks(tasks, resourceTypeList);
+    schedule = new Schedule();
+  }
+
+  /**
+   * Unschedules every task, releasing the resources assigned by the previous pass.
+   */
+  @Setup(Level.Invocation)
+  public void clearSchedule() {
+    for (Task task : new ArrayList<>(schedule.getTaskSchedule().keySet())) {
+      schedule.unscheduleTask(task);
+    }
+  }
+
+  @Benchmark
+  public Map<Task, List<Resource>> updateSchedule() {
+    return schedule.updateSchedule(taskList, MAX_DISTANCE);
+  }
+}
@@ -0,0 +1,67 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import dev.coms4156.project.livesched.ClientSnapshot;
+import dev.coms4156.project.livesched.MyFileDatabase;
+import dev.coms4156.project.livesched.ResourceType;
+import dev.coms4156.project.livesched.Task;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single-task write followed by publishing a snapshot of the database, as a route
+ * that changes one task does. Each snapshot is derived from the previous one, so the cost of a
+ * write should stay flat as the number of tasks grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SnapshotBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int tasks;
+
+  private MyFileDatabase database;
+  private List<Task> taskList;
+  private int next;
+
+  /**
+   * Fills a database with the tasks and resource types of the trial and publishes its first
+   * snapshot.
+   */
+  @Setup(Level.Trial)
+  public void createData() {
+    SyntheticData data = new SyntheticData(SyntheticData.SEED, 0.1);
+    List<ResourceType> resourceTypes = data.resourceTypes(10, 10);
+    taskList = data.tasks(tasks, resourceTypes);
+    database = new MyFileDatabase(1, "benchmark_tasks", "benchmark_resources",
+        "benchmark_schedule", "benchmark_tasks", "benchmark_resources", "benchmark_schedule");
+    database.setAllResourceTypes(resourceTypes);
+    database.setAllTasks(taskList);
+    ClientSnapshot.publish(database);
+  }
+
+  @Benchmark
+  public ClientSnapshot updateTaskAndPublish() {
+    Task task = taskList.get(next);
+    next = (next + 1) % taskList.size();
+    synchronized (database) {
+      task.updatePriority(task.getPriority() % 5 + 1);
+    }
+    return ClientSnapshot.publish(database);
+  }
+}
@@ -0,0 +1,127 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import dev.coms4156.project.livesched.Location;
+import dev.coms4156.project.livesched.ResourceType;
+import dev.coms4156.project.livesched.Task;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates the tasks, resource types and locations the benchmarks run on. The data is drawn
+ * from a seeded random generator, so each run of a benchmark with the same parameters sees the
+ * same data. Locations are spread uniformly within {@code spreadDegrees} of New York City.
+ */
+public final class SyntheticData {
+
+  /**
+   * The seed every benchmark draws its data from.
+   */
+  public static final long SEED = 4156L;
+
+  private static final double CENTER_LATITUDE = 40.7128;
+  private static final double CENTER_LONGITUDE = -74.0060;
+  private static final int SCHEDULING_DAYS = 7;
+  private static final int MAX_TASK_HOURS = 4;
+  private static final int MAX_UNITS_PER_REQUIREMENT = 3;
+
+  private final Random random;
+  private final double spreadDegrees;
+  private final LocalDateTime start;
+
+  /**
+   * Constructs a new SyntheticData object.
+   *
+   * @param seed          the seed of the random generator
+   * @param spreadDegrees the furthest a location is from the center, in degrees
+   */
+  public SyntheticData(long seed, double spreadDegrees) {
+    this.random = new Random(seed);
+    this.spreadDegrees = spreadDegrees;
+    // Tasks must start in the future, so times are relative to tomorrow
+    this.start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+  }
+
+  /**
+   * Gets the time the generated tasks are scheduled from.
+   *
+   * @return the start of the scheduling window
+   */
+  public LocalDateTime getStart() {
+    return start;
+  }
+
+  /**
+   * Generates resource types at random locations.
+   *
+   * @param count        the number of resource types
+   * @param unitsPerType the number of units of each type
+   * @return the resource types
+   */
+  public List<ResourceType> resourceTypes(int count, int unitsPerType) {
+    List<ResourceType> resourceTypes = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      resourceTypes.add(new ResourceType("Type" + i, unitsPerType, latitude(), longitude()));
+    }
+    return resourceTypes;
+  }
+
+  /**
+   * Generates tasks at random locations and times over a week, each requiring one or two of
+   * the given resource types.
+   *
+   * @param count         the number of tasks
+   * @param resourceTypes the resource types the tasks may require
+   * @return the tasks
+   */
+  public List<Task> tasks(int count, List<ResourceType> resourceTypes) {
+    List<Task> tasks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Map<ResourceType, Integer> requirements = new HashMap<>();
+      int requirementCount = Math.min(resourceTypes.size(), 1 + random.nextInt(2));
+      for (int j = 0; j < requirementCount; j++) {
+        ResourceType resourceType = resourceTypes.get(random.nextInt(resourceTypes.size()));
+        requirements.put(resourceType, 1 + random.nextInt(MAX_UNITS_PER_REQUIREMENT));
+      }
+      LocalDateTime startTime = start.plusMinutes(random.nextInt(SCHEDULING_DAYS * 24 * 60));
+      LocalDateTime endTime = startTime.plusMinutes(30 + random.nextInt(MAX_TASK_HOURS * 60));
+      tasks.add(new Task(String.valueOf(i + 1), "Task" + i, requirements,
+          1 + random.nextInt(5), startTime, endTime, latitude(), longitude()));
+    }
+    return tasks;
+  }
+
+  /**
+   * Generates random locations.
+   *
+   * @param count the number of locations
+   * @return the locations
+   */
+  public Location[] locations(int count) {
+    Location[] locations = new Location[count];
+    for (int i = 0; i < count; i++) {
+      locations[i] = new Location(latitude(), longitude());
+    }
+    return locations;
+  }
+
+  private double latitude() {
+    return clamp(CENTER_LATITUDE + offset(), 90);
+  }
+
+  private double longitude() {
+    return clamp(CENTER_LONGITUDE + offset(), 180);
+  }
+
+  private double offset() {
+    return (random.nextDouble() * 2 - 1) * spreadDegrees;
+  }
+
+  private static double clamp(double value, double bound) {
+    return Math.max(-bound, Math.min(bound, value));
+  }
+}
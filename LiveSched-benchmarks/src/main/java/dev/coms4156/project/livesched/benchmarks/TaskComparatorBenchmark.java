@@ -0,0 +1,60 @@
+package dev.coms4156.project.livesched.benchmarks;
+
+import dev.coms4156.project.livesched.ResourceType;
+import dev.coms4156.project.livesched.Task;
+import dev.coms4156.project.livesched.TaskComparator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures sorting tasks by priority with {@code TaskComparator}, copying the list first as a
+ * scheduling pass does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskComparatorBenchmark {
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  private int tasks;
+
+  private final TaskComparator taskComparator = new TaskComparator();
+  private List<Task> taskList;
+
+  /**
+   * Generates the tasks of the trial.
+   */
+  @Setup
+  public void createData() {
+    SyntheticData data = new SyntheticData(SyntheticData.SEED, 0.1);
+    List<ResourceType> resourceTypes = data.resourceTypes(1, 1);
+    taskList = data.tasks(tasks, resourceTypes);
+  }
+
+  /**
+   * Copies the tasks and sorts the copy by priority.
+   *
+   * @return the sorted copy
+   */
+  @Benchmark
+  public List<Task> sortByPriority() {
+    List<Task> sorted = new ArrayList<>(taskList);
+    sorted.sort(taskComparator);
+    return sorted;
+  }
+}
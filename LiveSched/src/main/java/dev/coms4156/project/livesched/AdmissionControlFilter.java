@@ -0,0 +1,87 @@
+package dev.coms4156.project.livesched;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Admits each client's requests through the client's {@code ClientLimiter} before any other
+ * work is done for them. A request over the client's rate or concurrency limit is rejected at
+ * once with 429 Too Many Requests and a Retry-After header, so one busy client cannot tie up
+ * the threads that serve the others. About once a minute, a request also removes the limiters
+ * of idle clients, so clients seen once do not keep a limiter forever.
+ */
+@Component
+@Order(0)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+  private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final AdmissionProperties admissionProperties;
+  private final AtomicLong nextSweepNanos =
+      new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+
+  /**
+   * Constructs a new AdmissionControlFilter object.
+   *
+   * @param admissionProperties the configured limits of each client
+   */
+  public AdmissionControlFilter(AdmissionProperties admissionProperties) {
+    this.admissionProperties = admissionProperties;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !admissionProperties.isEnabled() || request.getParameter("clientId") == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain)
+      throws ServletException, IOException {
+    sweepIdleLimiters();
+    String clientId = request.getParameter("clientId");
+    ClientLimiter limiter;
+    long waitNanos;
+    do {
+      limiter = LiveSchedApplication.getClientLimiter(clientId, admissionProperties::newLimiter);
+      waitNanos = limiter.tryAcquire();
+    } while (waitNanos == ClientLimiter.RETIRED);
+    if (waitNanos > 0) {
+      long retryAfterSeconds = Math.max(1,
+          (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+      response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+      response.getWriter().write("Too Many Requests");
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      limiter.release();
+    }
+  }
+
+  /**
+   * Removes the limiters of idle clients if a sweep is due. Only the request that claims the
+   * sweep runs it, so the others pay for a single read of the clock.
+   */
+  private void sweepIdleLimiters() {
+    long now = System.nanoTime();
+    long next = nextSweepNanos.get();
+    if (now - next >= 0 && nextSweepNanos.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+      LiveSchedApplication.evictIdleClientLimiters();
+    }
+  }
+}
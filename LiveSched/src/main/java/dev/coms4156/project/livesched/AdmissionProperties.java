@@ -0,0 +1,89 @@
+package dev.coms4156.project.livesched;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the rate and concurrency limits applied to each client's requests, configured under
+ * {@code livesched.admission}. The default limits apply to every client that has no limits
+ * of its own under {@code livesched.admission.clients.<clientId>}.
+ */
+@Component
+@ConfigurationProperties(prefix = "livesched.admission")
+public class AdmissionProperties {
+
+  private boolean enabled = true;
+  private Limits defaults = new Limits();
+  private Map<String, Limits> clients = new HashMap<>();
+
+  /**
+   * Creates a limiter with the limits configured for a client.
+   *
+   * @param clientId the client
+   * @return a new {@code ClientLimiter} for the client
+   */
+  public ClientLimiter newLimiter(String clientId) {
+    Limits limits = clients.getOrDefault(clientId, defaults);
+    return new ClientLimiter(limits.getRequestsPerSecond(), limits.getBurst(),
+        limits.getMaxConcurrent());
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public Limits getDefaults() {
+    return defaults;
+  }
+
+  public void setDefaults(Limits defaults) {
+    this.defaults = defaults;
+  }
+
+  public Map<String, Limits> getClients() {
+    return clients;
+  }
+
+  public void setClients(Map<String, Limits> clients) {
+    this.clients = clients;
+  }
+
+  /**
+   * Holds the limits of one client.
+   */
+  public static class Limits {
+    private double requestsPerSecond = 50;
+    private int burst = 100;
+    private int maxConcurrent = 16;
+
+    public double getRequestsPerSecond() {
+      return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+      this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBurst() {
+      return burst;
+    }
+
+    public void setBurst(int burst) {
+      this.burst = burst;
+    }
+
+    public int getMaxConcurrent() {
+      return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+      this.maxConcurrent = maxConcurrent;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package dev.coms4156.project.livesched;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Reads and validates tasks submitted in bulk.
+ * Tasks are read from a JSON array or from newline-delimited JSON, one object per task, and
+ * are validated in parallel before any of them is added to a client's database.
+ */
+public class BulkTaskImporter {
+
+  private static final int DEFAULT_MAX_TASKS = 250_000;
+  private static final int MAX_REPORTED_ERRORS = 100;
+  private static final ObjectReader READER = new ObjectMapper().readerFor(JsonNode.class);
+
+  private final int maxTasks;
+
+  /**
+   * Constructs a new BulkTaskImporter object that accepts the default number of tasks.
+   */
+  public BulkTaskImporter() {
+    this(DEFAULT_MAX_TASKS);
+  }
+
+  /**
+   * Constructs a new BulkTaskImporter object with the given parameters.
+   *
+   * @param maxTasks the maximum number of tasks accepted in one import
+   * @throws IllegalArgumentException if {@code maxTasks} is not positive
+   */
+  public BulkTaskImporter(int maxTasks) {
+    if (maxTasks <= 0) {
+      throw new IllegalArgumentException("Maximum number of tasks must be positive.");
+    }
+    this.maxTasks = maxTasks;
+  }
+
+  /**
+   * Reads the submitted task objects from a request body. The body may hold a JSON array of
+   * objects or a sequence of objects, such as newline-delimited JSON.
+   *
+   * @param body the request body
+   * @return the submitted task objects in the order they appear in the body
+   * @throws IOException if the body is not valid JSON
+   * @throws IllegalArgumentException if the body holds no tasks or more than the maximum
+   */
+  public List<JsonNode> read(InputStream body) throws IOException {
+    List<JsonNode> entries = new ArrayList<>();
+    try (MappingIterator<JsonNode> iterator = READER.readValues(body)) {
+      while (iterator.hasNextValue()) {
+        if (entries.size() == maxTasks) {
+          throw new IllegalArgumentException("Cannot add more than " + maxTasks
+              + " tasks at once.");
+        }
+        entries.add(iterator.nextValue());
+      }
+    }
+    if (entries.isEmpty()) {
+      throw new IllegalArgumentException("No tasks provided.");
+    }
+    return entries;
+  }
+
+  /**
+   * Validates the submitted task objects in parallel and creates a task for each of them.
+   * The tasks are given provisional IDs, which should be replaced when they are added.
+   *
+   * @param entries             the submitted task objects
+   * @param resourceTypesByName the client's resource types, keyed by type name
+   * @return the {@code Result} of the validation
+   */
+  public Result validate(List<JsonNode> entries, Map<String, ResourceType> resourceTypesByName) {
+    Object[] outcomes = new Object[entries.size()];
+    IntStream.range(0, entries.size()).parallel().forEach(index -> {
+      try {
+        outcomes[index] = toTask(String.valueOf(index + 1), entries.get(index),
+            resourceTypesByName);
+      } catch (IllegalArgumentException | DateTimeParseException e) {
+        outcomes[index] = "Task " + (index + 1) + ": " + e.getMessage();
+      }
+    });
+
+    List<Task> tasks = new ArrayList<>(outcomes.length);
+    List<String> errors = new ArrayList<>();
+    int invalidTasks = 0;
+    for (Object outcome : outcomes) {
+      if (outcome instanceof Task task) {
+        tasks.add(task);
+      } else {
+        invalidTasks++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+          errors.add((String) outcome);
+        }
+      }
+    }
+    return new Result(tasks, invalidTasks, errors);
+  }
+
+  private static Task toTask(String provisionalId, JsonNode entry,
+                             Map<String, ResourceType> resourceTypesByName) {
+    if (entry == null || !entry.isObject()) {
+      throw new IllegalArgumentException("Task must be a JSON object.");
+    }
+    String taskName = requireText(entry, "taskName");
+    int priority = requireInt(entry, "priority");
+    LocalDateTime startTime =
+        LocalDateTime.parse(requireText(entry, "startTime"), Task.TIME_FORMATTER);
+    LocalDateTime endTime =
+        LocalDateTime.parse(requireText(entry, "endTime"), Task.TIME_FORMATTER);
+    double latitude = requireNumber(entry, "latitude");
+    double longitude = requireNumber(entry, "longitude");
+
+    Map<ResourceType, Integer> resourceList = new HashMap<>();
+    JsonNode resources = entry.get("resources");
+    if (resources != null && !resources.isNull()) {
+      if (!resources.isObject()) {
+        throw new IllegalArgumentException("resources must map type names to quantities.");
+      }
+      Iterator<Map.Entry<String, JsonNode>> fields = resources.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        ResourceType resourceType = resourceTypesByName.get(field.getKey());
+        if (resourceType == null) {
+          throw new IllegalArgumentException("ResourceType " + field.getKey() + " Not Found");
+        }
+        JsonNode quantity = field.getValue();
+        if (!quantity.isIntegralNumber() || !quantity.canConvertToInt() || quantity.asInt() < 0) {
+          throw new IllegalArgumentException("Quantity of " + field.getKey()
+              + " must be a non-negative integer.");
+        }
+        if (quantity.asInt() > 0) {
+          resourceList.put(resourceType, quantity.asInt());
+        }
+      }
+    }
+
+    return new Task(provisionalId, taskName, resourceList, priority, startTime, endTime,
+        latitude, longitude);
+  }
+
+  private static String requireText(JsonNode entry, String field) {
+    JsonNode value = entry.get(field);
+    if (value == null || !value.isTextual()) {
+      throw new IllegalArgumentException(field + " must be a string.");
+    }
+    return value.asText();
+  }
+
+  private static int requireInt(JsonNode entry, String field) {
+    JsonNode value = entry.get(field);
+    if (value == null || !value.isIntegralNumber() || !value.canConvertToInt()) {
+      throw new IllegalArgumentException(field + " must be an integer.");
+    }
+    return value.asInt();
+  }
+
+  private static double requireNumber(JsonNode entry, String field) {
+    JsonNode value = entry.get(field);
+    if (value == null || !value.isNumber()) {
+      throw new IllegalArgumentException(field + " must be a number.");
+    }
+    return value.asDouble();
+  }
+
+  /**
+   * Holds the tasks created by a validation and the errors of the entries that were invalid.
+   */
+  public static class Result {
+    private final List<Task> tasks;
+    private final int invalidTasks;
+    private final List<String> errors;
+
+    Result(List<Task> tasks, int invalidTasks, List<String> errors) {
+      this.tasks = tasks;
+      this.invalidTasks = invalidTasks;
+      this.errors = errors;
+    }
+
+    /**
+     * Gets the resource types referred to by the valid tasks.
+     *
+     * @return the distinct resource types, compared by identity
+     */
+    public Set<ResourceType> getReferencedResourceTypes() {
+      Set<ResourceType> resourceTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (Task task : tasks) {
+        resourceTypes.addAll(task.getResources().keySet());
+      }
+      return resourceTypes;
+    }
+
+    public List<Task> getTasks() {
+      return tasks;
+    }
+
+    public int getInvalidTasks() {
+      return invalidTasks;
+    }
+
+    /**
+     * Gets the error messages of the invalid entries, limited to the first hundred.
+     *
+     * @return the error messages in the order of the entries
+     */
+    public List<String> getErrors() {
+      return errors;
+    }
+
+    public boolean hasErrors() {
+      return invalidTasks > 0;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package dev.coms4156.project.livesched;
+
+/**
+ * Receives the changes made to the tasks, resource types and schedule held by a client's
+ * {@code MyFileDatabase}, so that the database knows which of them to copy into its next
+ * snapshot.
+ */
+interface ChangeListener {
+
+  /**
+   * Called after a task is changed.
+   *
+   * @param task the task that changed
+   */
+  void taskChanged(Task task);
+
+  /**
+   * Called when a task starts or stops requiring a resource type, before
+   * {@link #taskChanged}.
+   *
+   * @param task         the task whose requirements changed
+   * @param resourceType the resource type
+   * @param required     true if the task now requires the resource type, false if it no
+   *                     longer does
+   */
+  void requirementChanged(Task task, ResourceType resourceType, boolean required);
+
+  /**
+   * Called after a resource type or one of its resources is changed.
+   *
+   * @param resourceType the resource type that changed
+   */
+  void resourceTypeChanged(ResourceType resourceType);
+
+  /**
+   * Called after a task is scheduled or unscheduled.
+   *
+   * @param task the task whose place in the schedule changed
+   */
+  void scheduleChanged(Task task);
+}
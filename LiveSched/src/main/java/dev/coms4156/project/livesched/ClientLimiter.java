@@ -0,0 +1,135 @@
+package dev.coms4156.project.livesched;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate and concurrency of one client's requests without locking.
+ * The rate is enforced by a token bucket kept as the theoretical arrival time of the next
+ * request, which a single compare-and-set advances on every admitted request, and the
+ * concurrency by a counter of requests in flight. A limiter that has been idle long enough to
+ * be replaced by a new one can be retired, after which it admits nothing.
+ */
+public final class ClientLimiter {
+
+  /**
+   * The time after which a request rejected for concurrency should be retried.
+   */
+  static final long CONCURRENCY_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /**
+   * Returned by {@link #tryAcquire()} once the limiter is retired, so the caller looks up the
+   * limiter that replaced it.
+   */
+  static final long RETIRED = -1;
+
+  /**
+   * The count of requests in flight of a retired limiter, which stays negative however many
+   * callers still holding the limiter try to acquire it.
+   */
+  private static final int RETIRED_IN_FLIGHT = Integer.MIN_VALUE / 2;
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final int maxConcurrent;
+  private final LongSupplier clock;
+  private final AtomicLong theoreticalArrival;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  /**
+   * Constructs a new ClientLimiter object.
+   *
+   * @param requestsPerSecond the sustained number of requests admitted per second
+   * @param burst             the number of requests admitted at once after a quiet period
+   * @param maxConcurrent     the number of requests that may be in flight at once
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  public ClientLimiter(double requestsPerSecond, int burst, int maxConcurrent) {
+    this(requestsPerSecond, burst, maxConcurrent, System::nanoTime);
+  }
+
+  /**
+   * Constructs a new ClientLimiter object that reads the time from the given clock.
+   *
+   * @param requestsPerSecond the sustained number of requests admitted per second
+   * @param burst             the number of requests admitted at once after a quiet period
+   * @param maxConcurrent     the number of requests that may be in flight at once
+   * @param clock             supplies the current time in nanoseconds
+   * @throws IllegalArgumentException if a limit is not positive
+   */
+  ClientLimiter(double requestsPerSecond, int burst, int maxConcurrent, LongSupplier clock) {
+    if (!(requestsPerSecond > 0) || burst <= 0 || maxConcurrent <= 0) {
+      throw new IllegalArgumentException("Limits must be positive.");
+    }
+    this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+    this.toleranceNanos = intervalNanos * (burst - 1);
+    this.maxConcurrent = maxConcurrent;
+    this.clock = clock;
+    this.theoreticalArrival = new AtomicLong(clock.getAsLong());
+  }
+
+  /**
+   * Tries to admit a request. An admitted request must be followed by a call to
+   * {@link #release()} once it completes.
+   *
+   * @return 0 if the request is admitted, {@link #RETIRED} if the limiter is retired, or
+   *         otherwise the number of nanoseconds after which it should be retried
+   */
+  public long tryAcquire() {
+    int count = inFlight.incrementAndGet();
+    if (count <= 0) {
+      return RETIRED;
+    }
+    if (count > maxConcurrent) {
+      inFlight.decrementAndGet();
+      return CONCURRENCY_RETRY_NANOS;
+    }
+    long now = clock.getAsLong();
+    while (true) {
+      long arrival = theoreticalArrival.get();
+      long start = arrival - now > 0 ? arrival : now;
+      long wait = start - now - toleranceNanos;
+      if (wait > 0) {
+        inFlight.decrementAndGet();
+        return wait;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * Releases the concurrency slot of an admitted request.
+   */
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * Retires the limiter if it has no requests in flight and its rate limit has fully recovered,
+   * so that a new limiter with the same limits would admit exactly the same requests.
+   *
+   * @return true if the limiter is retired, or false if it is in use
+   */
+  public boolean retireIfIdle() {
+    if (inFlight.get() < 0) {
+      return true;
+    }
+    if (theoreticalArrival.get() - clock.getAsLong() > 0) {
+      return false;
+    }
+    return inFlight.compareAndSet(0, RETIRED_IN_FLIGHT);
+  }
+
+  /**
+   * Gets the number of admitted requests that have not been released.
+   *
+   * @return the number of requests in flight, which is 0 once the limiter is retired
+   */
+  public int getInFlight() {
+    return Math.max(0, inFlight.get());
+  }
+}
@@ -0,0 +1,43 @@
+package dev.coms4156.project.livesched;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.MDC;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Puts the client of each request into the logging context, so that every line logged while
+ * the request is served carries the client's ID. It runs before the other filters so that
+ * their lines carry it too.
+ */
+@Component
+@Order(-1)
+public class ClientLoggingFilter extends OncePerRequestFilter {
+
+  /**
+   * The key the client's ID is logged under.
+   */
+  public static final String CLIENT_ID_KEY = "clientId";
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return request.getParameter("clientId") == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain)
+      throws ServletException, IOException {
+    MDC.put(CLIENT_ID_KEY, request.getParameter("clientId"));
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(CLIENT_ID_KEY);
+    }
+  }
+}
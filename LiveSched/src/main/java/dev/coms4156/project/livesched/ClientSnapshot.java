@@ -0,0 +1,784 @@
+package dev.coms4156.project.livesched;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents an immutable, point-in-time copy of a client's tasks, resource types and schedule.
+ * Snapshots are published by {@code MyFileDatabase} after each batch of changes, so read
+ * endpoints can serialize them without holding the client's database while writers continue.
+ * Tasks and schedule entries are held in persistent maps, so each snapshot is derived from the
+ * one before it by copying only what the database reports as changed, at a cost that grows
+ * with the logarithm of the number of tasks rather than with the number itself.
+ * Copied tasks refer to the resource types they require by name and location only, so that a
+ * change to the units of a resource type does not copy every task that requires it.
+ */
+public final class ClientSnapshot {
+
+  private static final Comparator<Integer> POSITION_ORDER = Comparator.naturalOrder();
+  private static final Comparator<String> ID_ORDER = Comparator.naturalOrder();
+  private static final Comparator<Long> SEQUENCE_ORDER = Comparator.naturalOrder();
+
+  private final long version;
+
+  /**
+   * The copy of each task, by the task's position in the database's task list.
+   */
+  private final PersistentTreeMap<Integer, Task> tasksByPosition;
+
+  /**
+   * The copy of the first task with each ID.
+   */
+  private final PersistentTreeMap<String, Task> tasksById;
+  private final List<Task> tasks;
+  private final List<ResourceType> resourceTypes;
+  private final Map<String, ResourceType> resourceTypesByName;
+
+  /**
+   * The copy of each resource type in the database, by the resource type itself, so the next
+   * snapshot can reuse the copies of resource types that have not changed.
+   */
+  private final Map<ResourceType, ResourceType> typeCopies;
+
+  /**
+   * The schedule entries in the order the tasks were scheduled, by a sequence number given to
+   * each entry when its task is scheduled, and the sequence number of each scheduled task by
+   * task ID.
+   */
+  private final PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence;
+  private final PersistentTreeMap<String, Long> scheduleSequences;
+  private final long nextSequence;
+  private final Map<Task, List<Resource>> schedule;
+  private final List<Map<String, Object>> scheduleEntries;
+  private volatile TaskIndex taskIndex;
+  private volatile TaskIndex scheduleIndex;
+  private volatile TaskTimeIndex taskTimeIndex;
+  private volatile TaskTimeIndex scheduleTimeIndex;
+  private volatile LocationIndex<Task> taskLocationIndex;
+  private volatile LocationIndex<ResourceType> resourceTypeLocationIndex;
+
+  private ClientSnapshot(long version, ClientSnapshot previous,
+                         PersistentTreeMap<Integer, Task> tasksByPosition,
+                         PersistentTreeMap<String, Task> tasksById,
+                         List<ResourceType> resourceTypes,
+                         Map<String, ResourceType> resourceTypesByName,
+                         Map<ResourceType, ResourceType> typeCopies,
+                         PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence,
+                         PersistentTreeMap<String, Long> scheduleSequences,
+                         long nextSequence) {
+    this.version = version;
+    this.tasksByPosition = tasksByPosition;
+    this.tasksById = tasksById;
+    this.resourceTypes = resourceTypes;
+    this.resourceTypesByName = resourceTypesByName;
+    this.typeCopies = typeCopies;
+    this.scheduleBySequence = scheduleBySequence;
+    this.scheduleSequences = scheduleSequences;
+    this.nextSequence = nextSequence;
+    // Keep the views of unchanged maps, so callers can tell that they did not change
+    this.tasks = previous != null && previous.tasksByPosition == tasksByPosition
+        ? previous.tasks : new TaskList(tasksByPosition);
+    boolean scheduleShared =
+        previous != null && previous.scheduleBySequence == scheduleBySequence;
+    this.schedule = scheduleShared ? previous.schedule
+        : new ScheduleMap(scheduleBySequence, scheduleSequences);
+    this.scheduleEntries = scheduleShared ? previous.scheduleEntries
+        : new ScheduleEntryList(scheduleBySequence);
+  }
+
+  /**
+   * Gets the current snapshot of a client's database.
+   *
+   * @param myFileDatabase the database of the client
+   * @return the current {@code ClientSnapshot} of the database
+   */
+  public static ClientSnapshot of(MyFileDatabase myFileDatabase) {
+    return myFileDatabase.getSnapshot();
+  }
+
+  /**
+   * Publishes a new snapshot of a client's database.
+   *
+   * @param myFileDatabase the database of the client
+   * @return the newly published {@code ClientSnapshot} of the database
+   */
+  public static ClientSnapshot publish(MyFileDatabase myFileDatabase) {
+    return myFileDatabase.publishSnapshot();
+  }
+
+  /**
+   * Captures a copy of a client's database. The caller must hold the database's monitor so
+   * that no change is applied while the copy is made.
+   * When the changes made since {@code previous} was captured are known, the new snapshot is
+   * derived from {@code previous} by copying only the tasks, resource types and schedule
+   * entries that changed. Otherwise everything is copied.
+   *
+   * @param myFileDatabase the database of the client
+   * @param version        the version to give the snapshot
+   * @param previous       the last snapshot captured from the database, or null if there is
+   *                       none
+   * @param changes        the changes made to the database since {@code previous} was
+   *                       captured, or null if they are not known
+   * @return a new {@code ClientSnapshot} of the database
+   */
+  static ClientSnapshot capture(MyFileDatabase myFileDatabase, long version,
+                                ClientSnapshot previous, Changes changes) {
+    if (previous == null || changes == null || changes.everything) {
+      return captureAll(myFileDatabase, version);
+    }
+
+    List<ResourceType> resourceTypes = previous.resourceTypes;
+    Map<String, ResourceType> resourceTypesByName = previous.resourceTypesByName;
+    Map<ResourceType, ResourceType> typeCopies = previous.typeCopies;
+    if (changes.resourceTypeListChanged || !changes.resourceTypes.isEmpty()) {
+      typeCopies = new IdentityHashMap<>();
+      resourceTypes = new ArrayList<>();
+      for (ResourceType resourceType : myFileDatabase.getAllResourceTypes()) {
+        if (resourceType == null) {
+          continue;
+        }
+        ResourceType copy = previous.typeCopies.get(resourceType);
+        if (copy == null || changes.resourceTypes.contains(resourceType)) {
+          if (copy != null && !copy.getLocation().equals(resourceType.getLocation())) {
+            // Every task copy that refers to the resource type by its old location is stale
+            return captureAll(myFileDatabase, version);
+          }
+          copy = new ResourceType(resourceType);
+        }
+        typeCopies.put(resourceType, copy);
+        resourceTypes.add(copy);
+      }
+      if (sameElements(resourceTypes, previous.resourceTypes)) {
+        resourceTypes = previous.resourceTypes;
+      } else {
+        resourceTypes = Collections.unmodifiableList(resourceTypes);
+        resourceTypesByName = indexByName(resourceTypes);
+      }
+    }
+
+    PersistentTreeMap<Integer, Task> tasksByPosition = previous.tasksByPosition;
+    PersistentTreeMap<String, Task> tasksById = previous.tasksById;
+    Map<Integer, Task> removedTasks = new LinkedHashMap<>();
+    Map<Integer, Task> addedTasks = new LinkedHashMap<>();
+    List<Task> liveTasks = myFileDatabase.getAllTasks();
+    for (int position : changes.sortedTaskPositions()) {
+      Task removed = tasksByPosition.get(position);
+      if (removed != null) {
+        tasksByPosition = tasksByPosition.remove(position);
+        removedTasks.put(position, removed);
+      }
+      Task task = position < liveTasks.size() ? liveTasks.get(position) : null;
+      if (task != null) {
+        Task copy = copyTask(task);
+        tasksByPosition = tasksByPosition.put(position, copy);
+        addedTasks.put(position, copy);
+      }
+    }
+    for (Task removed : removedTasks.values()) {
+      if (tasksById.get(removed.getTaskId()) == removed) {
+        tasksById = tasksById.remove(removed.getTaskId());
+      }
+    }
+    for (Task added : addedTasks.values()) {
+      if (!tasksById.containsKey(added.getTaskId())) {
+        tasksById = tasksById.put(added.getTaskId(), added);
+      }
+    }
+
+    PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence = previous.scheduleBySequence;
+    PersistentTreeMap<String, Long> scheduleSequences = previous.scheduleSequences;
+    long nextSequence = previous.nextSequence;
+    Set<Long> changedSequences = new LinkedHashSet<>();
+    Map<Task, List<Resource>> liveSchedule =
+        myFileDatabase.getMasterSchedule().getTaskSchedule();
+    for (Task task : changes.scheduledTasks) {
+      String taskId = task.getTaskId();
+      Long sequence = scheduleSequences.get(taskId);
+      if (sequence != null) {
+        scheduleBySequence = scheduleBySequence.remove(sequence);
+        scheduleSequences = scheduleSequences.remove(taskId);
+        changedSequences.add(sequence);
+      }
+      List<Resource> assignedResources = liveSchedule.get(task);
+      if (assignedResources != null) {
+        Task copy = tasksById.get(taskId);
+        if (copy == null || myFileDatabase.getTaskById(taskId) != task) {
+          copy = copyTask(task);
+        }
+        scheduleBySequence = scheduleBySequence.put(nextSequence,
+            new ScheduleEntry(copy, copyResources(assignedResources, typeCopies)));
+        changedSequences.add(nextSequence);
+        scheduleSequences = scheduleSequences.put(taskId, nextSequence++);
+      }
+    }
+    for (Task added : addedTasks.values()) {
+      // A scheduled task that changed is shown in the schedule by its new copy
+      Long sequence = scheduleSequences.get(added.getTaskId());
+      ScheduleEntry entry = sequence == null ? null : scheduleBySequence.get(sequence);
+      if (entry != null && entry.task != added && tasksById.get(added.getTaskId()) == added) {
+        scheduleBySequence = scheduleBySequence.put(sequence,
+            new ScheduleEntry(added, entry.assignedResources));
+        changedSequences.add(sequence);
+      }
+    }
+    List<Task> unscheduledTasks = new ArrayList<>();
+    List<Task> scheduledTasks = new ArrayList<>();
+    for (long sequence : changedSequences) {
+      ScheduleEntry before = previous.scheduleBySequence.get(sequence);
+      ScheduleEntry after = scheduleBySequence.get(sequence);
+      if (before != null && (after == null || after.task != before.task)) {
+        unscheduledTasks.add(before.task);
+      }
+      if (after != null && (before == null || before.task != after.task)) {
+        scheduledTasks.add(after.task);
+      }
+    }
+
+    ClientSnapshot snapshot = new ClientSnapshot(version, previous, tasksByPosition, tasksById,
+        resourceTypes, resourceTypesByName, typeCopies, scheduleBySequence, scheduleSequences,
+        nextSequence);
+    // Indexes that were built are carried forward by applying the same changes to them
+    if (previous.scheduleIndex != null) {
+      snapshot.scheduleIndex =
+          previous.scheduleIndex.updated(unscheduledTasks, scheduledTasks, task -> true);
+    }
+    if (previous.taskIndex != null && previous.tasksById.size() == previous.tasks.size()
+        && tasksById.size() == snapshot.tasks.size()) {
+      // A task whose scheduled state changed moves to another bucket, which is found by ID
+      // only while every task has its own ID
+      Set<Task> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+      Set<Task> added = Collections.newSetFromMap(new IdentityHashMap<>());
+      removed.addAll(removedTasks.values());
+      added.addAll(addedTasks.values());
+      for (Task task : unscheduledTasks) {
+        moveTask(task.getTaskId(), previous, tasksById, removed, added);
+      }
+      for (Task task : scheduledTasks) {
+        moveTask(task.getTaskId(), previous, tasksById, removed, added);
+      }
+      snapshot.taskIndex =
+          previous.taskIndex.updated(removed, added, snapshot.schedule::containsKey);
+    }
+    if (previous.taskTimeIndex != null) {
+      snapshot.taskTimeIndex =
+          previous.taskTimeIndex.updated(removedTasks.values(), addedTasks.values());
+    }
+    if (previous.taskLocationIndex != null) {
+      snapshot.taskLocationIndex = previous.taskLocationIndex.updated(removedTasks, addedTasks);
+    }
+    if (previous.scheduleTimeIndex != null) {
+      snapshot.scheduleTimeIndex =
+          previous.scheduleTimeIndex.updated(unscheduledTasks, scheduledTasks);
+    }
+    if (resourceTypes == previous.resourceTypes) {
+      snapshot.resourceTypeLocationIndex = previous.resourceTypeLocationIndex;
+    }
+    return snapshot;
+  }
+
+  /**
+   * Adds the copies of a task whose scheduled state may have changed to the tasks to remove
+   * from and add to the index of all tasks, so that it is indexed again in its new state.
+   */
+  private static void moveTask(String taskId, ClientSnapshot previous,
+                               PersistentTreeMap<String, Task> tasksById, Set<Task> removed,
+                               Set<Task> added) {
+    Task before = previous.tasksById.get(taskId);
+    if (before != null) {
+      removed.add(before);
+    }
+    Task after = tasksById.get(taskId);
+    if (after != null) {
+      added.add(after);
+    }
+  }
+
+  /**
+   * Copies everything in a client's database.
+   */
+  private static ClientSnapshot captureAll(MyFileDatabase myFileDatabase, long version) {
+    Map<ResourceType, ResourceType> typeCopies = new IdentityHashMap<>();
+    List<ResourceType> resourceTypes = new ArrayList<>();
+    List<ResourceType> liveResourceTypes = myFileDatabase.getAllResourceTypes();
+    if (liveResourceTypes != null) {
+      for (ResourceType resourceType : liveResourceTypes) {
+        if (resourceType != null) {
+          ResourceType copy = new ResourceType(resourceType);
+          typeCopies.put(resourceType, copy);
+          resourceTypes.add(copy);
+        }
+      }
+    }
+    resourceTypes = Collections.unmodifiableList(resourceTypes);
+
+    Map<Task, Task> taskCopies = new IdentityHashMap<>();
+    PersistentTreeMap<Integer, Task> tasksByPosition = PersistentTreeMap.empty(POSITION_ORDER);
+    PersistentTreeMap<String, Task> tasksById = PersistentTreeMap.empty(ID_ORDER);
+    List<Task> liveTasks = myFileDatabase.getAllTasks();
+    if (liveTasks != null) {
+      int position = 0;
+      for (Task task : liveTasks) {
+        if (task != null) {
+          Task copy = copyTask(task);
+          taskCopies.put(task, copy);
+          tasksByPosition = tasksByPosition.put(position, copy);
+          if (!tasksById.containsKey(task.getTaskId())) {
+            tasksById = tasksById.put(task.getTaskId(), copy);
+          }
+        }
+        position++;
+      }
+    }
+
+    PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence =
+        PersistentTreeMap.empty(SEQUENCE_ORDER);
+    PersistentTreeMap<String, Long> scheduleSequences = PersistentTreeMap.empty(ID_ORDER);
+    long nextSequence = 0;
+    Schedule masterSchedule = myFileDatabase.getMasterSchedule();
+    if (masterSchedule != null && masterSchedule.getTaskSchedule() != null) {
+      for (Map.Entry<Task, List<Resource>> entry : masterSchedule.getTaskSchedule().entrySet()) {
+        Task task = taskCopies.get(entry.getKey());
+        if (task == null) {
+          task = copyTask(entry.getKey());
+        }
+        scheduleBySequence = scheduleBySequence.put(nextSequence,
+            new ScheduleEntry(task, copyResources(entry.getValue(), typeCopies)));
+        scheduleSequences = scheduleSequences.put(task.getTaskId(), nextSequence++);
+      }
+    }
+
+    return new ClientSnapshot(version, null, tasksByPosition, tasksById, resourceTypes,
+        indexByName(resourceTypes), typeCopies, scheduleBySequence, scheduleSequences,
+        nextSequence);
+  }
+
+  /**
+   * Copies a task, referring to the resource types it requires by name and location.
+   */
+  private static Task copyTask(Task task) {
+    Map<ResourceType, Integer> resourceList = new HashMap<>();
+    if (task.getResources() != null) {
+      task.getResources().forEach((resourceType, quantity) -> resourceList.put(
+          resourceType == null ? null : resourceType.reference(), quantity));
+    }
+    return task.copy(Collections.unmodifiableMap(resourceList));
+  }
+
+  /**
+   * Copies the resources assigned to a task, using the copies held by the copied resource
+   * types where there are any.
+   */
+  private static List<Resource> copyResources(List<Resource> resources,
+                                              Map<ResourceType, ResourceType> typeCopies) {
+    List<Resource> copies = new ArrayList<>(resources.size());
+    for (Resource resource : resources) {
+      ResourceType typeCopy = resource.getResourceType() == null ? null
+          : typeCopies.get(resource.getResourceType());
+      Resource copy = typeCopy == null ? null : typeCopy.getResource(resource.getResourceId());
+      copies.add(copy != null ? copy : resource.copy());
+    }
+    return Collections.unmodifiableList(copies);
+  }
+
+  private static <T> boolean sameElements(List<T> elements, List<T> previousElements) {
+    if (elements.size() != previousElements.size()) {
+      return false;
+    }
+    for (int position = 0; position < elements.size(); position++) {
+      if (elements.get(position) != previousElements.get(position)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Map<String, ResourceType> indexByName(List<ResourceType> resourceTypes) {
+    Map<String, ResourceType> resourceTypesByName = new HashMap<>();
+    for (ResourceType resourceType : resourceTypes) {
+      resourceTypesByName.putIfAbsent(resourceType.getTypeName(), resourceType);
+    }
+    return Collections.unmodifiableMap(resourceTypesByName);
+  }
+
+  /**
+   * Gets a task by its ID.
+   *
+   * @param taskId the ID of the task
+   * @return the copy of the task with the given ID, or null if there is none
+   */
+  public Task getTask(String taskId) {
+    return taskId == null ? null : tasksById.get(taskId);
+  }
+
+  /**
+   * Gets a resource type by name.
+   *
+   * @param typeName the name of the resource type
+   * @return the copy of the first resource type with the name, or null if there is none
+   */
+  public ResourceType getResourceType(String typeName) {
+    return resourceTypesByName.get(typeName);
+  }
+
+  /**
+   * Gets the index of all tasks by priority, scheduled state and start time, building it the
+   * first time it is needed. Once built, the index is carried into later snapshots by applying
+   * their changes.
+   *
+   * @return the {@code TaskIndex} of the snapshot's tasks
+   */
+  public TaskIndex getTaskIndex() {
+    TaskIndex index = taskIndex;
+    if (index == null) {
+      index = new TaskIndex(tasks, schedule::containsKey);
+      taskIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the index of the scheduled tasks by priority and start time, building it the first
+   * time it is needed. Once built, the index is carried into later snapshots by applying their
+   * changes.
+   *
+   * @return the {@code TaskIndex} of the snapshot's scheduled tasks
+   */
+  public TaskIndex getScheduleIndex() {
+    TaskIndex index = scheduleIndex;
+    if (index == null) {
+      index = new TaskIndex(schedule.keySet(), task -> true);
+      scheduleIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the index of all tasks by start and end time, building it the first time it is
+   * needed. Once built, the index is carried into later snapshots by applying their changes.
+   *
+   * @return the {@code TaskTimeIndex} of the snapshot's tasks
+   */
+  public TaskTimeIndex getTaskTimeIndex() {
+    TaskTimeIndex index = taskTimeIndex;
+    if (index == null) {
+      index = new TaskTimeIndex(tasks);
+      taskTimeIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the index of the scheduled tasks by start and end time, building it the first time
+   * it is needed. Once built, the index is carried into later snapshots by applying their
+   * changes.
+   *
+   * @return the {@code TaskTimeIndex} of the snapshot's scheduled tasks
+   */
+  public TaskTimeIndex getScheduleTimeIndex() {
+    TaskTimeIndex index = scheduleTimeIndex;
+    if (index == null) {
+      index = new TaskTimeIndex(schedule.keySet());
+      scheduleTimeIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the index of all tasks by location, building it the first time it is needed. Once
+   * built, the index is carried into later snapshots by applying their changes.
+   *
+   * @return the {@code LocationIndex} of the snapshot's tasks
+   */
+  public LocationIndex<Task> getTaskLocationIndex() {
+    LocationIndex<Task> index = taskLocationIndex;
+    if (index == null) {
+      // Tasks are indexed by position, so that later snapshots can update the index by it
+      Map<Integer, Task> tasksByPosition = new LinkedHashMap<>();
+      this.tasksByPosition.entryIterator().forEachRemaining(
+          entry -> tasksByPosition.put(entry.getKey(), entry.getValue()));
+      index = new LocationIndex<Task>(List.of(), Task::getLocation)
+          .updated(Map.of(), tasksByPosition);
+      taskLocationIndex = index;
+    }
+    return index;
+  }
+
+  /**
+   * Gets the index of all resource types by location, building it the first time it is
+   * needed.
+   *
+   * @return the {@code LocationIndex} of the snapshot's resource types
+   */
+  public LocationIndex<ResourceType> getResourceTypeLocationIndex() {
+    LocationIndex<ResourceType> index = resourceTypeLocationIndex;
+    if (index == null) {
+      index = new LocationIndex<>(resourceTypes, ResourceType::getLocation);
+      resourceTypeLocationIndex = index;
+    }
+    return index;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public List<Task> getTasks() {
+    return tasks;
+  }
+
+  public List<ResourceType> getResourceTypes() {
+    return resourceTypes;
+  }
+
+  public Map<Task, List<Resource>> getSchedule() {
+    return schedule;
+  }
+
+  /**
+   * Gets the schedule as a list of entries, each holding a scheduled task under "task" and
+   * the resources assigned to it under "assignedResources", as they were when the task was
+   * scheduled.
+   *
+   * @return the schedule entries in scheduling order
+   */
+  public List<Map<String, Object>> getScheduleEntries() {
+    return scheduleEntries;
+  }
+
+  /**
+   * Collects the changes made to a client's database since its last snapshot was captured.
+   * The caller must hold the database's monitor.
+   */
+  static final class Changes {
+    private boolean everything;
+    private final Set<Integer> taskPositions = new HashSet<>();
+    private boolean resourceTypeListChanged;
+    private final Set<ResourceType> resourceTypes =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The tasks scheduled or unscheduled, in the order of their last change, which is the
+     * order the schedule keeps the ones that are still scheduled in.
+     */
+    private final Set<Task> scheduledTasks = new LinkedHashSet<>();
+
+    /**
+     * Records that the database was changed in a way that is not tracked, so the next
+     * snapshot must copy everything.
+     */
+    void everythingChanged() {
+      everything = true;
+      taskPositions.clear();
+      resourceTypes.clear();
+      scheduledTasks.clear();
+    }
+
+    /**
+     * Records that the task at a position in the database's task list was added, removed,
+     * replaced or changed.
+     *
+     * @param position the position in the task list
+     */
+    void taskChanged(int position) {
+      if (!everything) {
+        taskPositions.add(position);
+      }
+    }
+
+    /**
+     * Records that a resource type or one of its resources was changed.
+     *
+     * @param resourceType the resource type
+     */
+    void resourceTypeChanged(ResourceType resourceType) {
+      if (!everything) {
+        resourceTypes.add(resourceType);
+      }
+    }
+
+    /**
+     * Records that resource types were added to or removed from the database.
+     */
+    void resourceTypeListChanged() {
+      resourceTypeListChanged = true;
+    }
+
+    /**
+     * Records that a task was scheduled or unscheduled.
+     *
+     * @param task the task
+     */
+    void scheduleChanged(Task task) {
+      if (!everything) {
+        scheduledTasks.remove(task);
+        scheduledTasks.add(task);
+      }
+    }
+
+    private int[] sortedTaskPositions() {
+      int[] positions = new int[taskPositions.size()];
+      int next = 0;
+      for (int position : taskPositions) {
+        positions[next++] = position;
+      }
+      Arrays.sort(positions);
+      return positions;
+    }
+  }
+
+  /**
+   * Holds a scheduled task and the resources assigned to it.
+   */
+  private static final class ScheduleEntry {
+    private final Task task;
+    private final List<Resource> assignedResources;
+    private final Map<String, Object> fields;
+
+    private ScheduleEntry(Task task, List<Resource> assignedResources) {
+      this.task = task;
+      this.assignedResources = assignedResources;
+      Map<String, Object> fields = new LinkedHashMap<>();
+      fields.put("task", task);
+      fields.put("assignedResources", assignedResources);
+      this.fields = Collections.unmodifiableMap(fields);
+    }
+  }
+
+  /**
+   * Shows the task copies held by a snapshot as a list in task list order.
+   */
+  private static final class TaskList extends AbstractList<Task> {
+    private final PersistentTreeMap<Integer, Task> tasksByPosition;
+
+    private TaskList(PersistentTreeMap<Integer, Task> tasksByPosition) {
+      this.tasksByPosition = tasksByPosition;
+    }
+
+    @Override
+    public Task get(int index) {
+      return tasksByPosition.getAt(index);
+    }
+
+    @Override
+    public int size() {
+      return tasksByPosition.size();
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+      return tasksByPosition.iterator();
+    }
+  }
+
+  /**
+   * Shows the schedule entries held by a snapshot as a map from each scheduled task to the
+   * resources assigned to it, in scheduling order.
+   */
+  private static final class ScheduleMap extends AbstractMap<Task, List<Resource>> {
+    private final PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence;
+    private final PersistentTreeMap<String, Long> scheduleSequences;
+
+    private ScheduleMap(PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence,
+                        PersistentTreeMap<String, Long> scheduleSequences) {
+      this.scheduleBySequence = scheduleBySequence;
+      this.scheduleSequences = scheduleSequences;
+    }
+
+    @Override
+    public List<Resource> get(Object key) {
+      if (!(key instanceof Task task) || task.getTaskId() == null) {
+        return null;
+      }
+      Long sequence = scheduleSequences.get(task.getTaskId());
+      return sequence == null ? null : scheduleBySequence.get(sequence).assignedResources;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return scheduleBySequence.size();
+    }
+
+    @Override
+    public Set<Entry<Task, List<Resource>>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<Task, List<Resource>>> iterator() {
+          Iterator<ScheduleEntry> entries = scheduleBySequence.iterator();
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return entries.hasNext();
+            }
+
+            @Override
+            public Entry<Task, List<Resource>> next() {
+              ScheduleEntry entry = entries.next();
+              return new SimpleImmutableEntry<>(entry.task, entry.assignedResources);
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return scheduleBySequence.size();
+        }
+      };
+    }
+  }
+
+  /**
+   * Shows the schedule entries held by a snapshot as a list in scheduling order.
+   */
+  private static final class ScheduleEntryList extends AbstractList<Map<String, Object>> {
+    private final PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence;
+
+    private ScheduleEntryList(PersistentTreeMap<Long, ScheduleEntry> scheduleBySequence) {
+      this.scheduleBySequence = scheduleBySequence;
+    }
+
+    @Override
+    public Map<String, Object> get(int index) {
+      return scheduleBySequence.getAt(index).fields;
+    }
+
+    @Override
+    public int size() {
+      return scheduleBySequence.size();
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+      Iterator<ScheduleEntry> entries = scheduleBySequence.iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public Map<String, Object> next() {
+          return entries.next().fields;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package dev.coms4156.project.livesched;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Adds entity tags to the read endpoints that serve a client's tasks, resource types and
+ * schedule, and answers conditional requests whose tag is still current with 304 Not Modified.
+ * The tag comes from the version of the client's snapshot, so an unchanged client is answered
+ * without reading or serializing any of its data. Requests for clients whose database is not
+ * loaded are passed on untagged.
+ */
+@Component
+@Order(1)
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+  private static final Set<String> VERSIONED_PATHS = Set.of(
+      "/retrieveTasks", "/retrieveTask", "/retrieveResourceTypes", "/retrieveSchedule",
+      "/retrieveTasksPage", "/retrieveSchedulePage", "/retrieveScheduleChanges",
+      "/retrieveTasksStream", "/retrieveScheduleStream", "/retrieveTasksStartingBetween",
+      "/retrieveScheduleActiveAt", "/retrieveTasksNear", "/retrieveResourceTypesNear",
+      "/retrieveResourceTypeAvailability");
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))
+        || !VERSIONED_PATHS.contains(
+            request.getRequestURI().substring(request.getContextPath().length()))
+        || request.getParameter("clientId") == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain)
+      throws ServletException, IOException {
+    MyFileDatabase myFileDatabase =
+        LiveSchedApplication.getLoadedClientFileDatabase(request.getParameter("clientId"));
+    if (myFileDatabase == null) {
+      // Looking the client up must not create a database, so unknown clients get no tag
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    String entityTag = myFileDatabase.getEntityTag();
+    response.setHeader(HttpHeaders.ETAG, entityTag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), entityTag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    filterChain.doFilter(request, response);
+  }
+
+  /**
+   * Checks whether an If-None-Match header matches an entity tag, using weak comparison.
+   *
+   * @param ifNoneMatch the If-None-Match header, or null if the request has none
+   * @param entityTag   the current entity tag
+   * @return true if any tag in the header matches, false otherwise
+   */
+  static boolean matches(String ifNoneMatch, String entityTag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String current = stripWeakPrefix(entityTag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if ("*".equals(trimmed) || stripWeakPrefix(trimmed).equals(current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String stripWeakPrefix(String entityTag) {
+    return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+  }
+}
@@ -0,0 +1,259 @@
+package dev.coms4156.project.livesched;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the idempotency keys of recent requests along with their responses. Keys expire
+ * through a timing wheel: each key is filed in the slot of the tick it was added in, and every
+ * tick the wheel advances one slot and drops the keys filed there a full time to live ago, so
+ * expiry costs nothing per lookup. The number of keys and the bytes of the recorded responses
+ * are also bounded, and the oldest completed keys are dropped first once either bound is
+ * reached. Keys whose requests are still running are only dropped when they expire, so that a
+ * retry waits for the running request instead of applying the change again; the number of keys
+ * may exceed its bound while that many requests are running.
+ */
+public final class IdempotencyCache {
+
+  private final long tickNanos;
+  private final int maxEntries;
+  private final long byteBudget;
+  private final LongSupplier clock;
+  private final long origin;
+  private final LinkedHashSet<Entry>[] wheel;
+  private final Map<String, Entry> entries = new HashMap<>();
+  private long tick;
+  private long cachedBytes;
+
+  /**
+   * Constructs a new IdempotencyCache object.
+   *
+   * @param timeToLive the time for which a key is remembered
+   * @param slots      the number of ticks the time to live is divided into
+   * @param maxEntries the maximum number of keys remembered at once
+   * @param byteBudget the maximum number of response bytes remembered at once
+   * @throws IllegalArgumentException if a parameter is not positive
+   */
+  public IdempotencyCache(Duration timeToLive, int slots, int maxEntries, long byteBudget) {
+    this(timeToLive, slots, maxEntries, byteBudget, System::nanoTime);
+  }
+
+  /**
+   * Constructs a new IdempotencyCache object that reads the time from the given clock.
+   *
+   * @param timeToLive the time for which a key is remembered
+   * @param slots      the number of ticks the time to live is divided into
+   * @param maxEntries the maximum number of keys remembered at once
+   * @param byteBudget the maximum number of response bytes remembered at once
+   * @param clock      supplies the current time in nanoseconds
+   * @throws IllegalArgumentException if a parameter is not positive
+   */
+  @SuppressWarnings("unchecked")
+  IdempotencyCache(Duration timeToLive, int slots, int maxEntries, long byteBudget,
+                   LongSupplier clock) {
+    if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero() || slots <= 0
+        || maxEntries <= 0 || byteBudget <= 0) {
+      throw new IllegalArgumentException(
+          "Time to live, slots, entries and byte budget must be positive.");
+    }
+    this.tickNanos = Math.max(1, timeToLive.toNanos() / slots);
+    this.maxEntries = maxEntries;
+    this.byteBudget = byteBudget;
+    this.clock = clock;
+    this.origin = clock.getAsLong();
+    // One slot more than the time to live spans, so a key lives at least a full time to live.
+    this.wheel = new LinkedHashSet[slots + 1];
+    for (int i = 0; i < wheel.length; i++) {
+      wheel[i] = new LinkedHashSet<>();
+    }
+  }
+
+  /**
+   * Adds an entry for a key unless the key is already remembered.
+   *
+   * @param key   the idempotency key
+   * @param entry the entry of the request carrying the key
+   * @return the entry already remembered for the key, or null if the given entry was added
+   */
+  public synchronized Entry putIfAbsent(String key, Entry entry) {
+    advance();
+    Entry existing = entries.get(key);
+    if (existing != null) {
+      return existing;
+    }
+    if (entries.size() >= maxEntries) {
+      evictOldest();
+    }
+    entry.key = key;
+    entry.slot = (int) (tick % wheel.length);
+    entries.put(key, entry);
+    wheel[entry.slot].add(entry);
+    return null;
+  }
+
+  /**
+   * Records the response of the request that carried an entry's key, evicting the oldest
+   * completed keys until the recorded responses are within the byte budget. A response larger
+   * than the whole budget is not kept, and its key is forgotten so a retry of its request is
+   * applied again.
+   *
+   * @param entry       the entry of the request
+   * @param status      the status code of the response
+   * @param contentType the content type of the response, or null if it has none
+   * @param body        the body of the response
+   * @param bodyDigest  the digest of the request's body, so a key reused for another body is
+   *                    caught
+   */
+  public synchronized void complete(Entry entry, int status, String contentType, byte[] body,
+                                    String bodyDigest) {
+    entry.complete(status, contentType, body, bodyDigest);
+    if (entries.get(entry.key) != entry) {
+      // The key expired or was removed while its request was running
+      return;
+    }
+    if (entry.size() > byteBudget) {
+      // The response is not counted yet, so the key is dropped without forget
+      entries.remove(entry.key);
+      wheel[entry.slot].remove(entry);
+      return;
+    }
+    cachedBytes += entry.size();
+    while (cachedBytes > byteBudget) {
+      if (!evictOldest()) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Forgets a key if it is still mapped to the given entry, such as when the request carrying
+   * it failed and may be retried.
+   *
+   * @param key   the idempotency key
+   * @param entry the entry of the request carrying the key
+   */
+  public synchronized void remove(String key, Entry entry) {
+    if (forget(entry)) {
+      wheel[entry.slot].remove(entry);
+    }
+  }
+
+  /**
+   * Gets the number of keys currently remembered.
+   *
+   * @return the number of unexpired keys
+   */
+  public synchronized int size() {
+    advance();
+    return entries.size();
+  }
+
+  /**
+   * Gets the number of response bytes currently remembered.
+   *
+   * @return the total size of the recorded response bodies
+   */
+  public synchronized long getCachedBytes() {
+    return cachedBytes;
+  }
+
+  private void advance() {
+    long target = (clock.getAsLong() - origin) / tickNanos;
+    long steps = Math.min(target - tick, wheel.length);
+    for (long i = 0; i < steps; i++) {
+      LinkedHashSet<Entry> slot = wheel[(int) ((tick + 1 + i) % wheel.length)];
+      for (Entry expired : slot) {
+        forget(expired);
+      }
+      slot.clear();
+    }
+    tick = Math.max(tick, target);
+  }
+
+  private boolean evictOldest() {
+    for (int i = 1; i <= wheel.length; i++) {
+      Iterator<Entry> slot = wheel[(int) ((tick + i) % wheel.length)].iterator();
+      while (slot.hasNext()) {
+        Entry oldest = slot.next();
+        if (oldest.isCompleted()) {
+          slot.remove();
+          forget(oldest);
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean forget(Entry entry) {
+    if (!entries.remove(entry.key, entry)) {
+      return false;
+    }
+    cachedBytes -= entry.size();
+    return true;
+  }
+
+  /**
+   * Holds the request that first carried an idempotency key and, once it completes, its
+   * response.
+   */
+  public static final class Entry {
+    private final String fingerprint;
+    private String key;
+    private int slot;
+    private volatile boolean completed;
+    private int status;
+    private String contentType;
+    private byte[] body;
+    private String bodyDigest;
+
+    /**
+     * Constructs a new Entry object for a request that has not completed.
+     *
+     * @param fingerprint identifies the request, so a key reused for another request is caught
+     */
+    public Entry(String fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+
+    private void complete(int status, String contentType, byte[] body, String bodyDigest) {
+      this.status = status;
+      this.contentType = contentType;
+      this.body = body;
+      this.bodyDigest = bodyDigest;
+      this.completed = true;
+    }
+
+    public String getFingerprint() {
+      return fingerprint;
+    }
+
+    public boolean isCompleted() {
+      return completed;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+
+    public String getBodyDigest() {
+      return bodyDigest;
+    }
+
+    private long size() {
+      return body == null ? 0 : body.length;
+    }
+  }
+}
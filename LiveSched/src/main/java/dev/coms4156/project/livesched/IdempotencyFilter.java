@@ -0,0 +1,258 @@
+package dev.coms4156.project.livesched;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Set;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes the mutating endpoints safe to retry. A write that carries an {@code Idempotency-Key}
+ * header is run once per client and key, and a retry with the same key is answered with the
+ * recorded response instead of being applied again. A request is identified by its method, path,
+ * parameters and a SHA-256 digest of its body, which is computed as the handler reads the body
+ * so that streamed uploads are not held in memory. The keys of all clients are remembered in one
+ * {@code IdempotencyCache}, bounded in keys and in response bytes, and expire after
+ * {@link #TIME_TO_LIVE}. Streamed
+ * responses are written after the filter returns, so they cannot be recorded and their endpoints
+ * are not filtered.
+ */
+@Component
+@Order(3)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  /**
+   * The header that carries the idempotency key of a request.
+   */
+  public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+  /**
+   * The header set on responses replayed for a retried request.
+   */
+  public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+  /**
+   * The time for which a key is remembered.
+   */
+  public static final Duration TIME_TO_LIVE = Duration.ofHours(1);
+
+  private static final int WHEEL_SLOTS = 60;
+  private static final int MAX_KEYS = 100_000;
+  private static final long BYTE_BUDGET = 32L * 1024 * 1024;
+  private static final int MAX_KEY_LENGTH = 255;
+  private static final Set<String> STREAMING_PATHS = Set.of("/updateScheduleStream");
+  private static final String KEY_REUSED =
+      IDEMPOTENCY_KEY + " was already used for a different request.";
+
+  private final IdempotencyCache cache;
+
+  /**
+   * Constructs a new IdempotencyFilter object with a cache of the default bounds.
+   */
+  public IdempotencyFilter() {
+    this(new IdempotencyCache(TIME_TO_LIVE, WHEEL_SLOTS, MAX_KEYS, BYTE_BUDGET));
+  }
+
+  /**
+   * Constructs a new IdempotencyFilter object backed by the given cache.
+   *
+   * @param cache the cache of idempotency keys and their responses
+   */
+  IdempotencyFilter(IdempotencyCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String method = request.getMethod();
+    return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+        || request.getHeader(IDEMPOTENCY_KEY) == null
+        || request.getParameter("clientId") == null
+        || STREAMING_PATHS.contains(ResponseCacheFilter.pathOf(request));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain)
+      throws ServletException, IOException {
+    String key = request.getHeader(IDEMPOTENCY_KEY);
+    if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+      writeMessage(response, HttpStatus.BAD_REQUEST,
+          IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+      return;
+    }
+
+    // The keys of all clients share the cache, and a header cannot hold the line break
+    String cacheKey = key + '\n' + request.getParameter("clientId");
+    IdempotencyCache.Entry entry = new IdempotencyCache.Entry(
+        request.getMethod() + " " + ResponseCacheFilter.keyOf(request));
+    IdempotencyCache.Entry existing = cache.putIfAbsent(cacheKey, entry);
+    if (existing != null) {
+      replay(existing, entry.getFingerprint(), request, response);
+      return;
+    }
+
+    DigestingRequest digestingRequest = new DigestingRequest(request);
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    String bodyDigest;
+    try {
+      filterChain.doFilter(digestingRequest, wrapper);
+      // The handler may not have read the whole body, such as when it rejected the request
+      bodyDigest = digestingRequest.finish();
+    } catch (IOException | ServletException | RuntimeException e) {
+      cache.remove(cacheKey, entry);
+      throw e;
+    }
+    if (wrapper.getStatus() < HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+        && !request.isAsyncStarted()) {
+      cache.complete(entry, wrapper.getStatus(), wrapper.getContentType(),
+          wrapper.getContentAsByteArray(), bodyDigest);
+    } else {
+      // A failed or streamed write is not recorded, so the caller may retry it.
+      cache.remove(cacheKey, entry);
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  private static void replay(IdempotencyCache.Entry existing, String fingerprint,
+                             HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    if (!existing.getFingerprint().equals(fingerprint)) {
+      writeMessage(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_REUSED);
+      return;
+    }
+    if (!existing.isCompleted()) {
+      writeMessage(response, HttpStatus.CONFLICT,
+          "A request with this " + IDEMPOTENCY_KEY + " is still in progress.");
+      return;
+    }
+    // The body of the first request is only known once it completes
+    if (!existing.getBodyDigest().equals(new DigestingRequest(request).finish())) {
+      writeMessage(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_REUSED);
+      return;
+    }
+    response.setStatus(existing.getStatus());
+    response.setHeader(IDEMPOTENT_REPLAYED, "true");
+    if (existing.getContentType() != null) {
+      response.setContentType(existing.getContentType());
+    }
+    response.setContentLength(existing.getBody().length);
+    response.getOutputStream().write(existing.getBody());
+  }
+
+  private static void writeMessage(HttpServletResponse response, HttpStatus status,
+                                   String message) throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+    response.getWriter().write(message);
+  }
+
+  /**
+   * Computes the SHA-256 digest of a request's body as the body is read.
+   */
+  private static final class DigestingRequest extends HttpServletRequestWrapper {
+    private final MessageDigest digest;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    private DigestingRequest(HttpServletRequest request) {
+      super(request);
+      try {
+        this.digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 is not available.", e);
+      }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+      if (inputStream == null) {
+        inputStream = new DigestingInputStream(super.getInputStream(), digest);
+      }
+      return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+      if (reader == null) {
+        String encoding = getCharacterEncoding();
+        reader = new BufferedReader(new InputStreamReader(getInputStream(),
+            encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding)));
+      }
+      return reader;
+    }
+
+    /**
+     * Reads the rest of the body and gets the digest of all of it.
+     */
+    private String finish() throws IOException {
+      getInputStream().transferTo(OutputStream.nullOutputStream());
+      return HexFormat.of().formatHex(digest.digest());
+    }
+  }
+
+  /**
+   * Passes the bytes read from a request's body to a digest.
+   */
+  private static final class DigestingInputStream extends ServletInputStream {
+    private final ServletInputStream body;
+    private final MessageDigest digest;
+
+    private DigestingInputStream(ServletInputStream body, MessageDigest digest) {
+      this.body = body;
+      this.digest = digest;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int read = body.read();
+      if (read != -1) {
+        digest.update((byte) read);
+      }
+      return read;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int read = body.read(buffer, offset, length);
+      if (read > 0) {
+        digest.update(buffer, offset, read);
+      }
+      return read;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return body.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+      return body.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      body.setReadListener(readListener);
+    }
+  }
+}
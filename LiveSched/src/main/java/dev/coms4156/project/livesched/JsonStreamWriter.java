@@ -0,0 +1,169 @@
+package dev.coms4156.project.livesched;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams tasks and schedules to a response one entry at a time.
+ * Entries are written as a JSON array or, for pipeline consumers, as newline-delimited JSON with
+ * one entry per line, so memory use does not grow with the size of the response.
+ */
+public final class JsonStreamWriter {
+
+  private static final ObjectMapper MAPPER = JsonMapper.builder()
+      .findAndAddModules()
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+      .build();
+
+  private JsonStreamWriter() {
+  }
+
+  /**
+   * Checks whether a request asked for newline-delimited JSON.
+   *
+   * @param accept the Accept header of the request, or null if it has none
+   * @return true if newline-delimited JSON is acceptable, false otherwise
+   */
+  public static boolean acceptsNdjson(String accept) {
+    return accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+  }
+
+  /**
+   * Gets the content type of a streamed response.
+   *
+   * @param ndjson whether the response is newline-delimited JSON
+   * @return the {@code MediaType} of the response
+   */
+  public static MediaType contentType(boolean ndjson) {
+    return ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON;
+  }
+
+  /**
+   * Streams tasks in the same format as /retrieveTasks.
+   *
+   * @param tasks  the tasks to write, which must not change while they are written
+   * @param ndjson whether to write newline-delimited JSON instead of a JSON array
+   * @return a {@code StreamingResponseBody} that writes the tasks
+   */
+  public static StreamingResponseBody tasks(List<Task> tasks, boolean ndjson) {
+    return outputStream -> writeAll(outputStream, ndjson, generator -> {
+      for (Task task : tasks) {
+        generator.writeObject(task);
+        endEntry(generator, ndjson);
+      }
+    });
+  }
+
+  /**
+   * Streams a schedule in the same format as /retrieveSchedule.
+   *
+   * @param schedule the schedule to write, which must not change while it is written
+   * @param ndjson   whether to write newline-delimited JSON instead of a JSON array
+   * @return a {@code StreamingResponseBody} that writes the schedule
+   */
+  public static StreamingResponseBody scheduleEntries(Map<Task, List<Resource>> schedule,
+                                                      boolean ndjson) {
+    return outputStream -> writeAll(outputStream, ndjson, generator -> {
+      for (Map.Entry<Task, List<Resource>> entry : schedule.entrySet()) {
+        generator.writeStartObject();
+        generator.writeObjectField("task", entry.getKey());
+        generator.writeObjectField("assignedResources", entry.getValue());
+        generator.writeEndObject();
+        endEntry(generator, ndjson);
+      }
+    });
+  }
+
+  /**
+   * Streams a schedule in the same format as /updateSchedule, where each resource is written
+   * as its ID and the time it is assigned until.
+   *
+   * @param schedule the schedule to write, which must not change while it is written
+   * @param ndjson   whether to write newline-delimited JSON instead of a JSON array
+   * @return a {@code StreamingResponseBody} that writes the schedule
+   */
+  public static StreamingResponseBody scheduleSummary(Map<Task, List<Resource>> schedule,
+                                                      boolean ndjson) {
+    return outputStream -> writeAll(outputStream, ndjson, generator -> {
+      for (Map.Entry<Task, List<Resource>> entry : schedule.entrySet()) {
+        Task task = entry.getKey();
+        generator.writeStartObject();
+        generator.writeObjectFieldStart("task");
+        generator.writeStringField("taskId", task.getTaskId());
+        generator.writeStringField("taskName", task.getTaskName());
+        generator.writeNumberField("priority", task.getPriority());
+        generator.writeStringField("startTime",
+            task.getStartTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        generator.writeStringField("endTime",
+            task.getEndTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        generator.writeObjectField("location", task.getLocation());
+        generator.writeObjectField("resources", task.getResources());
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("assignedResources");
+        for (Resource resource : entry.getValue()) {
+          generator.writeStartObject();
+          generator.writeStringField("resourceId", resource.getResourceId());
+          generator.writeStringField("availableFrom",
+              resource.getAvailableFrom().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+          generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        endEntry(generator, ndjson);
+      }
+    });
+  }
+
+  /**
+   * Streams a plain text message, such as an error.
+   *
+   * @param message the message to write, or null to write nothing
+   * @return a {@code StreamingResponseBody} that writes the message
+   */
+  public static StreamingResponseBody message(String message) {
+    return outputStream -> {
+      if (message != null) {
+        outputStream.write(message.getBytes(StandardCharsets.UTF_8));
+      }
+    };
+  }
+
+  private static void writeAll(OutputStream outputStream, boolean ndjson, EntryWriter entries)
+      throws IOException {
+    try (JsonGenerator generator = MAPPER.getFactory().createGenerator(outputStream)) {
+      generator.setRootValueSeparator(null);
+      if (!ndjson) {
+        generator.writeStartArray();
+      }
+      entries.write(generator);
+      if (!ndjson) {
+        generator.writeEndArray();
+      }
+    }
+  }
+
+  private static void endEntry(JsonGenerator generator, boolean ndjson) throws IOException {
+    if (ndjson) {
+      generator.writeRaw('\n');
+    }
+  }
+
+  /**
+   * Writes the entries of a response with a generator.
+   */
+  @FunctionalInterface
+  private interface EntryWriter {
+    void write(JsonGenerator generator) throws IOException;
+  }
+}
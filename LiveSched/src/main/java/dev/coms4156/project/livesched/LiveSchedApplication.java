@@ -11,6 +11,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -43,7 +47,7 @@ public class LiveSchedApplication implements CommandLineRunner {
   @Override
   public void run(String[] args) {
     boolean isSetupMode = false;
-    clientDatabases = new HashMap<>();
+    clientDatabases = new ConcurrentHashMap<>();
 
     for (String arg : args) {
       switch (arg.split("=")[0]) {
@@ -52,10 +56,10 @@ public class LiveSchedApplication implements CommandLineRunner {
           break;
         case "--useGCS":
           useGCS = true;
-          System.out.println("GCS operations enabled.");
+          LOGGER.info("GCS operations enabled.");
           break;
         default:
-          System.out.println("Unknown argument: " + arg);
+          LOGGER.warn("Unknown argument: {}", arg);
           break;
       }
     }
@@ -69,10 +73,10 @@ public class LiveSchedApplication implements CommandLineRunner {
 
     if (isSetupMode) {
       setupExampleClientDatabase("demoClientId");
-      System.out.println("Example data setup completed for client ID: demoClientId");
+      LOGGER.info("Example data setup completed for client ID: {}", "demoClientId");
     }
 
-    System.out.println("LiveSched service started");
+    LOGGER.info("LiveSched service started");
   }
 
   /**
@@ -92,7 +96,10 @@ public class LiveSchedApplication implements CommandLineRunner {
    * @param clientId  A {@code String} object referencing the client ID.
    */
   public static void restoreDatabase(String clientId) {
-    clientDatabases.remove(clientId);
+    if (clientDatabases.remove(clientId) != null) {
+      LiveSchedMetrics.unregisterClient(clientId);
+      new LiveSchedEvents.ClientDatabaseEvicted().commit(clientId);
+    }
     saveData = true;
   }
 
@@ -132,14 +139,18 @@ public class LiveSchedApplication implements CommandLineRunner {
         String resourceObjectName = generateClientObjectName(clientId, RESOURCE_TYPE_FILE_PATH);
         String scheduleObjectName = generateClientObjectName(clientId, SCHEDULE_FILE_PATH);
 
+        LiveSchedEvents.ClientDatabaseCreated event = new LiveSchedEvents.ClientDatabaseCreated();
+        event.begin();
         MyFileDatabase database = new MyFileDatabase(0, taskFilePath, resourceTypeFilePath,
             scheduleFilePath, taskObjectName, resourceObjectName, scheduleObjectName);
 
         clientDatabases.put(clientId, database);
-        System.out.println("Loaded database for client ID (GCS): " + clientId);
+        LiveSchedMetrics.registerClient(clientId);
+        event.commit(clientId, "gcs");
+        LOGGER.info("Loaded database for client ID (GCS): {}", clientId);
       }
     } catch (Exception e) {
-      System.out.println("Error accessing GCS bucket: " + e.getMessage());
+      LOGGER.error("Error accessing GCS bucket", e);
     }
   }
 
@@ -149,14 +160,14 @@ public class LiveSchedApplication implements CommandLineRunner {
   public void reloadClientDatabasesLocal() {
     File tmpDir = new File("/tmp");
     if (!tmpDir.exists() || !tmpDir.isDirectory()) {
-      System.out.println("No existing databases found.");
+      LOGGER.info("No existing databases found.");
       return;
     }
 
     // Scan tmp directory for files matching the pattern clientId_tasks.txt
     File[] taskFiles = tmpDir.listFiles((dir, name) -> name.endsWith(TASK_FILE_PATH));
     if (taskFiles == null || taskFiles.length == 0) {
-      System.out.println("No existing task files found.");
+      LOGGER.info("No existing task files found.");
       return;
     }
 
@@ -173,24 +184,46 @@ public class LiveSchedApplication implements CommandLineRunner {
       String resourceObjectName = generateClientObjectName(clientId, RESOURCE_TYPE_FILE_PATH);
       String scheduleObjectName = generateClientObjectName(clientId, SCHEDULE_FILE_PATH);
 
+      LiveSchedEvents.ClientDatabaseCreated event = new LiveSchedEvents.ClientDatabaseCreated();
+      event.begin();
       MyFileDatabase database = new MyFileDatabase(0, taskFilePath, resourceTypeFilePath,
           scheduleFilePath, taskObjectName, resourceObjectName, scheduleObjectName);
 
       clientDatabases.put(clientId, database);
-      System.out.println("Loaded database for client ID (Local): " + clientId);
+      LiveSchedMetrics.registerClient(clientId);
+      event.commit(clientId, "local");
+      LOGGER.info("Loaded database for client ID (Local): {}", clientId);
     }
   }
 
   /**
-   * Retrieves the database instance associated with the specified client ID.
+   * Retrieves the database instance associated with the specified client ID. Existing clients
+   * are looked up without locking; only the creation of a new client's database is serialized.
    *
    * @param clientId  A {@code String} the identifier for the client whose database is retrieved
    *
    * @return the {@code MyFileDatabase} instance associated with the specified client ID
    */
-  public static synchronized MyFileDatabase getClientFileDatabase(String clientId) {
+  public static MyFileDatabase getClientFileDatabase(String clientId) {
+    MyFileDatabase database = clientDatabases.get(clientId);
+    return database != null ? database : createClientFileDatabase(clientId);
+  }
+
+  /**
+   * Retrieves the database of a client if it has been loaded, without creating one.
+   *
+   * @param clientId  A {@code String} the identifier for the client whose database is retrieved
+   *
+   * @return the {@code MyFileDatabase} of the client, or null if there is none
+   */
+  static MyFileDatabase getLoadedClientFileDatabase(String clientId) {
+    Map<String, MyFileDatabase> databases = clientDatabases;
+    return databases == null ? null : databases.get(clientId);
+  }
+
+  private static synchronized MyFileDatabase createClientFileDatabase(String clientId) {
     if (!clientDatabases.containsKey(clientId)) {
-      System.out.println("Initializing a new database for client ID: " + clientId);
+      LOGGER.info("Initializing a new database for client ID: {}", clientId);
 
       // Generate file paths and object names for new client
       String taskFilePath = generateClientFilePath(clientId, TASK_FILE_PATH);
@@ -201,15 +234,68 @@ public class LiveSchedApplication implements CommandLineRunner {
       String resourceObjectName = generateClientObjectName(clientId, RESOURCE_TYPE_FILE_PATH);
       String scheduleObjectName = generateClientObjectName(clientId, SCHEDULE_FILE_PATH);
 
+      LiveSchedEvents.ClientDatabaseCreated event = new LiveSchedEvents.ClientDatabaseCreated();
+      event.begin();
       MyFileDatabase myFileDatabase = new MyFileDatabase(1, taskFilePath, resourceTypeFilePath,
           scheduleFilePath, taskObjectName, resourceObjectName, scheduleObjectName);
 
       clientDatabases.put(clientId, myFileDatabase);
+      LiveSchedMetrics.registerClient(clientId);
+      event.commit(clientId, "new");
     }
 
     return clientDatabases.get(clientId);
   }
 
+  /**
+   * Retrieves the limiter of the requests of the specified client, creating it the first
+   * time the client is seen.
+   *
+   * @param clientId  A {@code String} the identifier for the client whose limiter is retrieved
+   * @param factory   A {@code Function} that creates the limiter of a client
+   *
+   * @return the {@code ClientLimiter} associated with the specified client ID
+   */
+  public static ClientLimiter getClientLimiter(String clientId,
+                                               Function<String, ClientLimiter> factory) {
+    ClientLimiter limiter = clientLimiters.get(clientId);
+    return limiter != null ? limiter : clientLimiters.computeIfAbsent(clientId, factory);
+  }
+
+  /**
+   * Replaces the limiter of the requests of the specified client, such as when the client's
+   * limits change.
+   *
+   * @param clientId  A {@code String} the identifier for the client
+   * @param limiter   A {@code ClientLimiter} to apply to the client's requests, or null to
+   *                  create one with the configured limits on the next request
+   */
+  public static void setClientLimiter(String clientId, ClientLimiter limiter) {
+    if (limiter == null) {
+      clientLimiters.remove(clientId);
+    } else {
+      clientLimiters.put(clientId, limiter);
+    }
+  }
+
+  /**
+   * Removes the limiters of the clients that have no requests in flight and whose rate limit
+   * has fully recovered, since a new limiter created on their next request would behave the
+   * same. A request that already looked up a removed limiter finds it retired and looks again.
+   *
+   * @return the number of limiters removed
+   */
+  public static int evictIdleClientLimiters() {
+    int evicted = 0;
+    for (Map.Entry<String, ClientLimiter> entry : clientLimiters.entrySet()) {
+      if (entry.getValue().retireIfIdle()) {
+        clientLimiters.remove(entry.getKey(), entry.getValue());
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+
   /**
    * Creates an example database for demo purposes.
    *
@@ -236,6 +322,7 @@ public class LiveSchedApplication implements CommandLineRunner {
 
     setupExampleData(demoDatabase); // Load database with example resources and tasks
     clientDatabases.put(clientId, demoDatabase);
+    LiveSchedMetrics.registerClient(clientId);
   }
 
   /**
@@ -332,11 +419,11 @@ public class LiveSchedApplication implements CommandLineRunner {
    */
   @PreDestroy
   public void onTermination() {
-    System.out.println("Termination");
+    LOGGER.info("Termination");
     if (saveData) {
       for (Map.Entry<String, MyFileDatabase> entry : clientDatabases.entrySet()) {
         String clientId = entry.getKey();
-        System.out.println("Saving data for client ID: " + clientId);
+        LOGGER.info("Saving data for client ID: {}", clientId);
 
         MyFileDatabase database = entry.getValue();
         database.saveContentsToFile(1); // Save tasks
@@ -346,7 +433,16 @@ public class LiveSchedApplication implements CommandLineRunner {
     }
   }
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(LiveSchedApplication.class);
+  /**
+   * The database of each loaded client. It is a {@code ConcurrentHashMap} so that every request
+   * can look up its client's database without taking a lock; only the creation of a new
+   * client's database is serialized, in {@code createClientFileDatabase}, so that its files are
+   * loaded once. A lock around every lookup would make all clients' requests wait on each other
+   * and on a new client's file or GCS load.
+   */
   public static Map<String, MyFileDatabase> clientDatabases;
+  private static final Map<String, ClientLimiter> clientLimiters = new ConcurrentHashMap<>();
   public static boolean useGCS = false; // Default is local mode (Not use Google Cloud Storage)
 
   private final Storage storage = StorageOptions.getDefaultInstance().getService();
@@ -361,7 +457,7 @@ public class LiveSchedApplication implements CommandLineRunner {
     String env = System.getenv("GAE_ENV");
     if (APP_ENGINE_ENV.equals(env)) {
       useGCS = true;
-      System.out.println("Running in App Engine: GCS enabled.");
+      LOGGER.info("Running in App Engine: GCS enabled.");
     }
   }
 }
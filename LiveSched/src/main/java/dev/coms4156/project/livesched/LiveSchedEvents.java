@@ -0,0 +1,196 @@
+package dev.coms4156.project.livesched;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Holds the JDK Flight Recorder events of the scheduler, the persistence layer and the client
+ * lifecycle. An event is begun before the work it describes and committed after it, so JFR
+ * records its duration and thread alongside the GC and I/O events of the same recording. While
+ * no recording has the events enabled, {@code commit} returns at once and the event is not
+ * written.
+ */
+public final class LiveSchedEvents {
+
+  private LiveSchedEvents() {
+  }
+
+  /**
+   * A scheduling pass over a client's tasks.
+   */
+  @Name("dev.coms4156.livesched.SchedulingPass")
+  @Label("Scheduling Pass")
+  @Category({"LiveSched", "Scheduling"})
+  @Description("A pass assigning available resources to a client's tasks")
+  public static final class SchedulingPass extends Event {
+
+    @Label("Client ID")
+    String clientId;
+
+    @Label("Max Distance")
+    double maxDistance;
+
+    @Label("Task Count")
+    @Description("Number of tasks considered by the pass")
+    int taskCount;
+
+    @Label("Scheduled Count")
+    @Description("Number of tasks the pass scheduled")
+    int scheduledCount;
+
+    /**
+     * Ends the pass and commits the event if it is enabled.
+     *
+     * @param clientId       the client whose tasks were scheduled
+     * @param maxDistance    the maximum distance of the pass
+     * @param taskCount      the number of tasks considered
+     * @param scheduledCount the number of tasks the pass scheduled
+     */
+    public void commit(String clientId, double maxDistance, int taskCount,
+                       int scheduledCount) {
+      end();
+      if (shouldCommit()) {
+        this.clientId = clientId;
+        this.maxDistance = maxDistance;
+        this.taskCount = taskCount;
+        this.scheduledCount = scheduledCount;
+        commit();
+      }
+    }
+  }
+
+  /**
+   * The serialization of one content type of a client's database to its file.
+   */
+  @Name("dev.coms4156.livesched.DatabaseSave")
+  @Label("Database Save")
+  @Category({"LiveSched", "Persistence"})
+  @Description("Serialization of a client's data to its local file")
+  public static final class DatabaseSave extends Event {
+
+    @Label("Content")
+    String content;
+
+    @Label("File Path")
+    String filePath;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Ends the save and commits the event if it is enabled.
+     *
+     * @param contentType the content type saved
+     * @param filePath    the file written
+     * @param bytes       the size of the file written
+     */
+    public void commit(int contentType, String filePath, long bytes) {
+      end();
+      if (shouldCommit()) {
+        this.content = LiveSchedMetrics.contentName(contentType);
+        this.filePath = filePath;
+        this.bytes = bytes;
+        commit();
+      }
+    }
+  }
+
+  /**
+   * The deserialization of one content type of a client's database from its file.
+   */
+  @Name("dev.coms4156.livesched.DatabaseLoad")
+  @Label("Database Load")
+  @Category({"LiveSched", "Persistence"})
+  @Description("Deserialization of a client's data from its local file")
+  public static final class DatabaseLoad extends Event {
+
+    @Label("Content")
+    String content;
+
+    @Label("File Path")
+    String filePath;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    /**
+     * Ends the load and commits the event if it is enabled.
+     *
+     * @param contentType the content type loaded
+     * @param filePath    the file read
+     * @param bytes       the size of the file read
+     */
+    public void commit(int contentType, String filePath, long bytes) {
+      end();
+      if (shouldCommit()) {
+        this.content = LiveSchedMetrics.contentName(contentType);
+        this.filePath = filePath;
+        this.bytes = bytes;
+        commit();
+      }
+    }
+  }
+
+  /**
+   * The creation of a client's database, either loaded from saved files or new.
+   */
+  @Name("dev.coms4156.livesched.ClientDatabaseCreated")
+  @Label("Client Database Created")
+  @Category({"LiveSched", "Clients"})
+  @Description("Creation of a client's database, including loading its saved data")
+  public static final class ClientDatabaseCreated extends Event {
+
+    @Label("Client ID")
+    String clientId;
+
+    @Label("Source")
+    @Description("Where the data came from: gcs, local or new")
+    String source;
+
+    /**
+     * Ends the creation and commits the event if it is enabled.
+     *
+     * @param clientId the client whose database was created
+     * @param source   where the data came from: gcs, local or new
+     */
+    public void commit(String clientId, String source) {
+      end();
+      if (shouldCommit()) {
+        this.clientId = clientId;
+        this.source = source;
+        commit();
+      }
+    }
+  }
+
+  /**
+   * The removal of a client's database from memory.
+   */
+  @Name("dev.coms4156.livesched.ClientDatabaseEvicted")
+  @Label("Client Database Evicted")
+  @Category({"LiveSched", "Clients"})
+  @Description("Removal of a client's database from memory")
+  public static final class ClientDatabaseEvicted extends Event {
+
+    @Label("Client ID")
+    String clientId;
+
+    /**
+     * Commits the event if it is enabled.
+     *
+     * @param clientId the client whose database was removed
+     */
+    public void commit(String clientId) {
+      if (shouldCommit()) {
+        this.clientId = clientId;
+        commit();
+      }
+    }
+  }
+}
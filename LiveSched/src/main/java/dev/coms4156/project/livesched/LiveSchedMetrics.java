@@ -0,0 +1,274 @@
+package dev.coms4156.project.livesched;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the meters of the scheduler and the persistence layer. The meters are registered once
+ * with Micrometer's global registry, which Spring Boot connects to the registries it exports,
+ * so that classes that are not Spring beans can record to them. Recording only increments the
+ * meters looked up here, so it allocates nothing and can stay on in production.
+ * The latency of each endpoint is recorded by Spring Boot as {@code http.server.requests}.
+ * The gauges of each client are tagged with its ID for at most {@link #MAX_TAGGED_CLIENTS}
+ * clients at once, and the clients beyond those are reported together under
+ * {@link #OTHER_CLIENTS}, so the number of meters stays bounded however many clients there are.
+ */
+public final class LiveSchedMetrics {
+
+  private static final MeterRegistry REGISTRY = Metrics.globalRegistry;
+
+  private static final Timer SCHEDULE_UPDATE = Timer.builder("livesched.schedule.update")
+      .description("Time taken by a scheduling pass")
+      .publishPercentileHistogram()
+      .register(REGISTRY);
+  private static final Counter TASKS_CONSIDERED = tasksCounter("considered", "none");
+  private static final Counter TASKS_SCHEDULED = tasksCounter("scheduled", "none");
+  private static final Counter TASKS_NO_REQUIREMENTS =
+      tasksCounter("rejected", "no_requirements");
+  private static final Counter TASKS_INSUFFICIENT_UNITS =
+      tasksCounter("rejected", "insufficient_units");
+  private static final Counter TASKS_OUT_OF_RANGE = tasksCounter("rejected", "out_of_range");
+
+  // Indexed by the content types of MyFileDatabase: 1 for tasks, 2 for resource types and 3
+  // for the schedule
+  private static final String[] CONTENT_NAMES = {"unknown", "tasks", "resourceTypes",
+      "schedule"};
+  private static final Timer[] SAVE_TIMES = databaseTimers("save");
+  private static final Timer[] LOAD_TIMES = databaseTimers("load");
+  private static final DistributionSummary[] SAVE_BYTES = databaseSizes("save");
+  private static final DistributionSummary[] LOAD_BYTES = databaseSizes("load");
+
+  private static final Timer CLOUD_UPLOAD = cloudTimer("upload");
+  private static final Timer CLOUD_DOWNLOAD = cloudTimer("download");
+
+  /**
+   * The number of clients whose gauges are tagged with their ID.
+   */
+  static final int MAX_TAGGED_CLIENTS = 100;
+
+  /**
+   * The clientId tag of the gauges that report the clients beyond those tagged with their ID.
+   */
+  static final String OTHER_CLIENTS = "other";
+
+  /**
+   * The gauges registered for each client tagged with its ID. Clients are added and removed
+   * while holding the class's lock, and read without it by the gauges of the other clients.
+   */
+  private static final Map<String, List<Meter>> CLIENT_GAUGES = new ConcurrentHashMap<>();
+  private static boolean otherClientsRegistered;
+
+  private LiveSchedMetrics() {
+  }
+
+  /**
+   * Records a scheduling pass.
+   *
+   * @param nanos             the time taken by the pass in nanoseconds
+   * @param considered        the number of tasks considered
+   * @param scheduled         the number of tasks scheduled by the pass
+   * @param noRequirements    the number of tasks not scheduled as they need no resources
+   * @param insufficientUnits the number of tasks not scheduled for lack of available units
+   * @param outOfRange        the number of tasks not scheduled as the resources were too far
+   */
+  public static void recordSchedulingPass(long nanos, int considered, int scheduled,
+                                          int noRequirements, int insufficientUnits,
+                                          int outOfRange) {
+    SCHEDULE_UPDATE.record(nanos, TimeUnit.NANOSECONDS);
+    TASKS_CONSIDERED.increment(considered);
+    TASKS_SCHEDULED.increment(scheduled);
+    TASKS_NO_REQUIREMENTS.increment(noRequirements);
+    TASKS_INSUFFICIENT_UNITS.increment(insufficientUnits);
+    TASKS_OUT_OF_RANGE.increment(outOfRange);
+  }
+
+  /**
+   * Records the saving of one content type of a client's database to its file.
+   *
+   * @param contentType the content type saved
+   * @param nanos       the time taken in nanoseconds
+   * @param bytes       the size of the file written
+   */
+  public static void recordSave(int contentType, long nanos, long bytes) {
+    int index = contentIndex(contentType);
+    SAVE_TIMES[index].record(nanos, TimeUnit.NANOSECONDS);
+    SAVE_BYTES[index].record(bytes);
+  }
+
+  /**
+   * Records the loading of one content type of a client's database from its file.
+   *
+   * @param contentType the content type loaded
+   * @param nanos       the time taken in nanoseconds
+   * @param bytes       the size of the file read
+   */
+  public static void recordLoad(int contentType, long nanos, long bytes) {
+    int index = contentIndex(contentType);
+    LOAD_TIMES[index].record(nanos, TimeUnit.NANOSECONDS);
+    LOAD_BYTES[index].record(bytes);
+  }
+
+  /**
+   * Records a transfer of a file to or from Google Cloud Storage.
+   *
+   * @param upload whether the file was uploaded rather than downloaded
+   * @param nanos  the time taken in nanoseconds
+   */
+  public static void recordCloudTransfer(boolean upload, long nanos) {
+    (upload ? CLOUD_UPLOAD : CLOUD_DOWNLOAD).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Registers the gauges of a client's task and resource type counts. The gauges read the
+   * client's current database, so they stay correct if the database is replaced, and
+   * registering a client again has no effect. Once {@link #MAX_TAGGED_CLIENTS} clients have
+   * gauges of their own, the client is counted in the gauges of the other clients instead.
+   *
+   * @param clientId the client
+   */
+  public static synchronized void registerClient(String clientId) {
+    if (CLIENT_GAUGES.containsKey(clientId)) {
+      return;
+    }
+    if (CLIENT_GAUGES.size() >= MAX_TAGGED_CLIENTS) {
+      registerOtherClients();
+      return;
+    }
+    Gauge tasks = Gauge.builder("livesched.client.tasks", clientId,
+            id -> size(LiveSchedApplication.getLoadedClientFileDatabase(id), true))
+        .description("Number of tasks of a client")
+        .tag("clientId", clientId)
+        .strongReference(true)
+        .register(REGISTRY);
+    Gauge resourceTypes = Gauge.builder("livesched.client.resource.types", clientId,
+            id -> size(LiveSchedApplication.getLoadedClientFileDatabase(id), false))
+        .description("Number of resource types of a client")
+        .tag("clientId", clientId)
+        .strongReference(true)
+        .register(REGISTRY);
+    CLIENT_GAUGES.put(clientId, List.of(tasks, resourceTypes));
+  }
+
+  /**
+   * Removes the gauges of a client whose database was evicted, freeing its place for another
+   * client. A client counted in the gauges of the other clients drops out of them on its own.
+   *
+   * @param clientId the client
+   */
+  public static synchronized void unregisterClient(String clientId) {
+    List<Meter> gauges = CLIENT_GAUGES.remove(clientId);
+    if (gauges != null) {
+      for (Meter gauge : gauges) {
+        REGISTRY.remove(gauge);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of clients whose gauges are tagged with their ID.
+   *
+   * @return the number of clients with gauges of their own
+   */
+  static int getTaggedClients() {
+    return CLIENT_GAUGES.size();
+  }
+
+  private static void registerOtherClients() {
+    if (otherClientsRegistered) {
+      return;
+    }
+    Gauge.builder("livesched.client.tasks", () -> otherClientsSize(true))
+        .description("Number of tasks of a client")
+        .tag("clientId", OTHER_CLIENTS)
+        .strongReference(true)
+        .register(REGISTRY);
+    Gauge.builder("livesched.client.resource.types", () -> otherClientsSize(false))
+        .description("Number of resource types of a client")
+        .tag("clientId", OTHER_CLIENTS)
+        .strongReference(true)
+        .register(REGISTRY);
+    otherClientsRegistered = true;
+  }
+
+  private static double otherClientsSize(boolean tasks) {
+    Map<String, MyFileDatabase> databases = LiveSchedApplication.clientDatabases;
+    double total = 0;
+    if (databases != null) {
+      for (Map.Entry<String, MyFileDatabase> entry : databases.entrySet()) {
+        if (!CLIENT_GAUGES.containsKey(entry.getKey())) {
+          total += size(entry.getValue(), tasks);
+        }
+      }
+    }
+    return total;
+  }
+
+  private static double size(MyFileDatabase myFileDatabase, boolean tasks) {
+    if (myFileDatabase == null) {
+      return Double.NaN;
+    }
+    List<?> items = tasks ? myFileDatabase.getAllTasks() : myFileDatabase.getAllResourceTypes();
+    return items == null ? 0 : items.size();
+  }
+
+  /**
+   * Gets the name a content type of {@code MyFileDatabase} is recorded under.
+   *
+   * @param contentType the content type
+   * @return tasks, resourceTypes, schedule or unknown
+   */
+  static String contentName(int contentType) {
+    return CONTENT_NAMES[contentIndex(contentType)];
+  }
+
+  private static int contentIndex(int contentType) {
+    return contentType > 0 && contentType < CONTENT_NAMES.length ? contentType : 0;
+  }
+
+  private static Counter tasksCounter(String outcome, String reason) {
+    return Counter.builder("livesched.schedule.tasks")
+        .description("Tasks considered by scheduling passes, by outcome")
+        .tags("outcome", outcome, "reason", reason)
+        .register(REGISTRY);
+  }
+
+  private static Timer[] databaseTimers(String operation) {
+    Timer[] timers = new Timer[CONTENT_NAMES.length];
+    for (int i = 0; i < timers.length; i++) {
+      timers[i] = Timer.builder("livesched.database.duration")
+          .description("Time taken to save or load a client's data")
+          .tags("operation", operation, "content", CONTENT_NAMES[i])
+          .register(REGISTRY);
+    }
+    return timers;
+  }
+
+  private static DistributionSummary[] databaseSizes(String operation) {
+    DistributionSummary[] summaries = new DistributionSummary[CONTENT_NAMES.length];
+    for (int i = 0; i < summaries.length; i++) {
+      summaries[i] = DistributionSummary.builder("livesched.database.size")
+          .description("Size of the files a client's data is saved to or loaded from")
+          .baseUnit("bytes")
+          .tags("operation", operation, "content", CONTENT_NAMES[i])
+          .register(REGISTRY);
+    }
+    return summaries;
+  }
+
+  private static Timer cloudTimer(String operation) {
+    return Timer.builder("livesched.gcs.transfer")
+        .description("Time taken to transfer a file to or from Google Cloud Storage")
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .register(REGISTRY);
+  }
+}
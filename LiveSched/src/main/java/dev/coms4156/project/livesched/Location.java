@@ -60,8 +60,10 @@ public class Location implements Serializable {
     double lat2 = Math.toRadians(location.getLatitude());
     double lng1 = Math.toRadians(this.longitude);
     double lng2 = Math.toRadians(location.getLongitude());
-    return Math.acos(Math.sin(lat1) * Math.sin(lat2)
-            + Math.cos(lat1) * Math.cos(lat2) * Math.cos(lng1 - lng2)) * radius;
+    double cosine = Math.sin(lat1) * Math.sin(lat2)
+            + Math.cos(lat1) * Math.cos(lat2) * Math.cos(lng1 - lng2);
+    // Rounding can push the cosine of nearby locations just past 1, where acos is undefined
+    return Math.acos(Math.max(-1, Math.min(1, cosine))) * radius;
   }
 
   public String getCoordinates() {
@@ -0,0 +1,266 @@
+package dev.coms4156.project.livesched;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Indexes an immutable collection of items by location for radius and nearest-neighbour
+ * queries. Items are bucketed into a grid of cells a fixed number of degrees wide, so a query
+ * only measures the distance to items in the cells that overlap the bounding box of its
+ * radius. Nearest-neighbour queries search a growing radius until enough items are found.
+ * The items are kept in a persistent map sorted by cell, so each row of the bounding box is
+ * read as one range of the map, and {@link #updated} derives a new index from this one by
+ * copying only the paths to the items that changed.
+ *
+ * @param <T> the type of the indexed items
+ */
+public final class LocationIndex<T> {
+
+  /**
+   * The radius of the Earth in kilometers, as used by {@code Location.getDistance}.
+   */
+  private static final double EARTH_RADIUS_KM = 6371;
+
+  /**
+   * The greatest distance between two locations, which is half the Earth's circumference.
+   */
+  private static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+
+  private static final double CELL_DEGREES = 0.1;
+  private static final int ROWS = (int) Math.round(180 / CELL_DEGREES);
+  private static final int COLUMNS = (int) Math.round(360 / CELL_DEGREES);
+
+  /**
+   * The first radius searched by nearest-neighbour queries, about the height of a cell.
+   */
+  private static final double INITIAL_RADIUS_KM =
+      Math.toRadians(CELL_DEGREES) * EARTH_RADIUS_KM;
+
+  private static final Comparator<Entry<?>> CELL_ORDER =
+      Comparator.<Entry<?>>comparingLong(entry -> entry.cell)
+          .thenComparingInt(entry -> entry.order);
+
+  private final PersistentTreeMap<Entry<T>, Entry<T>> entries;
+  private final Function<T, Location> locationOf;
+
+  private LocationIndex(PersistentTreeMap<Entry<T>, Entry<T>> entries,
+                        Function<T, Location> locationOf) {
+    this.entries = entries;
+    this.locationOf = locationOf;
+  }
+
+  /**
+   * Constructs a new LocationIndex object over the given items.
+   *
+   * @param items      the items to index
+   * @param locationOf gets the location of an item
+   */
+  public LocationIndex(Collection<T> items, Function<T, Location> locationOf) {
+    this.locationOf = locationOf;
+    PersistentTreeMap<Entry<T>, Entry<T>> entries = PersistentTreeMap.empty(CELL_ORDER);
+    int order = 0;
+    for (T item : items) {
+      Entry<T> entry = new Entry<>(item, locationOf.apply(item), order++);
+      entries = entries.put(entry, entry);
+    }
+    this.entries = entries;
+  }
+
+  /**
+   * Gets an index with some items removed and others added, each given with the order that
+   * breaks ties between items at the same distance. An item is removed only if the index
+   * holds it with the given order, and the order of an added item must not be held by
+   * another one.
+   *
+   * @param removed the items to remove, by their order
+   * @param added   the items to add, by their order
+   * @return the new index, or this index if nothing changed
+   */
+  LocationIndex<T> updated(Map<Integer, T> removed, Map<Integer, T> added) {
+    PersistentTreeMap<Entry<T>, Entry<T>> entries = this.entries;
+    for (Map.Entry<Integer, T> item : removed.entrySet()) {
+      Entry<T> key = new Entry<>(item.getValue(), locationOf.apply(item.getValue()),
+          item.getKey());
+      Entry<T> entry = entries.get(key);
+      if (entry != null && entry.item == item.getValue()) {
+        entries = entries.remove(key);
+      }
+    }
+    for (Map.Entry<Integer, T> item : added.entrySet()) {
+      Entry<T> entry =
+          new Entry<>(item.getValue(), locationOf.apply(item.getValue()), item.getKey());
+      entries = entries.put(entry, entry);
+    }
+    return entries == this.entries ? this : new LocationIndex<>(entries, locationOf);
+  }
+
+  /**
+   * Finds the items nearest to a location, out to a maximum distance.
+   *
+   * @param center the location to search around
+   * @param radius the maximum distance in kilometers, or infinity for no limit
+   * @param limit  the maximum number of items to find
+   * @return the matching items in order of distance, with items at the same distance in the
+   *         order they were indexed
+   * @throws IllegalArgumentException if {@code center} is null, {@code radius} is negative
+   *                                  or NaN, or {@code limit} is not positive
+   */
+  public List<Match<T>> findNear(Location center, double radius, int limit) {
+    if (center == null) {
+      throw new IllegalArgumentException("Location cannot be null.");
+    }
+    if (Double.isNaN(radius) || radius < 0) {
+      throw new IllegalArgumentException("Radius cannot be negative.");
+    }
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive.");
+    }
+    double maxRadius = Math.min(radius, MAX_DISTANCE_KM);
+    double searchRadius =
+        limit >= entries.size() ? maxRadius : Math.min(maxRadius, INITIAL_RADIUS_KM);
+    while (true) {
+      List<Match<T>> matches = within(center, searchRadius);
+      if (matches.size() >= limit || searchRadius >= maxRadius) {
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+      }
+      // Every item within the searched radius was found, so the nearest items lie further out
+      searchRadius = Math.min(maxRadius, searchRadius * 4);
+    }
+  }
+
+  /**
+   * Gets the number of indexed items.
+   *
+   * @return the number of items in the index
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Finds every item within a distance of a location, sorted by distance.
+   */
+  private List<Match<T>> within(Location center, double radius) {
+    List<Match<T>> matches = new ArrayList<>();
+    double latitudeDelta = Math.toDegrees(radius / EARTH_RADIUS_KM);
+    int firstRow = rowOf(center.getLatitude() - latitudeDelta) - 1;
+    int lastRow = rowOf(center.getLatitude() + latitudeDelta) + 1;
+    int columnSpan = COLUMNS;
+    if (firstRow > 0 && lastRow < ROWS - 1) {
+      // The bounding box does not reach a pole, so it spans a limited range of longitudes
+      double ratio = Math.sin(radius / EARTH_RADIUS_KM)
+          / Math.cos(Math.toRadians(center.getLatitude()));
+      if (ratio < 1) {
+        double longitudeDelta = Math.toDegrees(Math.asin(ratio));
+        columnSpan = (int) Math.ceil(2 * longitudeDelta / CELL_DEGREES) + 3;
+      }
+    }
+
+    long boxCells = (long) (lastRow - firstRow + 1) * Math.min(columnSpan, COLUMNS);
+    if (columnSpan >= COLUMNS || boxCells >= entries.size()) {
+      collect(entries.iterator(), Long.MAX_VALUE, center, radius, matches);
+    } else {
+      int firstColumn = Math.floorMod(columnOf(center.getLongitude()) - columnSpan / 2, COLUMNS);
+      int lastColumn = firstColumn + columnSpan - 1;
+      for (int row = Math.max(0, firstRow); row <= Math.min(ROWS - 1, lastRow); row++) {
+        collectRow(row, firstColumn, Math.min(lastColumn, COLUMNS - 1), center, radius, matches);
+        if (lastColumn >= COLUMNS) {
+          // The box wraps around the antimeridian to the first columns of the row
+          collectRow(row, 0, lastColumn - COLUMNS, center, radius, matches);
+        }
+      }
+    }
+    matches.sort(Comparator.<Match<T>>comparingDouble(Match::getDistance)
+        .thenComparingInt(match -> match.order));
+    return matches;
+  }
+
+  private void collectRow(int row, int firstColumn, int lastColumn, Location center,
+                          double radius, List<Match<T>> matches) {
+    long firstCell = (long) row * COLUMNS + firstColumn;
+    Iterator<Entry<T>> cells =
+        entries.iteratorFrom(entry -> entry.cell < firstCell ? -1 : 0);
+    collect(cells, (long) row * COLUMNS + lastColumn, center, radius, matches);
+  }
+
+  /**
+   * Adds the entries up to the end of a cell that are within a distance of a location.
+   */
+  private static <T> void collect(Iterator<Entry<T>> entries, long lastCell, Location center,
+                                  double radius, List<Match<T>> matches) {
+    while (entries.hasNext()) {
+      Entry<T> entry = entries.next();
+      if (entry.cell > lastCell) {
+        return;
+      }
+      double distance = center.getDistance(entry.location);
+      if (distance <= radius) {
+        matches.add(new Match<>(entry.item, distance, entry.order));
+      }
+    }
+  }
+
+  private static long cellOf(Location location) {
+    return (long) rowOf(location.getLatitude()) * COLUMNS + columnOf(location.getLongitude());
+  }
+
+  private static int rowOf(double latitude) {
+    return Math.max(0, Math.min(ROWS - 1, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+  }
+
+  private static int columnOf(double longitude) {
+    return Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), COLUMNS);
+  }
+
+  /**
+   * Holds an indexed item, its location and cell, and the order in which it was indexed.
+   */
+  private static final class Entry<T> {
+    private final T item;
+    private final Location location;
+    private final long cell;
+    private final int order;
+
+    private Entry(T item, Location location, int order) {
+      this.item = item;
+      this.location = location;
+      this.cell = cellOf(location);
+      this.order = order;
+    }
+  }
+
+  /**
+   * Holds an item found near a location and its distance from that location.
+   *
+   * @param <T> the type of the item
+   */
+  public static final class Match<T> {
+    private final T item;
+    private final double distance;
+    private final int order;
+
+    private Match(T item, double distance, int order) {
+      this.item = item;
+      this.distance = distance;
+      this.order = order;
+    }
+
+    public T getItem() {
+      return item;
+    }
+
+    /**
+     * Gets the distance of the item from the searched location.
+     *
+     * @return the distance in kilometers
+     */
+    public double getDistance() {
+      return distance;
+    }
+  }
+}
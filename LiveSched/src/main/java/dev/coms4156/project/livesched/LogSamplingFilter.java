@@ -0,0 +1,110 @@
+package dev.coms4156.project.livesched;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.slf4j.Marker;
+
+/**
+ * Samples log messages that are logged at a high rate. Each message, keyed by its logger and
+ * format, is logged in full up to {@code burst} times per period; after that only one in every
+ * {@code sampleEvery} is logged until the period ends. A burst of one failure therefore costs a
+ * few lines instead of one per request, while rare messages are never dropped. The filter runs
+ * before the logging event is created, so a dropped message costs no formatting or I/O.
+ * It is configured in {@code logback-spring.xml}.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+  private final LongSupplier clock;
+  private int burst = 20;
+  private long periodMillis = 1000;
+  private int sampleEvery = 100;
+  private int maxMessages = 1000;
+
+  /**
+   * Constructs a new LogSamplingFilter object.
+   */
+  public LogSamplingFilter() {
+    this(System::currentTimeMillis);
+  }
+
+  /**
+   * Constructs a new LogSamplingFilter object that reads the time from the given clock.
+   *
+   * @param clock the clock, in milliseconds
+   */
+  LogSamplingFilter(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                            Object[] params, Throwable t) {
+    if (!isStarted() || format == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    String key = logger.getName() + ':' + format;
+    Window window = windows.get(key);
+    if (window == null) {
+      // Past the limit new messages are not sampled, so a stream of distinct messages cannot
+      // grow the map without bound
+      if (windows.size() >= maxMessages) {
+        return FilterReply.NEUTRAL;
+      }
+      window = windows.computeIfAbsent(key, k -> new Window());
+    }
+    return window.admit(clock.getAsLong()) ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+
+  public void setBurst(int burst) {
+    this.burst = burst;
+  }
+
+  public void setPeriodMillis(long periodMillis) {
+    this.periodMillis = periodMillis;
+  }
+
+  public void setSampleEvery(int sampleEvery) {
+    this.sampleEvery = sampleEvery;
+  }
+
+  public void setMaxMessages(int maxMessages) {
+    this.maxMessages = maxMessages;
+  }
+
+  @Override
+  public void start() {
+    if (burst < 0 || periodMillis <= 0 || sampleEvery <= 0 || maxMessages <= 0) {
+      addError("burst must not be negative, and periodMillis, sampleEvery and maxMessages "
+          + "must be positive.");
+      return;
+    }
+    super.start();
+  }
+
+  /**
+   * Counts the times one message was logged in the current period.
+   */
+  private final class Window {
+
+    private final AtomicLong start = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicInteger count = new AtomicInteger();
+
+    boolean admit(long now) {
+      long windowStart = start.get();
+      if ((windowStart == Long.MIN_VALUE || now - windowStart >= periodMillis)
+          && start.compareAndSet(windowStart, now)) {
+        count.set(0);
+      }
+      int logged = count.incrementAndGet();
+      return logged <= burst || (logged - burst) % sampleEvery == 0;
+    }
+  }
+}
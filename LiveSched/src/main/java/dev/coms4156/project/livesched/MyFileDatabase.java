@@ -5,22 +5,37 @@ import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import com.google.cloud.storage.StorageOptions;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class represents a file-based database that stores and manages {@code Task} and
  * {@code ResourceType} objects. It provides functionality to serialize and deserialize data
  * from both local files and Google Cloud Storage (GCS), ensuring data persistence.
+ * Operations that change the client's data synchronize on the database instance, so callers
+ * that need several steps to happen atomically can hold the same monitor.
+ * Readers use an immutable {@code ClientSnapshot} instead, which callers publish with
+ * {@link #publishSnapshot()} once a batch of changes is complete.
  */
 public class MyFileDatabase {
 
@@ -75,24 +90,49 @@ public class MyFileDatabase {
       this.allResourceTypes = new ArrayList<>();
       this.masterSchedule = new Schedule();
     }
+    this.allTasks = this.allTasks == null ? null : new ArrayList<>(this.allTasks);
+    this.allResourceTypes =
+        this.allResourceTypes == null ? null : new ArrayList<>(this.allResourceTypes);
+    this.allTasksView = this.allTasks == null ? null : Collections.unmodifiableList(this.allTasks);
+    this.allResourceTypesView = this.allResourceTypes == null ? null
+        : Collections.unmodifiableList(this.allResourceTypes);
+    if (this.masterSchedule != null) {
+      this.masterSchedule.setChangeListener(this.changeRecorder);
+    }
+    rebuildTaskIndex();
+    rebuildResourceTypeIndex();
   }
 
   /**
-   * Sets allTasks of the database.
+   * Sets allTasks of the database. The database keeps its own copy of the list.
    *
    * @param tasks the list of all tasks to be added to database
    */
-  public void setAllTasks(List<Task> tasks) {
-    this.allTasks = tasks == null ? new ArrayList<>() : tasks;
+  public synchronized void setAllTasks(List<Task> tasks) {
+    // Seed the allocator first so that the IDs of the replaced tasks are not reused
+    TaskIdAllocator allocator = getTaskIdAllocator();
+    detachChangeListener(this.allTasks);
+    this.allTasks = tasks == null ? new ArrayList<>() : new ArrayList<>(tasks);
+    this.allTasksView = Collections.unmodifiableList(this.allTasks);
+    for (Task task : this.allTasks) {
+      if (task != null) {
+        allocator.advancePast(task.getTaskId());
+      }
+    }
+    rebuildTaskIndex();
   }
 
   /**
-   * Sets allResourceTypes of the database.
+   * Sets allResourceTypes of the database. The database keeps its own copy of the list.
    *
    * @param resourceTypes the list of all resourceTypes to be added to database
    */
-  public void setAllResourceTypes(List<ResourceType> resourceTypes) {
-    this.allResourceTypes = resourceTypes == null ? new ArrayList<>() : resourceTypes;
+  public synchronized void setAllResourceTypes(List<ResourceType> resourceTypes) {
+    detachChangeListener(this.allResourceTypes);
+    this.allResourceTypes =
+        resourceTypes == null ? new ArrayList<>() : new ArrayList<>(resourceTypes);
+    this.allResourceTypesView = Collections.unmodifiableList(this.allResourceTypes);
+    rebuildResourceTypeIndex();
   }
 
   /**
@@ -100,8 +140,14 @@ public class MyFileDatabase {
    *
    * @param masterSchedule the master schedule to be added to database
    */
-  public void setMasterSchedule(Schedule masterSchedule) {
+  public synchronized void setMasterSchedule(Schedule masterSchedule) {
+    if (this.masterSchedule != null
+        && this.masterSchedule.getChangeListener() == this.changeRecorder) {
+      this.masterSchedule.setChangeListener(null);
+    }
     this.masterSchedule = masterSchedule == null ? new Schedule() : masterSchedule;
+    this.masterSchedule.setChangeListener(this.changeRecorder);
+    this.changes.everythingChanged();
   }
 
   /**
@@ -132,19 +178,24 @@ public class MyFileDatabase {
       try {
         downloadFileFromCloud(BUCKET_NAME, gcsObjectName, filePath);
       } catch (IOException e) {
-        if (LOGGER.isLoggable(Level.SEVERE)) {
-          LOGGER.log(Level.SEVERE, e.getMessage());
-        }
+        LOGGER.error("Could not download {} from GCS", gcsObjectName, e);
         return null;
       }
     } else {
-      if (LOGGER.isLoggable(Level.INFO)) {
-        LOGGER.info("GCS is disabled. Using local file: " + filePath);
-      }
+      LOGGER.debug("GCS is disabled. Using local file: {}", filePath);
     }
 
+    LiveSchedEvents.DatabaseLoad event = new LiveSchedEvents.DatabaseLoad();
+    event.begin();
+    long startNanos = System.nanoTime();
+    long bytes = new File(filePath).length();
     try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(filePath))) {
       Object obj = in.readObject();
+      if (contentType == taskContentType) {
+        this.persistedNextTaskId = readNextTaskId(in);
+      }
+      LiveSchedMetrics.recordLoad(contentType, System.nanoTime() - startNanos, bytes);
+      event.commit(contentType, filePath, bytes);
 
       // Return the appropriate type based on content type
       if (contentType == taskContentType && obj instanceof List<?> listObj) {
@@ -157,13 +208,23 @@ public class MyFileDatabase {
         throw new IllegalArgumentException(INVALID_OBJ_TYPE_ERROR);
       }
     } catch (IOException | ClassNotFoundException e) {
-      if (LOGGER.isLoggable(Level.SEVERE)) {
-        LOGGER.log(Level.SEVERE, e.getMessage());
-      }
+      LOGGER.error("Could not load {}", filePath, e);
       return null;
     }
   }
 
+  /**
+   * Reads the next task ID saved after the task list, which files written before IDs were
+   * allocated do not have.
+   */
+  private static long readNextTaskId(ObjectInputStream in) throws IOException {
+    try {
+      return in.readLong();
+    } catch (EOFException e) {
+      return 0;
+    }
+  }
+
   /**
    * Downloads a file from Google Cloud Storage to a local destination path.
    *
@@ -174,13 +235,13 @@ public class MyFileDatabase {
    */
   private void downloadFileFromCloud(String bucketName, String objectName, String destinationPath)
       throws IOException {
+    long startNanos = System.nanoTime();
     Blob blob = storage.get(BlobId.of(bucketName, objectName));
 
     if (blob != null) {
       blob.downloadTo(Paths.get(destinationPath));
-      if (LOGGER.isLoggable(Level.INFO)) {
-        LOGGER.info("Downloaded file from GCS: " + objectName + " to " + destinationPath);
-      }
+      LiveSchedMetrics.recordCloudTransfer(false, System.nanoTime() - startNanos);
+      LOGGER.debug("Downloaded file from GCS: {} to {}", objectName, destinationPath);
     } else {
       throw new FileNotFoundException("The requested object " + objectName
           + " was not found in bucket " + bucketName);
@@ -193,7 +254,7 @@ public class MyFileDatabase {
    *
    * @param contentType the type of content to be saved to file
    */
-  public void saveContentsToFile(int contentType) {
+  public synchronized void saveContentsToFile(int contentType) {
     String filePath;
     String gcsObjectName;
     if (contentType == taskContentType) {
@@ -209,31 +270,34 @@ public class MyFileDatabase {
       throw new IllegalArgumentException("Invalid content type in file.");
     }
 
+    LiveSchedEvents.DatabaseSave event = new LiveSchedEvents.DatabaseSave();
+    event.begin();
+    long startNanos = System.nanoTime();
     try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(filePath))) {
       if (contentType == taskContentType) {
         out.writeObject(allTasks);
+        out.writeLong(getTaskIdAllocator().getNextId());
       } else if (contentType == resourceTypeContentType) {
         out.writeObject(allResourceTypes);
       } else if (contentType == scheduleContentType) {
         out.writeObject(masterSchedule);
       }
+      // Flush so the file is complete before it is measured and uploaded
+      out.flush();
+      long bytes = new File(filePath).length();
+      LiveSchedMetrics.recordSave(contentType, System.nanoTime() - startNanos, bytes);
+      event.commit(contentType, filePath, bytes);
 
-      if (LOGGER.isLoggable(Level.INFO)) {
-        LOGGER.info("Object serialized successfully in local file: " + filePath);
-      }
+      LOGGER.debug("Object serialized successfully in local file: {}", filePath);
 
       // Upload to GCS only if GCS operations are enabled
       if (LiveSchedApplication.useGCS) {
         uploadFileToCloud(BUCKET_NAME, gcsObjectName, filePath);
       } else {
-        if (LOGGER.isLoggable(Level.INFO)) {
-          LOGGER.info("GCS is disabled. Uploading to GCS is skipped.");
-        }
+        LOGGER.debug("GCS is disabled. Uploading to GCS is skipped.");
       }
     } catch (IOException e) {
-      if (LOGGER.isLoggable(Level.SEVERE)) {
-        LOGGER.log(Level.SEVERE, e.getMessage());
-      }
+      LOGGER.error("Could not save {}", filePath, e);
     }
   }
 
@@ -247,6 +311,7 @@ public class MyFileDatabase {
    */
   private void uploadFileToCloud(String bucketName, String objectName, String filePath)
       throws IOException {
+    long startNanos = System.nanoTime();
     BlobId blobId = BlobId.of(bucketName, objectName);
     BlobInfo blobInfo = BlobInfo.newBuilder(blobId).build();
 
@@ -260,27 +325,26 @@ public class MyFileDatabase {
     }
 
     storage.createFrom(blobInfo, Paths.get(filePath), precondition);
-    if (LOGGER.isLoggable(Level.INFO)) {
-      LOGGER.info("File " + filePath + " uploaded to GCS as " + objectName);
-    }
+    LiveSchedMetrics.recordCloudTransfer(true, System.nanoTime() - startNanos);
+    LOGGER.debug("File {} uploaded to GCS as {}", filePath, objectName);
   }
 
   /**
    * Gets all tasks from the database.
    *
-   * @return a list containing all Task objects
+   * @return an unmodifiable view of the list of all Task objects
    */
   public List<Task> getAllTasks() {
-    return this.allTasks;
+    return this.allTasksView;
   }
 
   /**
    * Gets all ResourceTypes from the database.
    *
-   * @return a list containing all ResourceType objects
+   * @return an unmodifiable view of the list of all ResourceType objects
    */
   public List<ResourceType> getAllResourceTypes() {
-    return this.allResourceTypes;
+    return this.allResourceTypesView;
   }
 
   /**
@@ -297,57 +361,434 @@ public class MyFileDatabase {
    *
    * @return a Task object with specified taskId
    */
-  public Task getTaskById(String taskId) {
-    List<Task> tasks = this.allTasks;
-    for (Task task : tasks) {
-      if (task.getTaskId().equals(taskId)) {
-        return task;
-      }
-    }
-    return null;
+  public synchronized Task getTaskById(String taskId) {
+    Integer position = this.taskPositions.get(taskId);
+    return position == null ? null : this.allTasks.get(position);
   }
 
   /**
    * Adds a task to the database.
    *
    */
-  public void addTask(Task task) {
+  public synchronized void addTask(Task task) {
     this.allTasks.add(task);
+    indexTask(task, this.allTasks.size() - 1);
   }
 
   /**
-   * Deletes a task to the database.
+   * Allocates an ID for a new task. IDs increase with every allocation and are never reused,
+   * even after the task that had one is deleted.
    *
+   * @return the allocated task ID
    */
-  public void deleteTask(Task task) {
-    this.allTasks.remove(task);
+  public String allocateTaskId() {
+    return getTaskIdAllocator().allocate();
   }
 
   /**
-   * Adds a resource type to the database.
+   * Reserves a contiguous block of IDs for new tasks.
    *
+   * @param count the number of IDs to reserve
+   * @return the first reserved ID, which is followed by the other {@code count - 1} IDs
+   * @throws IllegalArgumentException if {@code count} is not positive
+   */
+  public long reserveTaskIds(int count) {
+    return getTaskIdAllocator().reserve(count);
+  }
+
+  /**
+   * Gets the task ID allocator, seeding it from the current tasks and the persisted next ID
+   * when it is first needed.
+   */
+  private TaskIdAllocator getTaskIdAllocator() {
+    TaskIdAllocator allocator = this.taskIdAllocator;
+    if (allocator != null) {
+      return allocator;
+    }
+    synchronized (this) {
+      if (this.taskIdAllocator == null) {
+        this.taskIdAllocator =
+            TaskIdAllocator.seededFrom(getAllTasks(), this.persistedNextTaskId);
+      }
+      return this.taskIdAllocator;
+    }
+  }
+
+  /**
+   * Adds a batch of tasks to the database.
+   *
+   * @param tasks the tasks to add, in order
+   */
+  public synchronized void addTasks(List<Task> tasks) {
+    int position = this.allTasks.size();
+    this.allTasks.addAll(tasks);
+    for (Task task : tasks) {
+      indexTask(task, position++);
+    }
+  }
+
+  /**
+   * Deletes a task to the database. The last task in the list is moved into the deleted
+   * task's position, so that no other tasks have to be shifted.
+   *
+   */
+  public synchronized void deleteTask(Task task) {
+    if (task == null) {
+      return;
+    }
+    // Seed the allocator first so that the ID of the deleted task is not reused
+    getTaskIdAllocator();
+    Integer position = this.taskPositions.get(task.getTaskId());
+    if (position == null) {
+      return;
+    }
+    this.taskPositions.remove(task.getTaskId());
+    Task deleted = this.allTasks.get(position);
+    if (deleted.getChangeListener() == this.changeRecorder) {
+      deleted.setChangeListener(null);
+    }
+    for (ResourceType resourceType : deleted.getResources().keySet()) {
+      uncountRequirement(resourceType);
+    }
+    this.changes.taskChanged(position);
+    this.changes.taskChanged(this.allTasks.size() - 1);
+    Task last = this.allTasks.remove(this.allTasks.size() - 1);
+    if (position < this.allTasks.size()) {
+      this.allTasks.set(position, last);
+      if (last != null) {
+        this.taskPositions.put(last.getTaskId(), position);
+      }
+    }
+    if (this.taskPositions.size() != this.allTasks.size()) {
+      // Another task shares the deleted ID and is now the one found by getTaskById
+      rebuildTaskIndex();
+    }
+  }
+
+  /**
+   * Records the position of a task in the task list, keeping the first task with each ID.
+   */
+  private void indexTask(Task task, int position) {
+    if (task != null) {
+      if (this.taskPositions.putIfAbsent(task.getTaskId(), position) != null) {
+        // Snapshots only track tasks by position while their IDs are unique
+        this.changes.everythingChanged();
+      }
+      if (this.taskIdAllocator != null) {
+        this.taskIdAllocator.advancePast(task.getTaskId());
+      }
+      countRequirements(task);
+    }
+    this.changes.taskChanged(position);
+  }
+
+  /**
+   * Rebuilds the task positions and the requirement counts from the task list.
+   */
+  private void rebuildTaskIndex() {
+    this.taskPositions = new HashMap<>();
+    this.requirementCounts = new HashMap<>();
+    this.requirements = new IdentityHashMap<>();
+    List<Task> tasks = this.allTasks == null ? List.of() : this.allTasks;
+    for (int position = 0; position < tasks.size(); position++) {
+      Task task = tasks.get(position);
+      if (task != null) {
+        this.taskPositions.putIfAbsent(task.getTaskId(), position);
+        countRequirements(task);
+      }
+    }
+    this.changes.everythingChanged();
+  }
+
+  /**
+   * Counts the resource types a task requires and listens for changes to the task.
    */
-  public void addResourceType(ResourceType newResourceType) {
-    for (ResourceType existingResource : this.allResourceTypes) {
-      if (existingResource.equals(newResourceType)) {
-        int newUnits = newResourceType.getTotalUnits();
-        for (int resource = 0; resource < newUnits; resource++) {
-          existingResource.addResource();
+  private void countRequirements(Task task) {
+    task.setChangeListener(this.changeRecorder);
+    for (ResourceType resourceType : task.getResources().keySet()) {
+      countRequirement(resourceType);
+    }
+  }
+
+  private void countRequirement(ResourceType resourceType) {
+    Requirement requirement = this.requirements.computeIfAbsent(resourceType,
+        key -> new Requirement(ResourceTypeKey.of(resourceType)));
+    requirement.tasks++;
+    this.requirementCounts.merge(requirement.key, 1, Integer::sum);
+  }
+
+  private void uncountRequirement(ResourceType resourceType) {
+    ResourceType counted = resourceType;
+    Requirement requirement = this.requirements.get(resourceType);
+    if (requirement == null) {
+      // A task may stop requiring a resource type through an equal copy of the one it held
+      for (Map.Entry<ResourceType, Requirement> entry : this.requirements.entrySet()) {
+        if (entry.getValue().key.matches(resourceType)) {
+          counted = entry.getKey();
+          requirement = entry.getValue();
+          break;
         }
+      }
+      if (requirement == null) {
         return;
       }
     }
+    if (--requirement.tasks == 0) {
+      this.requirements.remove(counted);
+    }
+    this.requirementCounts.computeIfPresent(requirement.key,
+        (key, count) -> count == 1 ? null : count - 1);
+  }
+
+  /**
+   * Moves the requirement counts and the index entry of a resource type whose location
+   * changed to its new name and location.
+   */
+  private void rekeyResourceType(ResourceType resourceType) {
+    Requirement requirement = this.requirements.get(resourceType);
+    if (requirement != null && !requirement.key.matches(resourceType)) {
+      ResourceTypeKey previous = requirement.key;
+      requirement.key = ResourceTypeKey.of(resourceType);
+      this.requirementCounts.computeIfPresent(previous,
+          (key, count) -> count == requirement.tasks ? null : count - requirement.tasks);
+      this.requirementCounts.merge(requirement.key, requirement.tasks, Integer::sum);
+    }
+    ResourceTypeKey indexed = this.resourceTypeKeys.get(resourceType);
+    if (indexed != null && !indexed.matches(resourceType)) {
+      // Another type with the previous name and location may now be the first one
+      rebuildResourceTypeIndex();
+    }
+  }
+
+  private void detachChangeListener(List<?> items) {
+    if (items == null) {
+      return;
+    }
+    for (Object item : items) {
+      if (item instanceof Task task && task.getChangeListener() == this.changeRecorder) {
+        task.setChangeListener(null);
+      } else if (item instanceof ResourceType resourceType
+          && resourceType.getChangeListener() == this.changeRecorder) {
+        resourceType.setChangeListener(null);
+      }
+    }
+  }
+
+  /**
+   * Checks whether any task in the database requires a resource type.
+   *
+   * @param resourceType the resource type
+   * @return true if at least one task requires the resource type
+   */
+  public synchronized boolean isResourceTypeRequired(ResourceType resourceType) {
+    return this.requirementCounts.containsKey(ResourceTypeKey.of(resourceType));
+  }
+
+  /**
+   * Gets a resource type by name from the database.
+   *
+   * @param typeName the name of the resource type
+   * @return the first ResourceType with the name, or null if there is none
+   */
+  public synchronized ResourceType getResourceTypeByName(String typeName) {
+    return this.resourceTypesByName.get(typeName);
+  }
+
+  private void rebuildResourceTypeIndex() {
+    this.resourceTypesByName = new HashMap<>();
+    this.resourceTypesByKey = new HashMap<>();
+    this.resourceTypeKeys = new IdentityHashMap<>();
+    List<ResourceType> resourceTypes =
+        this.allResourceTypes == null ? List.of() : this.allResourceTypes;
+    for (ResourceType resourceType : resourceTypes) {
+      if (resourceType != null) {
+        this.resourceTypesByName.putIfAbsent(resourceType.getTypeName(), resourceType);
+        ResourceTypeKey key = ResourceTypeKey.of(resourceType);
+        this.resourceTypesByKey.putIfAbsent(key, resourceType);
+        this.resourceTypeKeys.put(resourceType, key);
+        resourceType.setChangeListener(this.changeRecorder);
+      }
+    }
+    this.changes.resourceTypeListChanged();
+  }
+
+  /**
+   * Adds a resource type to the database.
+   *
+   */
+  public synchronized void addResourceType(ResourceType newResourceType) {
+    ResourceType existingResource = newResourceType == null ? null
+        : this.resourceTypesByKey.get(ResourceTypeKey.of(newResourceType));
+    if (existingResource != null) {
+      int newUnits = newResourceType.getTotalUnits();
+      for (int resource = 0; resource < newUnits; resource++) {
+        existingResource.addResource();
+      }
+      return;
+    }
     // If no match is found, add the new resource type
     this.allResourceTypes.add(newResourceType);
+    if (newResourceType != null) {
+      this.resourceTypesByName.putIfAbsent(newResourceType.getTypeName(), newResourceType);
+      ResourceTypeKey key = ResourceTypeKey.of(newResourceType);
+      this.resourceTypesByKey.put(key, newResourceType);
+      this.resourceTypeKeys.put(newResourceType, key);
+      newResourceType.setChangeListener(this.changeRecorder);
+    }
+    this.changes.resourceTypeListChanged();
   }
 
   /**
    * Deletes a resource type to the database.
    *
    */
-  public void deleteResourceType(ResourceType resourceType) {
+  public synchronized void deleteResourceType(ResourceType resourceType) {
+    int position = this.allResourceTypes.indexOf(resourceType);
+    if (position >= 0) {
+      detachChangeListener(List.of(this.allResourceTypes.remove(position)));
+      // Another type with the same name may now be the one found by getResourceTypeByName
+      rebuildResourceTypeIndex();
+    }
+  }
 
-    this.allResourceTypes.remove(resourceType);
+  /**
+   * Captures the tasks, resource types and master schedule so that a batch of changes can be
+   * undone with {@link #restoreCheckpoint}. They are copied together through serialization,
+   * the same way they are persisted, so the references between them are kept. This costs time
+   * and memory in proportion to the whole database, not to the changes it guards.
+   *
+   * @return a new {@code Checkpoint} of the database
+   */
+  public synchronized Checkpoint createCheckpoint() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(allTasks);
+      out.writeObject(allResourceTypes);
+      out.writeObject(masterSchedule);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new Checkpoint(bytes.toByteArray());
+  }
+
+  /**
+   * Replaces the tasks, resource types and master schedule with the ones captured in a
+   * checkpoint. Task IDs allocated since the checkpoint are not reused.
+   *
+   * @param checkpoint the checkpoint to restore
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized void restoreCheckpoint(Checkpoint checkpoint) {
+    try (ObjectInputStream in =
+             new ObjectInputStream(new ByteArrayInputStream(checkpoint.state))) {
+      List<Task> tasks = (List<Task>) in.readObject();
+      List<ResourceType> resourceTypes = (List<ResourceType>) in.readObject();
+      Schedule schedule = (Schedule) in.readObject();
+      setAllResourceTypes(resourceTypes);
+      setAllTasks(tasks);
+      setMasterSchedule(schedule);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Checkpoint could not be restored.", e);
+    }
+  }
+
+  /**
+   * Gets the most recently published snapshot of the database, capturing the first one if
+   * none has been published yet.
+   *
+   * @return the current {@code ClientSnapshot} of the database
+   */
+  public ClientSnapshot getSnapshot() {
+    ClientSnapshot current = this.snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (this.snapshot == null) {
+        ClientSnapshot first = ClientSnapshot.capture(this, ++this.snapshotVersion, null, null);
+        this.changes = new ClientSnapshot.Changes();
+        this.scheduleChangeLog.record(null, first);
+        this.snapshot = first;
+      }
+      return this.snapshot;
+    }
+  }
+
+  /**
+   * Captures the current contents of the database and publishes them as the snapshot seen by
+   * readers. Should be called after each batch of changes, including changes made directly to
+   * tasks, resources or the master schedule. The database is told of each change to the tasks,
+   * resource types and schedule it holds, so only what changed since the previous snapshot is
+   * copied again. A subclass that serves its own lists instead is copied in full.
+   *
+   * @return the newly published {@code ClientSnapshot}
+   */
+  public synchronized ClientSnapshot publishSnapshot() {
+    ClientSnapshot previous = this.snapshot;
+    boolean tracked = getAllTasks() == this.allTasksView
+        && getAllResourceTypes() == this.allResourceTypesView
+        && getMasterSchedule() == this.masterSchedule;
+    ClientSnapshot current = ClientSnapshot.capture(this, ++this.snapshotVersion, previous,
+        tracked ? this.changes : null);
+    this.changes = new ClientSnapshot.Changes();
+    // Queue the changes before readers can see the version they were made in
+    this.scheduleChangeLog.record(previous, current);
+    this.snapshot = current;
+    for (SnapshotListener listener : this.snapshotListeners) {
+      listener.snapshotPublished(previous, current);
+    }
+    return current;
+  }
+
+  /**
+   * Registers a listener to be called each time a snapshot is published.
+   *
+   * @param listener the listener to add
+   */
+  public void addSnapshotListener(SnapshotListener listener) {
+    snapshotListeners.addIfAbsent(listener);
+  }
+
+  /**
+   * Removes a listener added with {@link #addSnapshotListener}.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeSnapshotListener(SnapshotListener listener) {
+    snapshotListeners.remove(listener);
+  }
+
+  /**
+   * Gets the log of changes made to the schedule between published snapshots.
+   *
+   * @return the {@code ScheduleChangeLog} of the database
+   */
+  public ScheduleChangeLog getScheduleChangeLog() {
+    return scheduleChangeLog;
+  }
+
+  /**
+   * Gets the random epoch chosen when the database was created. Snapshot versions are only
+   * comparable between callers that saw the same epoch, since a recreated database starts
+   * counting versions again.
+   *
+   * @return the epoch of the database
+   */
+  public String getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * Gets a weak entity tag for the current snapshot. The tag combines the snapshot's version
+   * with a random epoch chosen when the database was created, so tags are not reused after a
+   * restart or when a client's database is replaced.
+   *
+   * @return the entity tag of the current snapshot
+   */
+  public String getEntityTag() {
+    return "W/\"" + epoch + "-" + getSnapshot().getVersion() + "\"";
   }
 
   /**
@@ -406,23 +847,191 @@ public class MyFileDatabase {
   private final String scheduleObjectName;
 
   /**
-   * The list of tasks to be assigned.
+   * The list of tasks to be assigned, and the unmodifiable view of it given to callers.
    */
   private List<Task> allTasks;
+  private List<Task> allTasksView;
+
+  /**
+   * The position of each task in {@code allTasks}, by task ID.
+   */
+  private Map<String, Integer> taskPositions = new HashMap<>();
+
+  /**
+   * The number of tasks in {@code allTasks} that require a resource type with each name and
+   * location.
+   */
+  private Map<ResourceTypeKey, Integer> requirementCounts = new HashMap<>();
+
+  /**
+   * The name and location each resource type required by a task was counted under, and the
+   * number of tasks requiring it, so the count can be moved when its location changes.
+   */
+  private Map<ResourceType, Requirement> requirements = new IdentityHashMap<>();
+
+  /**
+   * The changes made since the current snapshot was captured.
+   */
+  private ClientSnapshot.Changes changes = new ClientSnapshot.Changes();
 
   /**
-   * The list of all resourceTypes available.
+   * Listens to the tasks, resource types and master schedule held by the database, keeping
+   * {@code requirementCounts} and {@code changes} up to date.
+   */
+  private final ChangeRecorder changeRecorder = new ChangeRecorder();
+
+  /**
+   * Allocates the IDs of new tasks, created when it is first needed.
+   */
+  private volatile TaskIdAllocator taskIdAllocator;
+
+  /**
+   * The next task ID read from the task file, or 0 if the file did not have one.
+   */
+  private long persistedNextTaskId;
+
+  /**
+   * The list of all resourceTypes available, and the unmodifiable view of it given to callers.
    */
   private List<ResourceType> allResourceTypes;
+  private List<ResourceType> allResourceTypesView;
+
+  /**
+   * The first resource type in {@code allResourceTypes} with each name.
+   */
+  private Map<String, ResourceType> resourceTypesByName = new HashMap<>();
+
+  /**
+   * The first resource type in {@code allResourceTypes} with each name and location.
+   */
+  private Map<ResourceTypeKey, ResourceType> resourceTypesByKey = new HashMap<>();
+
+  /**
+   * The name and location each resource type in {@code allResourceTypes} is indexed under.
+   */
+  private Map<ResourceType, ResourceTypeKey> resourceTypeKeys = new IdentityHashMap<>();
 
   /**
    * A master schedule containing all schedules.
    */
   private Schedule masterSchedule;
 
+  /**
+   * The most recently published snapshot, read without locking.
+   */
+  private volatile ClientSnapshot snapshot;
+
+  /**
+   * The version given to the most recently published snapshot.
+   */
+  private long snapshotVersion;
+
+  /**
+   * A random value that distinguishes this database's snapshot versions from those of
+   * databases created earlier.
+   */
+  private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+  /**
+   * The recent changes to the schedule, recorded as snapshots are published.
+   */
+  private final ScheduleChangeLog scheduleChangeLog =
+      new ScheduleChangeLog(ScheduleChangeLog.DEFAULT_CAPACITY);
+
+  /**
+   * The listeners called each time a snapshot is published.
+   */
+  private final CopyOnWriteArrayList<SnapshotListener> snapshotListeners =
+      new CopyOnWriteArrayList<>();
+
   /**
    * Logger to print information and exceptions.
    */
-  private static final Logger LOGGER = Logger.getLogger(MyFileDatabase.class.getName());
+  private static final Logger LOGGER = LoggerFactory.getLogger(MyFileDatabase.class);
   private static final String INVALID_OBJ_TYPE_ERROR = "Invalid object type in file.";
+
+  /**
+   * Records the changes made to the tasks, resource types and master schedule held by the
+   * database.
+   */
+  private final class ChangeRecorder implements ChangeListener {
+
+    @Override
+    public void taskChanged(Task task) {
+      synchronized (MyFileDatabase.this) {
+        Integer position = taskPositions.get(task.getTaskId());
+        if (position != null && allTasks.get(position) == task) {
+          changes.taskChanged(position);
+        } else {
+          // The task shares its ID with an earlier one, so its position is not recorded
+          changes.everythingChanged();
+        }
+      }
+    }
+
+    @Override
+    public void requirementChanged(Task task, ResourceType resourceType, boolean required) {
+      synchronized (MyFileDatabase.this) {
+        if (required) {
+          countRequirement(resourceType);
+        } else {
+          uncountRequirement(resourceType);
+        }
+      }
+    }
+
+    @Override
+    public void resourceTypeChanged(ResourceType resourceType) {
+      synchronized (MyFileDatabase.this) {
+        rekeyResourceType(resourceType);
+        changes.resourceTypeChanged(resourceType);
+      }
+    }
+
+    @Override
+    public void scheduleChanged(Task task) {
+      synchronized (MyFileDatabase.this) {
+        changes.scheduleChanged(task);
+      }
+    }
+  }
+
+  /**
+   * The name and location of a resource type, which are what make resource types equal, taken
+   * when the key is made so that it stays the same when the resource type moves.
+   */
+  private record ResourceTypeKey(String typeName, Location location) {
+
+    static ResourceTypeKey of(ResourceType resourceType) {
+      return new ResourceTypeKey(resourceType.getTypeName(), resourceType.getLocation());
+    }
+
+    boolean matches(ResourceType resourceType) {
+      return typeName.equals(resourceType.getTypeName())
+          && location.equals(resourceType.getLocation());
+    }
+  }
+
+  /**
+   * The key a resource type required by tasks is counted under and the number of those tasks.
+   */
+  private static final class Requirement {
+    private ResourceTypeKey key;
+    private int tasks;
+
+    private Requirement(ResourceTypeKey key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * Holds the state of a database captured by {@link #createCheckpoint()}.
+   */
+  public static final class Checkpoint {
+    private final byte[] state;
+
+    private Checkpoint(byte[] state) {
+      this.state = state;
+    }
+  }
 }
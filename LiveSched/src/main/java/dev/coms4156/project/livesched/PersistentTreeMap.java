@@ -0,0 +1,394 @@
+package dev.coms4156.project.livesched;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * An immutable sorted map. Putting or removing an entry returns a new map that shares
+ * everything but the path to the changed entry with the old one, so a change costs time and
+ * memory in proportion to the logarithm of the map's size instead of the size.
+ * The map is a treap, a binary search tree by key that is also a heap by a random priority
+ * given to each entry, which keeps it balanced in expectation whatever order keys arrive in.
+ * A map created with a value order also keeps the greatest value of each subtree under that
+ * order, so that searches can skip the subtrees in which no value qualifies.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentTreeMap<K, V> implements Iterable<V> {
+
+  private final Comparator<? super K> keyOrder;
+  private final Comparator<? super V> valueOrder;
+  private final Node<K, V> root;
+
+  private PersistentTreeMap(Comparator<? super K> keyOrder, Comparator<? super V> valueOrder,
+                            Node<K, V> root) {
+    this.keyOrder = keyOrder;
+    this.valueOrder = valueOrder;
+    this.root = root;
+  }
+
+  /**
+   * Creates an empty map.
+   *
+   * @param keyOrder the order of the keys
+   * @return an empty {@code PersistentTreeMap}
+   */
+  static <K, V> PersistentTreeMap<K, V> empty(Comparator<? super K> keyOrder) {
+    return new PersistentTreeMap<>(keyOrder, null, null);
+  }
+
+  /**
+   * Creates an empty map that keeps the greatest value of each subtree, for use with
+   * {@link #forEachBefore}.
+   *
+   * @param keyOrder   the order of the keys
+   * @param valueOrder the order in which the greatest value of each subtree is kept
+   * @return an empty {@code PersistentTreeMap}
+   */
+  static <K, V> PersistentTreeMap<K, V> empty(Comparator<? super K> keyOrder,
+                                              Comparator<? super V> valueOrder) {
+    return new PersistentTreeMap<>(keyOrder, valueOrder, null);
+  }
+
+  int size() {
+    return root == null ? 0 : root.size;
+  }
+
+  boolean isEmpty() {
+    return root == null;
+  }
+
+  /**
+   * Gets the value of a key.
+   *
+   * @param key the key
+   * @return the value of the key, or null if the map does not hold it
+   */
+  V get(K key) {
+    Node<K, V> node = find(key);
+    return node == null ? null : node.value;
+  }
+
+  boolean containsKey(K key) {
+    return find(key) != null;
+  }
+
+  /**
+   * Gets the value at a position in key order.
+   *
+   * @param index the position, counting from 0
+   * @return the value of the key at the position
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than the size
+   */
+  V getAt(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+    Node<K, V> node = root;
+    while (true) {
+      int leftSize = sizeOf(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index == leftSize) {
+        return node.value;
+      } else {
+        index -= leftSize + 1;
+        node = node.right;
+      }
+    }
+  }
+
+  /**
+   * Returns a map that holds a key with the given value.
+   *
+   * @param key   the key
+   * @param value the value of the key
+   * @return a new map with the entry, or this map if it already held the same value
+   */
+  PersistentTreeMap<K, V> put(K key, V value) {
+    Node<K, V> existing = find(key);
+    if (existing != null) {
+      return existing.value == value ? this : withRoot(replace(root, key, value));
+    }
+    return withRoot(insert(root, key, value, ThreadLocalRandom.current().nextInt()));
+  }
+
+  /**
+   * Returns a map that does not hold a key.
+   *
+   * @param key the key
+   * @return a new map without the key, or this map if it did not hold the key
+   */
+  PersistentTreeMap<K, V> remove(K key) {
+    return find(key) == null ? this : withRoot(delete(root, key));
+  }
+
+  /**
+   * Iterates over the values in key order.
+   *
+   * @return an iterator over the values
+   */
+  @Override
+  public Iterator<V> iterator() {
+    return iteratorFrom(null);
+  }
+
+  /**
+   * Iterates over the values in key order, starting from the first key at or after a bound.
+   *
+   * @param bound compares a key with the bound, returning a negative number if the key comes
+   *              before it, or null to start from the first key
+   * @return an iterator over the values from the bound
+   */
+  Iterator<V> iteratorFrom(ToIntFunction<? super K> bound) {
+    NodeIterator<K, V> nodes = new NodeIterator<>(root, bound);
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return nodes.hasNext();
+      }
+
+      @Override
+      public V next() {
+        return nodes.next().value;
+      }
+    };
+  }
+
+  /**
+   * Iterates over the entries in key order.
+   *
+   * @return an iterator over the entries
+   */
+  Iterator<Map.Entry<K, V>> entryIterator() {
+    NodeIterator<K, V> nodes = new NodeIterator<>(root, null);
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return nodes.hasNext();
+      }
+
+      @Override
+      public Map.Entry<K, V> next() {
+        Node<K, V> node = nodes.next();
+        return new AbstractMap.SimpleImmutableEntry<>(node.key, node.value);
+      }
+    };
+  }
+
+  /**
+   * Passes to an action, in key order, the values that pass a test and whose keys come before
+   * a bound. The test must fail for every value that is not greater under the map's value
+   * order than one that fails it, so that subtrees whose greatest value fails are skipped.
+   *
+   * @param bound  compares a key with the bound, returning a negative number if the key comes
+   *               before it
+   * @param test   the test the values must pass
+   * @param action the action to pass the values to
+   * @throws IllegalStateException if the map was created without a value order
+   */
+  void forEachBefore(ToIntFunction<? super K> bound, Predicate<? super V> test,
+                     Consumer<? super V> action) {
+    if (valueOrder == null) {
+      throw new IllegalStateException("The map does not keep the greatest values.");
+    }
+    forEachBefore(root, bound, test, action);
+  }
+
+  private void forEachBefore(Node<K, V> node, ToIntFunction<? super K> bound,
+                             Predicate<? super V> test, Consumer<? super V> action) {
+    if (node == null || !test.test(node.greatest)) {
+      return;
+    }
+    forEachBefore(node.left, bound, test, action);
+    if (bound.applyAsInt(node.key) >= 0) {
+      // The node and its right subtree are at or after the bound
+      return;
+    }
+    if (test.test(node.value)) {
+      action.accept(node.value);
+    }
+    forEachBefore(node.right, bound, test, action);
+  }
+
+  private Node<K, V> find(K key) {
+    Node<K, V> node = root;
+    while (node != null) {
+      int comparison = keyOrder.compare(key, node.key);
+      if (comparison == 0) {
+        return node;
+      }
+      node = comparison < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  private PersistentTreeMap<K, V> withRoot(Node<K, V> root) {
+    return new PersistentTreeMap<>(keyOrder, valueOrder, root);
+  }
+
+  private Node<K, V> node(K key, V value, int priority, Node<K, V> left, Node<K, V> right) {
+    V greatest = null;
+    if (valueOrder != null) {
+      greatest = value;
+      if (left != null && valueOrder.compare(left.greatest, greatest) > 0) {
+        greatest = left.greatest;
+      }
+      if (right != null && valueOrder.compare(right.greatest, greatest) > 0) {
+        greatest = right.greatest;
+      }
+    }
+    return new Node<>(key, value, priority, left, right, greatest);
+  }
+
+  private Node<K, V> replace(Node<K, V> node, K key, V value) {
+    int comparison = keyOrder.compare(key, node.key);
+    if (comparison == 0) {
+      return node(key, value, node.priority, node.left, node.right);
+    }
+    return comparison < 0
+        ? node(node.key, node.value, node.priority, replace(node.left, key, value), node.right)
+        : node(node.key, node.value, node.priority, node.left, replace(node.right, key, value));
+  }
+
+  /**
+   * Inserts a key the subtree does not hold, as the root of the first subtree on its path
+   * whose priority is lower.
+   */
+  private Node<K, V> insert(Node<K, V> node, K key, V value, int priority) {
+    if (node == null) {
+      return node(key, value, priority, null, null);
+    }
+    if (priority > node.priority) {
+      return node(key, value, priority, below(node, key), above(node, key));
+    }
+    return keyOrder.compare(key, node.key) < 0
+        ? node(node.key, node.value, node.priority, insert(node.left, key, value, priority),
+            node.right)
+        : node(node.key, node.value, node.priority, node.left,
+            insert(node.right, key, value, priority));
+  }
+
+  /**
+   * Gets the part of a subtree with keys before a key the subtree does not hold.
+   */
+  private Node<K, V> below(Node<K, V> node, K key) {
+    if (node == null) {
+      return null;
+    }
+    if (keyOrder.compare(key, node.key) < 0) {
+      return below(node.left, key);
+    }
+    return node(node.key, node.value, node.priority, node.left, below(node.right, key));
+  }
+
+  /**
+   * Gets the part of a subtree with keys after a key the subtree does not hold.
+   */
+  private Node<K, V> above(Node<K, V> node, K key) {
+    if (node == null) {
+      return null;
+    }
+    if (keyOrder.compare(key, node.key) > 0) {
+      return above(node.right, key);
+    }
+    return node(node.key, node.value, node.priority, above(node.left, key), node.right);
+  }
+
+  private Node<K, V> delete(Node<K, V> node, K key) {
+    int comparison = keyOrder.compare(key, node.key);
+    if (comparison == 0) {
+      return merge(node.left, node.right);
+    }
+    return comparison < 0
+        ? node(node.key, node.value, node.priority, delete(node.left, key), node.right)
+        : node(node.key, node.value, node.priority, node.left, delete(node.right, key));
+  }
+
+  /**
+   * Joins two subtrees, all of whose keys in {@code left} come before those in {@code right}.
+   */
+  private Node<K, V> merge(Node<K, V> left, Node<K, V> right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.priority > right.priority) {
+      return node(left.key, left.value, left.priority, left.left, merge(left.right, right));
+    }
+    return node(right.key, right.value, right.priority, merge(left, right.left), right.right);
+  }
+
+  private static int sizeOf(Node<?, ?> node) {
+    return node == null ? 0 : node.size;
+  }
+
+  /**
+   * Holds an entry of the map and the subtrees of the entries before and after it.
+   */
+  private static final class Node<K, V> {
+    private final K key;
+    private final V value;
+    private final int priority;
+    private final Node<K, V> left;
+    private final Node<K, V> right;
+    private final int size;
+    private final V greatest;
+
+    private Node(K key, V value, int priority, Node<K, V> left, Node<K, V> right, V greatest) {
+      this.key = key;
+      this.value = value;
+      this.priority = priority;
+      this.left = left;
+      this.right = right;
+      this.size = sizeOf(left) + 1 + sizeOf(right);
+      this.greatest = greatest;
+    }
+  }
+
+  /**
+   * Walks the nodes of a tree in key order, keeping the path to the next node.
+   */
+  private static final class NodeIterator<K, V> {
+    private final Deque<Node<K, V>> path = new ArrayDeque<>();
+
+    private NodeIterator(Node<K, V> root, ToIntFunction<? super K> bound) {
+      Node<K, V> node = root;
+      while (node != null) {
+        if (bound == null || bound.applyAsInt(node.key) >= 0) {
+          path.push(node);
+          node = node.left;
+        } else {
+          node = node.right;
+        }
+      }
+    }
+
+    private boolean hasNext() {
+      return !path.isEmpty();
+    }
+
+    private Node<K, V> next() {
+      if (path.isEmpty()) {
+        throw new NoSuchElementException();
+      }
+      Node<K, V> node = path.pop();
+      for (Node<K, V> child = node.right; child != null; child = child.left) {
+        path.push(child);
+      }
+      return node;
+    }
+  }
+}
@@ -15,6 +15,7 @@ public class Resource implements Serializable {
 
   private final String resourceId;
   private LocalDateTime availableFrom;
+  private transient ResourceType resourceType;
 
   /**
    * Constructs a new Resource object with the given parameters.
@@ -31,6 +32,33 @@ public class Resource implements Serializable {
     this.availableFrom = LocalDateTime.now(); // Initially available now
   }
 
+  private Resource(String resourceId, LocalDateTime availableFrom) {
+    this.resourceId = resourceId;
+    this.availableFrom = availableFrom;
+  }
+
+  /**
+   * Creates a copy of this resource with the same ID and availability.
+   *
+   * @return a new {@code Resource} equal in state to this one
+   */
+  Resource copy() {
+    return new Resource(resourceId, availableFrom);
+  }
+
+  /**
+   * Sets the resource type whose availability timeline counts this resource.
+   *
+   * @param resourceType the resource type, or null if the resource is not tracked
+   */
+  void setResourceType(ResourceType resourceType) {
+    this.resourceType = resourceType;
+  }
+
+  ResourceType getResourceType() {
+    return resourceType;
+  }
+
   /**
    * Checks if the resource is available at the given time.
    *
@@ -103,7 +131,11 @@ public class Resource implements Serializable {
     if (availableFrom == null) {
       throw new IllegalArgumentException("Time available from cannot be null.");
     }
+    LocalDateTime previous = this.availableFrom;
     this.availableFrom = availableFrom;
+    if (resourceType != null) {
+      resourceType.availabilityChanged(previous, availableFrom);
+    }
   }
 
   /**
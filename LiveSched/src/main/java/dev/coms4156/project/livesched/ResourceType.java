@@ -1,11 +1,18 @@
 package dev.coms4156.project.livesched;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.TreeMap;
 
 /**
  * Represents a specific type or group of resources.
@@ -18,6 +25,8 @@ public class ResourceType implements Serializable {
   private String typeName;
   private Map<String, Resource> resources; // Key = resourceId, Value = resource
   private Location location;
+  private transient NavigableMap<LocalDateTime, Integer> availabilityTimeline;
+  private transient ChangeListener changeListener;
 
   /**
    * Constructs a new ResourceType object with the given parameters.
@@ -41,6 +50,7 @@ public class ResourceType implements Serializable {
     this.typeName = typeName;
     this.resources = new HashMap<>();
     this.location = new Location(latitude, longitude);
+    this.availabilityTimeline = new TreeMap<>();
 
     // Create initial resources
     for (int resourceNumber = 1; resourceNumber <= totalUnits; resourceNumber++) {
@@ -48,6 +58,56 @@ public class ResourceType implements Serializable {
     }
   }
 
+  /**
+   * Constructs a copy of the given resource type whose resources are copies as well.
+   * The copy starts from the original's availability timeline instead of rebuilding it.
+   *
+   * @param other the resource type to copy
+   */
+  ResourceType(ResourceType other) {
+    this.typeName = other.typeName;
+    this.location = other.location;
+    this.resources = new HashMap<>();
+    for (Map.Entry<String, Resource> entry : other.resources.entrySet()) {
+      Resource copy = entry.getValue().copy();
+      copy.setResourceType(this);
+      resources.put(entry.getKey(), copy);
+    }
+    this.availabilityTimeline = new TreeMap<>(other.availabilityTimeline);
+  }
+
+  private ResourceType(String typeName, Location location) {
+    this.typeName = typeName;
+    this.location = location;
+    this.resources = Map.of();
+    this.availabilityTimeline = Collections.emptyNavigableMap();
+  }
+
+  /**
+   * Creates a resource type with this one's name and location but no resources, which is
+   * equal to this one and can stand for it where only its name and location are needed.
+   *
+   * @return a new {@code ResourceType} that cannot be changed
+   */
+  ResourceType reference() {
+    return new ResourceType(typeName, location);
+  }
+
+  /**
+   * Reads a resource type from a stream and rebuilds its availability timeline, which is not
+   * serialized, from the resources that were read.
+   */
+  @Serial
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    NavigableMap<LocalDateTime, Integer> timeline = new TreeMap<>();
+    for (Resource resource : resources.values()) {
+      resource.setResourceType(this);
+      timeline.merge(resource.getAvailableFrom(), 1, Integer::sum);
+    }
+    this.availabilityTimeline = timeline;
+  }
+
   /**
    * Adds a new resource within this resource type.
    */
@@ -55,7 +115,9 @@ public class ResourceType implements Serializable {
     int resourceNumber = getTotalUnits() + 1;
     String resourceId = typeName + " " + resourceNumber;
     Resource newResource = new Resource(resourceId);
+    newResource.setResourceType(this);
     resources.put(resourceId, newResource);
+    availabilityChanged(null, newResource.getAvailableFrom());
   }
 
   /**
@@ -83,6 +145,29 @@ public class ResourceType implements Serializable {
     return resources.size();
   }
 
+  /**
+   * Gets a resource of this resource type by its ID.
+   *
+   * @param resourceId the ID of the resource
+   * @return the resource with the ID, or null if there is none
+   */
+  Resource getResource(String resourceId) {
+    return resources.get(resourceId);
+  }
+
+  /**
+   * Sets the listener told when this resource type or one of its resources is changed.
+   *
+   * @param changeListener the listener, or null to remove the current one
+   */
+  void setChangeListener(ChangeListener changeListener) {
+    this.changeListener = changeListener;
+  }
+
+  ChangeListener getChangeListener() {
+    return changeListener;
+  }
+
   public Location getLocation() {
     return location;
   }
@@ -113,6 +198,90 @@ public class ResourceType implements Serializable {
     return count;
   }
 
+  /**
+   * Counts the number of available resources within this resource type at evenly spaced times.
+   * Since a resource stays available once it becomes available, each count is also the fewest
+   * resources available at any time until the next one.
+   *
+   * @param from the first time at which to count
+   * @param to   the time before which to stop
+   * @param step the time between counts
+   *
+   * @return the number of available resources at {@code from}, {@code from + step} and so on
+   *         for every time before {@code to}
+   * @throws IllegalArgumentException if a parameter is null, {@code to} is before
+   *                                  {@code from}, {@code step} is not positive, or the range
+   *                                  holds more steps than an array can
+   */
+  public int[] countAvailableUnits(LocalDateTime from, LocalDateTime to, Duration step) {
+    if (from == null || to == null || step == null) {
+      throw new IllegalArgumentException("Time range and step cannot be null.");
+    }
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("Range end cannot be before the range start.");
+    }
+    if (step.isNegative() || step.isZero()) {
+      throw new IllegalArgumentException("Step must be positive.");
+    }
+
+    NavigableMap<LocalDateTime, Integer> timeline = availabilityTimeline;
+    // Divided as durations, since a range of centuries overflows a count of nanoseconds
+    Duration range = Duration.between(from, to);
+    long buckets;
+    try {
+      buckets = range.dividedBy(step);
+    } catch (ArithmeticException e) {
+      buckets = Long.MAX_VALUE;
+    }
+    if (buckets >= Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Range holds too many steps.");
+    }
+    if (!step.multipliedBy(buckets).equals(range)) {
+      buckets++;
+    }
+    int[] counts = new int[(int) buckets];
+    int available = 0;
+    for (int count : timeline.headMap(from, true).values()) {
+      available += count;
+    }
+    Iterator<Map.Entry<LocalDateTime, Integer>> changes =
+        timeline.tailMap(from, false).entrySet().iterator();
+    Map.Entry<LocalDateTime, Integer> change = changes.hasNext() ? changes.next() : null;
+    LocalDateTime time = from;
+    for (int bucket = 0; bucket < counts.length; bucket++) {
+      while (change != null && !change.getKey().isAfter(time)) {
+        available += change.getValue();
+        change = changes.hasNext() ? changes.next() : null;
+      }
+      counts[bucket] = available;
+      if (bucket + 1 < counts.length) {
+        time = time.plus(step);
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Moves a resource on the availability timeline when the time it becomes available changes.
+   *
+   * @param previous the time the resource became available before, or null for a new resource
+   * @param current  the time the resource becomes available now
+   */
+  void availabilityChanged(LocalDateTime previous, LocalDateTime current) {
+    if (previous != null) {
+      availabilityTimeline.computeIfPresent(previous, (time, count) -> count == 1 ? null
+          : count - 1);
+    }
+    availabilityTimeline.merge(current, 1, Integer::sum);
+    changed();
+  }
+
+  private void changed() {
+    if (changeListener != null) {
+      changeListener.resourceTypeChanged(this);
+    }
+  }
+
   /**
    * Returns a string representation of the resource type.
    *
@@ -131,6 +300,7 @@ public class ResourceType implements Serializable {
    */
   public void updateLocation(double latitude, double longitude) {
     this.location = new Location(latitude, longitude);
+    changed();
   }
 
   @Override
@@ -0,0 +1,156 @@
+package dev.coms4156.project.livesched;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches serialized response bodies, each tagged with the data version it was generated from.
+ * An entry whose version is no longer current is discarded when it is next looked up, and the
+ * least recently used entries are evicted whenever the cached bytes exceed the byte budget.
+ */
+public class ResponseCache {
+
+  /**
+   * The number of bytes cached by default.
+   */
+  public static final long DEFAULT_BYTE_BUDGET = 64L * 1024 * 1024;
+
+  /**
+   * The size below which bodies are not worth compressing.
+   */
+  private static final int MIN_GZIP_BYTES = 1024;
+
+  private final long byteBudget;
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long cachedBytes;
+
+  /**
+   * Constructs a new ResponseCache object.
+   *
+   * @param byteBudget the maximum number of bytes to cache
+   * @throws IllegalArgumentException if the byte budget is not positive
+   */
+  public ResponseCache(long byteBudget) {
+    if (byteBudget <= 0) {
+      throw new IllegalArgumentException("Byte budget must be positive.");
+    }
+    this.byteBudget = byteBudget;
+  }
+
+  /**
+   * Gets the entry cached for a key if it was generated from the given version.
+   *
+   * @param key     the key of the response
+   * @param version the current version of the data
+   * @return the cached {@code Entry}, or null if there is none for this version
+   */
+  public synchronized Entry get(String key, String version) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.version.equals(version)) {
+      remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Caches an entry, replacing any entry with the same key and evicting the least recently used
+   * entries until the cache is within its byte budget. Entries larger than the whole budget are
+   * not cached.
+   *
+   * @param key   the key of the response
+   * @param entry the entry to cache
+   */
+  public synchronized void put(String key, Entry entry) {
+    remove(key);
+    if (entry.size() > byteBudget) {
+      return;
+    }
+    entries.put(key, entry);
+    cachedBytes += entry.size();
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (cachedBytes > byteBudget && eldest.hasNext()) {
+      cachedBytes -= eldest.next().size();
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Gets the number of bytes currently cached.
+   *
+   * @return the total size of the cached entries
+   */
+  public synchronized long getCachedBytes() {
+    return cachedBytes;
+  }
+
+  private void remove(String key) {
+    Entry removed = entries.remove(key);
+    if (removed != null) {
+      cachedBytes -= removed.size();
+    }
+  }
+
+  /**
+   * Holds a serialized response body, compressed with gzip as well if it is large enough.
+   */
+  public static final class Entry {
+    private final String version;
+    private final String contentType;
+    private final byte[] body;
+    private final byte[] gzippedBody;
+
+    /**
+     * Constructs a new Entry object, compressing the body if it is large enough.
+     *
+     * @param version     the version of the data the body was generated from
+     * @param contentType the content type of the body
+     * @param body        the serialized body
+     */
+    public Entry(String version, String contentType, byte[] body) {
+      this.version = version;
+      this.contentType = contentType;
+      this.body = body;
+      this.gzippedBody = body.length < MIN_GZIP_BYTES ? null : gzip(body);
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+
+    /**
+     * Gets the body compressed with gzip.
+     *
+     * @return the compressed body, or null if the body is too small to be compressed
+     */
+    public byte[] getGzippedBody() {
+      return gzippedBody;
+    }
+
+    long size() {
+      return body.length + (gzippedBody == null ? 0 : gzippedBody.length);
+    }
+
+    private static byte[] gzip(byte[] body) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+      try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+        gzipStream.write(body);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return compressed.toByteArray();
+    }
+  }
+}
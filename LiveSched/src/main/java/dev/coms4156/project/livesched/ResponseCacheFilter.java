@@ -0,0 +1,127 @@
+package dev.coms4156.project.livesched;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves the full-collection read endpoints from a cache of serialized responses. Bodies are
+ * cached per client, endpoint and parameters along with the entity tag of the snapshot they
+ * were generated from, so they are reused by every caller until the client's data changes.
+ * Callers that accept gzip are sent the pre-compressed body.
+ */
+@Component
+@Order(2)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+  private static final Set<String> CACHED_PATHS =
+      Set.of("/retrieveTasks", "/retrieveResourceTypes", "/retrieveSchedule");
+
+  private final ResponseCache responseCache;
+
+  /**
+   * Constructs a new ResponseCacheFilter object with a cache of the default byte budget.
+   */
+  public ResponseCacheFilter() {
+    this(new ResponseCache(ResponseCache.DEFAULT_BYTE_BUDGET));
+  }
+
+  /**
+   * Constructs a new ResponseCacheFilter object backed by the given cache.
+   *
+   * @param responseCache the cache of serialized responses
+   */
+  ResponseCacheFilter(ResponseCache responseCache) {
+    this.responseCache = responseCache;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"GET".equals(request.getMethod())
+        || !CACHED_PATHS.contains(pathOf(request))
+        || request.getParameter("clientId") == null;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain)
+      throws ServletException, IOException {
+    MyFileDatabase myFileDatabase =
+        LiveSchedApplication.getLoadedClientFileDatabase(request.getParameter("clientId"));
+    if (myFileDatabase == null) {
+      // Looking the client up must not create a database, so unknown clients are not cached
+      filterChain.doFilter(request, response);
+      return;
+    }
+    String version = myFileDatabase.getEntityTag();
+
+    String key = keyOf(request);
+    ResponseCache.Entry entry = responseCache.get(key, version);
+    if (entry != null) {
+      write(entry, request, response);
+      return;
+    }
+
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    filterChain.doFilter(request, wrapper);
+    if (wrapper.getStatus() == HttpServletResponse.SC_OK && !request.isAsyncStarted()) {
+      responseCache.put(key, new ResponseCache.Entry(version, wrapper.getContentType(),
+          wrapper.getContentAsByteArray()));
+    }
+    wrapper.copyBodyToResponse();
+  }
+
+  private static void write(ResponseCache.Entry entry, HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+    byte[] body = entry.getBody();
+    String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    if (entry.getGzippedBody() != null && acceptEncoding != null
+        && acceptEncoding.contains("gzip")) {
+      body = entry.getGzippedBody();
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    response.setContentType(entry.getContentType());
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  /**
+   * Builds the cache key of a request from its path and its parameters in a fixed order.
+   */
+  static String keyOf(HttpServletRequest request) {
+    StringBuilder key = new StringBuilder(pathOf(request));
+    char separator = '?';
+    for (Map.Entry<String, String[]> parameter
+        : new TreeMap<>(request.getParameterMap()).entrySet()) {
+      for (String value : parameter.getValue()) {
+        key.append(separator)
+            .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+            .append('=')
+            .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        separator = '&';
+      }
+    }
+    return key.toString();
+  }
+
+  /**
+   * Gets the path of a request within the application.
+   */
+  static String pathOf(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+}
@@ -1,20 +1,39 @@
 package dev.coms4156.project.livesched;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.InputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * This class contains all the API routes for the system.
@@ -22,9 +41,34 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class RouteController {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(RouteController.class);
   private static final String TASK_ID = "taskId";
   private static final String CLIENT_ID = "clientId";
   private static final String TASK_NOT_FOUND = "Task Not Found";
+  private static final String TASKS_NOT_FOUND = "Tasks Not Found";
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int MAX_AVAILABILITY_BUCKETS = 10_000;
+  private static final int MAX_BATCH_OPERATIONS = 1000;
+  private static final int MAX_BULK_TASK_IDS = 1000;
+
+  private final SchedulingCoordinator schedulingCoordinator = new SchedulingCoordinator();
+  private final SchedulingJobManager schedulingJobManager =
+      new SchedulingJobManager(schedulingCoordinator);
+  private final BulkTaskImporter bulkTaskImporter = new BulkTaskImporter();
+  private final ScheduleEventBroadcaster scheduleEventBroadcaster =
+      new ScheduleEventBroadcaster();
+  private final SchedulingTraceLog schedulingTraceLog = new SchedulingTraceLog();
+  private TracingProperties tracingProperties = new TracingProperties();
+
+  /**
+   * Sets the settings of scheduling traces. Tracing is off until settings enabling it are set.
+   *
+   * @param tracingProperties the settings of scheduling traces
+   */
+  @Autowired(required = false)
+  public void setTracingProperties(TracingProperties tracingProperties) {
+    this.tracingProperties = tracingProperties;
+  }
 
   /**
    * Redirects to the homepage.
@@ -49,10 +93,11 @@ public class RouteController {
   @GetMapping(value = "/retrieveTasks", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<?> retrieveTasks(@RequestParam(value = CLIENT_ID) String clientId) {
     try {
-      List<Task> taskList = LiveSchedApplication.getClientFileDatabase(clientId).getAllTasks();
+      List<Task> taskList =
+          ClientSnapshot.of(LiveSchedApplication.getClientFileDatabase(clientId)).getTasks();
 
-      if (taskList == null || taskList.isEmpty()) {
-        return new ResponseEntity<>("Tasks Not Found", HttpStatus.NOT_FOUND);
+      if (taskList.isEmpty()) {
+        return new ResponseEntity<>(TASKS_NOT_FOUND, HttpStatus.NOT_FOUND);
       } else {
         return new ResponseEntity<>(taskList, HttpStatus.OK);
       }
@@ -76,7 +121,8 @@ public class RouteController {
   public ResponseEntity<?> retrieveTask(@RequestParam(value = TASK_ID) String taskId,
                                         @RequestParam(value = CLIENT_ID) String clientId) {
     try {
-      Task task = LiveSchedApplication.getClientFileDatabase(clientId).getTaskById(taskId);
+      Task task =
+          ClientSnapshot.of(LiveSchedApplication.getClientFileDatabase(clientId)).getTask(taskId);
 
       if (task == null) {
         return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
@@ -100,8 +146,9 @@ public class RouteController {
   @GetMapping(value = "/retrieveResourceTypes", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<?> retrieveResourceTypes(@RequestParam(value = CLIENT_ID) String clientId) {
     try {
-      List<ResourceType> resourceTypeList;
-      resourceTypeList = LiveSchedApplication.getClientFileDatabase(clientId).getAllResourceTypes();
+      List<ResourceType> resourceTypeList =
+          ClientSnapshot.of(LiveSchedApplication.getClientFileDatabase(clientId))
+              .getResourceTypes();
 
       if (resourceTypeList.isEmpty()) {
         return new ResponseEntity<>("ResourceTypes Not Found", HttpStatus.NOT_FOUND);
@@ -126,28 +173,437 @@ public class RouteController {
   public ResponseEntity<?> retrieveSchedule(@RequestParam(value = CLIENT_ID) String clientId) {
     try {
       MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
-      Schedule masterSchedule = myFileDatabase.getMasterSchedule();
+      List<Map<String, Object>> scheduleList =
+          ClientSnapshot.of(myFileDatabase).getScheduleEntries();
 
-      if (masterSchedule == null || masterSchedule.getTaskSchedule().isEmpty()) {
+      if (scheduleList.isEmpty()) {
         return new ResponseEntity<>("Schedules Not Found", HttpStatus.NOT_FOUND);
       }
 
-      // Convert schedule to have a cleaner JSON structure
-      List<Map<String, Object>> scheduleList = new ArrayList<>();
-      masterSchedule.getTaskSchedule().forEach((task, resources) -> {
-        Map<String, Object> scheduleEntry = new HashMap<>();
+      return new ResponseEntity<>(scheduleList, HttpStatus.OK);
+
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns a page of the tasks in the database in start time order, optionally filtered by
+   * priority, scheduled state and start time.
+   *
+   * @param clientId       A {@code String} representing the client for whom to retrieve tasks.
+   * @param pageSize       An {@code int} representing the maximum number of tasks in the page.
+   * @param cursor         A {@code String} representing the nextCursor of the previous page,
+   *                       or null for the first page.
+   * @param priorities     A {@code List} of the priorities to include, or null for all.
+   * @param scheduled      A {@code Boolean} that selects scheduled or unscheduled tasks only,
+   *                       or null for both.
+   * @param from           A {@code String} representing the earliest start time to include.
+   * @param to             A {@code String} representing the start time before which to stop.
+   *
+   * @return A {@code ResponseEntity} object containing the page of tasks and the cursor of the
+   *         next page with an HTTP 200 response, or an appropriate message indicating the
+   *         proper response.
+   */
+  @GetMapping(value = "/retrieveTasksPage", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveTasksPage(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "pageSize", defaultValue = "100") int pageSize,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "priority", required = false) List<Integer> priorities,
+      @RequestParam(value = "scheduled", required = false) Boolean scheduled,
+      @RequestParam(value = "from", required = false) String from,
+      @RequestParam(value = "to", required = false) String to) {
+    try {
+      ClientSnapshot snapshot = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId));
+      TaskIndex.Page page = findPage(snapshot.getTaskIndex(), pageSize, cursor, priorities,
+          scheduled, from, to);
+
+      Map<String, Object> response = new LinkedHashMap<>();
+      response.put("tasks", page.getTasks());
+      response.put("nextCursor", page.getNextCursor());
+      return new ResponseEntity<>(response, HttpStatus.OK);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns a page of the master schedule in start time order, optionally filtered by priority
+   * and start time.
+   *
+   * @param clientId       A {@code String} representing the client that owns the schedule.
+   * @param pageSize       An {@code int} representing the maximum number of entries in the page.
+   * @param cursor         A {@code String} representing the nextCursor of the previous page,
+   *                       or null for the first page.
+   * @param priorities     A {@code List} of the priorities to include, or null for all.
+   * @param from           A {@code String} representing the earliest start time to include.
+   * @param to             A {@code String} representing the start time before which to stop.
+   *
+   * @return A {@code ResponseEntity} object containing the page of schedule entries and the
+   *         cursor of the next page with an HTTP 200 response, or an appropriate message
+   *         indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveSchedulePage", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveSchedulePage(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "pageSize", defaultValue = "100") int pageSize,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "priority", required = false) List<Integer> priorities,
+      @RequestParam(value = "from", required = false) String from,
+      @RequestParam(value = "to", required = false) String to) {
+    try {
+      ClientSnapshot snapshot = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId));
+      TaskIndex.Page page = findPage(snapshot.getScheduleIndex(), pageSize, cursor, priorities,
+          null, from, to);
+
+      List<Map<String, Object>> scheduleList = new ArrayList<>(page.getTasks().size());
+      for (Task task : page.getTasks()) {
+        Map<String, Object> scheduleEntry = new LinkedHashMap<>();
         scheduleEntry.put("task", task);
-        scheduleEntry.put("assignedResources", resources);
+        scheduleEntry.put("assignedResources", snapshot.getSchedule().get(task));
         scheduleList.add(scheduleEntry);
-      });
+      }
+
+      Map<String, Object> response = new LinkedHashMap<>();
+      response.put("schedule", scheduleList);
+      response.put("nextCursor", page.getNextCursor());
+      return new ResponseEntity<>(response, HttpStatus.OK);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the tasks in the database that start within a range of times, in start time order.
+   *
+   * @param clientId       A {@code String} representing the client for whom to retrieve tasks.
+   * @param from           A {@code String} representing the earliest start time to include.
+   * @param to             A {@code String} representing the start time before which to stop.
+   *
+   * @return A {@code ResponseEntity} object containing the matching tasks and an HTTP 200
+   *         response, or an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveTasksStartingBetween",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveTasksStartingBetween(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "from") String from,
+      @RequestParam(value = "to") String to) {
+    try {
+      ClientSnapshot snapshot = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId));
+      List<Task> taskList = snapshot.getTaskTimeIndex().startingBetween(
+          LocalDateTime.parse(from, Task.TIME_FORMATTER),
+          LocalDateTime.parse(to, Task.TIME_FORMATTER));
+      return new ResponseEntity<>(taskList, HttpStatus.OK);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the entries of the master schedule whose tasks are active at a given time, which
+   * are those that start at or before the time and end after it, in start time order.
+   *
+   * @param clientId       A {@code String} representing the client that owns the schedule.
+   * @param time           A {@code String} representing the time at which tasks are active.
+   *
+   * @return A {@code ResponseEntity} object containing the matching schedule entries and an
+   *         HTTP 200 response, or an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveScheduleActiveAt", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveScheduleActiveAt(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "time") String time) {
+    try {
+      ClientSnapshot snapshot = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId));
+      List<Task> activeTasks = snapshot.getScheduleTimeIndex().activeAt(
+          LocalDateTime.parse(time, Task.TIME_FORMATTER));
 
+      List<Map<String, Object>> scheduleList = new ArrayList<>(activeTasks.size());
+      for (Task task : activeTasks) {
+        Map<String, Object> scheduleEntry = new LinkedHashMap<>();
+        scheduleEntry.put("task", task);
+        scheduleEntry.put("assignedResources", snapshot.getSchedule().get(task));
+        scheduleList.add(scheduleEntry);
+      }
       return new ResponseEntity<>(scheduleList, HttpStatus.OK);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the tasks in the database nearest to a location, in order of distance.
+   * At least one of {@code radius} and {@code count} must be given.
+   *
+   * @param clientId       A {@code String} representing the client for whom to retrieve tasks.
+   * @param latitude       A {@code double} representing the latitude of the location.
+   * @param longitude      A {@code double} representing the longitude of the location.
+   * @param radius         A {@code Double} representing the maximum distance in kilometers,
+   *                       or null for no limit.
+   * @param count          An {@code Integer} representing the maximum number of tasks,
+   *                       or null for no limit.
+   *
+   * @return A {@code ResponseEntity} object containing a list of the matching tasks, each with
+   *         its distance, and an HTTP 200 response, or an appropriate message indicating the
+   *         proper response.
+   */
+  @GetMapping(value = "/retrieveTasksNear", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveTasksNear(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "latitude") double latitude,
+      @RequestParam(value = "longitude") double longitude,
+      @RequestParam(value = "radius", required = false) Double radius,
+      @RequestParam(value = "count", required = false) Integer count) {
+    try {
+      ClientSnapshot snapshot = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId));
+      return new ResponseEntity<>(findNear(snapshot.getTaskLocationIndex(), "task",
+          latitude, longitude, radius, count), HttpStatus.OK);
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the resource types in the database nearest to a location, in order of distance.
+   * At least one of {@code radius} and {@code count} must be given.
+   *
+   * @param clientId       A {@code String} representing the client that owns the resource
+   *                       types.
+   * @param latitude       A {@code double} representing the latitude of the location.
+   * @param longitude      A {@code double} representing the longitude of the location.
+   * @param radius         A {@code Double} representing the maximum distance in kilometers,
+   *                       or null for no limit.
+   * @param count          An {@code Integer} representing the maximum number of resource
+   *                       types, or null for no limit.
+   *
+   * @return A {@code ResponseEntity} object containing a list of the matching resource types,
+   *         each with its distance, and an HTTP 200 response, or an appropriate message
+   *         indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveResourceTypesNear", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveResourceTypesNear(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "latitude") double latitude,
+      @RequestParam(value = "longitude") double longitude,
+      @RequestParam(value = "radius", required = false) Double radius,
+      @RequestParam(value = "count", required = false) Integer count) {
+    try {
+      ClientSnapshot snapshot = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId));
+      return new ResponseEntity<>(findNear(snapshot.getResourceTypeLocationIndex(),
+          "resourceType", latitude, longitude, radius, count), HttpStatus.OK);
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the number of available units of a resource type at evenly spaced times.
+   *
+   * @param clientId       A {@code String} representing the client that owns the resource type.
+   * @param typeName       A {@code String} representing the resource type.
+   * @param from           A {@code String} representing the first time at which to count.
+   * @param to             A {@code String} representing the time before which to stop.
+   * @param stepMinutes    An {@code int} representing the minutes between counts.
+   *
+   * @return A {@code ResponseEntity} object containing the counts and an HTTP 200 response,
+   *         or an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveResourceTypeAvailability",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveResourceTypeAvailability(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "typeName") String typeName,
+      @RequestParam(value = "from") String from,
+      @RequestParam(value = "to") String to,
+      @RequestParam(value = "stepMinutes", defaultValue = "15") int stepMinutes) {
+    try {
+      LocalDateTime fromTime = LocalDateTime.parse(from, Task.TIME_FORMATTER);
+      LocalDateTime toTime = LocalDateTime.parse(to, Task.TIME_FORMATTER);
+      if (stepMinutes < 1) {
+        return new ResponseEntity<>("Step must be at least one minute.", HttpStatus.BAD_REQUEST);
+      }
+      if (Duration.between(fromTime, toTime).toMinutes()
+          > (long) stepMinutes * MAX_AVAILABILITY_BUCKETS) {
+        return new ResponseEntity<>("Range cannot be more than " + MAX_AVAILABILITY_BUCKETS
+            + " steps long.", HttpStatus.BAD_REQUEST);
+      }
+
+      ResourceType resourceType = ClientSnapshot.of(
+          LiveSchedApplication.getClientFileDatabase(clientId)).getResourceType(typeName);
+      if (resourceType != null) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("typeName", typeName);
+        response.put("totalUnits", resourceType.getTotalUnits());
+        response.put("from", from);
+        response.put("stepMinutes", stepMinutes);
+        response.put("availableUnits", resourceType.countAvailableUnits(fromTime, toTime,
+            Duration.ofMinutes(stepMinutes)));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+      }
+      return new ResponseEntity<>("ResourceType Not Found", HttpStatus.NOT_FOUND);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the changes to the master schedule made since a given version: the tasks that were
+   * newly scheduled, unscheduled or assigned different resources. If the changes are no longer
+   * kept, or the version comes from another epoch of the client's database, the full schedule
+   * is returned instead and fullResync is set.
+   *
+   * @param clientId       A {@code String} representing the client that owns the schedule.
+   * @param sinceVersion   A {@code long} representing the toVersion of the caller's last
+   *                       response, or 0 to receive the full schedule.
+   * @param epoch          A {@code String} representing the epoch of the caller's last
+   *                       response, needed for {@code sinceVersion} to be used.
+   *
+   * @return A {@code ResponseEntity} object containing the changes or the full schedule and
+   *         an HTTP 200 response or, an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveScheduleChanges", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveScheduleChanges(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestParam(value = "sinceVersion", defaultValue = "0") long sinceVersion,
+      @RequestParam(value = "epoch", required = false) String epoch) {
+    try {
+      if (sinceVersion < 0) {
+        return new ResponseEntity<>("Version must not be negative.", HttpStatus.BAD_REQUEST);
+      }
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      ClientSnapshot snapshot = ClientSnapshot.of(myFileDatabase);
+      // Versions restart when a database is recreated, so one from another epoch means nothing
+      List<ScheduleChangeLog.Change> changes =
+          !myFileDatabase.getEpoch().equals(epoch) ? null
+          : myFileDatabase.getScheduleChangeLog().changesSince(sinceVersion,
+              snapshot.getVersion());
 
+      Map<String, Object> response = new LinkedHashMap<>();
+      response.put("epoch", myFileDatabase.getEpoch());
+      response.put("fromVersion", sinceVersion);
+      response.put("toVersion", snapshot.getVersion());
+      response.put("fullResync", changes == null);
+      if (changes == null) {
+        response.put("schedule", snapshot.getScheduleEntries());
+      } else {
+        response.put("changes", changes);
+      }
+      return new ResponseEntity<>(response, HttpStatus.OK);
     } catch (Exception e) {
       return handleException(e);
     }
   }
 
+  /**
+   * Subscribes to a Server-Sent Events stream of changes to the client's tasks, resource types
+   * and schedule. Each event is named task-scheduled, task-unscheduled, task-changed,
+   * resource-added or resync, and its ID is the snapshot version in which the change was
+   * published. A resync event stands for changes too many to send, after which the client's
+   * state should be fetched again.
+   *
+   * @param clientId       A {@code String} representing the client whose changes are sent.
+   *
+   * @return A {@code ResponseEntity} object containing the event stream and an HTTP 200
+   *         response, or an HTTP 500 response if the subscription could not be created.
+   */
+  @GetMapping(value = "/subscribeScheduleEvents", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> subscribeScheduleEvents(
+      @RequestParam(value = CLIENT_ID) String clientId) {
+    try {
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      return ResponseEntity.ok(scheduleEventBroadcaster.subscribe(clientId, myFileDatabase));
+    } catch (Exception e) {
+      LOGGER.error("Could not subscribe to schedule events", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+  }
+
+  /**
+   * Streams the details of all tasks in the database, in the same format as /retrieveTasks.
+   * Tasks are written one at a time as a JSON array or, if the request accepts
+   * application/x-ndjson, as one task per line.
+   *
+   * @param clientId       A {@code String} representing the client for whom to retrieve tasks.
+   * @param accept         A {@code String} representing the Accept header of the request.
+   *
+   * @return A {@code ResponseEntity} object containing either the stream of Tasks and
+   *         an HTTP 200 response, or an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveTasksStream",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<StreamingResponseBody> retrieveTasksStream(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    try {
+      List<Task> taskList =
+          ClientSnapshot.of(LiveSchedApplication.getClientFileDatabase(clientId)).getTasks();
+
+      if (taskList.isEmpty()) {
+        return streamMessage(TASKS_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+      boolean ndjson = JsonStreamWriter.acceptsNdjson(accept);
+      return ResponseEntity.ok().contentType(JsonStreamWriter.contentType(ndjson))
+          .body(JsonStreamWriter.tasks(taskList, ndjson));
+    } catch (Exception e) {
+      LOGGER.error("Request failed", e);
+      return streamMessage(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Streams the master schedule, in the same format as /retrieveSchedule.
+   * Entries are written one at a time as a JSON array or, if the request accepts
+   * application/x-ndjson, as one entry per line.
+   *
+   * @param clientId       A {@code String} representing the client that owns the schedule.
+   * @param accept         A {@code String} representing the Accept header of the request.
+   *
+   * @return A {@code ResponseEntity} object containing the stream of schedule entries and
+   *         an HTTP 200 response or, an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveScheduleStream",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<StreamingResponseBody> retrieveScheduleStream(
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    try {
+      Map<Task, List<Resource>> schedule =
+          ClientSnapshot.of(LiveSchedApplication.getClientFileDatabase(clientId)).getSchedule();
+
+      if (schedule.isEmpty()) {
+        return streamMessage("Schedules Not Found", HttpStatus.NOT_FOUND);
+      }
+      boolean ndjson = JsonStreamWriter.acceptsNdjson(accept);
+      return ResponseEntity.ok().contentType(JsonStreamWriter.contentType(ndjson))
+          .body(JsonStreamWriter.scheduleEntries(schedule, ndjson));
+    } catch (Exception e) {
+      LOGGER.error("Request failed", e);
+      return streamMessage(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
   /**
    * Update and returns the schedule for current tasks and resources.
    *
@@ -167,7 +623,7 @@ public class RouteController {
       List<Task> taskList = myFileDatabase.getAllTasks();
 
       if (taskList == null || taskList.isEmpty()) {
-        return new ResponseEntity<>("Tasks Not Found", HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(TASKS_NOT_FOUND, HttpStatus.NOT_FOUND);
       }
 
       Schedule masterSchedule = myFileDatabase.getMasterSchedule();
@@ -176,36 +632,162 @@ public class RouteController {
         return new ResponseEntity<>("Master Schedule Not Found", HttpStatus.NOT_FOUND);
       }
 
-      Map<Task, List<Resource>> updatedSchedule =
-          masterSchedule.updateSchedule(taskList, maxDistance);
+      SchedulingTrace trace = startTrace(clientId, maxDistance);
+      Map<Task, List<Resource>> updatedSchedule = schedulingCoordinator.run(clientId,
+          maxDistance, distance -> runSchedulingPass(clientId, myFileDatabase, distance, null,
+              trace));
 
-      // Convert schedule to have a cleaner JSON structure
-      List<Map<String, Object>> response = new ArrayList<>();
-      for (Map.Entry<Task, List<Resource>> entry : updatedSchedule.entrySet()) {
-        Map<String, Object> scheduleEntry = new LinkedHashMap<>();
-        scheduleEntry.put("task", Map.of(
-            "taskId", entry.getKey().getTaskId(),
-            "taskName", entry.getKey().getTaskName(),
-            "priority", entry.getKey().getPriority(),
-            "startTime", entry.getKey().getStartTime(),
-            "endTime", entry.getKey().getEndTime(),
-            "location", entry.getKey().getLocation(),
-            "resources", entry.getKey().getResources()
-        ));
-        scheduleEntry.put("assignedResources", entry.getValue().stream().map(resource -> Map.of(
-            "resourceId", resource.getResourceId(),
-            "availableFrom", resource.getAvailableFrom()
-        )).toList());
-
-        response.add(scheduleEntry);
+      long responseStartNanos = trace != null ? System.nanoTime() : 0;
+      List<Map<String, Object>> response = toScheduleResponse(updatedSchedule);
+      if (trace != null) {
+        trace.addPhase(SchedulingTrace.Phase.RESPONSE, responseStartNanos);
+        finishTrace(trace);
+      }
+      return new ResponseEntity<>(response, HttpStatus.OK);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Updates the schedule for current tasks and resources, then streams it in the same format
+   * as /updateSchedule. Entries are written one at a time as a JSON array or, if the request
+   * accepts application/x-ndjson, as one entry per line.
+   *
+   * @param maxDistance    A {@code double} representing the max distance
+   *                       the user wishes between schedule tasks and resources.
+   * @param clientId      A {@code String} representing the client for whom the schedule
+   *                      will be created.
+   * @param accept        A {@code String} representing the Accept header of the request.
+   *
+   * @return A {@code ResponseEntity} object containing either the stream of the Schedule and
+   *         an HTTP 200 response or, an appropriate message indicating the proper response.
+   */
+  @PatchMapping(value = "/updateScheduleStream",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<StreamingResponseBody> updateScheduleStream(
+      @RequestParam(value = "maxDistance") double maxDistance,
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    try {
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      List<Task> taskList = myFileDatabase.getAllTasks();
+
+      if (taskList == null || taskList.isEmpty()) {
+        return streamMessage(TASKS_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+      if (myFileDatabase.getMasterSchedule() == null) {
+        return streamMessage("Master Schedule Not Found", HttpStatus.NOT_FOUND);
+      }
+
+      SchedulingTrace trace = startTrace(clientId, maxDistance);
+      Map<Task, List<Resource>> updatedSchedule = schedulingCoordinator.run(clientId,
+          maxDistance, distance -> runSchedulingPass(clientId, myFileDatabase, distance, null,
+              trace));
+      if (trace != null) {
+        finishTrace(trace);
       }
+      boolean ndjson = JsonStreamWriter.acceptsNdjson(accept);
+      return ResponseEntity.ok().contentType(JsonStreamWriter.contentType(ndjson))
+          .body(JsonStreamWriter.scheduleSummary(updatedSchedule, ndjson));
+    } catch (Exception e) {
+      LOGGER.error("Request failed", e);
+      return streamMessage(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
 
+  /**
+   * Returns the traces of the client's recent scheduling passes, newest first. Passes are only
+   * traced when tracing is enabled under {@code livesched.tracing}.
+   *
+   * @param clientId      A {@code String} representing the client whose traces are returned.
+   *
+   * @return A {@code ResponseEntity} object containing the time spent in each phase of recent
+   *         passes and a sample of their tasks with an HTTP 200 response or, an appropriate
+   *         message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveSchedulingTraces", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveSchedulingTraces(
+      @RequestParam(value = CLIENT_ID) String clientId) {
+    try {
+      List<SchedulingTrace> traces = schedulingTraceLog.getTraces(clientId);
+      if (traces.isEmpty()) {
+        return new ResponseEntity<>("Scheduling Traces Not Found", HttpStatus.NOT_FOUND);
+      }
+      List<Map<String, Object>> response = new ArrayList<>(traces.size());
+      for (SchedulingTrace trace : traces) {
+        response.add(trace.describe());
+      }
       return new ResponseEntity<>(response, HttpStatus.OK);
     } catch (Exception e) {
       return handleException(e);
     }
   }
 
+  /**
+   * Starts updating the schedule for current tasks and resources in the background.
+   * If a job for the same client and maximum distance is already queued or running,
+   * that job is returned instead of starting a new one.
+   *
+   * @param maxDistance    A {@code double} representing the max distance
+   *                       the user wishes between schedule tasks and resources.
+   * @param clientId      A {@code String} representing the client for whom the schedule
+   *                      will be created.
+   *
+   * @return A {@code ResponseEntity} object containing the status of the scheduling job and
+   *         an HTTP 202 response or, an appropriate message indicating the proper response.
+   */
+  @PostMapping(value = "/startScheduleJob", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> startScheduleJob(@RequestParam(value = "maxDistance") double maxDistance,
+                                            @RequestParam(value = CLIENT_ID) String clientId) {
+    try {
+      if (maxDistance < 0) {
+        return new ResponseEntity<>("Maximum distance cannot be negative.",
+            HttpStatus.BAD_REQUEST);
+      }
+
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      List<Task> taskList = myFileDatabase.getAllTasks();
+
+      if (taskList == null || taskList.isEmpty()) {
+        return new ResponseEntity<>(TASKS_NOT_FOUND, HttpStatus.NOT_FOUND);
+      }
+
+      SchedulingJob job = schedulingJobManager.submit(clientId, maxDistance,
+          (progress, distance) -> runSchedulingPass(clientId, myFileDatabase, distance,
+              progress, null));
+      return new ResponseEntity<>(describeJob(job), HttpStatus.ACCEPTED);
+    } catch (RejectedExecutionException e) {
+      return new ResponseEntity<>("Scheduler Busy", HttpStatus.SERVICE_UNAVAILABLE);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Returns the status and progress of a scheduling job, and its schedule once it has finished.
+   *
+   * @param jobId         A {@code String} representing the job returned by /startScheduleJob.
+   * @param clientId      A {@code String} representing the client that started the job.
+   *
+   * @return A {@code ResponseEntity} object containing the status of the scheduling job and
+   *         an HTTP 200 response or, an appropriate message indicating the proper response.
+   */
+  @GetMapping(value = "/retrieveScheduleJob", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> retrieveScheduleJob(@RequestParam(value = "jobId") String jobId,
+                                               @RequestParam(value = CLIENT_ID) String clientId) {
+    try {
+      SchedulingJob job = schedulingJobManager.getJob(jobId);
+
+      if (job == null || !job.getClientId().equals(clientId)) {
+        return new ResponseEntity<>("Schedule Job Not Found", HttpStatus.NOT_FOUND);
+      }
+      return new ResponseEntity<>(describeJob(job), HttpStatus.OK);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
   /**
    * Attempts to add a task to the database.
    *
@@ -230,15 +812,78 @@ public class RouteController {
                                    @RequestParam(value = CLIENT_ID) String clientId) {
     try {
       MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
-      String taskId = String.valueOf(myFileDatabase.getAllTasks().size() + 1);
-      Map<ResourceType, Integer> resourceTypeList = new HashMap<>();
-      DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-      LocalDateTime startTimeFormatted = LocalDateTime.parse(startTime, formatter);
-      LocalDateTime endTimeFormatted = LocalDateTime.parse(endTime, formatter);
-      Task newTask = new Task(taskId, taskName, resourceTypeList, priority,
-              startTimeFormatted, endTimeFormatted, latitude, longitude);
-      myFileDatabase.addTask(newTask);
-      return new ResponseEntity<>(newTask, HttpStatus.OK);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyAddTask(myFileDatabase, taskName, priority,
+            startTime, endTime, latitude, longitude));
+      }
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Attempts to add a batch of tasks to the database. The request body holds either a JSON
+   * array of task objects or newline-delimited JSON with one task object per line. Each object
+   * has the fields taskName, priority, startTime, endTime, latitude and longitude, and may map
+   * resource type names to the quantities needed under resources. The tasks are validated in
+   * parallel and either all of them are added or, if any is invalid, none of them are.
+   *
+   * @param clientId       A {@code String} representing the client for whom the tasks are added.
+   * @param body           An {@code InputStream} of the request body holding the tasks.
+   *
+   * @return A {@code ResponseEntity} object containing the number of tasks added and the range
+   *          of their IDs with an HTTP 200 status code, or the proper status code in tune with
+   *          what has happened.
+   */
+  @PostMapping(value = "/addTasks",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> addTasks(@RequestParam(value = CLIENT_ID) String clientId,
+                                    InputStream body) {
+    try {
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      List<JsonNode> entries = bulkTaskImporter.read(body);
+
+      Map<String, ResourceType> resourceTypesByName = new HashMap<>();
+      synchronized (myFileDatabase) {
+        for (ResourceType resourceType : myFileDatabase.getAllResourceTypes()) {
+          resourceTypesByName.putIfAbsent(resourceType.getTypeName(), resourceType);
+        }
+      }
+
+      BulkTaskImporter.Result result = bulkTaskImporter.validate(entries, resourceTypesByName);
+      if (result.hasErrors()) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("invalidTasks", result.getInvalidTasks());
+        response.put("errors", result.getErrors());
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+      }
+
+      synchronized (myFileDatabase) {
+        Set<ResourceType> currentResourceTypes =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+        currentResourceTypes.addAll(myFileDatabase.getAllResourceTypes());
+        if (!currentResourceTypes.containsAll(result.getReferencedResourceTypes())) {
+          return new ResponseEntity<>("ResourceTypes changed while adding tasks, please retry.",
+              HttpStatus.CONFLICT);
+        }
+
+        long firstId = myFileDatabase.reserveTaskIds(result.getTasks().size());
+        List<Task> newTasks = new ArrayList<>(result.getTasks().size());
+        for (Task task : result.getTasks()) {
+          newTasks.add(task.withTaskId(String.valueOf(firstId + newTasks.size())));
+        }
+        myFileDatabase.addTasks(newTasks);
+        myFileDatabase.publishSnapshot();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("tasksAdded", newTasks.size());
+        response.put("firstTaskId", newTasks.get(0).getTaskId());
+        response.put("lastTaskId", newTasks.get(newTasks.size() - 1).getTaskId());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+      }
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     } catch (Exception e) {
       return handleException(e);
     }
@@ -259,20 +904,9 @@ public class RouteController {
                                           @RequestParam(value = CLIENT_ID) String clientId) {
     try {
       MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
-      Schedule masterSchedule = myFileDatabase.getMasterSchedule();
-      Task task = myFileDatabase.getTaskById(taskId);
-
-      if (task == null) {
-        return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
-      }
-      if (masterSchedule == null) {
-        return new ResponseEntity<>("Master Schedule Not Found", HttpStatus.NOT_FOUND);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyUnscheduleTask(myFileDatabase, taskId));
       }
-      if (!masterSchedule.getTaskSchedule().containsKey(task)) {
-        return new ResponseEntity<>("Task Not Scheduled Yet", HttpStatus.BAD_REQUEST);
-      }
-      masterSchedule.unscheduleTask(task);
-      return new ResponseEntity<>("Task unscheduled succesfully", HttpStatus.OK);
     } catch (Exception e) {
       return handleException(e);
     }
@@ -293,12 +927,8 @@ public class RouteController {
                                       @RequestParam(value = CLIENT_ID) String clientId) {
     try {
       MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
-      Task task = myFileDatabase.getTaskById(taskId);
-      if (task == null) {
-        return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
-      } else {
-        myFileDatabase.deleteTask(task);
-        return new ResponseEntity<>(taskId + " successfully deleted", HttpStatus.OK);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyDeleteTask(myFileDatabase, taskId));
       }
     } catch (Exception e) {
       return handleException(e);
@@ -325,9 +955,11 @@ public class RouteController {
                                            @RequestParam(value = "longitude") double longitude,
                                            @RequestParam(value = CLIENT_ID) String clientId) {
     try {
-      ResourceType newResourceType = new ResourceType(typeName, totalUnits, latitude, longitude);
-      LiveSchedApplication.getClientFileDatabase(clientId).addResourceType(newResourceType);
-      return new ResponseEntity<>("Attribute was updated successfully.", HttpStatus.OK);
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyAddResourceType(myFileDatabase, typeName,
+            totalUnits, latitude, longitude));
+      }
     } catch (Exception e) {
       return handleException(e);
     }
@@ -353,20 +985,47 @@ public class RouteController {
                                               @RequestParam(value = CLIENT_ID) String clientId) {
     try {
       MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
-      boolean doesTaskExist = retrieveTask(taskId, clientId).getStatusCode() == HttpStatus.OK;
-      if (doesTaskExist) {
-        List<ResourceType> resourceTypeList;
-        resourceTypeList = myFileDatabase.getAllResourceTypes();
-        Task task = myFileDatabase.getTaskById(taskId);
-        for (ResourceType resourceType : resourceTypeList) {
-          if (resourceType.getTypeName().equals(typeName)) {
-            task.updateResource(resourceType, quantity);
-            return new ResponseEntity<>("Attribute was updated successfully.", HttpStatus.OK);
-          }
-        }
-        return new ResponseEntity<>("ResourceType Not Found", HttpStatus.NOT_FOUND);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyModifyResourceType(myFileDatabase, taskId,
+            typeName, quantity));
       }
-      return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Attempts to update the resource types needed by one or more tasks in a single call. The
+   * request body is a JSON object mapping resource type names to the quantities needed, where
+   * a quantity of 0 removes the resource type from the task. The same requirements are applied
+   * to every given task, and either all of the tasks are updated or, if a task or resource type
+   * is not found, none of them are.
+   *
+   * @param taskIds         A {@code List<String>} representing the tasks to update.
+   * @param replace         A {@code boolean} representing whether the given requirements
+   *                        replace all the requirements of each task instead of patching them.
+   * @param clientId        A {@code String} representing the client that owns the tasks.
+   * @param resources       A {@code JsonNode} holding the quantity needed of each resource type.
+   *
+   * @return               A {@code ResponseEntity} object containing the updated tasks and an
+   *                       HTTP 200 response, or the proper status code in tune with what has
+   *                       happened.
+   */
+  @PatchMapping(value = "/modifyTaskResources", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> modifyTaskResources(
+      @RequestParam(value = "taskIds") List<String> taskIds,
+      @RequestParam(value = "replace", defaultValue = "false") boolean replace,
+      @RequestParam(value = CLIENT_ID) String clientId,
+      @RequestBody JsonNode resources) {
+    try {
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyModifyTaskResources(myFileDatabase,
+            taskIds, resources, replace));
+      }
+    } catch (IllegalArgumentException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     } catch (Exception e) {
       return handleException(e);
     }
@@ -387,29 +1046,558 @@ public class RouteController {
                                               @RequestParam(value = CLIENT_ID) String clientId) {
     try {
       MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
-      List<Task> tasks = myFileDatabase.getAllTasks();
-      List<ResourceType> resourceTypeList =
-          myFileDatabase.getAllResourceTypes();
-      for (ResourceType resourceType : resourceTypeList) {
-        if (resourceType.getTypeName().equals(typeName)) {
-          for (Task task : tasks) {
-            if (task.getResources().containsKey(resourceType)) {
-              return new ResponseEntity<>("Cannot delete a resourceType currently in need",
-                  HttpStatus.BAD_REQUEST);
+      synchronized (myFileDatabase) {
+        return publishIfApplied(myFileDatabase, applyDeleteResourceType(myFileDatabase,
+            typeName));
+      }
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  /**
+   * Applies an ordered list of operations to a client's data while holding the client's
+   * database once, and publishes the result as a single change. Each operation is a JSON object
+   * naming one of addTask, addResourceType, modifyResourceType, modifyTaskResources,
+   * unscheduleTask, deleteTask, deleteResourceType or updateSchedule under "operation", with the
+   * parameters of the matching endpoint as fields; the body of modifyTaskResources goes under
+   * "resources". A taskId of the form "$n" refers to the task added by the operation at index n
+   * of the same batch. By default every operation is attempted and those that succeed
+   * are kept; in atomic mode the batch stops at the first failed operation and none of its
+   * changes are kept.
+   *
+   * @param clientId       A {@code String} representing the client whose data is changed.
+   * @param atomic         A {@code boolean} representing whether the operations are applied
+   *                       all together or not at all.
+   * @param operations     A {@code JsonNode} holding the JSON array of operations.
+   *
+   * @return A {@code ResponseEntity} object containing the status and body of each operation
+   *          with an HTTP 200 status code, an HTTP 409 status code if an atomic batch was rolled
+   *          back, or the proper status code in tune with what has happened.
+   */
+  @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<?> batch(@RequestParam(value = CLIENT_ID) String clientId,
+                                 @RequestParam(value = "atomic", defaultValue = "false")
+                                 boolean atomic,
+                                 @RequestBody JsonNode operations) {
+    try {
+      if (operations == null || !operations.isArray() || operations.isEmpty()) {
+        return new ResponseEntity<>("Operations must be a non-empty JSON array.",
+            HttpStatus.BAD_REQUEST);
+      }
+      if (operations.size() > MAX_BATCH_OPERATIONS) {
+        return new ResponseEntity<>("A batch can hold at most " + MAX_BATCH_OPERATIONS
+            + " operations.", HttpStatus.BAD_REQUEST);
+      }
+
+      MyFileDatabase myFileDatabase = LiveSchedApplication.getClientFileDatabase(clientId);
+      synchronized (myFileDatabase) {
+        MyFileDatabase.Checkpoint checkpoint = atomic ? myFileDatabase.createCheckpoint() : null;
+        List<String> addedTaskIds = new ArrayList<>(operations.size());
+        List<Map<String, Object>> results = new ArrayList<>(operations.size());
+        boolean applied = false;
+        boolean failed = false;
+        for (JsonNode operation : operations) {
+          ResponseEntity<?> response = applyOperation(clientId, myFileDatabase, operation,
+              addedTaskIds);
+          addedTaskIds.add(response.getBody() instanceof Task task ? task.getTaskId() : null);
+
+          Map<String, Object> result = new LinkedHashMap<>();
+          result.put("operation", operation.path("operation").asText());
+          result.put("status", response.getStatusCode().value());
+          result.put("body", response.getBody());
+          results.add(result);
+
+          if (response.getStatusCode().is2xxSuccessful()) {
+            applied = true;
+          } else {
+            failed = true;
+            if (atomic) {
+              break;
             }
           }
-          myFileDatabase.deleteResourceType(resourceType);
-          return new ResponseEntity<>(typeName + " successfully deleted", HttpStatus.OK);
         }
+
+        boolean committed = !(atomic && failed);
+        if (!committed) {
+          myFileDatabase.restoreCheckpoint(checkpoint);
+        } else if (applied) {
+          myFileDatabase.publishSnapshot();
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("atomic", atomic);
+        response.put("committed", committed);
+        response.put("results", results);
+        return new ResponseEntity<>(response, committed ? HttpStatus.OK : HttpStatus.CONFLICT);
       }
-      return new ResponseEntity<>("ResourceType Not Found", HttpStatus.NOT_FOUND);
     } catch (Exception e) {
       return handleException(e);
     }
   }
 
+  /**
+   * Applies one operation of a batch. The caller must hold the client's database.
+   *
+   * @return the response the matching endpoint would give, without publishing the change
+   */
+  private ResponseEntity<?> applyOperation(String clientId, MyFileDatabase myFileDatabase,
+                                           JsonNode operation, List<String> addedTaskIds) {
+    try {
+      String name = operation.path("operation").asText();
+      switch (name) {
+        case "addTask":
+          return applyAddTask(myFileDatabase, requireText(operation, "taskName"),
+              requireInt(operation, "priority"), requireText(operation, "startTime"),
+              requireText(operation, "endTime"), requireDouble(operation, "latitude"),
+              requireDouble(operation, "longitude"));
+        case "addResourceType":
+          return applyAddResourceType(myFileDatabase, requireText(operation, "typeName"),
+              requireInt(operation, "totalUnits"), requireDouble(operation, "latitude"),
+              requireDouble(operation, "longitude"));
+        case "modifyResourceType":
+          return applyModifyResourceType(myFileDatabase,
+              requireTaskId(operation, addedTaskIds), requireText(operation, "typeName"),
+              requireInt(operation, "quantity"));
+        case "modifyTaskResources":
+          return applyModifyTaskResources(myFileDatabase,
+              requireTaskIds(operation, addedTaskIds), operation.get("resources"),
+              operation.path("replace").asBoolean(false));
+        case "unscheduleTask":
+          return applyUnscheduleTask(myFileDatabase, requireTaskId(operation, addedTaskIds));
+        case "deleteTask":
+          return applyDeleteTask(myFileDatabase, requireTaskId(operation, addedTaskIds));
+        case "deleteResourceType":
+          return applyDeleteResourceType(myFileDatabase, requireText(operation, "typeName"));
+        case "updateSchedule":
+          return applyUpdateSchedule(clientId, myFileDatabase,
+              requireDouble(operation, "maxDistance"));
+        default:
+          return new ResponseEntity<>("Unknown operation: " + name, HttpStatus.BAD_REQUEST);
+      }
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    } catch (Exception e) {
+      return handleException(e);
+    }
+  }
+
+  private static ResponseEntity<?> applyAddTask(MyFileDatabase myFileDatabase, String taskName,
+                                                int priority, String startTime, String endTime,
+                                                double latitude, double longitude) {
+    LocalDateTime startTimeFormatted =
+        LocalDateTime.parse(startTime, Task.TIME_FORMATTER);
+    LocalDateTime endTimeFormatted =
+        LocalDateTime.parse(endTime, Task.TIME_FORMATTER);
+    String taskId = myFileDatabase.allocateTaskId();
+    Task newTask = new Task(taskId, taskName, new HashMap<>(), priority,
+        startTimeFormatted, endTimeFormatted, latitude, longitude);
+    myFileDatabase.addTask(newTask);
+    return new ResponseEntity<>(newTask, HttpStatus.OK);
+  }
+
+  private static ResponseEntity<?> applyUnscheduleTask(MyFileDatabase myFileDatabase,
+                                                       String taskId) {
+    Schedule masterSchedule = myFileDatabase.getMasterSchedule();
+    Task task = myFileDatabase.getTaskById(taskId);
+
+    if (task == null) {
+      return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
+    }
+    if (masterSchedule == null) {
+      return new ResponseEntity<>("Master Schedule Not Found", HttpStatus.NOT_FOUND);
+    }
+    if (!masterSchedule.getTaskSchedule().containsKey(task)) {
+      return new ResponseEntity<>("Task Not Scheduled Yet", HttpStatus.BAD_REQUEST);
+    }
+    masterSchedule.unscheduleTask(task);
+    return new ResponseEntity<>("Task unscheduled succesfully", HttpStatus.OK);
+  }
+
+  private static ResponseEntity<?> applyDeleteTask(MyFileDatabase myFileDatabase,
+                                                   String taskId) {
+    Task task = myFileDatabase.getTaskById(taskId);
+    if (task == null) {
+      return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
+    }
+    myFileDatabase.deleteTask(task);
+    return new ResponseEntity<>(taskId + " successfully deleted", HttpStatus.OK);
+  }
+
+  private static ResponseEntity<?> applyAddResourceType(MyFileDatabase myFileDatabase,
+                                                        String typeName, int totalUnits,
+                                                        double latitude, double longitude) {
+    ResourceType newResourceType = new ResourceType(typeName, totalUnits, latitude, longitude);
+    myFileDatabase.addResourceType(newResourceType);
+    return new ResponseEntity<>("Attribute was updated successfully.", HttpStatus.OK);
+  }
+
+  private static ResponseEntity<?> applyModifyResourceType(MyFileDatabase myFileDatabase,
+                                                           String taskId, String typeName,
+                                                           int quantity) {
+    Task task = myFileDatabase.getTaskById(taskId);
+    if (task == null) {
+      return new ResponseEntity<>(TASK_NOT_FOUND, HttpStatus.NOT_FOUND);
+    }
+    ResourceType resourceType = myFileDatabase.getResourceTypeByName(typeName);
+    if (resourceType == null) {
+      return new ResponseEntity<>("ResourceType Not Found", HttpStatus.NOT_FOUND);
+    }
+    task.updateResource(resourceType, quantity);
+    return new ResponseEntity<>("Attribute was updated successfully.", HttpStatus.OK);
+  }
+
+  /**
+   * Resolves the tasks and resource types named in a bulk requirement update and applies it to
+   * every task, or to none of them if any cannot be resolved.
+   *
+   * @throws IllegalArgumentException if the task IDs or requirements are invalid
+   */
+  private static ResponseEntity<?> applyModifyTaskResources(MyFileDatabase myFileDatabase,
+                                                            List<String> taskIds,
+                                                            JsonNode resources,
+                                                            boolean replace) {
+    Set<String> uniqueTaskIds = new LinkedHashSet<>(taskIds == null ? List.of() : taskIds);
+    if (uniqueTaskIds.isEmpty() || uniqueTaskIds.size() > MAX_BULK_TASK_IDS) {
+      throw new IllegalArgumentException("Between 1 and " + MAX_BULK_TASK_IDS
+          + " task IDs must be given.");
+    }
+    if (resources == null || !resources.isObject()) {
+      throw new IllegalArgumentException("Resources must be a JSON object of quantities.");
+    }
+
+    Map<ResourceType, Integer> requirements = new HashMap<>();
+    for (Map.Entry<String, JsonNode> entry : resources.properties()) {
+      JsonNode quantity = entry.getValue();
+      if (!quantity.isIntegralNumber() || !quantity.canConvertToInt() || quantity.asInt() < 0) {
+        throw new IllegalArgumentException("Invalid quantity for " + entry.getKey());
+      }
+      ResourceType resourceType = myFileDatabase.getResourceTypeByName(entry.getKey());
+      if (resourceType == null) {
+        return new ResponseEntity<>("ResourceType Not Found: " + entry.getKey(),
+            HttpStatus.NOT_FOUND);
+      }
+      requirements.put(resourceType, quantity.asInt());
+    }
+
+    List<Task> tasks = new ArrayList<>(uniqueTaskIds.size());
+    for (String taskId : uniqueTaskIds) {
+      Task task = myFileDatabase.getTaskById(taskId);
+      if (task == null) {
+        return new ResponseEntity<>(TASK_NOT_FOUND + ": " + taskId, HttpStatus.NOT_FOUND);
+      }
+      tasks.add(task);
+    }
+    for (Task task : tasks) {
+      task.updateResources(requirements, replace);
+    }
+    return new ResponseEntity<>(tasks, HttpStatus.OK);
+  }
+
+  private static ResponseEntity<?> applyDeleteResourceType(MyFileDatabase myFileDatabase,
+                                                           String typeName) {
+    ResourceType resourceType = myFileDatabase.getResourceTypeByName(typeName);
+    if (resourceType == null) {
+      return new ResponseEntity<>("ResourceType Not Found", HttpStatus.NOT_FOUND);
+    }
+    if (myFileDatabase.isResourceTypeRequired(resourceType)) {
+      return new ResponseEntity<>("Cannot delete a resourceType currently in need",
+          HttpStatus.BAD_REQUEST);
+    }
+    myFileDatabase.deleteResourceType(resourceType);
+    return new ResponseEntity<>(typeName + " successfully deleted", HttpStatus.OK);
+  }
+
+  private static ResponseEntity<?> applyUpdateSchedule(String clientId,
+                                                       MyFileDatabase myFileDatabase,
+                                                       double maxDistance) {
+    List<Task> taskList = myFileDatabase.getAllTasks();
+    if (taskList == null || taskList.isEmpty()) {
+      return new ResponseEntity<>(TASKS_NOT_FOUND, HttpStatus.NOT_FOUND);
+    }
+    Schedule masterSchedule = myFileDatabase.getMasterSchedule();
+    if (masterSchedule == null) {
+      return new ResponseEntity<>("Master Schedule Not Found", HttpStatus.NOT_FOUND);
+    }
+    runPass(clientId, masterSchedule, taskList, maxDistance, null, null);
+    return new ResponseEntity<>(Map.of("scheduledTasks", masterSchedule.getTaskSchedule().size()),
+        HttpStatus.OK);
+  }
+
+  /**
+   * Publishes the change made by an operation if it succeeded. The caller must hold the
+   * client's database.
+   *
+   * @return the response of the operation
+   */
+  private static ResponseEntity<?> publishIfApplied(MyFileDatabase myFileDatabase,
+                                                    ResponseEntity<?> response) {
+    if (response.getStatusCode().is2xxSuccessful()) {
+      myFileDatabase.publishSnapshot();
+    }
+    return response;
+  }
+
+  private static String requireText(JsonNode operation, String field) {
+    JsonNode value = operation.get(field);
+    if (value == null || !value.isTextual()) {
+      throw new IllegalArgumentException("Missing or invalid parameter: " + field);
+    }
+    return value.asText();
+  }
+
+  private static int requireInt(JsonNode operation, String field) {
+    JsonNode value = operation.get(field);
+    if (value == null || !value.canConvertToInt() || !value.isIntegralNumber()) {
+      throw new IllegalArgumentException("Missing or invalid parameter: " + field);
+    }
+    return value.asInt();
+  }
+
+  private static double requireDouble(JsonNode operation, String field) {
+    JsonNode value = operation.get(field);
+    if (value == null || !value.isNumber()) {
+      throw new IllegalArgumentException("Missing or invalid parameter: " + field);
+    }
+    return value.asDouble();
+  }
+
+  /**
+   * Reads the taskIds array of an operation, resolving references to tasks added earlier in
+   * the batch.
+   */
+  private static List<String> requireTaskIds(JsonNode operation, List<String> addedTaskIds) {
+    JsonNode taskIds = operation.get("taskIds");
+    if (taskIds == null || !taskIds.isArray()) {
+      throw new IllegalArgumentException("Missing or invalid parameter: taskIds");
+    }
+    List<String> resolved = new ArrayList<>(taskIds.size());
+    for (JsonNode taskId : taskIds) {
+      if (!taskId.isTextual()) {
+        throw new IllegalArgumentException("Missing or invalid parameter: taskIds");
+      }
+      resolved.add(resolveTaskId(taskId.asText(), addedTaskIds));
+    }
+    return resolved;
+  }
+
+  /**
+   * Reads the taskId of an operation, resolving a reference of the form "$n" to the task added
+   * by the operation at index n of the batch.
+   */
+  private static String requireTaskId(JsonNode operation, List<String> addedTaskIds) {
+    return resolveTaskId(requireText(operation, TASK_ID), addedTaskIds);
+  }
+
+  private static String resolveTaskId(String taskId, List<String> addedTaskIds) {
+    if (!taskId.startsWith("$")) {
+      return taskId;
+    }
+    try {
+      String addedTaskId = addedTaskIds.get(Integer.parseInt(taskId.substring(1)));
+      if (addedTaskId != null) {
+        return addedTaskId;
+      }
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      // Reported below
+    }
+    throw new IllegalArgumentException("Invalid task reference: " + taskId);
+  }
+
+  /**
+   * Validates the pagination parameters of a request and finds the requested page.
+   *
+   * @return the requested {@code TaskIndex.Page}
+   * @throws IllegalArgumentException if a parameter is invalid
+   * @throws DateTimeParseException if {@code from} or {@code to} is not a valid time
+   */
+  private static TaskIndex.Page findPage(TaskIndex index, int pageSize, String cursor,
+                                         List<Integer> priorities, Boolean scheduled,
+                                         String from, String to) {
+    if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE
+          + ".");
+    }
+    LocalDateTime fromTime = from == null ? null
+        : LocalDateTime.parse(from, Task.TIME_FORMATTER);
+    LocalDateTime toTime = to == null ? null
+        : LocalDateTime.parse(to, Task.TIME_FORMATTER);
+    Set<Integer> prioritySet = priorities == null ? null : new TreeSet<>(priorities);
+    return index.findPage(prioritySet, scheduled, fromTime, toTime, cursor, pageSize);
+  }
+
+  /**
+   * Validates the parameters of a location query and finds the matching items, each as an
+   * entry holding the item under {@code itemName} and its distance under "distance".
+   *
+   * @return the entries of the matching items in order of distance
+   * @throws IllegalArgumentException if a parameter is invalid
+   */
+  private static <T> List<Map<String, Object>> findNear(LocationIndex<T> index, String itemName,
+                                                        double latitude, double longitude,
+                                                        Double radius, Integer count) {
+    if (radius == null && count == null) {
+      throw new IllegalArgumentException("Radius or count must be given.");
+    }
+    if (count != null && (count < 1 || count > MAX_PAGE_SIZE)) {
+      throw new IllegalArgumentException("Count must be between 1 and " + MAX_PAGE_SIZE + ".");
+    }
+    List<LocationIndex.Match<T>> matches = index.findNear(new Location(latitude, longitude),
+        radius == null ? Double.POSITIVE_INFINITY : radius,
+        count == null ? Integer.MAX_VALUE : count);
+
+    List<Map<String, Object>> entries = new ArrayList<>(matches.size());
+    for (LocationIndex.Match<T> match : matches) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put(itemName, match.getItem());
+      entry.put("distance", match.getDistance());
+      entries.add(entry);
+    }
+    return entries;
+  }
+
+  /**
+   * Starts a trace of a scheduling pass if tracing is enabled.
+   *
+   * @return a new {@code SchedulingTrace}, or null if tracing is disabled
+   */
+  private SchedulingTrace startTrace(String clientId, double maxDistance) {
+    TracingProperties properties = tracingProperties;
+    if (!properties.isEnabled()) {
+      return null;
+    }
+    return new SchedulingTrace(clientId, maxDistance,
+        Math.min(1, Math.max(0, properties.getTaskSampleRate())));
+  }
+
+  /**
+   * Keeps a finished trace if it recorded a pass. A caller that joined another caller's pass
+   * has nothing to keep.
+   */
+  private void finishTrace(SchedulingTrace trace) {
+    if (trace.isPassRecorded()) {
+      schedulingTraceLog.add(trace, tracingProperties.getMaxTracesPerClient());
+    }
+  }
+
+  /**
+   * Runs a scheduling pass for a client while holding the client's database, then publishes
+   * the updated schedule.
+   *
+   * @param clientId       the client to schedule
+   * @param myFileDatabase the database of the client to schedule
+   * @param maxDistance    the maximum distance between tasks and resources
+   * @param progress       the progress tracker to update during the pass
+   * @param trace          the trace to record the pass in, or null to skip tracing
+   * @return the schedule in the snapshot published after the pass
+   * @throws IllegalStateException if the client has no tasks or no master schedule
+   */
+  private Map<Task, List<Resource>> runSchedulingPass(String clientId,
+                                                      MyFileDatabase myFileDatabase,
+                                                      double maxDistance,
+                                                      SchedulingProgress progress,
+                                                      SchedulingTrace trace) {
+    synchronized (myFileDatabase) {
+      List<Task> taskList = myFileDatabase.getAllTasks();
+      if (taskList == null || taskList.isEmpty()) {
+        throw new IllegalStateException(TASKS_NOT_FOUND);
+      }
+      Schedule masterSchedule = myFileDatabase.getMasterSchedule();
+      if (masterSchedule == null) {
+        throw new IllegalStateException("Master Schedule Not Found");
+      }
+      runPass(clientId, masterSchedule, taskList, maxDistance, progress, trace);
+      return ClientSnapshot.publish(myFileDatabase).getSchedule();
+    }
+  }
+
+  /**
+   * Updates a client's master schedule and records the pass as a
+   * {@code LiveSchedEvents.SchedulingPass} event. The caller must hold the client's database.
+   */
+  private static void runPass(String clientId, Schedule masterSchedule, List<Task> taskList,
+                              double maxDistance, SchedulingProgress progress,
+                              SchedulingTrace trace) {
+    LiveSchedEvents.SchedulingPass event = new LiveSchedEvents.SchedulingPass();
+    event.begin();
+    // A pass only adds tasks to the schedule, so the growth is the number it scheduled
+    int scheduledBefore = masterSchedule.getTaskSchedule().size();
+    masterSchedule.updateSchedule(taskList, maxDistance, progress, trace);
+    event.commit(clientId, maxDistance, taskList.size(),
+        masterSchedule.getTaskSchedule().size() - scheduledBefore);
+  }
+
+  /**
+   * Converts a schedule to have a cleaner JSON structure.
+   *
+   * @param schedule the schedule to convert
+   * @return a list with one entry per scheduled task and its assigned resources
+   */
+  private static List<Map<String, Object>> toScheduleResponse(Map<Task, List<Resource>> schedule) {
+    List<Map<String, Object>> response = new ArrayList<>(schedule.size());
+    for (Map.Entry<Task, List<Resource>> entry : schedule.entrySet()) {
+      Map<String, Object> scheduleEntry = new LinkedHashMap<>();
+      scheduleEntry.put("task", Map.of(
+          "taskId", entry.getKey().getTaskId(),
+          "taskName", entry.getKey().getTaskName(),
+          "priority", entry.getKey().getPriority(),
+          "startTime", entry.getKey().getStartTime(),
+          "endTime", entry.getKey().getEndTime(),
+          "location", entry.getKey().getLocation(),
+          "resources", entry.getKey().getResources()
+      ));
+      scheduleEntry.put("assignedResources", entry.getValue().stream().map(resource -> Map.of(
+          "resourceId", resource.getResourceId(),
+          "availableFrom", resource.getAvailableFrom()
+      )).toList());
+
+      response.add(scheduleEntry);
+    }
+    return response;
+  }
+
+  /**
+   * Describes a scheduling job as a JSON-friendly map.
+   *
+   * @param job the job to describe
+   * @return a map containing the job's status, progress and, once succeeded, its schedule
+   */
+  private static Map<String, Object> describeJob(SchedulingJob job) {
+    Map<String, Object> description = new LinkedHashMap<>();
+    description.put("jobId", job.getJobId());
+    description.put("clientId", job.getClientId());
+    description.put("maxDistance", job.getMaxDistance());
+    description.put("status", job.getStatus());
+    description.put("submittedAt", job.getSubmittedAt());
+    description.put("startedAt", job.getStartedAt());
+    description.put("finishedAt", job.getFinishedAt());
+    description.put("totalTasks", job.getProgress().getTotalTasks());
+    description.put("tasksConsidered", job.getProgress().getTasksConsidered());
+    description.put("tasksScheduled", job.getProgress().getTasksScheduled());
+    if (job.getStatus() == SchedulingJob.Status.SUCCEEDED) {
+      description.put("schedule", toScheduleResponse(job.getResult()));
+    } else if (job.getStatus() == SchedulingJob.Status.FAILED) {
+      description.put("error", job.getError());
+    }
+    return description;
+  }
+
+  /**
+   * Creates a streamed response holding a plain text message, for endpoints that stream their
+   * successful responses.
+   *
+   * @param message the message to return
+   * @param status  the status of the response
+   * @return a {@code ResponseEntity} that writes the message
+   */
+  private static ResponseEntity<StreamingResponseBody> streamMessage(String message,
+                                                                     HttpStatus status) {
+    return ResponseEntity.status(status).contentType(MediaType.TEXT_PLAIN)
+        .body(JsonStreamWriter.message(message));
+  }
+
   private ResponseEntity<?> handleException(Exception e) {
-    System.out.println(e.toString());
+    LOGGER.error("Request failed", e);
     return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
   }
 }
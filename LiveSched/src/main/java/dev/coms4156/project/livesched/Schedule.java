@@ -17,6 +17,7 @@ public class Schedule implements Serializable {
   private static final long serialVersionUID = 1005L;
 
   private Map<Task, List<Resource>> taskSchedule;
+  private transient ChangeListener changeListener;
 
   /**
    * Constructs a new Schedule object.
@@ -36,6 +37,41 @@ public class Schedule implements Serializable {
    * @throws IllegalArgumentException if tasks is null or maxDistance is negative
    */
   public Map<Task, List<Resource>> updateSchedule(List<Task> tasks, double maxDistance) {
+    return updateSchedule(tasks, maxDistance, null);
+  }
+
+  /**
+   * Updates the schedule by assigning available resources to tasks based
+   * on their requirements and start times, reporting progress as tasks are considered.
+   *
+   * @param tasks    The list of tasks to schedule.
+   * @param maxDistance The maximum distance between tasks and resources.
+   * @param progress The progress tracker to update during the pass, or null to skip tracking.
+   * @return a {@code Map<Task, List<Resource>>} where each schedulable task is mapped to
+   *        the list of resources assigned to it, or an empty map if no tasks could be scheduled.
+   * @throws IllegalArgumentException if tasks is null or maxDistance is negative
+   */
+  public Map<Task, List<Resource>> updateSchedule(List<Task> tasks, double maxDistance,
+                                                  SchedulingProgress progress) {
+    return updateSchedule(tasks, maxDistance, progress, null);
+  }
+
+  /**
+   * Updates the schedule by assigning available resources to tasks based
+   * on their requirements and start times, reporting progress as tasks are considered and
+   * recording where the time of the pass goes.
+   *
+   * @param tasks    The list of tasks to schedule.
+   * @param maxDistance The maximum distance between tasks and resources.
+   * @param progress The progress tracker to update during the pass, or null to skip tracking.
+   * @param trace    The trace to record the pass in, or null to skip tracing.
+   * @return a {@code Map<Task, List<Resource>>} where each schedulable task is mapped to
+   *        the list of resources assigned to it, or an empty map if no tasks could be scheduled.
+   * @throws IllegalArgumentException if tasks is null or maxDistance is negative
+   */
+  public Map<Task, List<Resource>> updateSchedule(List<Task> tasks, double maxDistance,
+                                                  SchedulingProgress progress,
+                                                  SchedulingTrace trace) {
     if (tasks == null) {
       throw new IllegalArgumentException("Tasks list cannot be null.");
     }
@@ -43,18 +79,43 @@ public class Schedule implements Serializable {
       throw new IllegalArgumentException("Maximum distance cannot be negative.");
     }
 
+    long startNanos = System.nanoTime();
+    int scheduled = 0;
+    int noRequirements = 0;
+    int insufficientUnits = 0;
+    int outOfRange = 0;
+
     // Create a copy of tasks and sort by priority
     List<Task> copiedTasks = new ArrayList<>(tasks);
     copiedTasks.sort(new TaskComparator());
+    if (trace != null) {
+      trace.addPhase(SchedulingTrace.Phase.SORT, startNanos);
+    }
+    if (progress != null) {
+      progress.start(copiedTasks.size());
+    }
 
     for (Task task : copiedTasks) {
+      if (progress != null) {
+        progress.taskConsidered();
+      }
+      boolean sampled = trace != null && trace.sampleTask();
+      long taskStartNanos = sampled ? System.nanoTime() : 0;
+
       // Skip tasks that are already scheduled
       if (taskSchedule.containsKey(task)) {
+        if (sampled) {
+          trace.recordTask(task, "already_scheduled", taskStartNanos);
+        }
         continue;
       }
 
       // Skip tasks with no resources required
       if (task.getResources() == null || task.getResources().isEmpty()) {
+        noRequirements++;
+        if (sampled) {
+          trace.recordTask(task, "no_requirements", taskStartNanos);
+        }
         continue;
       }
 
@@ -62,13 +123,19 @@ public class Schedule implements Serializable {
       List<Resource> assignedResources = new ArrayList<>();
       // Track whether we can schedule this task
       boolean canSchedule = true;
+      boolean tooFar = false;
 
       // Iterate over the required resource types for the task
       for (Map.Entry<ResourceType, Integer> entry : task.getResources().entrySet()) {
         ResourceType resourceType = entry.getKey();
         int requiredUnits = entry.getValue();
 
-        if (requiredUnits > resourceType.countAvailableUnits(task.getStartTime())) {
+        long phaseStartNanos = trace != null ? System.nanoTime() : 0;
+        int availableUnits = resourceType.countAvailableUnits(task.getStartTime());
+        if (trace != null) {
+          trace.addPhase(SchedulingTrace.Phase.AVAILABILITY, phaseStartNanos);
+        }
+        if (requiredUnits > availableUnits) {
           canSchedule = false;
           break;
         }
@@ -76,29 +143,70 @@ public class Schedule implements Serializable {
         List<Resource> availableResources = new ArrayList<>();
 
         for (int i = 0; i < requiredUnits; i++) {
+          if (trace != null) {
+            phaseStartNanos = System.nanoTime();
+          }
           Resource resource = resourceType.findAvailableResource(task.getStartTime());
-          if (resource != null
-              && resourceType.getLocation().getDistance(task.getLocation()) <= maxDistance) {
+          if (trace != null) {
+            trace.addPhase(SchedulingTrace.Phase.AVAILABILITY, phaseStartNanos);
+            phaseStartNanos = System.nanoTime();
+          }
+          boolean inRange = resource != null
+              && resourceType.getLocation().getDistance(task.getLocation()) <= maxDistance;
+          if (trace != null) {
+            trace.addPhase(SchedulingTrace.Phase.DISTANCE, phaseStartNanos);
+          }
+          if (inRange) {
             availableResources.add(resource);
             resource.assignUntil(task.getEndTime());
           } else {
             canSchedule = false;
+            tooFar = resource != null;
             break;
           }
         }
         if (!canSchedule) {
+          if (trace != null) {
+            phaseStartNanos = System.nanoTime();
+          }
           for (Resource resource : availableResources) {
             resource.release();  // Free up the resources since task cannot be scheduled right now
           }
+          if (trace != null) {
+            trace.addPhase(SchedulingTrace.Phase.ROLLBACK, phaseStartNanos);
+          }
           break;
         }
         assignedResources.addAll(availableResources);
       }
       // all resourceTypes available in required quantities
+      String outcome;
       if (canSchedule) {
         taskSchedule.put(task, assignedResources);
+        if (changeListener != null) {
+          changeListener.scheduleChanged(task);
+        }
+        scheduled++;
+        outcome = "scheduled";
+        if (progress != null) {
+          progress.taskScheduled();
+        }
+      } else if (tooFar) {
+        outOfRange++;
+        outcome = "out_of_range";
+      } else {
+        insufficientUnits++;
+        outcome = "insufficient_units";
+      }
+      if (sampled) {
+        trace.recordTask(task, outcome, taskStartNanos);
       }
     }
+    LiveSchedMetrics.recordSchedulingPass(System.nanoTime() - startNanos, copiedTasks.size(),
+        scheduled, noRequirements, insufficientUnits, outOfRange);
+    if (trace != null) {
+      trace.recordPass(copiedTasks.size(), startNanos);
+    }
     return taskSchedule;
   }
 
@@ -117,10 +225,27 @@ public class Schedule implements Serializable {
         resource.release();
       }
       taskSchedule.remove(task);
+      if (changeListener != null) {
+        changeListener.scheduleChanged(task);
+      }
     }
   }
 
   public Map<Task, List<Resource>> getTaskSchedule() {
     return taskSchedule;
   }
+
+  /**
+   * Sets the listener told when a task is scheduled or unscheduled. Changes made directly to
+   * the map returned by {@link #getTaskSchedule()} are not reported.
+   *
+   * @param changeListener the listener, or null to remove the current one
+   */
+  void setChangeListener(ChangeListener changeListener) {
+    this.changeListener = changeListener;
+  }
+
+  ChangeListener getChangeListener() {
+    return changeListener;
+  }
 }
\ No newline at end of file
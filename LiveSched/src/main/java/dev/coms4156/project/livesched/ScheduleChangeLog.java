@@ -0,0 +1,280 @@
+package dev.coms4156.project.livesched;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the changes made to a client's schedule between published snapshots in a bounded ring
+ * buffer, so clients can fetch what changed since the version they last saw instead of the whole
+ * schedule. Once older changes have been overwritten, clients that are further behind must
+ * resynchronize from the full schedule.
+ * Publishing a snapshot only queues it. The snapshots are compared later on a recorder thread,
+ * or by the next caller listing changes, so the comparison never runs while the client's
+ * database is locked.
+ */
+public final class ScheduleChangeLog {
+
+  /**
+   * The number of changes kept for each client by default.
+   */
+  public static final int DEFAULT_CAPACITY = 10_000;
+
+  /**
+   * Compares the queued snapshots of every client's log, one log at a time.
+   */
+  private static final Executor DEFAULT_RECORDER = newRecorder();
+
+  private final Executor recorder;
+  private final Queue<Publication> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final Change[] ring;
+  private int head;
+  private int size;
+
+  /**
+   * The oldest version from which changes can still be listed.
+   */
+  private long floorVersion = Long.MAX_VALUE;
+
+  /**
+   * Constructs a new ScheduleChangeLog object.
+   *
+   * @param capacity the maximum number of changes to keep
+   */
+  public ScheduleChangeLog(int capacity) {
+    this(capacity, DEFAULT_RECORDER);
+  }
+
+  /**
+   * Constructs a new ScheduleChangeLog object that compares snapshots on the given executor.
+   *
+   * @param capacity the maximum number of changes to keep
+   * @param recorder runs the comparisons of queued snapshots
+   */
+  ScheduleChangeLog(int capacity, Executor recorder) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.ring = new Change[capacity];
+    this.recorder = recorder;
+  }
+
+  /**
+   * Queues two consecutive snapshots so that the schedule changes between them are recorded.
+   * Must be called in the order the snapshots are published, before {@code current} is
+   * visible to readers.
+   *
+   * @param previous the previously published snapshot, or null if {@code current} is the first
+   * @param current  the newly published snapshot
+   */
+  public void record(ClientSnapshot previous, ClientSnapshot current) {
+    pending.add(new Publication(previous, current));
+    if (drainScheduled.compareAndSet(false, true)) {
+      try {
+        recorder.execute(() -> {
+          drainScheduled.set(false);
+          drain();
+        });
+      } catch (RejectedExecutionException e) {
+        // The next caller listing changes compares the queued snapshots instead
+        drainScheduled.set(false);
+      }
+    }
+  }
+
+  /**
+   * Records the changes between the queued snapshots, in the order they were published.
+   */
+  private synchronized void drain() {
+    Publication publication;
+    while ((publication = pending.poll()) != null) {
+      if (publication.previous == null) {
+        floorVersion = Math.min(floorVersion, publication.current.getVersion());
+        continue;
+      }
+      for (Change change : diff(publication.previous, publication.current)) {
+        append(change);
+      }
+    }
+  }
+
+  /**
+   * Lists the schedule changes between two snapshots, tagged with the version of the second.
+   *
+   * @param previous the earlier snapshot
+   * @param current  the later snapshot
+   * @return the changes that turn the schedule of {@code previous} into that of {@code current}
+   */
+  static List<Change> diff(ClientSnapshot previous, ClientSnapshot current) {
+    if (previous.getSchedule() == current.getSchedule()) {
+      // The snapshots share an unchanged schedule
+      return List.of();
+    }
+    Map<String, List<String>> before = assignments(previous);
+    Map<String, List<String>> after = assignments(current);
+    long version = current.getVersion();
+
+    List<Change> changes = new ArrayList<>();
+    for (Map.Entry<String, List<String>> entry : after.entrySet()) {
+      List<String> previousResources = before.get(entry.getKey());
+      if (previousResources == null) {
+        changes.add(new Change(version, entry.getKey(), ChangeType.SCHEDULED, entry.getValue()));
+      } else if (!previousResources.equals(entry.getValue())) {
+        changes.add(new Change(version, entry.getKey(), ChangeType.REASSIGNED,
+            entry.getValue()));
+      }
+    }
+    for (String taskId : before.keySet()) {
+      if (!after.containsKey(taskId)) {
+        changes.add(new Change(version, taskId, ChangeType.UNSCHEDULED, List.of()));
+      }
+    }
+    return changes;
+  }
+
+  /**
+   * Lists the changes made after one version up to and including another.
+   *
+   * @param sinceVersion the version the caller last saw
+   * @param toVersion    the version of the snapshot the caller will see next
+   * @return the changes in the order they were made, or null if some of them are no longer
+   *         kept and the caller must resynchronize from the full schedule
+   */
+  public synchronized List<Change> changesSince(long sinceVersion, long toVersion) {
+    drain();
+    if (sinceVersion < floorVersion || sinceVersion > toVersion) {
+      return null;
+    }
+    List<Change> changes = new ArrayList<>();
+    for (int offset = firstAfter(sinceVersion); offset < size; offset++) {
+      Change change = ring[(head + offset) % ring.length];
+      if (change.getVersion() > toVersion) {
+        break;
+      }
+      changes.add(change);
+    }
+    return changes;
+  }
+
+  private void append(Change change) {
+    if (size == ring.length) {
+      // The overwritten change can no longer be listed for clients at earlier versions
+      floorVersion = Math.max(floorVersion, ring[head].getVersion());
+      ring[head] = change;
+      head = (head + 1) % ring.length;
+    } else {
+      ring[(head + size) % ring.length] = change;
+      size++;
+    }
+  }
+
+  /**
+   * Finds the offset of the first kept change made after a version. Changes are appended in
+   * version order, so the ring is searched with a binary search.
+   */
+  private int firstAfter(long version) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (ring[(head + middle) % ring.length].getVersion() > version) {
+        high = middle;
+      } else {
+        low = middle + 1;
+      }
+    }
+    return low;
+  }
+
+  private static Map<String, List<String>> assignments(ClientSnapshot snapshot) {
+    Map<String, List<String>> assignments = new HashMap<>();
+    for (Map.Entry<Task, List<Resource>> entry : snapshot.getSchedule().entrySet()) {
+      List<String> resourceIds = new ArrayList<>(entry.getValue().size());
+      for (Resource resource : entry.getValue()) {
+        resourceIds.add(resource.getResourceId());
+      }
+      assignments.put(entry.getKey().getTaskId(), Collections.unmodifiableList(resourceIds));
+    }
+    return assignments;
+  }
+
+  private static ThreadPoolExecutor newRecorder() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), runnable -> {
+          Thread thread = new Thread(runnable, "schedule-change-recorder");
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Holds two consecutive snapshots waiting to be compared.
+   */
+  private static final class Publication {
+    private final ClientSnapshot previous;
+    private final ClientSnapshot current;
+
+    private Publication(ClientSnapshot previous, ClientSnapshot current) {
+      this.previous = previous;
+      this.current = current;
+    }
+  }
+
+  /**
+   * The ways in which a task's place in the schedule can change.
+   */
+  public enum ChangeType {
+    SCHEDULED, UNSCHEDULED, REASSIGNED
+  }
+
+  /**
+   * Holds a single change to a task's place in the schedule.
+   */
+  public static final class Change {
+    private final long version;
+    private final String taskId;
+    private final ChangeType changeType;
+    private final List<String> assignedResources;
+
+    Change(long version, String taskId, ChangeType changeType, List<String> assignedResources) {
+      this.version = version;
+      this.taskId = taskId;
+      this.changeType = changeType;
+      this.assignedResources = assignedResources;
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    public String getTaskId() {
+      return taskId;
+    }
+
+    public ChangeType getChangeType() {
+      return changeType;
+    }
+
+    /**
+     * Gets the IDs of the resources assigned to the task after the change.
+     *
+     * @return the IDs of the assigned resources, empty if the task was unscheduled
+     */
+    public List<String> getAssignedResources() {
+      return assignedResources;
+    }
+  }
+}
@@ -0,0 +1,428 @@
+package dev.coms4156.project.livesched;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes changes to a client's tasks, resource types and schedule to Server-Sent Events
+ * subscribers. Published snapshots are compared on a dispatcher thread and the resulting
+ * events are offered to a bounded buffer per subscriber, which a small pool of sender threads
+ * drains. A subscriber whose buffer is full is disconnected, so a slow or stuck consumer never
+ * holds up the database, the scheduler or the other subscribers.
+ * Snapshots published while a comparison is waiting for the dispatcher are folded into it, and
+ * a batch of changes too large to buffer is sent as a single {@link #RESYNC} event telling
+ * subscribers to fetch the client's state again, so only subscribers that fall behind are
+ * disconnected.
+ */
+public class ScheduleEventBroadcaster {
+
+  public static final String TASK_SCHEDULED = "task-scheduled";
+  public static final String TASK_UNSCHEDULED = "task-unscheduled";
+  public static final String TASK_CHANGED = "task-changed";
+  public static final String RESOURCE_ADDED = "resource-added";
+  public static final String RESYNC = "resync";
+
+  private static final int DEFAULT_BUFFER_SIZE = 4096;
+  private static final int DEFAULT_SENDER_THREADS = 4;
+  private static final int DEFAULT_DISPATCH_QUEUE_CAPACITY = 64;
+  private static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+  private final int bufferSize;
+  private final long timeoutMillis;
+  private final Executor dispatcher;
+  private final Executor senders;
+  private final Map<String, Channel> channels = new HashMap<>();
+
+  /**
+   * Constructs a new ScheduleEventBroadcaster object with the default buffer size, timeout
+   * and threads.
+   */
+  public ScheduleEventBroadcaster() {
+    this(DEFAULT_BUFFER_SIZE, DEFAULT_TIMEOUT_MILLIS,
+        newExecutor(1, new LinkedBlockingQueue<>(DEFAULT_DISPATCH_QUEUE_CAPACITY),
+            "schedule-event-dispatcher-"),
+        newExecutor(DEFAULT_SENDER_THREADS, new LinkedBlockingQueue<>(),
+            "schedule-event-sender-"));
+  }
+
+  /**
+   * Constructs a new ScheduleEventBroadcaster object with the given parameters.
+   *
+   * @param bufferSize    the number of events buffered for each subscriber
+   * @param timeoutMillis the time after which a subscription ends, or 0 for no limit
+   * @param dispatcher    runs the comparisons of published snapshots, in order
+   * @param senders       runs the delivery of buffered events to subscribers
+   * @throws IllegalArgumentException if the buffer size is not positive
+   */
+  public ScheduleEventBroadcaster(int bufferSize, long timeoutMillis, Executor dispatcher,
+                                  Executor senders) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive.");
+    }
+    this.bufferSize = bufferSize;
+    this.timeoutMillis = timeoutMillis;
+    this.dispatcher = dispatcher;
+    this.senders = senders;
+  }
+
+  /**
+   * Subscribes to the events of a client.
+   *
+   * @param clientId       the client whose events are sent
+   * @param myFileDatabase the database of the client
+   * @return the {@code SseEmitter} to which the events are sent
+   */
+  public SseEmitter subscribe(String clientId, MyFileDatabase myFileDatabase) {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, bufferSize);
+    Channel channel;
+    synchronized (this) {
+      channel = channels.get(clientId);
+      if (channel == null || channel.myFileDatabase != myFileDatabase) {
+        if (channel != null) {
+          channel.close();
+        }
+        channel = new Channel(clientId, myFileDatabase);
+        channels.put(clientId, channel);
+        myFileDatabase.addSnapshotListener(channel);
+      }
+      channel.subscribers.add(subscriber);
+    }
+    Channel subscribedChannel = channel;
+    Runnable unsubscribe = () -> subscribedChannel.unsubscribe(subscriber);
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(error -> unsubscribe.run());
+    return emitter;
+  }
+
+  /**
+   * Gets the number of current subscribers of a client.
+   *
+   * @param clientId the client
+   * @return the number of subscribers receiving the client's events
+   */
+  public synchronized int getSubscriberCount(String clientId) {
+    Channel channel = channels.get(clientId);
+    return channel == null ? 0 : channel.subscribers.size();
+  }
+
+  /**
+   * Tells whether the broadcaster is listening to the snapshots of a client, which it does
+   * only while the client has subscribers.
+   *
+   * @param clientId the client
+   * @return true if the client's snapshots are being listened to
+   */
+  synchronized boolean isListening(String clientId) {
+    return channels.containsKey(clientId);
+  }
+
+  /**
+   * Lists the events that describe the changes between two snapshots.
+   *
+   * @param previous the earlier snapshot
+   * @param current  the later snapshot
+   * @return the events, in the order they should be sent
+   */
+  static List<Event> events(ClientSnapshot previous, ClientSnapshot current) {
+    long version = current.getVersion();
+    List<Event> events = new ArrayList<>();
+
+    Map<String, Integer> previousUnits = new HashMap<>();
+    for (ResourceType resourceType : previous.getResourceTypes()) {
+      previousUnits.merge(resourceType.getTypeName(), resourceType.getTotalUnits(), Integer::sum);
+    }
+    for (ResourceType resourceType : current.getResourceTypes()) {
+      int added = resourceType.getTotalUnits()
+          - previousUnits.getOrDefault(resourceType.getTypeName(), 0);
+      if (added > 0) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("typeName", resourceType.getTypeName());
+        data.put("unitsAdded", added);
+        data.put("totalUnits", resourceType.getTotalUnits());
+        events.add(new Event(version, RESOURCE_ADDED, data));
+      }
+    }
+
+    // Snapshots share the task list, and the copy of each task, until they change
+    if (previous.getTasks() != current.getTasks()) {
+      Map<String, Task> previousTasks = new HashMap<>();
+      for (Task task : previous.getTasks()) {
+        previousTasks.put(task.getTaskId(), task);
+      }
+      for (Task task : current.getTasks()) {
+        Task previousTask = previousTasks.remove(task.getTaskId());
+        if (previousTask == null
+            || previousTask != task && !sameDetails(previousTask, task)) {
+          events.add(new Event(version, TASK_CHANGED, taskChange(task.getTaskId(), task)));
+        }
+      }
+      for (String deletedTaskId : previousTasks.keySet()) {
+        events.add(new Event(version, TASK_CHANGED, taskChange(deletedTaskId, null)));
+      }
+    }
+
+    for (ScheduleChangeLog.Change change : ScheduleChangeLog.diff(previous, current)) {
+      Map<String, Object> data = new LinkedHashMap<>();
+      data.put("taskId", change.getTaskId());
+      if (change.getChangeType() == ScheduleChangeLog.ChangeType.UNSCHEDULED) {
+        events.add(new Event(version, TASK_UNSCHEDULED, data));
+      } else {
+        data.put("assignedResources", change.getAssignedResources());
+        events.add(new Event(version, TASK_SCHEDULED, data));
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Creates an event telling subscribers to fetch the client's state again, because the
+   * changes up to a version are not sent as events of their own.
+   */
+  private static Event resync(long version, String reason) {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("reason", reason);
+    return new Event(version, RESYNC, data);
+  }
+
+  private static Map<String, Object> taskChange(String taskId, Task task) {
+    Map<String, Object> data = new LinkedHashMap<>();
+    data.put("taskId", taskId);
+    data.put("deleted", task == null);
+    data.put("task", task);
+    return data;
+  }
+
+  private static boolean sameDetails(Task left, Task right) {
+    return Objects.equals(left.getTaskName(), right.getTaskName())
+        && left.getPriority() == right.getPriority()
+        && Objects.equals(left.getStartTime(), right.getStartTime())
+        && Objects.equals(left.getEndTime(), right.getEndTime())
+        && Objects.equals(left.getLocation(), right.getLocation())
+        && Objects.equals(left.getResources(), right.getResources());
+  }
+
+  private static ThreadPoolExecutor newExecutor(int threads, BlockingQueue<Runnable> queue,
+                                                String threadPrefix) {
+    AtomicInteger threadNumber = new AtomicInteger(1);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        queue, runnable -> {
+          Thread thread = new Thread(runnable, threadPrefix + threadNumber.getAndIncrement());
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Holds the subscribers of one client and listens to the snapshots of its database.
+   */
+  private final class Channel implements SnapshotListener {
+    private final String clientId;
+    private final MyFileDatabase myFileDatabase;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    /**
+     * The snapshots to compare on the dispatcher, or null if no comparison is waiting.
+     */
+    private ClientSnapshot pendingPrevious;
+    private ClientSnapshot pendingCurrent;
+
+    private Channel(String clientId, MyFileDatabase myFileDatabase) {
+      this.clientId = clientId;
+      this.myFileDatabase = myFileDatabase;
+    }
+
+    @Override
+    public void snapshotPublished(ClientSnapshot previous, ClientSnapshot current) {
+      if (previous == null || subscribers.isEmpty()) {
+        return;
+      }
+      synchronized (this) {
+        if (pendingCurrent != null) {
+          // The waiting comparison will compare up to this snapshot instead
+          pendingCurrent = current;
+          return;
+        }
+        pendingPrevious = previous;
+        pendingCurrent = current;
+      }
+      try {
+        dispatcher.execute(this::dispatch);
+      } catch (RejectedExecutionException e) {
+        synchronized (this) {
+          pendingPrevious = null;
+          pendingCurrent = null;
+        }
+        // The changes cannot be compared, so subscribers must fetch the client's state again
+        broadcast(List.of(resync(current.getVersion(), "dispatcher-busy")));
+      }
+    }
+
+    private void dispatch() {
+      ClientSnapshot previous;
+      ClientSnapshot current;
+      synchronized (this) {
+        previous = pendingPrevious;
+        current = pendingCurrent;
+        pendingPrevious = null;
+        pendingCurrent = null;
+      }
+      List<Event> events = events(previous, current);
+      if (events.size() > Math.max(1, bufferSize / 4)) {
+        // A batch that would take much of an idle subscriber's buffer is not worth sending
+        events = List.of(resync(current.getVersion(), "too-many-changes"));
+      }
+      broadcast(events);
+    }
+
+    private void broadcast(List<Event> events) {
+      if (events.isEmpty()) {
+        return;
+      }
+      for (Subscriber subscriber : subscribers) {
+        if (!subscriber.offer(events)) {
+          drop(subscriber);
+        } else if (subscriber.sending.compareAndSet(false, true)) {
+          try {
+            senders.execute(() -> send(subscriber));
+          } catch (RejectedExecutionException e) {
+            drop(subscriber);
+          }
+        }
+      }
+    }
+
+    private void send(Subscriber subscriber) {
+      do {
+        Event event;
+        while ((event = subscriber.buffer.poll()) != null) {
+          try {
+            subscriber.emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getVersion()))
+                .name(event.getName())
+                .data(event.getData(), MediaType.APPLICATION_JSON));
+          } catch (IOException | IllegalStateException e) {
+            drop(subscriber);
+            return;
+          }
+        }
+        subscriber.sending.set(false);
+      } while (!subscriber.buffer.isEmpty() && subscriber.sending.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber) {
+      if (subscribers.remove(subscriber)) {
+        subscriber.buffer.clear();
+        subscriber.emitter.complete();
+      }
+      removeIfUnused();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+      subscribers.remove(subscriber);
+      removeIfUnused();
+    }
+
+    /**
+     * Stops listening to the client's database once the last subscriber has left.
+     */
+    private void removeIfUnused() {
+      synchronized (ScheduleEventBroadcaster.this) {
+        if (subscribers.isEmpty() && channels.get(clientId) == this) {
+          channels.remove(clientId);
+          myFileDatabase.removeSnapshotListener(this);
+        }
+      }
+    }
+
+    private void close() {
+      myFileDatabase.removeSnapshotListener(this);
+      for (Subscriber subscriber : subscribers) {
+        drop(subscriber);
+      }
+    }
+  }
+
+  /**
+   * Holds the emitter of one subscriber and the events waiting to be sent to it.
+   */
+  private static final class Subscriber {
+    private final SseEmitter emitter;
+    private final BlockingQueue<Event> buffer;
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private Subscriber(SseEmitter emitter, int bufferSize) {
+      this.emitter = emitter;
+      this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    /**
+     * Buffers events, failing if there is no room for all of them.
+     */
+    private boolean offer(List<Event> events) {
+      if (buffer.remainingCapacity() < events.size()) {
+        return false;
+      }
+      for (Event event : events) {
+        if (!buffer.offer(event)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Holds a single event sent to subscribers.
+   */
+  public static final class Event {
+    private final long version;
+    private final String name;
+    private final Object data;
+
+    Event(long version, String name, Object data) {
+      this.version = version;
+      this.name = name;
+      this.data = data;
+    }
+
+    /**
+     * Gets the version of the snapshot in which the change was published, which is sent as
+     * the event's ID.
+     *
+     * @return the version of the change
+     */
+    public long getVersion() {
+      return version;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Object getData() {
+      return data;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package dev.coms4156.project.livesched;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.DoubleFunction;
+
+/**
+ * Coalesces concurrent scheduling passes requested for the same client, so that at most one
+ * pass runs for a client at a time.
+ * A caller that asks for a pass while one with the same maximum distance is running waits for
+ * that pass and receives its result instead of running its own. Callers asking for any other
+ * maximum distance share a single follow-up pass, which runs once the running pass finishes
+ * with the maximum distance asked for most recently.
+ */
+public class SchedulingCoordinator {
+
+  private final Map<String, ClientPasses> clients = new HashMap<>();
+
+  /**
+   * Runs a scheduling pass for a client, or waits for the pass already running for the same
+   * maximum distance or queued to follow it.
+   *
+   * @param clientId    the client whose schedule is updated
+   * @param maxDistance the maximum distance between tasks and resources
+   * @param pass        runs the scheduling pass for the given maximum distance and returns the
+   *                    updated schedule
+   * @return the schedule returned by the pass that was run or joined
+   * @throws RuntimeException the exception thrown by the pass, if it failed
+   */
+  public Map<Task, List<Resource>> run(String clientId, double maxDistance,
+                                       DoubleFunction<Map<Task, List<Resource>>> pass) {
+    ClientPasses passes;
+    Pass running = null;
+    Pass joined;
+    boolean leader = true;
+    synchronized (this) {
+      passes = clients.get(clientId);
+      if (passes == null) {
+        joined = new Pass(maxDistance);
+        passes = new ClientPasses(joined);
+        clients.put(clientId, passes);
+      } else if (passes.running != null
+          && Double.compare(passes.running.maxDistance, maxDistance) == 0) {
+        joined = passes.running;
+        leader = false;
+      } else if (passes.queued != null) {
+        joined = passes.queued;
+        joined.maxDistance = maxDistance;
+        leader = false;
+      } else {
+        joined = new Pass(maxDistance);
+        passes.queued = joined;
+        running = passes.running;
+      }
+    }
+
+    if (!leader) {
+      return await(joined.future);
+    }
+    if (running != null) {
+      awaitQuietly(running.future);
+    }
+    double distance;
+    synchronized (this) {
+      if (passes.queued == joined) {
+        passes.queued = null;
+        passes.running = joined;
+      }
+      distance = joined.maxDistance;
+    }
+    try {
+      Map<Task, List<Resource>> schedule = pass.apply(distance);
+      joined.future.complete(schedule);
+      return schedule;
+    } catch (RuntimeException | Error e) {
+      joined.future.completeExceptionally(e);
+      throw e;
+    } finally {
+      synchronized (this) {
+        if (passes.running == joined) {
+          passes.running = null;
+        }
+        if (passes.running == null && passes.queued == null) {
+          clients.remove(clientId, passes);
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the number of passes that are queued or running.
+   *
+   * @return the number of distinct passes in progress
+   */
+  public synchronized int getPassesInProgress() {
+    int inProgress = 0;
+    for (ClientPasses passes : clients.values()) {
+      inProgress += (passes.running != null ? 1 : 0) + (passes.queued != null ? 1 : 0);
+    }
+    return inProgress;
+  }
+
+  private static Map<Task, List<Resource>> await(
+      CompletableFuture<Map<Task, List<Resource>>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Waits for a pass to finish, ignoring whether it failed.
+   */
+  private static void awaitQuietly(CompletableFuture<Map<Task, List<Resource>>> future) {
+    try {
+      future.join();
+    } catch (CompletionException | CancellationException e) {
+      // The follow-up pass runs whether or not the pass before it succeeded
+    }
+  }
+
+  /**
+   * Holds the pass running for a client and the follow-up pass queued behind it.
+   */
+  private static final class ClientPasses {
+    private Pass running;
+    private Pass queued;
+
+    private ClientPasses(Pass running) {
+      this.running = running;
+    }
+  }
+
+  /**
+   * Holds the result of a pass and the maximum distance it runs with, which a queued pass
+   * takes from the latest caller to join it.
+   */
+  private static final class Pass {
+    private final CompletableFuture<Map<Task, List<Resource>>> future =
+        new CompletableFuture<>();
+    private double maxDistance;
+
+    private Pass(double maxDistance) {
+      this.maxDistance = maxDistance;
+    }
+  }
+}
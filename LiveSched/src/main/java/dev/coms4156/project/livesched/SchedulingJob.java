@@ -0,0 +1,125 @@
+package dev.coms4156.project.livesched;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a scheduling pass that has been submitted to run in the background.
+ * This class stores the state, progress and, once finished, the result of the pass.
+ */
+public class SchedulingJob {
+
+  /**
+   * The lifecycle states of a scheduling job.
+   */
+  public enum Status {
+    QUEUED, RUNNING, SUCCEEDED, FAILED
+  }
+
+  private final String jobId;
+  private final String clientId;
+  private final double maxDistance;
+  private final LocalDateTime submittedAt;
+  private final SchedulingProgress progress;
+  private volatile Status status;
+  private volatile LocalDateTime startedAt;
+  private volatile LocalDateTime finishedAt;
+  private volatile Map<Task, List<Resource>> result;
+  private volatile String error;
+
+  /**
+   * Constructs a new queued SchedulingJob object with the given parameters.
+   *
+   * @param jobId       the unique ID of the job
+   * @param clientId    the client whose schedule the job updates
+   * @param maxDistance the maximum distance between tasks and resources for the pass
+   */
+  public SchedulingJob(String jobId, String clientId, double maxDistance) {
+    this.jobId = jobId;
+    this.clientId = clientId;
+    this.maxDistance = maxDistance;
+    this.submittedAt = LocalDateTime.now();
+    this.progress = new SchedulingProgress();
+    this.status = Status.QUEUED;
+  }
+
+  /**
+   * Marks the job as running.
+   */
+  public void markRunning() {
+    this.startedAt = LocalDateTime.now();
+    this.status = Status.RUNNING;
+  }
+
+  /**
+   * Marks the job as succeeded with the given schedule as its result.
+   *
+   * @param result the schedule produced by the pass
+   */
+  public void markSucceeded(Map<Task, List<Resource>> result) {
+    this.result = result;
+    this.finishedAt = LocalDateTime.now();
+    this.status = Status.SUCCEEDED;
+  }
+
+  /**
+   * Marks the job as failed with the given error message.
+   *
+   * @param error a message describing why the pass failed
+   */
+  public void markFailed(String error) {
+    this.error = error;
+    this.finishedAt = LocalDateTime.now();
+    this.status = Status.FAILED;
+  }
+
+  /**
+   * Checks whether the job has finished, successfully or not.
+   *
+   * @return true if the job has succeeded or failed, false otherwise
+   */
+  public boolean isFinished() {
+    return status == Status.SUCCEEDED || status == Status.FAILED;
+  }
+
+  public String getJobId() {
+    return jobId;
+  }
+
+  public String getClientId() {
+    return clientId;
+  }
+
+  public double getMaxDistance() {
+    return maxDistance;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public SchedulingProgress getProgress() {
+    return progress;
+  }
+
+  public LocalDateTime getSubmittedAt() {
+    return submittedAt;
+  }
+
+  public LocalDateTime getStartedAt() {
+    return startedAt;
+  }
+
+  public LocalDateTime getFinishedAt() {
+    return finishedAt;
+  }
+
+  public Map<Task, List<Resource>> getResult() {
+    return result;
+  }
+
+  public String getError() {
+    return error;
+  }
+}
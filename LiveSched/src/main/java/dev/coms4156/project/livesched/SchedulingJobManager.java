@@ -0,0 +1,173 @@
+package dev.coms4156.project.livesched;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Runs scheduling passes as background jobs on a bounded pool of threads.
+ * Submissions for the same client and maximum distance are coalesced into the job that is
+ * already queued or running, and a bounded number of finished jobs are retained for lookup.
+ * Jobs run their passes through a {@link SchedulingCoordinator}, so they are also coalesced
+ * with the passes other callers run for the same client.
+ */
+public class SchedulingJobManager {
+
+  private static final int DEFAULT_POOL_SIZE = 2;
+  private static final int DEFAULT_QUEUE_CAPACITY = 64;
+  private static final int DEFAULT_RETAINED_JOBS = 1000;
+
+  private final ThreadPoolExecutor executor;
+  private final SchedulingCoordinator coordinator;
+  private final Map<String, SchedulingJob> activeJobs = new HashMap<>();
+  private final Map<String, SchedulingJob> jobs;
+
+  /**
+   * Constructs a new SchedulingJobManager object with the default pool size, queue capacity
+   * and number of retained jobs.
+   */
+  public SchedulingJobManager() {
+    this(new SchedulingCoordinator());
+  }
+
+  /**
+   * Constructs a new SchedulingJobManager object with the default pool size, queue capacity
+   * and number of retained jobs, whose passes run through the given coordinator.
+   *
+   * @param coordinator coalesces the passes of jobs with those run by other callers
+   */
+  public SchedulingJobManager(SchedulingCoordinator coordinator) {
+    this(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY, DEFAULT_RETAINED_JOBS, coordinator);
+  }
+
+  /**
+   * Constructs a new SchedulingJobManager object with the given parameters.
+   *
+   * @param poolSize      the number of threads running scheduling passes
+   * @param queueCapacity the number of jobs that may wait for a free thread
+   * @param retainedJobs  the number of jobs kept available for status lookups
+   * @throws IllegalArgumentException if any of the parameters is not positive
+   */
+  public SchedulingJobManager(int poolSize, int queueCapacity, int retainedJobs) {
+    this(poolSize, queueCapacity, retainedJobs, new SchedulingCoordinator());
+  }
+
+  /**
+   * Constructs a new SchedulingJobManager object with the given parameters.
+   *
+   * @param poolSize      the number of threads running scheduling passes
+   * @param queueCapacity the number of jobs that may wait for a free thread
+   * @param retainedJobs  the number of jobs kept available for status lookups
+   * @param coordinator   coalesces the passes of jobs with those run by other callers
+   * @throws IllegalArgumentException if any of the numbers is not positive or
+   *                                  {@code coordinator} is null
+   */
+  public SchedulingJobManager(int poolSize, int queueCapacity, int retainedJobs,
+                              SchedulingCoordinator coordinator) {
+    if (poolSize <= 0 || queueCapacity <= 0 || retainedJobs <= 0) {
+      throw new IllegalArgumentException("Pool size, queue capacity and retained jobs "
+          + "must be positive.");
+    }
+    if (coordinator == null) {
+      throw new IllegalArgumentException("Coordinator cannot be null.");
+    }
+    this.coordinator = coordinator;
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(queueCapacity), new JobThreadFactory());
+    this.executor.allowCoreThreadTimeOut(true);
+    this.jobs = new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, SchedulingJob> eldest) {
+        return size() > retainedJobs;
+      }
+    };
+  }
+
+  /**
+   * Submits a scheduling pass for the given client, or returns the job already queued or
+   * running for the same client and maximum distance.
+   *
+   * @param clientId    the client whose schedule is updated
+   * @param maxDistance the maximum distance between tasks and resources
+   * @param pass        the scheduling pass to run, given the job's progress tracker and the
+   *                    maximum distance to run with, which is the latest one asked for if
+   *                    the pass was coalesced with a follow-up pass of another caller
+   * @return the submitted or coalesced {@code SchedulingJob}
+   * @throws RejectedExecutionException if the job queue is full
+   */
+  public synchronized SchedulingJob submit(
+      String clientId, double maxDistance,
+      BiFunction<SchedulingProgress, Double, Map<Task, List<Resource>>> pass) {
+    String key = clientId + "|" + maxDistance;
+    SchedulingJob activeJob = activeJobs.get(key);
+    if (activeJob != null) {
+      return activeJob;
+    }
+
+    SchedulingJob job = new SchedulingJob(UUID.randomUUID().toString(), clientId, maxDistance);
+    activeJobs.put(key, job);
+    try {
+      executor.execute(() -> run(key, job, pass));
+    } catch (RejectedExecutionException e) {
+      activeJobs.remove(key);
+      throw e;
+    }
+    jobs.put(job.getJobId(), job);
+    return job;
+  }
+
+  /**
+   * Gets a job by its ID.
+   *
+   * @param jobId the ID of the job
+   * @return the {@code SchedulingJob} with the given ID, or null if it is unknown or expired
+   */
+  public synchronized SchedulingJob getJob(String jobId) {
+    return jobs.get(jobId);
+  }
+
+  /**
+   * Stops accepting jobs and interrupts the passes that are still running.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void run(String key, SchedulingJob job,
+                   BiFunction<SchedulingProgress, Double, Map<Task, List<Resource>>> pass) {
+    job.markRunning();
+    try {
+      job.markSucceeded(coordinator.run(job.getClientId(), job.getMaxDistance(),
+          distance -> pass.apply(job.getProgress(), distance)));
+    } catch (RuntimeException e) {
+      job.markFailed(e.getMessage());
+    } finally {
+      synchronized (this) {
+        activeJobs.remove(key, job);
+      }
+    }
+  }
+
+  /**
+   * Creates named daemon threads so that idle scheduling threads never block shutdown.
+   */
+  private static class JobThreadFactory implements ThreadFactory {
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "scheduling-job-" + threadNumber.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
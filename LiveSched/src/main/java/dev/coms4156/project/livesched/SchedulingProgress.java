@@ -0,0 +1,50 @@
+package dev.coms4156.project.livesched;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the progress of a single scheduling pass.
+ * The counters are updated by {@code Schedule.updateSchedule} while the pass runs and can be
+ * read concurrently by other threads, for example to report the status of a scheduling job.
+ */
+public class SchedulingProgress {
+
+  private final AtomicInteger totalTasks = new AtomicInteger();
+  private final AtomicInteger tasksConsidered = new AtomicInteger();
+  private final AtomicInteger tasksScheduled = new AtomicInteger();
+
+  /**
+   * Records the number of tasks the pass is going to consider.
+   *
+   * @param totalTasks the number of tasks in the pass
+   */
+  public void start(int totalTasks) {
+    this.totalTasks.set(totalTasks);
+  }
+
+  /**
+   * Records that one more task has been considered by the pass.
+   */
+  public void taskConsidered() {
+    tasksConsidered.incrementAndGet();
+  }
+
+  /**
+   * Records that one more task has been added to the schedule by the pass.
+   */
+  public void taskScheduled() {
+    tasksScheduled.incrementAndGet();
+  }
+
+  public int getTotalTasks() {
+    return totalTasks.get();
+  }
+
+  public int getTasksConsidered() {
+    return tasksConsidered.get();
+  }
+
+  public int getTasksScheduled() {
+    return tasksScheduled.get();
+  }
+}
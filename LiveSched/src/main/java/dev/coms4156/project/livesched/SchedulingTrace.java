@@ -0,0 +1,147 @@
+package dev.coms4156.project.livesched;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records where the time of one scheduling pass went. The pass adds the time spent in each
+ * {@link Phase} as it runs, and a sample of the tasks it considers is recorded as spans with
+ * their own duration and outcome. A trace is written by the thread running the pass and should
+ * only be read once the pass has finished.
+ */
+public final class SchedulingTrace {
+
+  /**
+   * The most task spans a trace keeps.
+   */
+  public static final int MAX_TASK_SPANS = 1000;
+
+  /**
+   * The phases of a scheduling pass whose time is recorded.
+   */
+  public enum Phase {
+    /** Sorting the tasks by priority. */
+    SORT,
+    /** Counting and finding available resources. */
+    AVAILABILITY,
+    /** Checking the distance between tasks and resources. */
+    DISTANCE,
+    /** Releasing the resources of tasks that could not be scheduled. */
+    ROLLBACK,
+    /** Mapping the schedule to the response. */
+    RESPONSE
+  }
+
+  private final String clientId;
+  private final double maxDistance;
+  private final double taskSampleRate;
+  private final LocalDateTime startedAt = LocalDateTime.now();
+  private final long[] phaseNanos = new long[Phase.values().length];
+  private final List<Map<String, Object>> taskSpans = new ArrayList<>();
+  private long passNanos;
+  private int tasksConsidered;
+  private boolean passRecorded;
+
+  /**
+   * Constructs a new SchedulingTrace object.
+   *
+   * @param clientId       the client whose schedule is updated
+   * @param maxDistance    the maximum distance of the pass
+   * @param taskSampleRate the fraction of tasks, between 0 and 1, recorded as spans
+   * @throws IllegalArgumentException if the sample rate is not between 0 and 1
+   */
+  public SchedulingTrace(String clientId, double maxDistance, double taskSampleRate) {
+    if (!(taskSampleRate >= 0 && taskSampleRate <= 1)) {
+      throw new IllegalArgumentException("Task sample rate must be between 0 and 1.");
+    }
+    this.clientId = clientId;
+    this.maxDistance = maxDistance;
+    this.taskSampleRate = taskSampleRate;
+  }
+
+  /**
+   * Adds the time elapsed since {@code startNanos} to a phase.
+   *
+   * @param phase      the phase that ran
+   * @param startNanos the value of {@link System#nanoTime()} when the phase started
+   */
+  public void addPhase(Phase phase, long startNanos) {
+    phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+  }
+
+  /**
+   * Decides whether the next task considered is recorded as a span.
+   *
+   * @return true if the task should be recorded with {@link #recordTask}
+   */
+  public boolean sampleTask() {
+    return taskSampleRate > 0 && taskSpans.size() < MAX_TASK_SPANS
+        && (taskSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < taskSampleRate);
+  }
+
+  /**
+   * Records the span of a sampled task.
+   *
+   * @param task       the task considered
+   * @param outcome    what the pass did with the task
+   * @param startNanos the value of {@link System#nanoTime()} when the task was first considered
+   */
+  public void recordTask(Task task, String outcome, long startNanos) {
+    Map<String, Object> span = new LinkedHashMap<>();
+    span.put("taskId", task.getTaskId());
+    span.put("outcome", outcome);
+    span.put("micros", (System.nanoTime() - startNanos) / 1_000);
+    taskSpans.add(span);
+  }
+
+  /**
+   * Records the duration of the whole pass and the number of tasks it considered.
+   *
+   * @param tasksConsidered the number of tasks considered
+   * @param startNanos      the value of {@link System#nanoTime()} when the pass started
+   */
+  public void recordPass(int tasksConsidered, long startNanos) {
+    this.tasksConsidered = tasksConsidered;
+    this.passNanos = System.nanoTime() - startNanos;
+    this.passRecorded = true;
+  }
+
+  /**
+   * Gets whether a scheduling pass has been recorded in this trace. A caller that joined a pass
+   * run for another caller has nothing recorded.
+   *
+   * @return true if a pass was recorded
+   */
+  public boolean isPassRecorded() {
+    return passRecorded;
+  }
+
+  public String getClientId() {
+    return clientId;
+  }
+
+  /**
+   * Describes the trace for a response, with times in microseconds.
+   *
+   * @return the details of the trace
+   */
+  public Map<String, Object> describe() {
+    Map<String, Object> phases = new LinkedHashMap<>();
+    for (Phase phase : Phase.values()) {
+      phases.put(phase.name().toLowerCase(), phaseNanos[phase.ordinal()] / 1_000);
+    }
+    Map<String, Object> description = new LinkedHashMap<>();
+    description.put("startedAt", startedAt.format(Task.TIME_FORMATTER));
+    description.put("maxDistance", maxDistance);
+    description.put("tasksConsidered", tasksConsidered);
+    description.put("passMicros", passNanos / 1_000);
+    description.put("phaseMicros", phases);
+    description.put("taskSampleRate", taskSampleRate);
+    description.put("taskSpans", taskSpans);
+    return description;
+  }
+}
@@ -0,0 +1,43 @@
+package dev.coms4156.project.livesched;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the most recent scheduling traces of each client, dropping the oldest trace of a
+ * client once it has as many as the log's capacity.
+ */
+public class SchedulingTraceLog {
+
+  private final Map<String, Deque<SchedulingTrace>> traces = new HashMap<>();
+
+  /**
+   * Adds a finished trace to the log.
+   *
+   * @param trace    the trace to add
+   * @param capacity the most traces to keep for the trace's client
+   */
+  public synchronized void add(SchedulingTrace trace, int capacity) {
+    Deque<SchedulingTrace> clientTraces =
+        traces.computeIfAbsent(trace.getClientId(), clientId -> new ArrayDeque<>());
+    clientTraces.addFirst(trace);
+    while (clientTraces.size() > Math.max(1, capacity)) {
+      clientTraces.removeLast();
+    }
+  }
+
+  /**
+   * Gets the recent traces of a client, newest first.
+   *
+   * @param clientId the client
+   * @return the client's traces, or an empty list if there are none
+   */
+  public synchronized List<SchedulingTrace> getTraces(String clientId) {
+    Deque<SchedulingTrace> clientTraces = traces.get(clientId);
+    return clientTraces == null ? List.of() : new ArrayList<>(clientTraces);
+  }
+}
@@ -0,0 +1,17 @@
+package dev.coms4156.project.livesched;
+
+/**
+ * Receives each snapshot published by a client's {@code MyFileDatabase}.
+ */
+@FunctionalInterface
+public interface SnapshotListener {
+
+  /**
+   * Called after a snapshot is published, while the database is still locked, so
+   * implementations must return quickly and leave any slow work to another thread.
+   *
+   * @param previous the snapshot published before, or null if there was none
+   * @param current  the newly published snapshot
+   */
+  void snapshotPublished(ClientSnapshot previous, ClientSnapshot current);
+}
@@ -3,7 +3,9 @@ package dev.coms4156.project.livesched;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 
@@ -15,6 +17,13 @@ public class Task implements Serializable {
   @Serial
   private static final long serialVersionUID = 1001L;
 
+  /**
+   * The format of the times sent to and returned by the API, such as the start and end times
+   * of tasks.
+   */
+  public static final DateTimeFormatter TIME_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
   private final String taskId;
   private String taskName;
   private Map<ResourceType, Integer> resourceList; // Key = ResourceType, Value = Units needed
@@ -22,6 +31,7 @@ public class Task implements Serializable {
   private LocalDateTime startTime;
   private LocalDateTime endTime;
   private Location location;
+  private transient ChangeListener changeListener;
 
   /**
    * Constructs a new Task object with the given parameters.
@@ -64,6 +74,37 @@ public class Task implements Serializable {
     this.location = new Location(latitude, longitude);
   }
 
+  private Task(String taskId, Task other, Map<ResourceType, Integer> resourceList) {
+    this.taskId = taskId;
+    this.taskName = other.taskName;
+    this.resourceList = resourceList;
+    this.priority = other.priority;
+    this.startTime = other.startTime;
+    this.endTime = other.endTime;
+    this.location = other.location;
+  }
+
+  /**
+   * Creates a copy of this task that requires the given resources.
+   * The copy is not validated, so tasks that have already started can be copied.
+   *
+   * @param resourceList the map of ResourceTypes and their quantity needed by the copy
+   * @return a new {@code Task} with the same ID and details as this one
+   */
+  Task copy(Map<ResourceType, Integer> resourceList) {
+    return new Task(taskId, this, resourceList);
+  }
+
+  /**
+   * Creates a copy of this task with a different ID that requires the same resources.
+   *
+   * @param taskId the ID of the copy
+   * @return a new {@code Task} with the given ID and the same details as this one
+   */
+  Task withTaskId(String taskId) {
+    return new Task(taskId, this, resourceList);
+  }
+
   /**
    * Validates that the priority is within the allowed range.
    *
@@ -120,6 +161,7 @@ public class Task implements Serializable {
   public void updatePriority(int priority) {
     validatePriority(priority);
     this.priority = priority;
+    changed();
   }
 
   /**
@@ -133,6 +175,7 @@ public class Task implements Serializable {
     validateStartEndTimes(startTime, endTime);
     this.startTime = startTime;
     this.endTime = endTime;
+    changed();
   }
 
   /**
@@ -155,11 +198,74 @@ public class Task implements Serializable {
     if (resourceList.containsKey(resourceType)) {
       if (quantity == 0) {
         resourceList.remove(resourceType); // Remove existing ResourceType from the list
+        if (changeListener != null) {
+          changeListener.requirementChanged(this, resourceType, false);
+        }
       } else {
         resourceList.replace(resourceType, quantity); // Update quantity of existing ResourceType
       }
     } else {
       resourceList.put(resourceType, quantity); // Add new ResourceType and its quantity
+      if (changeListener != null) {
+        changeListener.requirementChanged(this, resourceType, true);
+      }
+    }
+    changed();
+  }
+
+  /**
+   * Updates the quantities of several resources needed for the task at once. A quantity of 0
+   * removes the resource from the task. When {@code replace} is true, the resources the task
+   * needs become exactly those given with a positive quantity.
+   *
+   * @param resources the quantity needed of each resource type to update
+   * @param replace   whether to remove the resources that are not in {@code resources}
+   * @throws IllegalArgumentException if {@code resources} is null, or holds a null resource
+   *                                  type or a negative or null quantity
+   */
+  public void updateResources(Map<ResourceType, Integer> resources, boolean replace) {
+    if (resources == null) {
+      throw new IllegalArgumentException("Resources cannot be null.");
+    }
+    resources.forEach((resourceType, quantity) -> {
+      if (resourceType == null) {
+        throw new IllegalArgumentException("Resource type cannot be null.");
+      }
+      if (quantity == null || quantity < 0) {
+        throw new IllegalArgumentException("Quantity cannot be negative.");
+      }
+    });
+
+    if (replace) {
+      for (ResourceType resourceType : new ArrayList<>(resourceList.keySet())) {
+        if (!resources.containsKey(resourceType)) {
+          updateResource(resourceType, 0);
+        }
+      }
+    }
+    resources.forEach((resourceType, quantity) -> {
+      if (quantity > 0 || resourceList.containsKey(resourceType)) {
+        updateResource(resourceType, quantity);
+      }
+    });
+  }
+
+  /**
+   * Sets the listener told when this task is changed.
+   *
+   * @param changeListener the listener, or null to remove the current one
+   */
+  void setChangeListener(ChangeListener changeListener) {
+    this.changeListener = changeListener;
+  }
+
+  ChangeListener getChangeListener() {
+    return changeListener;
+  }
+
+  private void changed() {
+    if (changeListener != null) {
+      changeListener.taskChanged(this);
     }
   }
 
@@ -172,6 +278,7 @@ public class Task implements Serializable {
    */
   public void updateLocation(double latitude, double longitude) {
     this.location = new Location(latitude, longitude);
+    changed();
   }
 
   @Override
@@ -218,5 +325,4 @@ public class Task implements Serializable {
   public LocalDateTime getEndTime() {
     return endTime;
   }
-
 }
@@ -0,0 +1,112 @@
+package dev.coms4156.project.livesched;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates numeric task IDs that are never reused by a client, even after tasks are deleted.
+ * IDs are handed out in increasing order, one at a time or as a contiguous block for bulk
+ * ingest, and the allocator skips past any numeric ID that is added to the client by other
+ * means so that allocated IDs never collide with existing ones.
+ */
+public final class TaskIdAllocator {
+
+  private final AtomicLong nextId;
+
+  /**
+   * Constructs a new TaskIdAllocator object.
+   *
+   * @param nextId the first ID to allocate
+   * @throws IllegalArgumentException if {@code nextId} is not positive
+   */
+  public TaskIdAllocator(long nextId) {
+    if (nextId <= 0) {
+      throw new IllegalArgumentException("Next ID must be positive.");
+    }
+    this.nextId = new AtomicLong(nextId);
+  }
+
+  /**
+   * Creates an allocator whose IDs come after both a persisted next ID and every numeric ID
+   * among the given tasks.
+   *
+   * @param tasks         the tasks the client already has, or null if it has none
+   * @param persistedNext the next ID saved with the client's data, or 0 if none was saved
+   * @return a new {@code TaskIdAllocator}
+   */
+  public static TaskIdAllocator seededFrom(Collection<Task> tasks, long persistedNext) {
+    TaskIdAllocator allocator = new TaskIdAllocator(Math.max(1, persistedNext));
+    if (tasks != null) {
+      for (Task task : tasks) {
+        if (task != null) {
+          allocator.advancePast(task.getTaskId());
+        }
+      }
+    }
+    return allocator;
+  }
+
+  /**
+   * Allocates a single ID.
+   *
+   * @return the allocated ID
+   */
+  public String allocate() {
+    return String.valueOf(nextId.getAndIncrement());
+  }
+
+  /**
+   * Reserves a contiguous block of IDs.
+   *
+   * @param count the number of IDs to reserve
+   * @return the first ID of the block, which is followed by the other {@code count - 1} IDs
+   * @throws IllegalArgumentException if {@code count} is not positive
+   */
+  public long reserve(int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("Count must be positive.");
+    }
+    return nextId.getAndAdd(count);
+  }
+
+  /**
+   * Ensures an ID added by other means is never allocated.
+   *
+   * @param taskId the ID of a task added to the client
+   */
+  public void advancePast(String taskId) {
+    long id = parseId(taskId);
+    if (id > 0) {
+      nextId.accumulateAndGet(id + 1, Math::max);
+    }
+  }
+
+  /**
+   * Gets the next ID that will be allocated.
+   *
+   * @return the next ID
+   */
+  public long getNextId() {
+    return nextId.get();
+  }
+
+  /**
+   * Parses a task ID as a number.
+   *
+   * @return the numeric value of the ID, or -1 if it is not a positive number below the maximum
+   */
+  private static long parseId(String taskId) {
+    if (taskId == null || taskId.isEmpty() || taskId.length() > 18) {
+      return -1;
+    }
+    long id = 0;
+    for (int index = 0; index < taskId.length(); index++) {
+      char digit = taskId.charAt(index);
+      if (digit < '0' || digit > '9') {
+        return -1;
+      }
+      id = id * 10 + (digit - '0');
+    }
+    return id;
+  }
+}
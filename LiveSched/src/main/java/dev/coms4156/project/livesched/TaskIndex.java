@@ -0,0 +1,319 @@
+package dev.coms4156.project.livesched;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Indexes an immutable collection of tasks for paginated, filtered retrieval.
+ * Tasks are kept in one persistent sorted map per priority and scheduled state, ordered by
+ * start time and then task ID, so a page is found with a search in each matching map followed
+ * by a merge of the maps instead of a scan over every task. {@link #updated} derives a new
+ * index from this one by copying only the paths to the tasks that changed.
+ */
+public final class TaskIndex {
+
+  /**
+   * The order in which tasks are paginated.
+   */
+  public static final Comparator<Task> PAGE_ORDER =
+      Comparator.comparing(Task::getStartTime).thenComparing(Task::getTaskId);
+
+  private static final int MIN_PRIORITY = 1;
+  private static final int MAX_PRIORITY = 5;
+
+  /**
+   * The tasks of each priority and scheduled state. Tasks that share a start time and task ID
+   * are kept together in the order they were added, under any one of them.
+   */
+  private final List<PersistentTreeMap<Task, Task[]>> buckets;
+  private final int size;
+
+  private TaskIndex(List<PersistentTreeMap<Task, Task[]>> buckets, int size) {
+    this.buckets = buckets;
+    this.size = size;
+  }
+
+  /**
+   * Constructs a new TaskIndex object over the given tasks.
+   *
+   * @param tasks     the tasks to index
+   * @param scheduled tests whether a task is scheduled
+   */
+  public TaskIndex(Collection<Task> tasks, Predicate<Task> scheduled) {
+    List<PersistentTreeMap<Task, Task[]>> buckets = new ArrayList<>();
+    for (int bucket = 0; bucket < (MAX_PRIORITY - MIN_PRIORITY + 1) * 2; bucket++) {
+      buckets.add(PersistentTreeMap.empty(PAGE_ORDER));
+    }
+    TaskIndex index = new TaskIndex(buckets, 0).updated(List.of(), tasks, scheduled);
+    this.buckets = index.buckets;
+    this.size = index.size;
+  }
+
+  /**
+   * Gets an index with some tasks removed and others added. Tasks are removed by identity
+   * whatever their scheduled state, and those the index does not hold are ignored.
+   *
+   * @param removed   the tasks to remove
+   * @param added     the tasks to add
+   * @param scheduled tests whether an added task is scheduled
+   * @return the new index, or this index if nothing changed
+   */
+  TaskIndex updated(Collection<Task> removed, Collection<Task> added,
+                    Predicate<Task> scheduled) {
+    List<PersistentTreeMap<Task, Task[]>> buckets = new ArrayList<>(this.buckets);
+    int size = this.size;
+    for (Task task : removed) {
+      for (boolean isScheduled : new boolean[] {false, true}) {
+        int bucket = bucketOf(task.getPriority(), isScheduled);
+        PersistentTreeMap<Task, Task[]> tasks = buckets.get(bucket);
+        Task[] group = tasks.get(task);
+        Task[] remaining = group == null ? null : without(group, task);
+        if (remaining != group) {
+          buckets.set(bucket, remaining.length == 0 ? tasks.remove(task)
+              : tasks.put(task, remaining));
+          size--;
+          break;
+        }
+      }
+    }
+    for (Task task : added) {
+      int bucket = bucketOf(task.getPriority(), scheduled.test(task));
+      PersistentTreeMap<Task, Task[]> tasks = buckets.get(bucket);
+      Task[] group = tasks.get(task);
+      if (group == null) {
+        group = new Task[] {task};
+      } else {
+        group = Arrays.copyOf(group, group.length + 1);
+        group[group.length - 1] = task;
+      }
+      buckets.set(bucket, tasks.put(task, group));
+      size++;
+    }
+    return buckets.equals(this.buckets) ? this : new TaskIndex(List.copyOf(buckets), size);
+  }
+
+  /**
+   * Finds a page of tasks in start time order.
+   *
+   * @param priorities the priorities to include, or null or empty to include all priorities
+   * @param scheduled  true for scheduled tasks only, false for unscheduled tasks only,
+   *                   or null for both
+   * @param from       the earliest start time to include, or null for no lower bound
+   * @param to         the start time before which to stop, or null for no upper bound
+   * @param cursor     the cursor returned with the previous page, or null for the first page
+   * @param pageSize   the maximum number of tasks in the page
+   * @return the {@code Page} of matching tasks
+   * @throws IllegalArgumentException if a priority is out of range, the cursor is invalid,
+   *                                  or {@code pageSize} is not positive
+   */
+  public Page findPage(Set<Integer> priorities, Boolean scheduled, LocalDateTime from,
+                       LocalDateTime to, String cursor, int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive.");
+    }
+    if (priorities != null) {
+      for (int priority : priorities) {
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+          throw new IllegalArgumentException("Priority must be an integer between 1 and 5.");
+        }
+      }
+    }
+    LocalDateTime afterStart = from;
+    String afterTaskId = null;
+    if (cursor != null) {
+      Position position = decodeCursor(cursor);
+      if (from == null || !position.startTime.isBefore(from)) {
+        afterStart = position.startTime;
+        afterTaskId = position.taskId;
+      }
+    }
+
+    PriorityQueue<Head> heads =
+        new PriorityQueue<>((left, right) -> PAGE_ORDER.compare(left.task, right.task));
+    for (int priority = MIN_PRIORITY; priority <= MAX_PRIORITY; priority++) {
+      if (priorities != null && !priorities.isEmpty() && !priorities.contains(priority)) {
+        continue;
+      }
+      for (boolean isScheduled : new boolean[] {false, true}) {
+        if (scheduled != null && scheduled != isScheduled) {
+          continue;
+        }
+        Iterator<Task> tasks =
+            tasksAfter(buckets.get(bucketOf(priority, isScheduled)), afterStart, afterTaskId);
+        if (tasks.hasNext()) {
+          heads.add(new Head(tasks.next(), tasks));
+        }
+      }
+    }
+
+    List<Task> tasks = new ArrayList<>(Math.min(pageSize, 1024));
+    while (!heads.isEmpty()) {
+      Head head = heads.poll();
+      Task task = head.task;
+      if (to != null && !task.getStartTime().isBefore(to)) {
+        break;
+      }
+      if (tasks.size() == pageSize) {
+        return new Page(tasks, encodeCursor(tasks.get(tasks.size() - 1)));
+      }
+      tasks.add(task);
+      if (head.rest.hasNext()) {
+        heads.add(new Head(head.rest.next(), head.rest));
+      }
+    }
+    return new Page(tasks, null);
+  }
+
+  /**
+   * Gets the number of indexed tasks.
+   *
+   * @return the number of tasks in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  private static int bucketOf(int priority, boolean scheduled) {
+    int clamped = Math.max(MIN_PRIORITY, Math.min(MAX_PRIORITY, priority));
+    return (clamped - MIN_PRIORITY) * 2 + (scheduled ? 1 : 0);
+  }
+
+  /**
+   * Iterates over the tasks in a bucket that come after the given position, or over every
+   * task if {@code start} is null. A null task ID stands for the position before every task
+   * starting at {@code start}.
+   */
+  private static Iterator<Task> tasksAfter(PersistentTreeMap<Task, Task[]> bucket,
+                                           LocalDateTime start, String taskId) {
+    Iterator<Task[]> groups = bucket.iteratorFrom(start == null ? null : task -> {
+      int comparison = task.getStartTime().compareTo(start);
+      if (comparison == 0) {
+        comparison = taskId == null ? 1 : task.getTaskId().compareTo(taskId);
+      }
+      return comparison > 0 ? 0 : -1;
+    });
+    return new Iterator<>() {
+      private Task[] group = new Task[0];
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < group.length || groups.hasNext();
+      }
+
+      @Override
+      public Task next() {
+        if (next == group.length) {
+          group = groups.next();
+          next = 0;
+        }
+        return group[next++];
+      }
+    };
+  }
+
+  /**
+   * Gets a group of tasks without a task, or the same group if it does not hold the task.
+   */
+  private static Task[] without(Task[] group, Task task) {
+    for (int position = 0; position < group.length; position++) {
+      if (group[position] == task) {
+        Task[] remaining = new Task[group.length - 1];
+        System.arraycopy(group, 0, remaining, 0, position);
+        System.arraycopy(group, position + 1, remaining, position, remaining.length - position);
+        return remaining;
+      }
+    }
+    return group;
+  }
+
+  /**
+   * Encodes the position of a task as an opaque cursor.
+   *
+   * @param task the last task of a page
+   * @return a cursor from which the next page starts
+   */
+  static String encodeCursor(Task task) {
+    String position = task.getStartTime() + "\n" + task.getTaskId();
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Position decodeCursor(String cursor) {
+    try {
+      String position = new String(Base64.getUrlDecoder().decode(cursor),
+          StandardCharsets.UTF_8);
+      int separator = position.indexOf('\n');
+      if (separator < 0 || separator == position.length() - 1) {
+        throw new IllegalArgumentException("Cursor has no task ID.");
+      }
+      return new Position(LocalDateTime.parse(position.substring(0, separator)),
+          position.substring(separator + 1));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor.", e);
+    }
+  }
+
+  /**
+   * Holds the next task of a bucket being merged into a page and the tasks after it.
+   */
+  private static final class Head {
+    private final Task task;
+    private final Iterator<Task> rest;
+
+    private Head(Task task, Iterator<Task> rest) {
+      this.task = task;
+      this.rest = rest;
+    }
+  }
+
+  /**
+   * The start time and task ID of the last task of a page.
+   */
+  private static final class Position {
+    private final LocalDateTime startTime;
+    private final String taskId;
+
+    private Position(LocalDateTime startTime, String taskId) {
+      this.startTime = startTime;
+      this.taskId = taskId;
+    }
+  }
+
+  /**
+   * Holds the tasks of a page and the cursor of the page after it.
+   */
+  public static final class Page {
+    private final List<Task> tasks;
+    private final String nextCursor;
+
+    Page(List<Task> tasks, String nextCursor) {
+      this.tasks = tasks;
+      this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getTasks() {
+      return tasks;
+    }
+
+    /**
+     * Gets the cursor from which the next page starts.
+     *
+     * @return the cursor of the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+      return nextCursor;
+    }
+  }
+}
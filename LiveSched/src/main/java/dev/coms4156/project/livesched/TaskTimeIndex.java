@@ -0,0 +1,181 @@
+package dev.coms4156.project.livesched;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Indexes an immutable collection of tasks by the times they start and end.
+ * Tasks are kept in a persistent map sorted by start time and then task ID, which also keeps
+ * the latest end time in each of its subtrees. Tasks starting within a range are found by
+ * walking the map from the start of the range, and tasks active at a given time are found by
+ * descending only into the subtrees holding a task that ends after that time.
+ * Adding or removing tasks with {@link #updated} returns a new index that shares all but the
+ * changed paths with this one, so the index of a snapshot is derived from the previous one.
+ */
+public final class TaskTimeIndex {
+
+  private static final Comparator<Bucket> LATEST_END_ORDER =
+      Comparator.comparing(bucket -> bucket.latestEnd);
+
+  /**
+   * The tasks with each start time and task ID, keyed by any one of them.
+   */
+  private final PersistentTreeMap<Task, Bucket> buckets;
+  private final int size;
+
+  private TaskTimeIndex(PersistentTreeMap<Task, Bucket> buckets, int size) {
+    this.buckets = buckets;
+    this.size = size;
+  }
+
+  /**
+   * Constructs a new TaskTimeIndex object over the given tasks.
+   *
+   * @param tasks the tasks to index
+   */
+  public TaskTimeIndex(Collection<Task> tasks) {
+    TaskTimeIndex index = new TaskTimeIndex(
+        PersistentTreeMap.empty(TaskIndex.PAGE_ORDER, LATEST_END_ORDER), 0)
+        .updated(List.of(), tasks);
+    this.buckets = index.buckets;
+    this.size = index.size;
+  }
+
+  /**
+   * Gets an index with some tasks removed and others added. Tasks are removed by identity, and
+   * those the index does not hold are ignored.
+   *
+   * @param removed the tasks to remove
+   * @param added   the tasks to add
+   * @return the new index, or this index if nothing changed
+   */
+  TaskTimeIndex updated(Collection<Task> removed, Collection<Task> added) {
+    PersistentTreeMap<Task, Bucket> buckets = this.buckets;
+    int size = this.size;
+    for (Task task : removed) {
+      Bucket bucket = buckets.get(task);
+      Bucket remaining = bucket == null ? null : bucket.without(task);
+      if (remaining != bucket) {
+        buckets = remaining == null ? buckets.remove(task) : buckets.put(task, remaining);
+        size--;
+      }
+    }
+    for (Task task : added) {
+      Bucket bucket = buckets.get(task);
+      buckets = buckets.put(task, bucket == null ? new Bucket(task) : bucket.with(task));
+      size++;
+    }
+    return buckets == this.buckets ? this : new TaskTimeIndex(buckets, size);
+  }
+
+  /**
+   * Finds the tasks that start within a range of times.
+   *
+   * @param from the earliest start time to include
+   * @param to   the start time before which to stop
+   * @return the matching tasks in start time order
+   * @throws IllegalArgumentException if {@code from} or {@code to} is null,
+   *                                  or {@code to} is before {@code from}
+   */
+  public List<Task> startingBetween(LocalDateTime from, LocalDateTime to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Range start and end cannot be null.");
+    }
+    if (to.isBefore(from)) {
+      throw new IllegalArgumentException("Range end cannot be before the range start.");
+    }
+    List<Task> starting = new ArrayList<>();
+    Iterator<Bucket> iterator = buckets.iteratorFrom(task -> task.getStartTime().compareTo(from));
+    while (iterator.hasNext()) {
+      Bucket bucket = iterator.next();
+      if (!bucket.tasks[0].getStartTime().isBefore(to)) {
+        break;
+      }
+      starting.addAll(Arrays.asList(bucket.tasks));
+    }
+    return starting;
+  }
+
+  /**
+   * Finds the tasks that are active at a given time, which are those that start at or before
+   * the time and end after it.
+   *
+   * @param time the time
+   * @return the matching tasks in start time order
+   * @throws IllegalArgumentException if {@code time} is null
+   */
+  public List<Task> activeAt(LocalDateTime time) {
+    if (time == null) {
+      throw new IllegalArgumentException("Time cannot be null.");
+    }
+    List<Task> active = new ArrayList<>();
+    buckets.forEachBefore(task -> task.getStartTime().isAfter(time) ? 0 : -1,
+        bucket -> bucket.latestEnd.isAfter(time), bucket -> {
+          for (Task task : bucket.tasks) {
+            if (task.getEndTime().isAfter(time)) {
+              active.add(task);
+            }
+          }
+        });
+    return active;
+  }
+
+  /**
+   * Gets the number of indexed tasks.
+   *
+   * @return the number of tasks in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Holds the tasks that share a start time and task ID, in the order they were added, and the
+   * latest time any of them ends.
+   */
+  private static final class Bucket {
+    private final Task[] tasks;
+    private final LocalDateTime latestEnd;
+
+    private Bucket(Task... tasks) {
+      this.tasks = tasks;
+      LocalDateTime latestEnd = tasks[0].getEndTime();
+      for (Task task : tasks) {
+        if (task.getEndTime().isAfter(latestEnd)) {
+          latestEnd = task.getEndTime();
+        }
+      }
+      this.latestEnd = latestEnd;
+    }
+
+    private Bucket with(Task task) {
+      Task[] tasks = Arrays.copyOf(this.tasks, this.tasks.length + 1);
+      tasks[this.tasks.length] = task;
+      return new Bucket(tasks);
+    }
+
+    /**
+     * Gets the bucket without a task, which is null if the task was the only one, or this
+     * bucket if it does not hold the task.
+     */
+    private Bucket without(Task task) {
+      for (int position = 0; position < tasks.length; position++) {
+        if (tasks[position] == task) {
+          if (tasks.length == 1) {
+            return null;
+          }
+          Task[] remaining = new Task[tasks.length - 1];
+          System.arraycopy(tasks, 0, remaining, 0, position);
+          System.arraycopy(tasks, position + 1, remaining, position, remaining.length - position);
+          return new Bucket(remaining);
+        }
+      }
+      return this;
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package dev.coms4156.project.livesched;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the settings of scheduling traces, configured under {@code livesched.tracing}.
+ * Tracing is off by default, in which case scheduling passes record nothing.
+ */
+@Component
+@ConfigurationProperties(prefix = "livesched.tracing")
+public class TracingProperties {
+
+  private boolean enabled = false;
+  private double taskSampleRate = 0;
+  private int maxTracesPerClient = 20;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public double getTaskSampleRate() {
+    return taskSampleRate;
+  }
+
+  public void setTaskSampleRate(double taskSampleRate) {
+    this.taskSampleRate = taskSampleRate;
+  }
+
+  public int getMaxTracesPerClient() {
+    return maxTracesPerClient;
+  }
+
+  public void setMaxTracesPerClient(int maxTracesPerClient) {
+    this.maxTracesPerClient = maxTracesPerClient;
+  }
+}
@@ -0,0 +1,112 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the AdmissionControlFilter class.
+ */
+class AdmissionControlFilterUnitTests {
+
+  private static final String CLIENT_ID = "admissionTestClient";
+
+  private AdmissionProperties admissionProperties;
+  private AdmissionControlFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    admissionProperties = new AdmissionProperties();
+    AdmissionProperties.Limits limits = new AdmissionProperties.Limits();
+    limits.setRequestsPerSecond(0.001);
+    limits.setBurst(2);
+    admissionProperties.getClients().put(CLIENT_ID, limits);
+    filter = new AdmissionControlFilter(admissionProperties);
+    LiveSchedApplication.setClientLimiter(CLIENT_ID, null);
+  }
+
+  @AfterEach
+  void tearDown() {
+    LiveSchedApplication.setClientLimiter(CLIENT_ID, null);
+  }
+
+  @Test
+  void rejectsRequestsOverClientLimit() throws ServletException, IOException {
+    assertEquals(200, perform(CLIENT_ID, new MockFilterChain()).getStatus());
+    assertEquals(200, perform(CLIENT_ID, new MockFilterChain()).getStatus());
+
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = perform(CLIENT_ID, chain);
+    assertEquals(429, response.getStatus());
+    assertEquals("1000", response.getHeader("Retry-After"));
+    assertNull(chain.getRequest(), "A rejected request should not reach the controller");
+
+    assertEquals(0, LiveSchedApplication.getClientLimiter(CLIENT_ID,
+        admissionProperties::newLimiter).getInFlight());
+    assertEquals(200, perform("otherAdmissionTestClient", new MockFilterChain()).getStatus(),
+        "Other clients should have limits of their own");
+    LiveSchedApplication.setClientLimiter("otherAdmissionTestClient", null);
+  }
+
+  @Test
+  void idleLimitersAreEvicted() throws ServletException, IOException {
+    AdmissionProperties.Limits limits = admissionProperties.getClients().get(CLIENT_ID);
+    limits.setRequestsPerSecond(1_000_000);
+    assertEquals(200, perform(CLIENT_ID, new MockFilterChain()).getStatus());
+    ClientLimiter limiter = LiveSchedApplication.getClientLimiter(CLIENT_ID,
+        admissionProperties::newLimiter);
+
+    // The single token taken is back a microsecond later
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!limiter.retireIfIdle() && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertTrue(LiveSchedApplication.evictIdleClientLimiters() > 0);
+    assertEquals(ClientLimiter.RETIRED, limiter.tryAcquire());
+
+    assertEquals(200, perform(CLIENT_ID, new MockFilterChain()).getStatus(),
+        "A request after eviction should get a new limiter");
+    assertNotSame(limiter, LiveSchedApplication.getClientLimiter(CLIENT_ID,
+        admissionProperties::newLimiter));
+  }
+
+  @Test
+  void requestsWithoutClientAreNotLimited() throws ServletException, IOException {
+    for (int request = 0; request < 5; request++) {
+      MockFilterChain chain = new MockFilterChain();
+      assertEquals(200, perform(null, chain).getStatus());
+      assertNotNull(chain.getRequest());
+    }
+  }
+
+  @Test
+  void disabledFilterAdmitsEverything() throws ServletException, IOException {
+    admissionProperties.setEnabled(false);
+    for (int request = 0; request < 5; request++) {
+      assertEquals(200, perform(CLIENT_ID, new MockFilterChain()).getStatus());
+    }
+  }
+
+  private MockHttpServletResponse perform(String clientId, MockFilterChain chain)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/updateSchedule");
+    if (clientId != null) {
+      request.setParameter("clientId", clientId);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
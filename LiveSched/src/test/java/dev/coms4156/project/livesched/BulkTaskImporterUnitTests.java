@@ -0,0 +1,113 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BulkTaskImporter class.
+ */
+class BulkTaskImporterUnitTests {
+
+  private BulkTaskImporter importer;
+  private ResourceType resourceType;
+  private String startTime;
+  private String endTime;
+
+  @BeforeEach
+  void setUp() {
+    importer = new BulkTaskImporter(3);
+    resourceType = new ResourceType("Truck", 2, 40.7128, -74.0060);
+    startTime = LocalDateTime.now().plusHours(1).format(Task.TIME_FORMATTER);
+    endTime = LocalDateTime.now().plusHours(2).format(Task.TIME_FORMATTER);
+  }
+
+  @Test
+  void constructorRejectsNonPositiveMaximum() {
+    assertThrows(IllegalArgumentException.class, () -> new BulkTaskImporter(0));
+  }
+
+  @Test
+  void readAcceptsJsonArray() throws IOException {
+    List<JsonNode> entries = importer.read(toStream(
+        "[" + taskJson("Task1", 1, "") + ", " + taskJson("Task2", 2, "") + "]"));
+
+    assertEquals(2, entries.size());
+    assertEquals("Task1", entries.get(0).get("taskName").asText());
+    assertEquals("Task2", entries.get(1).get("taskName").asText());
+  }
+
+  @Test
+  void readAcceptsNewlineDelimitedJson() throws IOException {
+    List<JsonNode> entries = importer.read(toStream(
+        taskJson("Task1", 1, "") + "\n" + taskJson("Task2", 2, "") + "\n"));
+
+    assertEquals(2, entries.size());
+    assertEquals("Task2", entries.get(1).get("taskName").asText());
+  }
+
+  @Test
+  void readRejectsEmptyTooLargeAndMalformedBodies() {
+    assertThrows(IllegalArgumentException.class, () -> importer.read(toStream("[]")));
+    assertThrows(IllegalArgumentException.class, () -> importer.read(toStream(
+        "[{}, {}, {}, {}]")));
+    assertThrows(JsonProcessingException.class, () -> importer.read(toStream("[{\"a\": ")));
+  }
+
+  @Test
+  void validateCreatesTasksWithResources() throws IOException {
+    List<JsonNode> entries = importer.read(toStream(
+        "[" + taskJson("Task1", 1, ", \"resources\": {\"Truck\": 2}") + "]"));
+
+    BulkTaskImporter.Result result = importer.validate(entries, Map.of("Truck", resourceType));
+
+    assertFalse(result.hasErrors());
+    assertEquals(1, result.getTasks().size());
+    Task task = result.getTasks().get(0);
+    assertEquals("Task1", task.getTaskName());
+    assertEquals(2, task.getResources().get(resourceType));
+    assertSame(resourceType, result.getReferencedResourceTypes().iterator().next());
+  }
+
+  @Test
+  void validateReportsEachInvalidTask() throws IOException {
+    List<JsonNode> entries = importer.read(toStream("["
+        + taskJson("Task1", 6, "") + ", "
+        + taskJson("Task2", 1, ", \"resources\": {\"Boat\": 1}") + ", "
+        + "{\"taskName\": \"Task3\"}]"));
+
+    BulkTaskImporter.Result result = importer.validate(entries, Map.of("Truck", resourceType));
+
+    assertTrue(result.hasErrors());
+    assertEquals(3, result.getInvalidTasks());
+    assertTrue(result.getTasks().isEmpty());
+    assertEquals(List.of(
+        "Task 1: Priority must be an integer between 1 and 5.",
+        "Task 2: ResourceType Boat Not Found",
+        "Task 3: priority must be an integer."), result.getErrors());
+  }
+
+  private String taskJson(String taskName, int priority, String extraFields) {
+    return "{\"taskName\": \"" + taskName + "\", \"priority\": " + priority
+        + ", \"startTime\": \"" + startTime + "\", \"endTime\": \"" + endTime
+        + "\", \"latitude\": 40.7128, \"longitude\": -74.0060" + extraFields + "}";
+  }
+
+  private static InputStream toStream(String body) {
+    return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,81 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ClientLimiter class.
+ */
+class ClientLimiterUnitTests {
+
+  private final AtomicLong now = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+
+  @Test
+  void retiresOnlyIdleLimiters() {
+    ClientLimiter limiter = new ClientLimiter(10, 2, 100, now::get);
+
+    assertEquals(0, limiter.tryAcquire());
+    assertFalse(limiter.retireIfIdle(), "A limiter with a request in flight is in use");
+    limiter.release();
+    assertFalse(limiter.retireIfIdle(), "A limiter whose bucket is refilling is in use");
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+    assertTrue(limiter.retireIfIdle());
+    assertTrue(limiter.retireIfIdle(), "Retiring a retired limiter should keep it retired");
+    assertEquals(ClientLimiter.RETIRED, limiter.tryAcquire());
+    assertEquals(0, limiter.getInFlight());
+  }
+
+  @Test
+  void admitsBurstThenSustainedRate() {
+    ClientLimiter limiter = new ClientLimiter(10, 3, 100, now::get);
+
+    for (int request = 0; request < 3; request++) {
+      assertEquals(0, limiter.tryAcquire(), "The burst should be admitted at once");
+      limiter.release();
+    }
+    long wait = limiter.tryAcquire();
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait,
+        "The next token arrives a tenth of a second later");
+
+    now.addAndGet(wait);
+    assertEquals(0, limiter.tryAcquire());
+    limiter.release();
+    assertTrue(limiter.tryAcquire() > 0);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    for (int request = 0; request < 3; request++) {
+      assertEquals(0, limiter.tryAcquire(), "The bucket should refill up to the burst");
+      limiter.release();
+    }
+    assertTrue(limiter.tryAcquire() > 0);
+    assertEquals(0, limiter.getInFlight(), "Rejected requests should not hold a slot");
+  }
+
+  @Test
+  void capsRequestsInFlight() {
+    ClientLimiter limiter = new ClientLimiter(1000, 1000, 2, now::get);
+
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(0, limiter.tryAcquire());
+    assertEquals(ClientLimiter.CONCURRENCY_RETRY_NANOS, limiter.tryAcquire());
+    assertEquals(2, limiter.getInFlight());
+
+    limiter.release();
+    assertEquals(0, limiter.tryAcquire());
+  }
+
+  @Test
+  void limitsMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new ClientLimiter(0, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new ClientLimiter(Double.NaN, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new ClientLimiter(1, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new ClientLimiter(1, 1, 0));
+  }
+}
@@ -0,0 +1,44 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the ClientLoggingFilter class.
+ */
+class ClientLoggingFilterUnitTests {
+
+  private final ClientLoggingFilter filter = new ClientLoggingFilter();
+
+  @Test
+  void putsClientIntoLoggingContextDuringRequest() throws ServletException, IOException {
+    AtomicReference<String> loggedClientId = new AtomicReference<>();
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/retrieveTasks");
+    request.setParameter("clientId", "loggingClient");
+
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+        loggedClientId.set(MDC.get(ClientLoggingFilter.CLIENT_ID_KEY)));
+
+    assertEquals("loggingClient", loggedClientId.get());
+    assertNull(MDC.get(ClientLoggingFilter.CLIENT_ID_KEY), "The context should be cleared");
+  }
+
+  @Test
+  void skipsRequestsWithoutClient() throws ServletException, IOException {
+    MockFilterChain chain = new MockFilterChain();
+    filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), chain);
+
+    assertNotNull(chain.getRequest());
+    assertNull(MDC.get(ClientLoggingFilter.CLIENT_ID_KEY));
+  }
+}
@@ -0,0 +1,326 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the ClientSnapshot class.
+ */
+class ClientSnapshotUnitTests {
+
+  private MyFileDatabase database;
+  private ResourceType resourceType;
+  private Task task;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    database = new MyFileDatabase(1,
+        taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+
+    resourceType = new ResourceType("Truck", 2, 40.7128, -74.0060);
+    Map<ResourceType, Integer> resources = new HashMap<>();
+    resources.put(resourceType, 1);
+    task = new Task("1", "Delivery", resources, 1, LocalDateTime.now(),
+        LocalDateTime.now().plusHours(1), 40.7128, -74.0060);
+    database.addResourceType(resourceType);
+    database.addTask(task);
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+  }
+
+  @Test
+  void snapshotCopiesDatabaseContents() {
+    ClientSnapshot snapshot = database.publishSnapshot();
+
+    assertEquals(1, snapshot.getTasks().size());
+    assertEquals(1, snapshot.getResourceTypes().size());
+    assertEquals(1, snapshot.getSchedule().size());
+    assertEquals(1, snapshot.getScheduleEntries().size());
+
+    Task copy = snapshot.getTask("1");
+    assertNotSame(task, copy, "Snapshot tasks should be copies");
+    assertEquals(task, copy);
+    assertEquals("Delivery", copy.getTaskName());
+    ResourceType required = copy.getResources().keySet().iterator().next();
+    assertNotSame(resourceType, required, "Copied tasks should not refer to live resource types");
+    assertEquals(snapshot.getResourceTypes().get(0), required,
+        "Copied tasks should refer to resource types by name and location");
+    assertSame(snapshot.getResourceTypes().get(0), snapshot.getResourceType("Truck"));
+    assertNull(snapshot.getResourceType("Bus"));
+
+    List<Resource> assigned = snapshot.getSchedule().get(copy);
+    assertEquals(1, assigned.size());
+    Resource liveResource = database.getMasterSchedule().getTaskSchedule().get(task).get(0);
+    assertNotSame(liveResource, assigned.get(0), "Snapshot resources should be copies");
+    assertEquals(liveResource.getAvailableFrom(), assigned.get(0).getAvailableFrom());
+    assertSame(copy, snapshot.getScheduleEntries().get(0).get("task"));
+  }
+
+  @Test
+  void snapshotIsUnaffectedByLaterChanges() {
+    ClientSnapshot snapshot = database.publishSnapshot();
+    Resource liveResource = database.getMasterSchedule().getTaskSchedule().get(task).get(0);
+    LocalDateTime assignedUntil = liveResource.getAvailableFrom();
+
+    database.getMasterSchedule().unscheduleTask(task);
+    task.updateResource(resourceType, 2);
+    database.deleteTask(task);
+
+    assertEquals(1, snapshot.getTasks().size());
+    assertEquals(1, snapshot.getSchedule().size());
+    assertEquals(1, snapshot.getTask("1").getResources().values().iterator().next());
+    assertEquals(assignedUntil,
+        snapshot.getSchedule().get(snapshot.getTask("1")).get(0).getAvailableFrom());
+
+    ClientSnapshot next = database.publishSnapshot();
+    assertTrue(next.getTasks().isEmpty());
+    assertTrue(next.getSchedule().isEmpty());
+    assertTrue(next.getVersion() > snapshot.getVersion(), "Versions should increase");
+  }
+
+  @Test
+  void snapshotIsImmutable() {
+    ClientSnapshot snapshot = database.publishSnapshot();
+
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getTasks().clear());
+    assertThrows(UnsupportedOperationException.class,
+        () -> snapshot.getResourceTypes().add(resourceType));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getSchedule().clear());
+    assertThrows(UnsupportedOperationException.class,
+        () -> snapshot.getScheduleEntries().get(0).clear());
+    assertThrows(UnsupportedOperationException.class,
+        () -> snapshot.getTask("1").updateResource(resourceType, 0));
+  }
+
+  @Test
+  void getSnapshotReturnsPublishedSnapshot() {
+    ClientSnapshot first = database.getSnapshot();
+    assertSame(first, database.getSnapshot(), "Snapshot should be reused until republished");
+
+    database.deleteTask(task);
+    assertSame(first, database.getSnapshot(), "Unpublished changes should not be visible");
+
+    ClientSnapshot published = database.publishSnapshot();
+    assertSame(published, database.getSnapshot());
+    assertNull(published.getTask("1"));
+  }
+
+  @Test
+  void snapshotSharesUnchangedCopies() {
+    ResourceType van = new ResourceType("Van", 1, 40.7128, -74.0060);
+    database.addResourceType(van);
+    ClientSnapshot first = database.publishSnapshot();
+    TaskTimeIndex taskTimeIndex = first.getTaskTimeIndex();
+
+    van.addResource();
+    ClientSnapshot second = database.publishSnapshot();
+    assertSame(first.getTasks(), second.getTasks(), "Unchanged tasks should be shared");
+    assertSame(taskTimeIndex, second.getTaskTimeIndex(),
+        "Indexes of unchanged tasks should be kept");
+    assertSame(first.getResourceType("Truck"), second.getResourceType("Truck"));
+    assertNotSame(first.getResourceType("Van"), second.getResourceType("Van"),
+        "A changed resource type should be copied again");
+    assertEquals(2, second.getResourceType("Van").getTotalUnits());
+
+    final TaskIndex scheduleIndex = second.getScheduleIndex();
+    database.addTask(new Task("2", "Pickup", new HashMap<>(), 2, LocalDateTime.now(),
+        LocalDateTime.now().plusHours(1), 40.7128, -74.0060));
+    ClientSnapshot withTask = database.publishSnapshot();
+    assertEquals(2, withTask.getTasks().size());
+    assertSame(second.getTask("1"), withTask.getTask("1"));
+    assertSame(second.getSchedule(), withTask.getSchedule(),
+        "An unchanged schedule should be shared");
+    assertSame(scheduleIndex, withTask.getScheduleIndex());
+
+    task.updatePriority(3);
+    ClientSnapshot third = database.publishSnapshot();
+    assertNotSame(withTask.getTask("1"), third.getTask("1"), "A changed task should be copied");
+    assertEquals(3, third.getTask("1").getPriority());
+    assertEquals(1, second.getTask("1").getPriority());
+    assertSame(third.getTask("1"), third.getScheduleEntries().get(0).get("task"),
+        "The schedule should refer to the new copy of a changed task");
+    assertSame(withTask.getResourceTypes(), third.getResourceTypes());
+
+    final Resource liveResource = database.getMasterSchedule().getTaskSchedule().get(task).get(0);
+    database.getMasterSchedule().unscheduleTask(task);
+    ClientSnapshot fourth = database.publishSnapshot();
+    assertTrue(fourth.getSchedule().isEmpty());
+    assertNotSame(third.getResourceType("Truck"), fourth.getResourceType("Truck"),
+        "Releasing a resource should change its resource type");
+    assertEquals(liveResource.getAvailableFrom(), fourth.getResourceType("Truck")
+        .getResource(liveResource.getResourceId()).getAvailableFrom());
+    assertSame(third.getTask("1"), fourth.getTask("1"),
+        "Changing a resource type should not copy the tasks that require it");
+  }
+
+  @Test
+  void publishingCopiesOnlyChangedTasks() {
+    for (int number = 2; number <= 2000; number++) {
+      database.addTask(new Task(String.valueOf(number), "Pickup", new HashMap<>(), 2,
+          LocalDateTime.now(), LocalDateTime.now().plusHours(1), 40.7128, -74.0060));
+    }
+    ClientSnapshot first = database.publishSnapshot();
+
+    database.getTaskById("1000").updatePriority(5);
+    ClientSnapshot second = database.publishSnapshot();
+    int copied = 0;
+    for (int position = 0; position < first.getTasks().size(); position++) {
+      if (first.getTasks().get(position) != second.getTasks().get(position)) {
+        copied++;
+      }
+    }
+    assertEquals(1, copied, "Only the changed task should be copied again");
+    assertEquals(5, second.getTask("1000").getPriority());
+    assertSame(first.getSchedule(), second.getSchedule());
+    assertSame(first.getResourceTypes(), second.getResourceTypes());
+  }
+
+  @Test
+  void incrementalSnapshotsMatchFullCopies() {
+    Random random = new Random(4156);
+    List<ResourceType> types = new ArrayList<>(List.of(resourceType));
+    for (int round = 0; round < 300; round++) {
+      for (int change = random.nextInt(4); change >= 0; change--) {
+        applyRandomChange(random, types);
+      }
+      ClientSnapshot published = database.publishSnapshot();
+      ClientSnapshot copied = ClientSnapshot.capture(database, 0, null, null);
+      assertEquals(describe(copied), describe(published), "Round " + round);
+      assertEquals(describeIndexes(copied), describeIndexes(published), "Round " + round);
+    }
+  }
+
+  private static List<String> describeIndexes(ClientSnapshot snapshot) {
+    List<String> description = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+    for (int hour = 0; hour < 56; hour += 3) {
+      LocalDateTime time = now.plusHours(hour);
+      description.add("active " + hour + " " + taskIds(snapshot.getTaskTimeIndex().activeAt(time))
+          + taskIds(snapshot.getScheduleTimeIndex().activeAt(time)));
+      description.add("starting " + hour + " " + taskIds(snapshot.getTaskTimeIndex()
+          .startingBetween(time, time.plusHours(3))) + taskIds(snapshot.getScheduleTimeIndex()
+          .startingBetween(time, time.plusHours(3))));
+    }
+    for (Boolean scheduled : new Boolean[] {null, true, false}) {
+      description.add("page " + scheduled + " " + taskIds(snapshot.getTaskIndex()
+          .findPage(Set.of(1, 2, 4), scheduled, null, null, null, 1000).getTasks())
+          + taskIds(snapshot.getScheduleIndex()
+          .findPage(null, scheduled, now.plusHours(6), null, null, 1000).getTasks()));
+    }
+    for (double radius : new double[] {5, 40, Double.POSITIVE_INFINITY}) {
+      description.add("near " + radius + " " + snapshot.getTaskLocationIndex()
+          .findNear(new Location(40.5, -73.5), radius, 20).stream()
+          .map(match -> match.getItem().getTaskId()).toList());
+    }
+    return description;
+  }
+
+  private static List<String> taskIds(List<Task> tasks) {
+    return tasks.stream().map(Task::getTaskId).toList();
+  }
+
+  private void applyRandomChange(Random random, List<ResourceType> types) {
+    List<Task> tasks = database.getAllTasks();
+    Task task = tasks.isEmpty() ? null : tasks.get(random.nextInt(tasks.size()));
+    LocalDateTime start = LocalDateTime.now().plusHours(1 + random.nextInt(48));
+    switch (random.nextInt(9)) {
+      case 0, 1 -> {
+        Map<ResourceType, Integer> resources = new HashMap<>();
+        resources.put(types.get(random.nextInt(types.size())), 1 + random.nextInt(2));
+        database.addTask(new Task(database.allocateTaskId(), "Task", resources,
+            1 + random.nextInt(5), start, start.plusHours(1 + random.nextInt(4)),
+            40 + random.nextDouble(), -74 + random.nextDouble()));
+      }
+      case 2 -> database.deleteTask(task);
+      case 3 -> {
+        if (task != null) {
+          task.updatePriority(1 + random.nextInt(5));
+          task.updateStartAndEndTime(start, start.plusHours(2));
+        }
+      }
+      case 4 -> {
+        if (task != null) {
+          task.updateLocation(40 + random.nextDouble(), -74 + random.nextDouble());
+          task.updateResource(types.get(random.nextInt(types.size())), random.nextInt(3));
+        }
+      }
+      case 5 -> database.getMasterSchedule().updateSchedule(database.getAllTasks(), 200);
+      case 6 -> {
+        if (task != null) {
+          database.getMasterSchedule().unscheduleTask(task);
+        }
+      }
+      case 7 -> types.get(random.nextInt(types.size())).addResource();
+      default -> {
+        ResourceType type = new ResourceType("Type" + types.size(), 1 + random.nextInt(3),
+            40 + random.nextDouble(), -74 + random.nextDouble());
+        database.addResourceType(type);
+        types.add(type);
+      }
+    }
+  }
+
+  private static List<String> describe(ClientSnapshot snapshot) {
+    List<String> description = new ArrayList<>();
+    for (Task task : snapshot.getTasks()) {
+      description.add("task " + describe(task));
+      assertSame(task, snapshot.getTask(task.getTaskId()));
+    }
+    for (ResourceType type : snapshot.getResourceTypes()) {
+      StringBuilder resources = new StringBuilder();
+      for (int number = 1; number <= type.getTotalUnits(); number++) {
+        Resource resource = type.getResource(type.getTypeName() + " " + number);
+        resources.append(' ').append(resource.getResourceId()).append('@')
+            .append(resource.getAvailableFrom());
+      }
+      description.add("type " + type.getTypeName() + " " + where(type.getLocation())
+          + resources);
+    }
+    for (Map.Entry<Task, List<Resource>> entry : snapshot.getSchedule().entrySet()) {
+      StringBuilder resources = new StringBuilder();
+      for (Resource resource : entry.getValue()) {
+        resources.append(' ').append(resource.getResourceId());
+      }
+      description.add("scheduled " + describe(entry.getKey()) + resources);
+      assertSame(entry.getValue(), snapshot.getSchedule().get(entry.getKey()));
+    }
+    assertEquals(snapshot.getSchedule().size(), snapshot.getScheduleEntries().size());
+    return description;
+  }
+
+  private static String describe(Task task) {
+    return task.getTaskId() + " " + task.getPriority() + " " + task.getStartTime() + " "
+        + task.getEndTime() + " " + where(task.getLocation()) + " " + new TreeMap<>(
+        task.getResources().entrySet().stream().collect(Collectors.toMap(
+            entry -> entry.getKey().getTypeName() + where(entry.getKey().getLocation()),
+            Map.Entry::getValue)));
+  }
+
+  private static String where(Location location) {
+    return location.getLatitude() + "," + location.getLongitude();
+  }
+}
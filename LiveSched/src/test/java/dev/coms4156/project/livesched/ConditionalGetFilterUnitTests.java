@@ -0,0 +1,138 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.ServletException;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the ConditionalGetFilter class.
+ */
+class ConditionalGetFilterUnitTests {
+
+  private final ConditionalGetFilter filter = new ConditionalGetFilter();
+  private Map<String, MyFileDatabase> originalDatabases;
+  private MyFileDatabase database;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    database = new MyFileDatabase(1,
+        taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+
+    originalDatabases = LiveSchedApplication.clientDatabases;
+    LiveSchedApplication.clientDatabases = new HashMap<>();
+    LiveSchedApplication.clientDatabases.put("client", database);
+  }
+
+  @AfterEach
+  void tearDown() {
+    LiveSchedApplication.clientDatabases = originalDatabases;
+  }
+
+  @Test
+  void responseCarriesEntityTag() throws ServletException, IOException {
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = perform("GET", "/retrieveTasks", null, chain);
+
+    assertEquals(200, response.getStatus());
+    assertEquals(database.getEntityTag(), response.getHeader("ETag"));
+    assertEquals("no-cache", response.getHeader("Cache-Control"));
+    assertNotNull(chain.getRequest(), "The request should reach the controller");
+  }
+
+  @Test
+  void matchingEntityTagReturnsNotModified() throws ServletException, IOException {
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = perform("GET", "/retrieveSchedule",
+        database.getEntityTag(), chain);
+
+    assertEquals(304, response.getStatus());
+    assertEquals(database.getEntityTag(), response.getHeader("ETag"));
+    assertNull(chain.getRequest(), "An unchanged client should not reach the controller");
+  }
+
+  @Test
+  void publishedChangeInvalidatesEntityTag() throws ServletException, IOException {
+    String staleTag = database.getEntityTag();
+    database.publishSnapshot();
+    assertNotEquals(staleTag, database.getEntityTag());
+
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = perform("GET", "/retrieveResourceTypes", staleTag,
+        chain);
+
+    assertEquals(200, response.getStatus());
+    assertNotNull(chain.getRequest());
+  }
+
+  @Test
+  void otherRequestsAreNotFiltered() throws ServletException, IOException {
+    MockHttpServletResponse response = perform("PATCH", "/updateSchedule",
+        database.getEntityTag(), new MockFilterChain());
+    assertNull(response.getHeader("ETag"));
+
+    response = perform("GET", "/retrieveScheduleJob", database.getEntityTag(),
+        new MockFilterChain());
+    assertNull(response.getHeader("ETag"));
+  }
+
+  @Test
+  void unknownClientIsNotCreated() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/retrieveTasks");
+    request.setParameter("clientId", "unknownClient");
+    request.addHeader("If-None-Match", "*");
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+
+    assertNull(response.getHeader("ETag"));
+    assertNotNull(chain.getRequest(), "The request should reach the controller");
+    assertFalse(LiveSchedApplication.clientDatabases.containsKey("unknownClient"),
+        "Tagging a response should not create a database for the client");
+  }
+
+  @Test
+  void ifNoneMatchUsesWeakComparison() {
+    assertTrue(ConditionalGetFilter.matches("W/\"a-1\"", "W/\"a-1\""));
+    assertTrue(ConditionalGetFilter.matches("\"a-1\"", "W/\"a-1\""));
+    assertTrue(ConditionalGetFilter.matches("\"b-2\", W/\"a-1\"", "W/\"a-1\""));
+    assertTrue(ConditionalGetFilter.matches("*", "W/\"a-1\""));
+    assertFalse(ConditionalGetFilter.matches("W/\"a-2\"", "W/\"a-1\""));
+    assertFalse(ConditionalGetFilter.matches(null, "W/\"a-1\""));
+  }
+
+  private MockHttpServletResponse perform(String method, String path, String ifNoneMatch,
+                                          MockFilterChain chain)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+    request.setParameter("clientId", "client");
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
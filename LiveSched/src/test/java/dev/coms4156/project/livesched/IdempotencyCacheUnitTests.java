@@ -0,0 +1,146 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the IdempotencyCache class.
+ */
+class IdempotencyCacheUnitTests {
+
+  private final AtomicLong now = new AtomicLong();
+  private IdempotencyCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new IdempotencyCache(Duration.ofMinutes(10), 10, 3, 100, now::get);
+  }
+
+  @Test
+  void remembersKeyUntilItExpires() {
+    IdempotencyCache.Entry entry = new IdempotencyCache.Entry("PATCH /addTask");
+    assertNull(cache.putIfAbsent("key", entry));
+    assertSame(entry, cache.putIfAbsent("key", new IdempotencyCache.Entry("PATCH /addTask")));
+
+    advanceMinutes(10);
+    assertSame(entry, cache.putIfAbsent("key", new IdempotencyCache.Entry("PATCH /addTask")),
+        "A key should be remembered for at least its full time to live");
+
+    advanceMinutes(1);
+    assertEquals(0, cache.size());
+    assertNull(cache.putIfAbsent("key", new IdempotencyCache.Entry("PATCH /addTask")));
+  }
+
+  @Test
+  void expiresKeysInTheOrderTheyWereAdded() {
+    cache.putIfAbsent("first", new IdempotencyCache.Entry("a"));
+    advanceMinutes(5);
+    cache.putIfAbsent("second", new IdempotencyCache.Entry("b"));
+
+    advanceMinutes(6);
+    assertEquals(1, cache.size());
+    advanceMinutes(60);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void evictsOldestKeyWhenFull() {
+    IdempotencyCache.Entry second = new IdempotencyCache.Entry("b");
+    putCompleted("first", new IdempotencyCache.Entry("a"));
+    advanceMinutes(1);
+    putCompleted("second", second);
+    putCompleted("third", new IdempotencyCache.Entry("c"));
+    putCompleted("fourth", new IdempotencyCache.Entry("d"));
+
+    assertEquals(3, cache.size());
+    assertSame(second, cache.putIfAbsent("second", new IdempotencyCache.Entry("b")));
+    assertNull(cache.putIfAbsent("first", new IdempotencyCache.Entry("a")));
+  }
+
+  @Test
+  void neverEvictsRunningRequests() {
+    IdempotencyCache.Entry running = new IdempotencyCache.Entry("a");
+    cache.putIfAbsent("running", running);
+    putCompleted("second", new IdempotencyCache.Entry("b"));
+    putCompleted("third", new IdempotencyCache.Entry("c"));
+    putCompleted("fourth", new IdempotencyCache.Entry("d"));
+
+    assertEquals(3, cache.size());
+    assertSame(running, cache.putIfAbsent("running", new IdempotencyCache.Entry("a")),
+        "The key of a running request should be kept while completed keys are evicted");
+    assertNull(cache.putIfAbsent("second", new IdempotencyCache.Entry("b")));
+
+    IdempotencyCache.Entry alsoRunning = new IdempotencyCache.Entry("e");
+    cache.putIfAbsent("fifth", alsoRunning);
+    cache.putIfAbsent("sixth", new IdempotencyCache.Entry("f"));
+    cache.putIfAbsent("seventh", new IdempotencyCache.Entry("g"));
+    assertEquals(5, cache.size(), "Running requests may exceed the bound on keys");
+    assertSame(running, cache.putIfAbsent("running", new IdempotencyCache.Entry("a")));
+  }
+
+  @Test
+  void removesOnlyTheGivenEntry() {
+    IdempotencyCache.Entry entry = new IdempotencyCache.Entry("a");
+    cache.putIfAbsent("key", entry);
+    cache.remove("key", new IdempotencyCache.Entry("a"));
+    assertEquals(1, cache.size());
+
+    cache.remove("key", entry);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void evictsOldestKeysOverByteBudget() {
+    IdempotencyCache.Entry first = new IdempotencyCache.Entry("a");
+    IdempotencyCache.Entry second = new IdempotencyCache.Entry("b");
+    cache.putIfAbsent("first", first);
+    cache.complete(first, 200, null, new byte[60], "digest");
+    cache.putIfAbsent("second", second);
+    cache.complete(second, 200, null, new byte[60], "digest");
+
+    assertEquals(1, cache.size());
+    assertEquals(60, cache.getCachedBytes());
+    assertSame(second, cache.putIfAbsent("second", new IdempotencyCache.Entry("b")));
+    assertNull(cache.putIfAbsent("first", new IdempotencyCache.Entry("a")));
+
+    IdempotencyCache.Entry large = new IdempotencyCache.Entry("c");
+    cache.putIfAbsent("large", large);
+    cache.complete(large, 200, null, new byte[101], "digest");
+    assertTrue(large.isCompleted());
+    assertNull(cache.putIfAbsent("large", new IdempotencyCache.Entry("c")),
+        "A response larger than the whole budget should not be kept");
+    assertEquals(60, cache.getCachedBytes(),
+        "Keeping no room for a response too large to keep should evict nothing");
+    assertSame(second, cache.putIfAbsent("second", new IdempotencyCache.Entry("b")));
+  }
+
+  @Test
+  void rejectsInvalidLimits() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new IdempotencyCache(Duration.ZERO, 10, 10, 100));
+    assertThrows(IllegalArgumentException.class,
+        () -> new IdempotencyCache(Duration.ofMinutes(1), 0, 10, 100));
+    assertThrows(IllegalArgumentException.class,
+        () -> new IdempotencyCache(Duration.ofMinutes(1), 10, 0, 100));
+    assertThrows(IllegalArgumentException.class,
+        () -> new IdempotencyCache(Duration.ofMinutes(1), 10, 10, 0));
+  }
+
+  private void putCompleted(String key, IdempotencyCache.Entry entry) {
+    cache.putIfAbsent(key, entry);
+    cache.complete(entry, 200, null, new byte[0], "digest");
+  }
+
+  private void advanceMinutes(long minutes) {
+    now.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+  }
+}
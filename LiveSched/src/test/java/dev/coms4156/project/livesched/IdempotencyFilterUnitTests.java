@@ -0,0 +1,138 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the IdempotencyFilter class.
+ */
+class IdempotencyFilterUnitTests {
+
+  private IdempotencyFilter filter;
+  private AtomicInteger calls;
+  private int status;
+  private String receivedBody;
+
+  @BeforeEach
+  void setUp() {
+    filter = new IdempotencyFilter();
+    calls = new AtomicInteger();
+    status = 200;
+  }
+
+  @Test
+  void replaysResponseForRetriedRequest() throws ServletException, IOException {
+    MockHttpServletResponse first = perform("retry", "client", "Type1");
+    assertEquals(200, first.getStatus());
+    assertEquals("Task 1", first.getContentAsString());
+    assertNull(first.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+
+    MockHttpServletResponse retry = perform("retry", "client", "Type1");
+    assertEquals(200, retry.getStatus());
+    assertEquals("Task 1", retry.getContentAsString());
+    assertEquals("true", retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    assertEquals(1, calls.get(), "A retried request should not be applied again");
+
+    assertEquals("Task 2", perform("retry", "otherClient", "Type1").getContentAsString(),
+        "Keys should be remembered per client");
+    assertEquals("Task 3", perform(null, "client", "Type1").getContentAsString());
+  }
+
+  @Test
+  void rejectsKeyReusedForDifferentRequest() throws ServletException, IOException {
+    perform("reused", "client", "Type1");
+    assertEquals(422, perform("reused", "client", "Type2").getStatus());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void rejectsKeyReusedForDifferentBody() throws ServletException, IOException {
+    assertEquals(200, perform("body", "client", "Type1", "[\"r1\"]").getStatus());
+    assertEquals("[\"r1\"]", receivedBody, "The handler should read the whole body");
+
+    MockHttpServletResponse retry = perform("body", "client", "Type1", "[\"r1\"]");
+    assertEquals("true", retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    assertEquals(422, perform("body", "client", "Type1", "[\"r2\"]").getStatus());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void doesNotRecordServerErrors() throws ServletException, IOException {
+    status = 500;
+    assertEquals(500, perform("failed", "client", "Type1").getStatus());
+    status = 200;
+    assertEquals(200, perform("failed", "client", "Type1").getStatus());
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void rejectsOverlongKey() throws ServletException, IOException {
+    assertEquals(400, perform("k".repeat(256), "client", "Type1").getStatus());
+    assertEquals(0, calls.get());
+  }
+
+  @Test
+  void passesStreamedResponsesThrough() throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/updateScheduleStream");
+    request.setParameter("clientId", "client");
+    request.setParameter("maxDistance", "10");
+    request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "stream");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    AtomicReference<HttpServletResponse> streamed = new AtomicReference<>();
+    filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest req, HttpServletResponse resp) {
+        req.startAsync();
+        streamed.set(resp);
+      }
+    }));
+
+    // The body is written after the filter has returned, as a StreamingResponseBody does
+    streamed.get().getWriter().write("{\"scheduled\":1}");
+    streamed.get().flushBuffer();
+    assertEquals("{\"scheduled\":1}", response.getContentAsString());
+  }
+
+  private MockHttpServletResponse perform(String key, String clientId, String typeName)
+      throws ServletException, IOException {
+    return perform(key, clientId, typeName, "");
+  }
+
+  private MockHttpServletResponse perform(String key, String clientId, String typeName,
+                                          String body)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("PATCH", "/addTask");
+    request.setParameter("clientId", clientId);
+    request.setParameter("typeName", typeName);
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    if (key != null) {
+      request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest req, HttpServletResponse resp)
+          throws IOException {
+        receivedBody = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        resp.setStatus(status);
+        resp.getWriter().write("Task " + calls.incrementAndGet());
+      }
+    }));
+    return response;
+  }
+}
@@ -0,0 +1,122 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Unit tests for the JsonStreamWriter class.
+ */
+class JsonStreamWriterUnitTests {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private Task task1;
+  private Task task2;
+  private Map<Task, List<Resource>> schedule;
+  private LocalDateTime startTime;
+
+  @BeforeEach
+  void setUp() {
+    startTime = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    ResourceType resourceType = new ResourceType("Truck", 1, 40.7128, -74.0060);
+    Map<ResourceType, Integer> resources = new HashMap<>();
+    resources.put(resourceType, 1);
+    task1 = new Task("1", "Delivery", resources, 1, startTime, startTime.plusHours(1),
+        40.7128, -74.0060);
+    task2 = new Task("2", "Pickup", new HashMap<>(), 2, startTime, startTime.plusHours(2),
+        40.7128, -74.0060);
+
+    Resource truck = resourceType.findAvailableResource(startTime);
+    truck.assignUntil(task1.getEndTime());
+    schedule = new LinkedHashMap<>();
+    schedule.put(task1, List.of(truck));
+  }
+
+  @Test
+  void acceptsNdjsonChecksAcceptHeader() {
+    assertTrue(JsonStreamWriter.acceptsNdjson("application/x-ndjson"));
+    assertFalse(JsonStreamWriter.acceptsNdjson("application/json"));
+    assertFalse(JsonStreamWriter.acceptsNdjson(null));
+    assertEquals(MediaType.APPLICATION_NDJSON, JsonStreamWriter.contentType(true));
+    assertEquals(MediaType.APPLICATION_JSON, JsonStreamWriter.contentType(false));
+  }
+
+  @Test
+  void tasksAreWrittenAsJsonArray() throws IOException {
+    JsonNode tasks = MAPPER.readTree(write(JsonStreamWriter.tasks(List.of(task1, task2), false)));
+
+    assertTrue(tasks.isArray());
+    assertEquals(2, tasks.size());
+    assertEquals("1", tasks.get(0).get("taskId").asText());
+    assertEquals("Pickup", tasks.get(1).get("taskName").asText());
+    assertEquals(startTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+        tasks.get(0).get("startTime").asText(), "Times should be written as ISO strings");
+    assertEquals(1, tasks.get(0).get("resources").get("Truck").asInt());
+  }
+
+  @Test
+  void tasksAreWrittenAsNdjson() throws IOException {
+    String body = write(JsonStreamWriter.tasks(List.of(task1, task2), true));
+    String[] lines = body.split("\n");
+
+    assertEquals(2, lines.length);
+    assertTrue(body.endsWith("\n"));
+    assertEquals("1", MAPPER.readTree(lines[0]).get("taskId").asText());
+    assertEquals("2", MAPPER.readTree(lines[1]).get("taskId").asText());
+  }
+
+  @Test
+  void scheduleEntriesAreWrittenWithFullDetails() throws IOException {
+    JsonNode entries = MAPPER.readTree(write(JsonStreamWriter.scheduleEntries(schedule, false)));
+
+    assertEquals(1, entries.size());
+    assertEquals("Delivery", entries.get(0).get("task").get("taskName").asText());
+    JsonNode assigned = entries.get(0).get("assignedResources");
+    assertEquals(1, assigned.size());
+    assertEquals("Truck 1", assigned.get(0).get("resourceId").asText());
+  }
+
+  @Test
+  void scheduleSummaryIsWrittenPerLine() throws IOException {
+    String body = write(JsonStreamWriter.scheduleSummary(schedule, true));
+    JsonNode entry = MAPPER.readTree(body.trim());
+
+    assertEquals("1", entry.get("task").get("taskId").asText());
+    assertEquals(1, entry.get("task").get("priority").asInt());
+    assertEquals(40.7128, entry.get("task").get("location").get("latitude").asDouble());
+    JsonNode assigned = entry.get("assignedResources").get(0);
+    assertEquals("Truck 1", assigned.get("resourceId").asText());
+    assertEquals(LocalDateTime.parse(assigned.get("availableFrom").asText()),
+        task1.getEndTime());
+  }
+
+  @Test
+  void emptyScheduleIsWrittenAsEmptyArray() throws IOException {
+    assertEquals("[]", write(JsonStreamWriter.scheduleSummary(new LinkedHashMap<>(), false)));
+    assertEquals("", write(JsonStreamWriter.scheduleSummary(new LinkedHashMap<>(), true)));
+  }
+
+  private static String write(StreamingResponseBody body) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    body.writeTo(outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+}
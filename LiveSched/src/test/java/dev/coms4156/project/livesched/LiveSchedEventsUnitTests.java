@@ -0,0 +1,147 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the LiveSchedEvents class.
+ */
+class LiveSchedEventsUnitTests {
+
+  private Recording recording;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    recording = new Recording();
+    List<Class<? extends Event>> eventTypes = List.of(LiveSchedEvents.SchedulingPass.class,
+        LiveSchedEvents.DatabaseSave.class, LiveSchedEvents.DatabaseLoad.class,
+        LiveSchedEvents.ClientDatabaseCreated.class, LiveSchedEvents.ClientDatabaseEvicted.class);
+    for (Class<? extends Event> eventType : eventTypes) {
+      recording.enable(eventType).withThreshold(Duration.ZERO);
+    }
+    recording.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recording.close();
+  }
+
+  @Test
+  void recordsSchedulingPass() throws IOException {
+    Map<String, MyFileDatabase> originalDatabases = LiveSchedApplication.clientDatabases;
+    try {
+      MyFileDatabase database = newDatabase();
+      ResourceType resourceType = new ResourceType("Type", 1, 0, 0);
+      LocalDateTime start = LocalDateTime.now().plusDays(1);
+      database.addResourceType(resourceType);
+      database.addTask(new Task("1", "first", new HashMap<>(Map.of(resourceType, 1)), 1, start,
+          start.plusHours(1), 0, 0));
+      database.addTask(new Task("2", "second", new HashMap<>(Map.of(resourceType, 1)), 1, start,
+          start.plusHours(1), 0, 0));
+      LiveSchedApplication.clientDatabases = new HashMap<>(Map.of("eventsClient", database));
+
+      new RouteController().updateSchedule(10, "eventsClient");
+    } finally {
+      LiveSchedApplication.clientDatabases = originalDatabases;
+    }
+
+    List<RecordedEvent> events = recordedEvents("dev.coms4156.livesched.SchedulingPass");
+    assertEquals(1, events.size());
+    RecordedEvent event = events.get(0);
+    assertEquals("eventsClient", event.getString("clientId"));
+    assertEquals(10.0, event.getDouble("maxDistance"));
+    assertEquals(2, event.getInt("taskCount"));
+    assertEquals(1, event.getInt("scheduledCount"));
+  }
+
+  @Test
+  void recordsSaveAndLoad() throws IOException {
+    MyFileDatabase database = newDatabase();
+    boolean useGcs = LiveSchedApplication.useGCS;
+    LiveSchedApplication.useGCS = false;
+    try {
+      database.saveContentsToFile(database.getTaskContentType());
+      database.deSerializeObjectFromFile(database.getTaskContentType());
+    } finally {
+      LiveSchedApplication.useGCS = useGcs;
+    }
+
+    long fileSize = new File(database.getTaskFilePath()).length();
+    assertTrue(fileSize > 0);
+    for (String eventName : List.of("dev.coms4156.livesched.DatabaseSave",
+        "dev.coms4156.livesched.DatabaseLoad")) {
+      List<RecordedEvent> events = recordedEvents(eventName);
+      assertEquals(1, events.size());
+      assertEquals("tasks", events.get(0).getString("content"));
+      assertEquals(fileSize, events.get(0).getLong("bytes"));
+    }
+  }
+
+  @Test
+  void recordsEviction() throws IOException {
+    Map<String, MyFileDatabase> originalDatabases = LiveSchedApplication.clientDatabases;
+    try {
+      LiveSchedApplication.clientDatabases = new HashMap<>();
+      LiveSchedApplication.overrideDatabase(newDatabase(), "evictedClient");
+      LiveSchedApplication.restoreDatabase("evictedClient");
+      LiveSchedApplication.restoreDatabase("evictedClient");
+      // restoreDatabase turns saving back on, which would save test data at shutdown
+      LiveSchedApplication.overrideDatabase(newDatabase(), "evictedClient");
+    } finally {
+      LiveSchedApplication.clientDatabases = originalDatabases;
+    }
+
+    List<RecordedEvent> events = recordedEvents("dev.coms4156.livesched.ClientDatabaseEvicted");
+    assertEquals(1, events.size());
+    assertEquals("evictedClient", events.get(0).getString("clientId"));
+  }
+
+  @Test
+  void eventsAreNotWrittenWhenDisabled() throws IOException {
+    recording.disable(LiveSchedEvents.ClientDatabaseEvicted.class);
+    new LiveSchedEvents.ClientDatabaseEvicted().commit("ignoredClient");
+
+    assertTrue(recordedEvents("dev.coms4156.livesched.ClientDatabaseEvicted").isEmpty());
+  }
+
+  private MyFileDatabase newDatabase() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    return new MyFileDatabase(1, taskPath, resourcePath, schedulePath, taskPath, resourcePath,
+        schedulePath);
+  }
+
+  private List<RecordedEvent> recordedEvents(String eventName) throws IOException {
+    if (recording.getState() == RecordingState.RUNNING) {
+      recording.stop();
+    }
+    Path file = new File(tempDir, "recording.jfr").toPath();
+    recording.dump(file);
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().equals(eventName))
+        .toList();
+  }
+}
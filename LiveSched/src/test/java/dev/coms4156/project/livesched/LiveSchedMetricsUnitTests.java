@@ -0,0 +1,176 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the LiveSchedMetrics class.
+ */
+class LiveSchedMetricsUnitTests {
+
+  private SimpleMeterRegistry registry;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    Metrics.addRegistry(registry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    Metrics.removeRegistry(registry);
+  }
+
+  @Test
+  void recordsSchedulingPassOutcomes() {
+    ResourceType nearby = new ResourceType("Nearby", 1, 0, 0);
+    LocalDateTime start = LocalDateTime.now().plusDays(1);
+    Task first = new Task("1", "first", new HashMap<>(Map.of(nearby, 1)), 1, start,
+        start.plusHours(1), 0, 0);
+    Task second = new Task("2", "second", new HashMap<>(Map.of(nearby, 1)), 1, start,
+        start.plusHours(1), 0, 0);
+    Task far = new Task("3", "far", new HashMap<>(Map.of(nearby, 1)), 1, start.plusHours(2),
+        start.plusHours(3), 10, 10);
+    Task empty = new Task("4", "empty", new HashMap<>(), 1, start, start.plusHours(1), 0, 0);
+
+    new Schedule().updateSchedule(List.of(first, second, far, empty), 1);
+
+    assertEquals(1, registry.get("livesched.schedule.update").timer().count());
+    assertEquals(4, tasks("considered", "none"));
+    assertEquals(1, tasks("scheduled", "none"));
+    assertEquals(1, tasks("rejected", "insufficient_units"));
+    assertEquals(1, tasks("rejected", "out_of_range"));
+    assertEquals(1, tasks("rejected", "no_requirements"));
+  }
+
+  @Test
+  void recordsSaveAndLoadSizes() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    MyFileDatabase database = new MyFileDatabase(1, taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+    boolean useGcs = LiveSchedApplication.useGCS;
+    LiveSchedApplication.useGCS = false;
+    try {
+      database.saveContentsToFile(database.getTaskContentType());
+      database.deSerializeObjectFromFile(database.getTaskContentType());
+    } finally {
+      LiveSchedApplication.useGCS = useGcs;
+    }
+
+    long fileSize = new File(taskPath).length();
+    assertTrue(fileSize > 0);
+    assertEquals(fileSize, registry.get("livesched.database.size")
+        .tags("operation", "save", "content", "tasks").summary().totalAmount());
+    assertEquals(fileSize, registry.get("livesched.database.size")
+        .tags("operation", "load", "content", "tasks").summary().totalAmount());
+    assertEquals(1, registry.get("livesched.database.duration")
+        .tags("operation", "save", "content", "tasks").timer().count());
+  }
+
+  @Test
+  void gaugesReadClientsCurrentDatabase() {
+    Map<String, MyFileDatabase> originalDatabases = LiveSchedApplication.clientDatabases;
+    try {
+      MyFileDatabase database = new MyFileDatabase(1,
+          new File(tempDir, "tasks.dat").getAbsolutePath(),
+          new File(tempDir, "resources.dat").getAbsolutePath(),
+          new File(tempDir, "schedules.dat").getAbsolutePath(),
+          "testTaskObject", "testResourceObject", "testScheduleObject");
+      database.addResourceType(new ResourceType("Type", 1, 0, 0));
+      LiveSchedApplication.clientDatabases = new HashMap<>(Map.of("metricsClient", database));
+      LiveSchedMetrics.registerClient("metricsClient");
+
+      assertEquals(0, registry.get("livesched.client.tasks").tag("clientId", "metricsClient")
+          .gauge().value());
+      assertEquals(1, registry.get("livesched.client.resource.types")
+          .tag("clientId", "metricsClient").gauge().value());
+
+      LiveSchedApplication.clientDatabases = new HashMap<>();
+      assertTrue(Double.isNaN(registry.get("livesched.client.tasks")
+          .tag("clientId", "metricsClient").gauge().value()));
+    } finally {
+      LiveSchedApplication.clientDatabases = originalDatabases;
+    }
+  }
+
+  @Test
+  void evictedClientsLoseTheirGauges() {
+    Map<String, MyFileDatabase> originalDatabases = LiveSchedApplication.clientDatabases;
+    try {
+      LiveSchedApplication.clientDatabases = new HashMap<>(Map.of("evictedClient",
+          newDatabase()));
+      LiveSchedMetrics.registerClient("evictedClient");
+      assertEquals(0, registry.get("livesched.client.tasks").tag("clientId", "evictedClient")
+          .gauge().value());
+
+      LiveSchedApplication.restoreDatabase("evictedClient");
+      // restoreDatabase turns saving back on, which would save test data at shutdown
+      LiveSchedApplication.overrideDatabase(newDatabase(), "evictedClient");
+      assertNull(registry.find("livesched.client.tasks").tag("clientId", "evictedClient")
+          .gauge());
+      assertNull(registry.find("livesched.client.resource.types")
+          .tag("clientId", "evictedClient").gauge());
+    } finally {
+      LiveSchedApplication.clientDatabases = originalDatabases;
+    }
+  }
+
+  @Test
+  void clientsBeyondTheCapShareOneGauge() {
+    Map<String, MyFileDatabase> originalDatabases = LiveSchedApplication.clientDatabases;
+    List<String> clientIds = new ArrayList<>();
+    try {
+      LiveSchedApplication.clientDatabases = new HashMap<>();
+      int clients = LiveSchedMetrics.MAX_TAGGED_CLIENTS - LiveSchedMetrics.getTaggedClients() + 2;
+      for (int client = 0; client < clients; client++) {
+        String clientId = "cappedClient" + client;
+        MyFileDatabase database = newDatabase();
+        database.addResourceType(new ResourceType("Type", 1, 0, 0));
+        LiveSchedApplication.clientDatabases.put(clientId, database);
+        LiveSchedMetrics.registerClient(clientId);
+        clientIds.add(clientId);
+      }
+
+      assertEquals(LiveSchedMetrics.MAX_TAGGED_CLIENTS, LiveSchedMetrics.getTaggedClients());
+      assertNull(registry.find("livesched.client.tasks")
+          .tag("clientId", clientIds.get(clients - 1)).gauge());
+      assertEquals(2, registry.get("livesched.client.resource.types")
+          .tag("clientId", LiveSchedMetrics.OTHER_CLIENTS).gauge().value(),
+          "The two clients beyond the cap should be reported together");
+    } finally {
+      LiveSchedApplication.clientDatabases = originalDatabases;
+      clientIds.forEach(LiveSchedMetrics::unregisterClient);
+    }
+  }
+
+  private MyFileDatabase newDatabase() {
+    return new MyFileDatabase(1, new File(tempDir, "tasks.dat").getAbsolutePath(),
+        new File(tempDir, "resources.dat").getAbsolutePath(),
+        new File(tempDir, "schedules.dat").getAbsolutePath(),
+        "testTaskObject", "testResourceObject", "testScheduleObject");
+  }
+
+  private double tasks(String outcome, String reason) {
+    return registry.get("livesched.schedule.tasks").tags("outcome", outcome, "reason", reason)
+        .counter().count();
+  }
+}
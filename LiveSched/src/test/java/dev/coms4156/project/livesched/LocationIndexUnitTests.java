@@ -0,0 +1,128 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LocationIndex class.
+ */
+class LocationIndexUnitTests {
+
+  private static final Location TIMES_SQUARE = new Location(40.7580, -73.9855);
+
+  private LocationIndex<Location> index;
+
+  @BeforeEach
+  void setUp() {
+    index = new LocationIndex<>(List.of(
+        new Location(40.7484, -73.9857),   // Empire State Building, about 1.1 km away
+        new Location(40.7128, -74.0060),   // Lower Manhattan, about 5.3 km away
+        new Location(40.6892, -74.0445),   // Statue of Liberty, about 9.2 km away
+        new Location(34.0522, -118.2437),  // Los Angeles
+        new Location(40.7580, -73.9855)),  // Times Square itself
+        location -> location);
+  }
+
+  @Test
+  void findsItemsWithinRadiusInDistanceOrder() {
+    List<LocationIndex.Match<Location>> matches =
+        index.findNear(TIMES_SQUARE, 6, Integer.MAX_VALUE);
+
+    assertEquals(3, matches.size());
+    assertEquals(TIMES_SQUARE, matches.get(0).getItem());
+    assertEquals(0, matches.get(0).getDistance(), 1e-9);
+    assertEquals(40.7484, matches.get(1).getItem().getLatitude());
+    assertEquals(40.7128, matches.get(2).getItem().getLatitude());
+    assertTrue(matches.get(2).getDistance() <= 6);
+  }
+
+  @Test
+  void findsNearestItemsWithoutRadius() {
+    List<LocationIndex.Match<Location>> matches =
+        index.findNear(TIMES_SQUARE, Double.POSITIVE_INFINITY, 4);
+
+    assertEquals(4, matches.size());
+    assertEquals(40.6892, matches.get(3).getItem().getLatitude(),
+        "Los Angeles is further than the Statue of Liberty");
+
+    matches = index.findNear(TIMES_SQUARE, Double.POSITIVE_INFINITY, 10);
+    assertEquals(5, matches.size());
+    assertEquals(34.0522, matches.get(4).getItem().getLatitude());
+  }
+
+  @Test
+  void searchesAcrossTheAntimeridianAndPoles() {
+    LocationIndex<Location> edges = new LocationIndex<>(List.of(
+        new Location(0, 179.99), new Location(0, -179.99), new Location(89.99, 0),
+        new Location(89.99, 180)), location -> location);
+
+    assertEquals(2, edges.findNear(new Location(0, 180), 5, Integer.MAX_VALUE).size());
+    assertEquals(2, edges.findNear(new Location(90, 0), 5, Integer.MAX_VALUE).size());
+  }
+
+  @Test
+  void updatedIndexLeavesTheOriginalUnchanged() {
+    Location empireState = index.findNear(TIMES_SQUARE, 2, 2).get(1).getItem();
+    Location brooklyn = new Location(40.6782, -73.9442);
+    Location nearby = new Location(40.7580, -73.9856);
+    LocationIndex<Location> updated =
+        index.updated(Map.of(0, empireState), Map.of(0, nearby, 5, brooklyn));
+
+    assertEquals(6, updated.size());
+    List<LocationIndex.Match<Location>> matches = updated.findNear(TIMES_SQUARE, 2, 10);
+    assertEquals(List.of(TIMES_SQUARE, nearby),
+        matches.stream().map(LocationIndex.Match::getItem).toList());
+    assertEquals(brooklyn, updated.findNear(brooklyn, 1, 1).get(0).getItem());
+    assertEquals(5, index.size());
+    assertEquals(empireState, index.findNear(TIMES_SQUARE, 2, 2).get(1).getItem());
+    assertSame(index, index.updated(Map.of(1, empireState), Map.of()),
+        "Removing an item the index does not hold by that order should change nothing");
+  }
+
+  @Test
+  void matchesLinearScan() {
+    List<Location> locations = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      locations.add(new Location(40 + (i * 37 % 100) / 100.0, -74 + (i * 53 % 100) / 100.0));
+    }
+    LocationIndex<Location> grid = new LocationIndex<>(locations, location -> location);
+    Location center = new Location(40.5, -73.5);
+
+    for (double radius : new double[] {0.5, 3, 12, 40}) {
+      List<Location> expected = locations.stream()
+          .filter(location -> center.getDistance(location) <= radius)
+          .sorted(Comparator.comparingDouble(center::getDistance))
+          .toList();
+      List<Location> actual = grid.findNear(center, radius, Integer.MAX_VALUE).stream()
+          .map(LocationIndex.Match::getItem)
+          .toList();
+      assertEquals(expected, actual, "Radius " + radius);
+    }
+
+    List<Location> nearest = grid.findNear(center, Double.POSITIVE_INFINITY, 7).stream()
+        .map(LocationIndex.Match::getItem)
+        .toList();
+    assertEquals(locations.stream()
+        .sorted(Comparator.comparingDouble(center::getDistance))
+        .limit(7)
+        .toList(), nearest);
+  }
+
+  @Test
+  void rejectsInvalidQueries() {
+    assertThrows(IllegalArgumentException.class, () -> index.findNear(null, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> index.findNear(TIMES_SQUARE, -1, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> index.findNear(TIMES_SQUARE, Double.NaN, 1));
+    assertThrows(IllegalArgumentException.class, () -> index.findNear(TIMES_SQUARE, 1, 0));
+  }
+}
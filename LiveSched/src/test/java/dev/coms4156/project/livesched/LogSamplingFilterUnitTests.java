@@ -0,0 +1,79 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LogSamplingFilter class.
+ */
+class LogSamplingFilterUnitTests {
+
+  private final AtomicLong now = new AtomicLong(1_000);
+  private LogSamplingFilter filter;
+  private Logger logger;
+
+  @BeforeEach
+  void setUp() {
+    logger = new LoggerContext().getLogger("samplingTest");
+    logger.setLevel(Level.INFO);
+    filter = new LogSamplingFilter(now::get);
+    filter.setBurst(2);
+    filter.setPeriodMillis(1000);
+    filter.setSampleEvery(3);
+    filter.start();
+  }
+
+  @Test
+  void samplesMessagesOverBurst() {
+    assertEquals("NNDDNDDN", decisions("Request failed", 8));
+    assertEquals("NN", decisions("Another message", 2), "Other messages have their own burst");
+
+    now.addAndGet(1000);
+    assertEquals("NND", decisions("Request failed", 3), "A new period starts a new burst");
+  }
+
+  @Test
+  void ignoresDisabledLevels() {
+    for (int i = 0; i < 5; i++) {
+      assertEquals(FilterReply.NEUTRAL,
+          filter.decide(null, logger, Level.DEBUG, "Debug message", null, null));
+    }
+    assertEquals("NND", decisions("Debug message", 3), "Disabled calls should not be counted");
+  }
+
+  @Test
+  void stopsSamplingNewMessagesPastLimit() {
+    filter.setMaxMessages(1);
+    decisions("First message", 3);
+
+    assertEquals("NNNN", decisions("Second message", 4));
+  }
+
+  @Test
+  void invalidSettingsDoNotStart() {
+    LogSamplingFilter invalid = new LogSamplingFilter();
+    invalid.setSampleEvery(0);
+    invalid.start();
+
+    assertFalse(invalid.isStarted());
+    assertEquals(FilterReply.NEUTRAL,
+        invalid.decide(null, logger, Level.ERROR, "Request failed", null, null));
+  }
+
+  private String decisions(String format, int count) {
+    StringBuilder decisions = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      FilterReply reply = filter.decide(null, logger, Level.ERROR, format, null, null);
+      decisions.append(reply == FilterReply.DENY ? 'D' : 'N');
+    }
+    return decisions.toString();
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -344,6 +345,140 @@ class MyFileDatabaseUnitTests {
             "Deleting a task that isn't in the list should not cause any errors.");
   }
 
+  @Test
+  void testGetTaskByIdAfterDelete() {
+    for (int taskNumber = 1; taskNumber <= 4; taskNumber++) {
+      database.addTask(createTask(String.valueOf(taskNumber)));
+    }
+    database.deleteTask(database.getTaskById("2"));
+
+    assertNull(database.getTaskById("2"), "The deleted task should not be found.");
+    assertEquals(3, database.getAllTasks().size());
+    for (String taskId : List.of("1", "3", "4")) {
+      assertEquals(taskId, database.getTaskById(taskId).getTaskId(),
+          "The remaining tasks should still be found after the last task is moved.");
+    }
+
+    database.deleteTask(database.getTaskById("3"));
+    database.deleteTask(database.getTaskById("1"));
+    database.deleteTask(database.getTaskById("4"));
+    assertTrue(database.getAllTasks().isEmpty());
+  }
+
+  @Test
+  void testTaskListCannotBeChangedDirectly() {
+    database.addTask(createTask("1"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> database.getAllTasks().add(createTask("2")));
+    assertThrows(UnsupportedOperationException.class,
+        () -> database.getAllTasks().set(0, createTask("5")));
+
+    List<Task> tasks = new ArrayList<>();
+    tasks.add(createTask("3"));
+    database.setAllTasks(tasks);
+    tasks.add(createTask("4"));
+    assertNull(database.getTaskById("1"));
+    assertNotNull(database.getTaskById("3"));
+    assertNull(database.getTaskById("4"),
+        "Changes to the list given to setAllTasks should not reach the database.");
+    assertEquals(1, database.getAllTasks().size());
+  }
+
+  @Test
+  void testAllocatedTaskIdsAreNotReused() {
+    database.addTask(createTask("1"));
+    database.addTask(createTask("2"));
+    database.deleteTask(database.getTaskById("2"));
+
+    assertEquals("3", database.allocateTaskId(),
+        "The ID of a deleted task should not be allocated again.");
+    assertEquals(4, database.reserveTaskIds(2));
+    database.addTask(createTask("10"));
+    assertEquals("11", database.allocateTaskId());
+  }
+
+  @Test
+  void testNextTaskIdIsPersisted() {
+    database.addTask(createTask("1"));
+    database.allocateTaskId();
+    database.allocateTaskId();
+    database.saveContentsToFile(database.getTaskContentType());
+
+    String taskPath = new File(tempDir, TASK_FILE).getAbsolutePath();
+    String resourcePath = new File(tempDir, RESOURCE_FILE).getAbsolutePath();
+    String schedulePath = new File(tempDir, SCHEDULE_FILE).getAbsolutePath();
+    MyFileDatabase reloaded = new MyFileDatabase(0,
+        taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+    assertEquals(1, reloaded.getAllTasks().size());
+    assertEquals("4", reloaded.allocateTaskId(),
+        "Allocated IDs should survive a restart.");
+  }
+
+  @Test
+  void testGetResourceTypeByName() {
+    ResourceType first = new ResourceType("Truck", 2, 0, 0);
+    ResourceType second = new ResourceType("Truck", 3, 1, 1);
+    database.addResourceType(first);
+    database.addResourceType(second);
+    database.addResourceType(new ResourceType("Truck", 4, 0, 0));
+
+    assertSame(first, database.getResourceTypeByName("Truck"),
+        "The first resource type with the name should be found.");
+    assertEquals(6, first.getTotalUnits(), "Equal resource types should be merged.");
+    assertNull(database.getResourceTypeByName("Ambulance"));
+
+    database.deleteResourceType(first);
+    assertSame(second, database.getResourceTypeByName("Truck"));
+  }
+
+  @Test
+  void testResourceTypeRequirementsFollowTasks() {
+    ResourceType resourceType = createDummyResourceType();
+    database.addResourceType(resourceType);
+    Task first = createTask("1");
+    Task second = createTask("2");
+    database.addTasks(List.of(first, second));
+    assertFalse(database.isResourceTypeRequired(resourceType));
+
+    first.updateResource(resourceType, 2);
+    second.updateResource(resourceType, 1);
+    second.updateResource(resourceType, 3);
+    assertTrue(database.isResourceTypeRequired(resourceType));
+
+    first.updateResource(resourceType, 0);
+    assertTrue(database.isResourceTypeRequired(resourceType),
+        "The second task should still require the resource type.");
+    database.deleteTask(second);
+    assertFalse(database.isResourceTypeRequired(resourceType),
+        "No remaining task should require the resource type.");
+
+    second.updateResource(resourceType, 1);
+    assertFalse(database.isResourceTypeRequired(resourceType),
+        "A deleted task should no longer be counted.");
+  }
+
+  @Test
+  void testResourceTypeLookupsFollowLocationChanges() {
+    ResourceType resourceType = createDummyResourceType();
+    database.addResourceType(resourceType);
+    Task task = createTask("1");
+    database.addTask(task);
+    task.updateResource(resourceType, 1);
+
+    resourceType.updateLocation(10, 20);
+    assertTrue(database.isResourceTypeRequired(resourceType),
+        "The task should still require the resource type after it moved.");
+    database.addResourceType(new ResourceType(resourceType.getTypeName(), 2, 10, 20));
+    assertEquals(1, database.getAllResourceTypes().size(),
+        "A resource type at the new location should be merged into the moved one.");
+    assertEquals(7, resourceType.getTotalUnits());
+
+    database.deleteTask(task);
+    assertFalse(database.isResourceTypeRequired(resourceType),
+        "Deleting the task should uncount the resource type at its new location.");
+  }
+
   @Test
   void testDeleteResourceTypeNotPresent() {
     ResourceType resourceType = createDummyResourceType();
@@ -352,6 +487,28 @@ class MyFileDatabaseUnitTests {
             "Deleting a resource type that isn't in the list should not cause any errors.");
   }
 
+  @Test
+  void testRestoreCheckpoint() {
+    ResourceType resourceType = createDummyResourceType();
+    database.addResourceType(resourceType);
+    Map<ResourceType, Integer> resources = new HashMap<>();
+    resources.put(resourceType, 2);
+    database.addTask(new Task("1", "Task1", resources, 1, LocalDateTime.now().plusDays(1),
+        LocalDateTime.now().plusDays(1).plusHours(1), 0, 0));
+    MyFileDatabase.Checkpoint checkpoint = database.createCheckpoint();
+
+    database.deleteTask(database.getTaskById("1"));
+    database.addResourceType(new ResourceType("Other", 1, 0, 0));
+    database.restoreCheckpoint(checkpoint);
+
+    assertEquals(1, database.getAllResourceTypes().size());
+    ResourceType restoredType = database.getResourceTypeByName("DummyResource");
+    Task restoredTask = database.getTaskById("1");
+    assertSame(restoredType, restoredTask.getResources().keySet().iterator().next(),
+        "Restored tasks should refer to the restored resource types");
+    assertTrue(database.isResourceTypeRequired(restoredType));
+  }
+
   @Test
   void testAddNullTask() {
     assertDoesNotThrow(() -> database.addTask(null),
@@ -372,6 +529,12 @@ class MyFileDatabaseUnitTests {
         LocalDateTime.now(), LocalDateTime.now().plusHours(1), 0, 0);
   }
 
+  private Task createTask(String taskId) {
+    return new Task(
+        taskId, "Task " + taskId, new HashMap<>(), 1,
+        LocalDateTime.now(), LocalDateTime.now().plusHours(1), 0, 0);
+  }
+
   private ResourceType createDummyResourceType() {
     return new ResourceType("DummyResource", 5, 0, 0);
   }
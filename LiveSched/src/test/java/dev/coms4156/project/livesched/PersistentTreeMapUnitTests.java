@@ -0,0 +1,111 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PersistentTreeMap class.
+ */
+class PersistentTreeMapUnitTests {
+
+  @Test
+  void changesLeaveEarlierMapsUnchanged() {
+    PersistentTreeMap<Integer, String> empty = PersistentTreeMap.empty(Comparator.naturalOrder());
+    PersistentTreeMap<Integer, String> one = empty.put(1, "one");
+    PersistentTreeMap<Integer, String> two = one.put(2, "two");
+    PersistentTreeMap<Integer, String> removed = two.remove(1);
+
+    assertTrue(empty.isEmpty());
+    assertEquals(1, one.size());
+    assertNull(one.get(2));
+    assertEquals("two", two.get(2));
+    assertEquals("one", two.get(1));
+    assertFalse(removed.containsKey(1));
+    assertTrue(two.containsKey(1));
+  }
+
+  @Test
+  void unchangedMapsAreReturnedAsTheyAre() {
+    String value = "one";
+    PersistentTreeMap<Integer, String> map =
+        PersistentTreeMap.<Integer, String>empty(Comparator.naturalOrder()).put(1, value);
+    assertSame(map, map.put(1, value));
+    assertSame(map, map.remove(2));
+  }
+
+  @Test
+  void getAtRejectsPositionsOutsideTheMap() {
+    PersistentTreeMap<Integer, String> map =
+        PersistentTreeMap.<Integer, String>empty(Comparator.naturalOrder()).put(1, "one");
+    assertThrows(IndexOutOfBoundsException.class, () -> map.getAt(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> map.getAt(-1));
+  }
+
+  @Test
+  void forEachBeforeNeedsAValueOrder() {
+    PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty(Comparator.naturalOrder());
+    assertThrows(IllegalStateException.class,
+        () -> map.forEachBefore(key -> -1, value -> true, value -> { }));
+  }
+
+  @Test
+  void randomChangesMatchTreeMap() {
+    Random random = new Random(4156);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    PersistentTreeMap<Integer, Integer> map =
+        PersistentTreeMap.empty(Comparator.naturalOrder(), Comparator.naturalOrder());
+
+    for (int round = 0; round < 2000; round++) {
+      int key = random.nextInt(500);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.remove(key);
+      } else {
+        int value = random.nextInt(1000);
+        expected.put(key, value);
+        map = map.put(key, value);
+      }
+
+      assertEquals(expected.size(), map.size());
+      assertEquals(expected.get(key), map.get(key));
+    }
+
+    List<Integer> values = new ArrayList<>(expected.values());
+    for (int i = 0; i < values.size(); i++) {
+      assertEquals(values.get(i), map.getAt(i));
+    }
+    List<Integer> iterated = new ArrayList<>();
+    map.forEach(iterated::add);
+    assertEquals(values, iterated);
+
+    List<Map.Entry<Integer, Integer>> entries = new ArrayList<>();
+    map.entryIterator().forEachRemaining(entries::add);
+    assertEquals(new ArrayList<>(expected.entrySet()), entries);
+
+    int bound = 250;
+    Iterator<Integer> from = map.iteratorFrom(key -> Integer.compare(key, bound));
+    List<Integer> fromBound = new ArrayList<>();
+    from.forEachRemaining(fromBound::add);
+    assertEquals(new ArrayList<>(expected.tailMap(bound).values()), fromBound);
+
+    int threshold = 900;
+    List<Integer> before = new ArrayList<>();
+    map.forEachBefore(key -> Integer.compare(key, bound), value -> value >= threshold,
+        before::add);
+    assertEquals(expected.headMap(bound).values().stream().filter(value -> value >= threshold)
+        .toList(), before);
+  }
+}
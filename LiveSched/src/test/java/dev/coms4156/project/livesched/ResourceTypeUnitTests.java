@@ -1,5 +1,6 @@
 package dev.coms4156.project.livesched;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -11,8 +12,14 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -292,6 +299,81 @@ class ResourceTypeUnitTests {
         "Two ResourceType objects with the same attributes must be equal.");
   }
 
+  /**
+   * Test for counting available units over a time range as resources are assigned.
+   */
+  @Test
+  void countAvailableUnitsOverRangeTest() {
+    ResourceType truck = new ResourceType("Truck", 3, testLatitude, testLongitude);
+    LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    Duration step = Duration.ofMinutes(15);
+    assertArrayEquals(new int[] {3, 3, 3, 3},
+        truck.countAvailableUnits(start, start.plusHours(1), step));
+
+    Resource first = truck.findAvailableResource(start);
+    first.assignUntil(start.plusMinutes(20));
+    Resource second = truck.findAvailableResource(start);
+    second.assignUntil(start.plusMinutes(30));
+    assertArrayEquals(new int[] {1, 1, 3, 3},
+        truck.countAvailableUnits(start, start.plusHours(1), step));
+    assertArrayEquals(new int[] {1, 1, 3},
+        truck.countAvailableUnits(start, start.plusMinutes(31), step),
+        "A partial step at the end of the range should still be counted");
+
+    first.release();
+    truck.addResource();
+    assertArrayEquals(new int[] {3, 3, 4},
+        truck.countAvailableUnits(start, start.plusMinutes(45), step));
+    assertEquals(0, truck.countAvailableUnits(start, start, step).length);
+
+    ResourceType copy = new ResourceType(truck);
+    second.release();
+    assertArrayEquals(new int[] {3, 3, 4},
+        copy.countAvailableUnits(start, start.plusMinutes(45), step),
+        "A copy should not follow the original's resources");
+    assertThrows(IllegalArgumentException.class,
+        () -> truck.countAvailableUnits(start, start.minusMinutes(1), step));
+    assertThrows(IllegalArgumentException.class,
+        () -> truck.countAvailableUnits(start, start.plusHours(1), Duration.ZERO));
+    int[] counts = truck.countAvailableUnits(start, LocalDateTime.MAX,
+        Duration.between(start, LocalDateTime.MAX).dividedBy(2).plusNanos(1));
+    assertArrayEquals(new int[] {truck.countAvailableUnits(start), truck.getTotalUnits()},
+        counts, "Ranges longer than a long count of nanoseconds should still be counted");
+    assertThrows(IllegalArgumentException.class,
+        () -> truck.countAvailableUnits(start, start.plusYears(10_000), Duration.ofNanos(1)));
+  }
+
+  /**
+   * Test that the availability timeline follows changes made before it is first read and
+   * after the resource type is read back from a stream.
+   */
+  @Test
+  void availabilityTimelineFollowsLiveChangesTest() throws Exception {
+    ResourceType truck = new ResourceType("Truck", 2, testLatitude, testLongitude);
+    LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    Duration step = Duration.ofMinutes(15);
+    truck.findAvailableResource(start).assignUntil(start.plusMinutes(15));
+    assertArrayEquals(new int[] {1, 2},
+        truck.countAvailableUnits(start, start.plusMinutes(30), step),
+        "Assignments made before the first count should be on the timeline");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(truck);
+    }
+    ResourceType read;
+    try (ObjectInputStream in =
+             new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = (ResourceType) in.readObject();
+    }
+    assertArrayEquals(new int[] {1, 2},
+        read.countAvailableUnits(start, start.plusMinutes(30), step));
+    read.findAvailableResource(start).assignUntil(start.plusMinutes(30));
+    assertArrayEquals(new int[] {0, 1},
+        read.countAvailableUnits(start, start.plusMinutes(30), step),
+        "Resources read from a stream should keep their resource type's timeline current");
+  }
+
   /**
    * These instances are used for testing.
    */
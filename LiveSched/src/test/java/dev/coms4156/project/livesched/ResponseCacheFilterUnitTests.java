@@ -0,0 +1,142 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the ResponseCacheFilter class.
+ */
+class ResponseCacheFilterUnitTests {
+
+  private final ResponseCacheFilter filter = new ResponseCacheFilter(new ResponseCache(1 << 20));
+  private Map<String, MyFileDatabase> originalDatabases;
+  private MyFileDatabase database;
+  private int generated;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    database = new MyFileDatabase(1,
+        taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+
+    originalDatabases = LiveSchedApplication.clientDatabases;
+    LiveSchedApplication.clientDatabases = new HashMap<>();
+    LiveSchedApplication.clientDatabases.put("client", database);
+  }
+
+  @AfterEach
+  void tearDown() {
+    LiveSchedApplication.clientDatabases = originalDatabases;
+  }
+
+  @Test
+  void responsesAreReusedUntilDataChanges() throws ServletException, IOException {
+    MockHttpServletResponse first = perform("/retrieveSchedule", null);
+    MockHttpServletResponse second = perform("/retrieveSchedule", null);
+
+    assertEquals(1, generated, "The second response should come from the cache");
+    assertEquals(first.getContentAsString(), second.getContentAsString());
+    assertEquals("application/json", second.getContentType());
+
+    database.publishSnapshot();
+    MockHttpServletResponse third = perform("/retrieveSchedule", null);
+    assertEquals(2, generated, "A published change should invalidate the cached response");
+    assertEquals("[\"version 2\"]", third.getContentAsString());
+  }
+
+  @Test
+  void cachedResponsesAreCompressedForGzipCallers() throws ServletException, IOException {
+    perform("/retrieveResourceTypes", null);
+    MockHttpServletResponse compressed = perform("/retrieveResourceTypes", "gzip, deflate");
+    MockHttpServletResponse plain = perform("/retrieveResourceTypes", null);
+
+    assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+    assertNull(plain.getHeader("Content-Encoding"));
+    assertEquals(1, generated);
+  }
+
+  @Test
+  void otherEndpointsAreNotCached() throws ServletException, IOException {
+    perform("/retrieveTasksPage", null);
+    perform("/retrieveTasksPage", null);
+
+    assertEquals(2, generated);
+  }
+
+  @Test
+  void unknownClientsAreNotCachedOrCreated() throws ServletException, IOException {
+    perform("unknownClient", "/retrieveTasks", null);
+    perform("unknownClient", "/retrieveTasks", null);
+
+    assertEquals(2, generated);
+    assertFalse(LiveSchedApplication.clientDatabases.containsKey("unknownClient"),
+        "Caching a response should not create a database for the client");
+  }
+
+  @Test
+  void keyIgnoresParameterOrder() {
+    MockHttpServletRequest first = new MockHttpServletRequest("GET", "/retrieveTasks");
+    first.addParameter("clientId", "client");
+    first.addParameter("a", "1&b=2");
+    MockHttpServletRequest second = new MockHttpServletRequest("GET", "/retrieveTasks");
+    second.addParameter("a", "1&b=2");
+    second.addParameter("clientId", "client");
+
+    assertEquals(ResponseCacheFilter.keyOf(first), ResponseCacheFilter.keyOf(second));
+    assertEquals("/retrieveTasks?a=1%26b%3D2&clientId=client",
+        ResponseCacheFilter.keyOf(first));
+  }
+
+  private MockHttpServletResponse perform(String path, String acceptEncoding)
+      throws ServletException, IOException {
+    return perform("client", path, acceptEncoding);
+  }
+
+  private MockHttpServletResponse perform(String clientId, String path, String acceptEncoding)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setParameter("clientId", clientId);
+    if (acceptEncoding != null) {
+      request.addHeader("Accept-Encoding", acceptEncoding);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest request, HttpServletResponse response)
+          throws IOException {
+        generated++;
+        // Pad the body so that it is large enough to be compressed
+        String body = "[\"version " + database.getSnapshot().getVersion() + "\"]";
+        if (path.equals("/retrieveResourceTypes")) {
+          body = "[\"" + "x".repeat(2048) + "\"]";
+        }
+        response.setContentType("application/json");
+        response.getWriter().write(body);
+      }
+    }));
+    return response;
+  }
+}
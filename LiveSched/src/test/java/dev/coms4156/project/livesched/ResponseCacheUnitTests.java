@@ -0,0 +1,71 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ResponseCache class.
+ */
+class ResponseCacheUnitTests {
+
+  @Test
+  void entriesAreServedForTheirVersionOnly() {
+    ResponseCache cache = new ResponseCache(1000);
+    ResponseCache.Entry entry = entry("v1", 10);
+    cache.put("key", entry);
+
+    assertSame(entry, cache.get("key", "v1"));
+    assertNull(cache.get("key", "v2"), "An entry from an older version should not be served");
+    assertNull(cache.get("key", "v1"), "A stale entry should be discarded");
+    assertEquals(0, cache.getCachedBytes());
+  }
+
+  @Test
+  void leastRecentlyUsedEntriesAreEvicted() {
+    ResponseCache cache = new ResponseCache(100);
+    cache.put("a", entry("v1", 40));
+    cache.put("b", entry("v1", 40));
+    cache.get("a", "v1");
+    cache.put("c", entry("v1", 40));
+
+    assertNotNull(cache.get("a", "v1"));
+    assertNull(cache.get("b", "v1"), "The least recently used entry should be evicted");
+    assertNotNull(cache.get("c", "v1"));
+    assertEquals(80, cache.getCachedBytes());
+
+    cache.put("d", entry("v1", 101));
+    assertNull(cache.get("d", "v1"), "Entries larger than the budget should not be cached");
+    assertEquals(80, cache.getCachedBytes());
+  }
+
+  @Test
+  void largeBodiesAreCompressed() throws IOException {
+    ResponseCache.Entry small = entry("v1", 100);
+    assertNull(small.getGzippedBody());
+
+    ResponseCache.Entry large = entry("v1", 4096);
+    assertNotNull(large.getGzippedBody());
+    try (GZIPInputStream gzipStream =
+             new GZIPInputStream(new ByteArrayInputStream(large.getGzippedBody()))) {
+      assertArrayEquals(large.getBody(), gzipStream.readAllBytes());
+    }
+  }
+
+  @Test
+  void byteBudgetMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new ResponseCache(0));
+  }
+
+  private static ResponseCache.Entry entry(String version, int size) {
+    return new ResponseCache.Entry(version, "application/json", new byte[size]);
+  }
+}
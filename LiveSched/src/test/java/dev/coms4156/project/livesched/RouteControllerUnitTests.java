@@ -7,6 +7,13 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -17,10 +24,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * Unit tests for the RouteController class.
@@ -34,6 +44,13 @@ public class RouteControllerUnitTests {
   private TestMyFileDatabase testDatabase;
   final String testClientId = "defaultClientId";
 
+  @TempDir
+  static File tempDir;
+
+  private static String tempPath(String name) {
+    return new File(tempDir, name).getAbsolutePath();
+  }
+
   /**
    * Test implementation of MyFileDatabase for unit testing purposes.
    */
@@ -43,7 +60,7 @@ public class RouteControllerUnitTests {
     private Schedule masterSchedule;
 
     public TestMyFileDatabase() {
-      super(1, "testTaskPath", "testResourcePath", "testSchedulePath",
+      super(1, tempPath("tasks.dat"), tempPath("resources.dat"), tempPath("schedules.dat"),
           "testTaskObject", "testResourceObject", "testScheduleObject");
     }
 
@@ -75,11 +92,30 @@ public class RouteControllerUnitTests {
       testTasks.add(task);
     }
 
+    @Override
+    public void addTasks(List<Task> tasks) {
+      testTasks.addAll(tasks);
+    }
+
     @Override
     public void addResourceType(ResourceType resourceType) {
       testResourceTypes.add(resourceType);
     }
 
+    @Override
+    public ResourceType getResourceTypeByName(String typeName) {
+      return testResourceTypes.stream()
+          .filter(rt -> rt.getTypeName().equals(typeName))
+          .findFirst()
+          .orElse(null);
+    }
+
+    @Override
+    public boolean isResourceTypeRequired(ResourceType resourceType) {
+      return testTasks.stream()
+          .anyMatch(t -> t.getResources().containsKey(resourceType));
+    }
+
     /**
      * Clears all test data.
      */
@@ -129,6 +165,15 @@ public class RouteControllerUnitTests {
     LiveSchedApplication.clientDatabases = testClientDatabases;
   }
 
+  /**
+   * Writes a streamed response body to a string.
+   */
+  private static String writeStream(ResponseEntity<?> response) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+    return outputStream.toString(StandardCharsets.UTF_8);
+  }
+
   @Nested
   class ValidTestCases {
 
@@ -190,6 +235,8 @@ public class RouteControllerUnitTests {
       try (var mockedApplication = mockStatic(LiveSchedApplication.class)) {
         MyFileDatabase mockedDatabase = mock(MyFileDatabase.class);
         when(mockedDatabase.getAllTasks()).thenReturn(null);
+        ClientSnapshot snapshot = ClientSnapshot.capture(mockedDatabase, 1, null, null);
+        when(mockedDatabase.getSnapshot()).thenReturn(snapshot);
         mockedApplication.when(() -> LiveSchedApplication.getClientFileDatabase(testClientId))
             .thenReturn(mockedDatabase);
 
@@ -210,6 +257,8 @@ public class RouteControllerUnitTests {
       try (var mockedApplication = mockStatic(LiveSchedApplication.class)) {
         MyFileDatabase mockedDatabase = mock(MyFileDatabase.class);
         when(mockedDatabase.getAllTasks()).thenReturn(new ArrayList<>());
+        ClientSnapshot snapshot = ClientSnapshot.capture(mockedDatabase, 1, null, null);
+        when(mockedDatabase.getSnapshot()).thenReturn(snapshot);
         mockedApplication.when(() -> LiveSchedApplication.getClientFileDatabase(testClientId))
             .thenReturn(mockedDatabase);
 
@@ -341,6 +390,311 @@ public class RouteControllerUnitTests {
       }
     }
 
+    /**
+     * Tests the retrieveTasksPage method of RouteController.
+     */
+    @Test
+    void retrieveTasksPageTest() {
+      ResponseEntity<?> response = routeController.retrieveTasksPage(testClientId, 1, null,
+          null, null, null, null);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      Map<?, ?> responseBody = (Map<?, ?>) response.getBody();
+      List<Task> tasks = (List<Task>) responseBody.get("tasks");
+      assertEquals(1, tasks.size());
+      assertEquals("1", tasks.get(0).getTaskId());
+      String cursor = (String) responseBody.get("nextCursor");
+      assertNotNull(cursor, "First page should have a cursor to the next page");
+
+      response = routeController.retrieveTasksPage(testClientId, 1, cursor,
+          null, null, null, null);
+      responseBody = (Map<?, ?>) response.getBody();
+      tasks = (List<Task>) responseBody.get("tasks");
+      assertEquals("2", tasks.get(0).getTaskId());
+      assertEquals(null, responseBody.get("nextCursor"), "Last page should have no cursor");
+
+      response = routeController.retrieveTasksPage(testClientId, 10, null,
+          List.of(2), false, null, null);
+      tasks = (List<Task>) ((Map<?, ?>) response.getBody()).get("tasks");
+      assertEquals(1, tasks.size());
+      assertEquals("2", tasks.get(0).getTaskId(), "Only task 2 is unscheduled with priority 2");
+    }
+
+    /**
+     * Tests retrieveTasksPage method with invalid parameters.
+     */
+    @Test
+    void retrieveTasksPageInvalidParametersTest() {
+      ResponseEntity<?> response = routeController.retrieveTasksPage(testClientId, 0, null,
+          null, null, null, null);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+      response = routeController.retrieveTasksPage(testClientId, 10, "bad-cursor",
+          null, null, null, null);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals("Invalid cursor.", response.getBody());
+
+      response = routeController.retrieveTasksPage(testClientId, 10, null,
+          null, null, "tomorrow", null);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the retrieveSchedulePage method of RouteController.
+     */
+    @Test
+    void retrieveSchedulePageTest() {
+      ResponseEntity<?> response = routeController.retrieveSchedulePage(testClientId, 10, null,
+          null, null, null);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      Map<?, ?> responseBody = (Map<?, ?>) response.getBody();
+      List<Map<String, Object>> schedule = (List<Map<String, Object>>) responseBody.get("schedule");
+      assertEquals(testDatabase.getMasterSchedule().getTaskSchedule().size(), schedule.size());
+      assertEquals("1", ((Task) schedule.get(0).get("task")).getTaskId());
+      assertEquals(5, ((List<?>) schedule.get(0).get("assignedResources")).size());
+      assertEquals(null, responseBody.get("nextCursor"));
+    }
+
+    /**
+     * Tests the retrieveTasksStartingBetween method of RouteController.
+     */
+    @Test
+    void retrieveTasksStartingBetweenTest() {
+      LocalDateTime now = LocalDateTime.now();
+      ResponseEntity<?> response = routeController.retrieveTasksStartingBetween(testClientId,
+          now.minusHours(1).format(Task.TIME_FORMATTER),
+          now.plusHours(1).format(Task.TIME_FORMATTER));
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      List<Task> tasks = (List<Task>) response.getBody();
+      assertEquals(2, tasks.size());
+      assertEquals("1", tasks.get(0).getTaskId());
+
+      response = routeController.retrieveTasksStartingBetween(testClientId,
+          now.plusHours(1).format(Task.TIME_FORMATTER),
+          now.plusHours(2).format(Task.TIME_FORMATTER));
+      assertTrue(((List<?>) response.getBody()).isEmpty());
+
+      response = routeController.retrieveTasksStartingBetween(testClientId, "today",
+          now.format(Task.TIME_FORMATTER));
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the retrieveScheduleActiveAt method of RouteController.
+     */
+    @Test
+    void retrieveScheduleActiveAtTest() {
+      LocalDateTime now = LocalDateTime.now();
+      ResponseEntity<?> response = routeController.retrieveScheduleActiveAt(testClientId,
+          now.plusMinutes(30).format(Task.TIME_FORMATTER));
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      List<Map<String, Object>> schedule = (List<Map<String, Object>>) response.getBody();
+      assertEquals(testDatabase.getMasterSchedule().getTaskSchedule().size(), schedule.size());
+      assertEquals("1", ((Task) schedule.get(0).get("task")).getTaskId());
+      assertEquals(5, ((List<?>) schedule.get(0).get("assignedResources")).size());
+
+      response = routeController.retrieveScheduleActiveAt(testClientId,
+          now.plusHours(3).format(Task.TIME_FORMATTER));
+      assertTrue(((List<?>) response.getBody()).isEmpty(), "Every task has ended by then");
+
+      response = routeController.retrieveScheduleActiveAt(testClientId, "noon");
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the retrieveTasksNear method of RouteController.
+     */
+    @Test
+    void retrieveTasksNearTest() {
+      ResponseEntity<?> response = routeController.retrieveTasksNear(testClientId,
+          40.7580, -73.9855, 10.0, null);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      List<Map<String, Object>> tasks = (List<Map<String, Object>>) response.getBody();
+      assertEquals(2, tasks.size());
+      assertEquals("1", ((Task) tasks.get(0).get("task")).getTaskId());
+      assertEquals(5.3, (Double) tasks.get(0).get("distance"), 0.1);
+
+      response = routeController.retrieveTasksNear(testClientId, 40.7580, -73.9855, 1.0, null);
+      assertTrue(((List<?>) response.getBody()).isEmpty());
+
+      response = routeController.retrieveTasksNear(testClientId, 40.7580, -73.9855, null, 1);
+      assertEquals(1, ((List<?>) response.getBody()).size());
+    }
+
+    /**
+     * Tests the retrieveResourceTypesNear method of RouteController.
+     */
+    @Test
+    void retrieveResourceTypesNearTest() {
+      ResponseEntity<?> response = routeController.retrieveResourceTypesNear(testClientId,
+          40.7128, -74.0060, null, 5);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      List<Map<String, Object>> resourceTypes = (List<Map<String, Object>>) response.getBody();
+      assertEquals(2, resourceTypes.size());
+      assertEquals("Type1",
+          ((ResourceType) resourceTypes.get(0).get("resourceType")).getTypeName());
+      assertEquals(0.0, (Double) resourceTypes.get(0).get("distance"), 1e-9);
+    }
+
+    /**
+     * Tests the location query methods of RouteController with invalid parameters.
+     */
+    @Test
+    void retrieveNearInvalidParametersTest() {
+      ResponseEntity<?> response = routeController.retrieveTasksNear(testClientId,
+          40.7128, -74.0060, null, null);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals("Radius or count must be given.", response.getBody());
+
+      response = routeController.retrieveTasksNear(testClientId, 40.7128, -74.0060, -1.0, null);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+      response = routeController.retrieveResourceTypesNear(testClientId, 91, -74.0060, 1.0,
+          null);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+      response = routeController.retrieveResourceTypesNear(testClientId, 40.7128, -74.0060,
+          null, 0);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the retrieveResourceTypeAvailability method of RouteController.
+     */
+    @Test
+    void retrieveResourceTypeAvailabilityTest() {
+      LocalDateTime now = LocalDateTime.now();
+      String from = now.minusMinutes(30).format(Task.TIME_FORMATTER);
+      String to = now.plusHours(3).format(Task.TIME_FORMATTER);
+      ResponseEntity<?> response = routeController.retrieveResourceTypeAvailability(
+          testClientId, "Type1", from, to, 60);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      Map<?, ?> responseBody = (Map<?, ?>) response.getBody();
+      assertEquals(5, responseBody.get("totalUnits"));
+      int[] availableUnits = (int[]) responseBody.get("availableUnits");
+      assertEquals(4, availableUnits.length);
+      assertEquals(3, availableUnits[1], "Task 1 holds 2 of the 5 units for its first hour");
+      assertEquals(5, availableUnits[3]);
+
+      response = routeController.retrieveResourceTypeAvailability(testClientId, "Type3", from,
+          to, 60);
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+
+      response = routeController.retrieveResourceTypeAvailability(testClientId, "Type1", from,
+          to, 0);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+      response = routeController.retrieveResourceTypeAvailability(testClientId, "Type1", to,
+          from, 60);
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+      // Ten thousand years is more nanoseconds than a long holds
+      response = routeController.retrieveResourceTypeAvailability(testClientId, "Type1",
+          "0001-01-01 00:00", "9999-12-31 23:59", Integer.MAX_VALUE);
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(3, ((int[]) ((Map<?, ?>) response.getBody()).get("availableUnits")).length);
+    }
+
+    /**
+     * Tests the retrieveScheduleChanges method of RouteController.
+     */
+    @Test
+    void retrieveScheduleChangesTest() {
+      ResponseEntity<?> response =
+          routeController.retrieveScheduleChanges(testClientId, 0, null);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      Map<?, ?> responseBody = (Map<?, ?>) response.getBody();
+      assertEquals(true, responseBody.get("fullResync"),
+          "Version 0 is before the first snapshot and should need a full resync");
+      assertEquals(testDatabase.getMasterSchedule().getTaskSchedule().size(),
+          ((List<?>) responseBody.get("schedule")).size());
+      assertEquals(testDatabase.getEpoch(), responseBody.get("epoch"));
+      long version = (Long) responseBody.get("toVersion");
+
+      routeController.unscheduleTask("1", testClientId);
+      response = routeController.retrieveScheduleChanges(testClientId, version, "recreated");
+      assertEquals(true, ((Map<?, ?>) response.getBody()).get("fullResync"),
+          "A version from another epoch should need a full resync");
+      response = routeController.retrieveScheduleChanges(testClientId, version, null);
+      assertEquals(true, ((Map<?, ?>) response.getBody()).get("fullResync"));
+
+      response = routeController.retrieveScheduleChanges(testClientId, version,
+          testDatabase.getEpoch());
+
+      responseBody = (Map<?, ?>) response.getBody();
+      assertEquals(false, responseBody.get("fullResync"));
+      List<ScheduleChangeLog.Change> changes =
+          (List<ScheduleChangeLog.Change>) responseBody.get("changes");
+      assertEquals(1, changes.size());
+      assertEquals("1", changes.get(0).getTaskId());
+      assertEquals(ScheduleChangeLog.ChangeType.UNSCHEDULED, changes.get(0).getChangeType());
+      assertEquals(responseBody.get("toVersion"), changes.get(0).getVersion());
+    }
+
+    /**
+     * Tests the retrieveScheduleChanges method of RouteController with a negative version.
+     */
+    @Test
+    void retrieveScheduleChangesWithNegativeVersionTest() {
+      ResponseEntity<?> response =
+          routeController.retrieveScheduleChanges(testClientId, -1, null);
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the retrieveTasksStream method of RouteController.
+     */
+    @Test
+    void retrieveTasksStreamTest() throws IOException {
+      ResponseEntity<?> response = routeController.retrieveTasksStream(testClientId, null);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+      JsonNode tasks = new ObjectMapper().readTree(writeStream(response));
+      assertEquals(2, tasks.size(), "Response should contain 2 tasks");
+      assertEquals("1", tasks.get(0).get("taskId").asText());
+      assertEquals("2", tasks.get(1).get("taskId").asText());
+    }
+
+    /**
+     * Tests the retrieveScheduleStream method of RouteController with NDJSON.
+     */
+    @Test
+    void retrieveScheduleStreamTest() throws IOException {
+      ResponseEntity<?> response = routeController.retrieveScheduleStream(testClientId,
+          MediaType.APPLICATION_NDJSON_VALUE);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+      String[] lines = writeStream(response).split("\n");
+      assertEquals(testDatabase.getMasterSchedule().getTaskSchedule().size(), lines.length);
+      JsonNode entry = new ObjectMapper().readTree(lines[0]);
+      assertEquals("1", entry.get("task").get("taskId").asText());
+      assertEquals(5, entry.get("assignedResources").size());
+    }
+
+    /**
+     * Tests the updateScheduleStream method of RouteController.
+     */
+    @Test
+    void updateScheduleStreamTest() throws IOException {
+      ResponseEntity<?> response = routeController.updateScheduleStream(80, testClientId, null);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      JsonNode schedule = new ObjectMapper().readTree(writeStream(response));
+      assertEquals(testDatabase.getMasterSchedule().getTaskSchedule().size(), schedule.size());
+      assertEquals("1", schedule.get(0).get("task").get("taskId").asText());
+      assertEquals(5, schedule.get(0).get("assignedResources").size());
+    }
+
     /**
      * Tests retrieveSchedule method when masterSchedule is null.
      */
@@ -349,6 +703,8 @@ public class RouteControllerUnitTests {
       try (var mockedApplication = mockStatic(LiveSchedApplication.class)) {
         MyFileDatabase mockedDatabase = mock(MyFileDatabase.class);
         when(mockedDatabase.getMasterSchedule()).thenReturn(null);
+        ClientSnapshot snapshot = ClientSnapshot.capture(mockedDatabase, 1, null, null);
+        when(mockedDatabase.getSnapshot()).thenReturn(snapshot);
         mockedApplication.when(() -> LiveSchedApplication.getClientFileDatabase(testClientId))
             .thenReturn(mockedDatabase);
 
@@ -371,6 +727,8 @@ public class RouteControllerUnitTests {
         Schedule mockedSchedule = mock(Schedule.class);
         when(mockedSchedule.getTaskSchedule()).thenReturn(new HashMap<>());
         when(mockedDatabase.getMasterSchedule()).thenReturn(mockedSchedule);
+        ClientSnapshot snapshot = ClientSnapshot.capture(mockedDatabase, 1, null, null);
+        when(mockedDatabase.getSnapshot()).thenReturn(snapshot);
         mockedApplication.when(() -> LiveSchedApplication.getClientFileDatabase(testClientId))
             .thenReturn(mockedDatabase);
 
@@ -401,6 +759,30 @@ public class RouteControllerUnitTests {
       }
     }
 
+    /**
+     * Tests that traced scheduling passes can be retrieved.
+     */
+    @Test
+    void retrieveSchedulingTracesTest() {
+      assertEquals(HttpStatus.NOT_FOUND,
+          routeController.retrieveSchedulingTraces(testClientId).getStatusCode());
+
+      TracingProperties tracingProperties = new TracingProperties();
+      tracingProperties.setEnabled(true);
+      tracingProperties.setTaskSampleRate(1);
+      routeController.setTracingProperties(tracingProperties);
+      routeController.updateSchedule(80, testClientId);
+      ResponseEntity<?> response = routeController.retrieveSchedulingTraces(testClientId);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      @SuppressWarnings("unchecked")
+      List<Map<String, Object>> traces = (List<Map<String, Object>>) response.getBody();
+      assertEquals(1, traces.size());
+      assertEquals(80.0, traces.get(0).get("maxDistance"));
+      assertEquals(2, traces.get(0).get("tasksConsidered"));
+      assertEquals(2, ((List<?>) traces.get(0).get("taskSpans")).size());
+    }
+
     /**
      * Tests the updateSchedule method of RouteController.
      */
@@ -501,6 +883,76 @@ public class RouteControllerUnitTests {
       }
     }
 
+    /**
+     * Tests the startScheduleJob and retrieveScheduleJob methods of RouteController.
+     */
+    @Test
+    void startAndRetrieveScheduleJobTest() throws InterruptedException {
+      ResponseEntity<?> response = routeController.startScheduleJob(80, testClientId);
+
+      assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(),
+          "Response status should be 202 (Accepted)");
+      @SuppressWarnings("unchecked")
+      Map<String, Object> job = (Map<String, Object>) response.getBody();
+      String jobId = (String) job.get("jobId");
+      assertNotNull(jobId, "Response should contain the job ID");
+
+      for (int attempt = 0; attempt < 500; attempt++) {
+        response = routeController.retrieveScheduleJob(jobId, testClientId);
+        job = (Map<String, Object>) response.getBody();
+        if (job.get("status") == SchedulingJob.Status.SUCCEEDED) {
+          break;
+        }
+        Thread.sleep(10);
+      }
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(SchedulingJob.Status.SUCCEEDED, job.get("status"),
+          "Scheduling job should succeed");
+      assertEquals(testDatabase.getMasterSchedule().getTaskSchedule().size(),
+          ((List<?>) job.get("schedule")).size(),
+          "Job result should contain every scheduled task");
+      assertEquals(2, job.get("tasksConsidered"), "Job should have considered both tasks");
+    }
+
+    /**
+     * Tests the startScheduleJob method of RouteController with a negative distance.
+     */
+    @Test
+    void startScheduleJobNegativeDistanceTest() {
+      ResponseEntity<?> response = routeController.startScheduleJob(-1, testClientId);
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the retrieveScheduleJob method of RouteController for an unknown or foreign job.
+     */
+    @Test
+    void retrieveScheduleJobNotFoundTest() {
+      ResponseEntity<?> response = routeController.retrieveScheduleJob("unknown", testClientId);
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+
+      response = routeController.startScheduleJob(80, testClientId);
+      String jobId = (String) ((Map<?, ?>) response.getBody()).get("jobId");
+      response = routeController.retrieveScheduleJob(jobId, "otherClientId");
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode(),
+          "Jobs should not be visible to other clients");
+    }
+
+    /**
+     * Tests updateScheduleStream method when taskList is empty.
+     */
+    @Test
+    void updateScheduleStreamWhenTaskListIsEmptyTest() throws IOException {
+      testDatabase.clearAll();
+
+      ResponseEntity<?> response = routeController.updateScheduleStream(80, testClientId, null);
+
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+      assertEquals("Tasks Not Found", writeStream(response));
+    }
+
     /**
      * Tests the unscheduleTask method of RouteController.
      */
@@ -606,6 +1058,75 @@ public class RouteControllerUnitTests {
       }
     }
 
+    /**
+     * Tests the addTasks method of RouteController with a JSON array.
+     */
+    @Test
+    void addTasksTest() {
+      String startTime = LocalDateTime.now().plusHours(1)
+              .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+      String endTime = LocalDateTime.now().plusHours(2)
+              .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+      String body = "[{\"taskName\": \"BulkTask1\", \"priority\": 2, \"startTime\": \""
+          + startTime + "\", \"endTime\": \"" + endTime + "\", \"latitude\": 40.7128, "
+          + "\"longitude\": -74.0060, \"resources\": {\"Type1\": 1}},"
+          + "{\"taskName\": \"BulkTask2\", \"priority\": 3, \"startTime\": \""
+          + startTime + "\", \"endTime\": \"" + endTime + "\", \"latitude\": 40.7128, "
+          + "\"longitude\": -74.0060}]";
+
+      ResponseEntity<?> response = routeController.addTasks(testClientId,
+          new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      Map<?, ?> responseBody = (Map<?, ?>) response.getBody();
+      assertEquals(2, responseBody.get("tasksAdded"));
+      assertEquals("3", responseBody.get("firstTaskId"), "New task IDs should start at '3'");
+      assertEquals("4", responseBody.get("lastTaskId"));
+      assertEquals(4, testDatabase.getAllTasks().size());
+      Task bulkTask = testDatabase.getTaskById("3");
+      assertEquals("BulkTask1", bulkTask.getTaskName());
+      assertEquals(1, bulkTask.getResources().get(testDatabase.getAllResourceTypes().get(0)));
+    }
+
+    /**
+     * Tests that addTasks adds none of the tasks when one of them is invalid.
+     */
+    @Test
+    void addTasksInvalidTaskTest() {
+      String startTime = LocalDateTime.now().plusHours(1)
+              .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+      String endTime = LocalDateTime.now().plusHours(2)
+              .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
+      String body = "{\"taskName\": \"BulkTask1\", \"priority\": 2, \"startTime\": \""
+          + startTime + "\", \"endTime\": \"" + endTime + "\", \"latitude\": 40.7128, "
+          + "\"longitude\": -74.0060}\n"
+          + "{\"taskName\": \"BulkTask2\", \"priority\": 9, \"startTime\": \""
+          + startTime + "\", \"endTime\": \"" + endTime + "\", \"latitude\": 40.7128, "
+          + "\"longitude\": -74.0060}\n";
+
+      ResponseEntity<?> response = routeController.addTasks(testClientId,
+          new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      Map<?, ?> responseBody = (Map<?, ?>) response.getBody();
+      assertEquals(1, responseBody.get("invalidTasks"));
+      assertEquals(List.of("Task 2: Priority must be an integer between 1 and 5."),
+          responseBody.get("errors"));
+      assertEquals(2, testDatabase.getAllTasks().size(), "No task should have been added");
+    }
+
+    /**
+     * Tests that addTasks rejects a body that is not valid JSON.
+     */
+    @Test
+    void addTasksMalformedBodyTest() {
+      ResponseEntity<?> response = routeController.addTasks(testClientId,
+          new ByteArrayInputStream("[{\"taskName\": ".getBytes(StandardCharsets.UTF_8)));
+
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+      assertEquals(2, testDatabase.getAllTasks().size(), "No task should have been added");
+    }
+
     /**
      * Tests the addResourceType method of RouteController.
      */
@@ -724,6 +1245,133 @@ public class RouteControllerUnitTests {
             "Response body should contain the simulated error message");
       }
     }
+
+    /**
+     * Tests the modifyTaskResources method patching and replacing requirements of many tasks.
+     */
+    @Test
+    void modifyTaskResourcesTest() throws IOException {
+      ObjectMapper objectMapper = new ObjectMapper();
+      ResponseEntity<?> response = routeController.modifyTaskResources(List.of("1", "2"),
+          false, testClientId, objectMapper.readTree("{\"Type2\": 1}"));
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(2, ((List<?>) response.getBody()).size());
+      Task task1 = testDatabase.getTaskById("1");
+      ResourceType type1 = testDatabase.getResourceTypeByName("Type1");
+      ResourceType type2 = testDatabase.getResourceTypeByName("Type2");
+      assertEquals(Map.of(type1, 2, type2, 1), task1.getResources());
+      assertEquals(Map.of(type2, 1), testDatabase.getTaskById("2").getResources());
+
+      response = routeController.modifyTaskResources(List.of("1"), true, testClientId,
+          objectMapper.readTree("{\"Type1\": 4}"));
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      assertEquals(Map.of(type1, 4), task1.getResources());
+    }
+
+    /**
+     * Tests the modifyTaskResources method leaving every task unchanged when a name is unknown.
+     */
+    @Test
+    void modifyTaskResourcesNotFoundTest() throws IOException {
+      ObjectMapper objectMapper = new ObjectMapper();
+      ResponseEntity<?> response = routeController.modifyTaskResources(List.of("2"), false,
+          testClientId, objectMapper.readTree("{\"Type1\": 1, \"Missing\": 1}"));
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+      assertEquals("ResourceType Not Found: Missing", response.getBody());
+
+      response = routeController.modifyTaskResources(List.of("2", "99"), false, testClientId,
+          objectMapper.readTree("{\"Type1\": 1}"));
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+      assertEquals(TASK_NOT_FOUND + ": 99", response.getBody());
+      assertTrue(testDatabase.getTaskById("2").getResources().isEmpty(),
+          "No task should be updated when a task is not found");
+
+      response = routeController.modifyTaskResources(List.of("2"), false, testClientId,
+          objectMapper.readTree("{\"Type1\": -1}"));
+      assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    /**
+     * Tests the batch method applying operations in order and keeping those that succeed.
+     */
+    @Test
+    void batchTest() throws IOException {
+      String start = LocalDateTime.now().plusDays(1).format(Task.TIME_FORMATTER);
+      String end = LocalDateTime.now().plusDays(1).plusHours(1)
+          .format(Task.TIME_FORMATTER);
+      JsonNode operations = new ObjectMapper().readTree("["
+          + "{\"operation\": \"addTask\", \"taskName\": \"batchTask\", \"priority\": 3,"
+          + " \"startTime\": \"" + start + "\", \"endTime\": \"" + end + "\","
+          + " \"latitude\": 40.7128, \"longitude\": -74.0060},"
+          + "{\"operation\": \"modifyResourceType\", \"taskId\": \"$0\","
+          + " \"typeName\": \"Type1\", \"quantity\": 1},"
+          + "{\"operation\": \"deleteTask\", \"taskId\": \"missing\"},"
+          + "{\"operation\": \"updateSchedule\", \"maxDistance\": 100}]");
+
+      ResponseEntity<?> response = routeController.batch(testClientId, false, operations);
+
+      assertEquals(HttpStatus.OK, response.getStatusCode());
+      Map<String, Object> body = (Map<String, Object>) response.getBody();
+      assertEquals(true, body.get("committed"));
+      List<Map<String, Object>> results = (List<Map<String, Object>>) body.get("results");
+      assertEquals(List.of(200, 200, 404, 200),
+          results.stream().map(result -> result.get("status")).toList());
+
+      Task added = (Task) results.get(0).get("body");
+      assertEquals(3, testDatabase.getAllTasks().size());
+      assertEquals(1, added.getResources().values().iterator().next(),
+          "The reference should resolve to the task added by the first operation");
+      assertTrue(testDatabase.getMasterSchedule().getTaskSchedule().containsKey(added));
+    }
+
+    /**
+     * Tests the batch method rolling back an atomic batch when an operation fails.
+     */
+    @Test
+    void batchAtomicRollbackTest() throws IOException {
+      MyFileDatabase database = new MyFileDatabase(1, tempPath("tasks.dat"),
+          tempPath("resources.dat"), tempPath("schedules.dat"), "testTaskObject",
+          "testResourceObject", "testScheduleObject");
+      database.addResourceType(new ResourceType("Type1", 5, 40.7128, -74.0060));
+      LiveSchedApplication.clientDatabases.put("batchClient", database);
+      String versionBefore = database.getEntityTag();
+      JsonNode operations = new ObjectMapper().readTree("["
+          + "{\"operation\": \"addResourceType\", \"typeName\": \"Type1\","
+          + " \"totalUnits\": 3, \"latitude\": 40.7128, \"longitude\": -74.0060},"
+          + "{\"operation\": \"deleteResourceType\", \"typeName\": \"Type2\"},"
+          + "{\"operation\": \"unknown\"}]");
+
+      ResponseEntity<?> response = routeController.batch("batchClient", true, operations);
+
+      assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+      Map<String, Object> body = (Map<String, Object>) response.getBody();
+      assertEquals(false, body.get("committed"));
+      assertEquals(2, ((List<?>) body.get("results")).size(),
+          "An atomic batch should stop at the first failed operation");
+      assertEquals(5, database.getResourceTypeByName("Type1").getTotalUnits());
+      assertEquals(versionBefore, database.getEntityTag(),
+          "A rolled back batch should not publish a snapshot");
+    }
+
+    /**
+     * Tests the batch method with invalid operations.
+     */
+    @Test
+    void batchInvalidOperationsTest() throws IOException {
+      ObjectMapper objectMapper = new ObjectMapper();
+      assertEquals(HttpStatus.BAD_REQUEST, routeController.batch(testClientId, false,
+          objectMapper.readTree("[]")).getStatusCode());
+
+      ResponseEntity<?> response = routeController.batch(testClientId, false,
+          objectMapper.readTree("[{\"operation\": \"deleteTask\", \"taskId\": \"$0\"},"
+              + "{\"operation\": \"addResourceType\", \"typeName\": \"Type3\"}]"));
+      List<Map<String, Object>> results = (List<Map<String, Object>>)
+          ((Map<String, Object>) response.getBody()).get("results");
+      assertEquals("Invalid task reference: $0", results.get(0).get("body"));
+      assertEquals("Missing or invalid parameter: totalUnits", results.get(1).get("body"));
+      assertEquals(2, testDatabase.getAllResourceTypes().size());
+    }
   }
 
   @Nested
@@ -780,6 +1428,18 @@ public class RouteControllerUnitTests {
               "Error message should be Tasks Not Found");
     }
 
+    /**
+     * Tests the startScheduleJob method of RouteController.
+     */
+    @Test
+    void startScheduleJobTest() {
+      ResponseEntity<?> response = routeController.startScheduleJob(80, testClientId);
+
+      assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+      assertEquals("Tasks Not Found", response.getBody(),
+              "Error message should be Tasks Not Found");
+    }
+
     /**
      * Tests the unscheduleTask method of RouteController.
      */
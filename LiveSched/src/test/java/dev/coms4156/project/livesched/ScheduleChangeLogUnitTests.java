@@ -0,0 +1,138 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the ScheduleChangeLog class.
+ */
+class ScheduleChangeLogUnitTests {
+
+  private MyFileDatabase database;
+  private ResourceType resourceType;
+  private LocalDateTime startTime;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    database = new MyFileDatabase(1,
+        taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+
+    startTime = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    resourceType = new ResourceType("Truck", 2, 40.7128, -74.0060);
+    database.addResourceType(resourceType);
+    database.addTask(createTask("1"));
+    database.addTask(createTask("2"));
+  }
+
+  @Test
+  void changesAreRecordedBetweenSnapshots() {
+    ScheduleChangeLog changeLog = new ScheduleChangeLog(10);
+    ClientSnapshot empty = ClientSnapshot.capture(database, 1, null, null);
+    changeLog.record(null, empty);
+
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    ClientSnapshot scheduled = ClientSnapshot.capture(database, 2, null, null);
+    changeLog.record(empty, scheduled);
+
+    Task unscheduledTask = database.getTaskById("1");
+    database.getMasterSchedule().unscheduleTask(unscheduledTask);
+    ClientSnapshot unscheduled = ClientSnapshot.capture(database, 3, null, null);
+    changeLog.record(scheduled, unscheduled);
+
+    List<ScheduleChangeLog.Change> changes = changeLog.changesSince(1, 3);
+    assertEquals(3, changes.size());
+    assertEquals(ScheduleChangeLog.ChangeType.SCHEDULED, changes.get(0).getChangeType());
+    assertEquals(ScheduleChangeLog.ChangeType.SCHEDULED, changes.get(1).getChangeType());
+    assertEquals(1, changes.get(0).getAssignedResources().size());
+    assertEquals(ScheduleChangeLog.ChangeType.UNSCHEDULED, changes.get(2).getChangeType());
+    assertEquals("1", changes.get(2).getTaskId());
+    assertEquals(3, changes.get(2).getVersion());
+
+    assertEquals(1, changeLog.changesSince(2, 3).size());
+    assertEquals(2, changeLog.changesSince(1, 2).size(),
+        "Changes after the requested version should not be listed");
+    assertTrue(changeLog.changesSince(3, 3).isEmpty());
+  }
+
+  @Test
+  void overrunLogRequiresFullResync() {
+    ScheduleChangeLog changeLog = new ScheduleChangeLog(1);
+    ClientSnapshot empty = ClientSnapshot.capture(database, 1, null, null);
+    changeLog.record(null, empty);
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    changeLog.record(empty, ClientSnapshot.capture(database, 2, null, null));
+
+    assertNull(changeLog.changesSince(1, 2), "Two changes do not fit in a log of one");
+    assertNotNull(changeLog.changesSince(2, 2));
+    assertNull(changeLog.changesSince(0, 2), "Versions before the first snapshot are unknown");
+    assertNull(changeLog.changesSince(3, 2), "Versions after the current one are unknown");
+  }
+
+  @Test
+  void databaseRecordsChangesWhenPublishing() {
+    long initialVersion = database.getSnapshot().getVersion();
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    long scheduledVersion = database.publishSnapshot().getVersion();
+
+    List<ScheduleChangeLog.Change> changes =
+        database.getScheduleChangeLog().changesSince(initialVersion, scheduledVersion);
+    assertEquals(2, changes.size());
+    assertEquals(scheduledVersion, changes.get(0).getVersion());
+  }
+
+  @Test
+  void snapshotsAreComparedOffThePublishingThread() {
+    List<Runnable> recorderTasks = new ArrayList<>();
+    ScheduleChangeLog changeLog = new ScheduleChangeLog(10, recorderTasks::add);
+    ClientSnapshot empty = ClientSnapshot.capture(database, 1, null, null);
+    changeLog.record(null, empty);
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    ClientSnapshot scheduled = ClientSnapshot.capture(database, 2, null, null);
+    changeLog.record(empty, scheduled);
+
+    assertEquals(1, recorderTasks.size(), "Queued snapshots should share one recorder task");
+    recorderTasks.get(0).run();
+    assertEquals(2, changeLog.changesSince(1, 2).size());
+
+    ScheduleChangeLog unrecorded = new ScheduleChangeLog(10, task -> { });
+    unrecorded.record(null, empty);
+    unrecorded.record(empty, scheduled);
+    assertEquals(2, unrecorded.changesSince(1, 2).size(),
+        "Listing changes should compare snapshots the recorder has not reached");
+    assertTrue(ScheduleChangeLog.diff(scheduled, ClientSnapshot.capture(database, 3, null, null))
+        .isEmpty(), "Snapshots sharing an unchanged schedule have no changes");
+  }
+
+  @Test
+  void capacityMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new ScheduleChangeLog(0));
+  }
+
+  private Task createTask(String taskId) {
+    Map<ResourceType, Integer> resources = new HashMap<>();
+    resources.put(resourceType, 1);
+    return new Task(taskId, "Task " + taskId, resources, 1, startTime, startTime.plusHours(1),
+        40.7128, -74.0060);
+  }
+}
@@ -0,0 +1,192 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the ScheduleEventBroadcaster class.
+ */
+class ScheduleEventBroadcasterUnitTests {
+
+  private MyFileDatabase database;
+  private ResourceType resourceType;
+  private LocalDateTime startTime;
+
+  @TempDir
+  File tempDir;
+
+  @BeforeEach
+  void setUp() {
+    String taskPath = new File(tempDir, "tasks.dat").getAbsolutePath();
+    String resourcePath = new File(tempDir, "resources.dat").getAbsolutePath();
+    String schedulePath = new File(tempDir, "schedules.dat").getAbsolutePath();
+    database = new MyFileDatabase(1,
+        taskPath, resourcePath, schedulePath,
+        taskPath, resourcePath, schedulePath);
+
+    startTime = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    resourceType = new ResourceType("Truck", 2, 40.7128, -74.0060);
+    database.addResourceType(resourceType);
+    database.addTask(createTask("1"));
+    database.addTask(createTask("2"));
+  }
+
+  @Test
+  void eventsDescribeChangesBetweenSnapshots() {
+    ClientSnapshot before = ClientSnapshot.capture(database, 1, null, null);
+    resourceType.addResource();
+    database.getTaskById("1").updatePriority(3);
+    database.deleteTask(database.getTaskById("2"));
+    database.addTask(createTask("3"));
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    ClientSnapshot after = ClientSnapshot.capture(database, 2, null, null);
+
+    Map<String, List<ScheduleEventBroadcaster.Event>> events = byName(
+        ScheduleEventBroadcaster.events(before, after));
+
+    List<ScheduleEventBroadcaster.Event> resourcesAdded =
+        events.get(ScheduleEventBroadcaster.RESOURCE_ADDED);
+    assertEquals(1, resourcesAdded.size());
+    assertEquals(1, ((Map<?, ?>) resourcesAdded.get(0).getData()).get("unitsAdded"));
+    assertEquals(3, events.get(ScheduleEventBroadcaster.TASK_CHANGED).size(),
+        "The modified, deleted and added tasks should each have changed");
+    assertEquals(2, events.get(ScheduleEventBroadcaster.TASK_SCHEDULED).size());
+    assertEquals(2, events.get(ScheduleEventBroadcaster.TASK_SCHEDULED).get(0).getVersion());
+
+    database.getMasterSchedule().unscheduleTask(database.getTaskById("1"));
+    events = byName(ScheduleEventBroadcaster.events(after,
+        ClientSnapshot.capture(database, 3, null, null)));
+    assertEquals(1, events.get(ScheduleEventBroadcaster.TASK_UNSCHEDULED).size());
+    assertEquals(1, events.size(), "Only the schedule should have changed");
+  }
+
+  @Test
+  void subscribersReceiveEventsWhenSnapshotsArePublished() {
+    List<Runnable> sends = new ArrayList<>();
+    ScheduleEventBroadcaster broadcaster =
+        new ScheduleEventBroadcaster(16, 0, Runnable::run, sends::add);
+    database.publishSnapshot();
+    assertNotNull(broadcaster.subscribe("client", database));
+    assertNotNull(broadcaster.subscribe("client", database));
+    assertEquals(2, broadcaster.getSubscriberCount("client"));
+
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    database.publishSnapshot();
+    database.publishSnapshot();
+    assertEquals(2, sends.size(), "Each subscriber should have one pending delivery");
+
+    sends.forEach(Runnable::run);
+    assertEquals(2, broadcaster.getSubscriberCount("client"));
+  }
+
+  @Test
+  void slowSubscribersAreDropped() {
+    List<Runnable> sends = new ArrayList<>();
+    ScheduleEventBroadcaster broadcaster =
+        new ScheduleEventBroadcaster(1, 0, Runnable::run, sends::add);
+    database.publishSnapshot();
+    broadcaster.subscribe("client", database);
+
+    database.getMasterSchedule().updateSchedule(database.getAllTasks(), 10);
+    database.publishSnapshot();
+    assertEquals(1, broadcaster.getSubscriberCount("client"),
+        "Two scheduled tasks do not fit in a buffer of one, so a resync should be sent instead");
+    assertEquals(1, sends.size());
+
+    database.getTaskById("1").updatePriority(3);
+    database.publishSnapshot();
+    assertEquals(0, broadcaster.getSubscriberCount("client"),
+        "A subscriber that has not taken the resync should be dropped");
+    assertFalse(broadcaster.isListening("client"),
+        "The client should not be listened to once its last subscriber is dropped");
+  }
+
+  @Test
+  void snapshotsPublishedWhileDispatchIsWaitingAreFolded() {
+    List<Runnable> dispatches = new ArrayList<>();
+    List<Runnable> sends = new ArrayList<>();
+    ScheduleEventBroadcaster broadcaster =
+        new ScheduleEventBroadcaster(16, 0, dispatches::add, sends::add);
+    database.publishSnapshot();
+    broadcaster.subscribe("client", database);
+
+    for (int priority = 2; priority <= 5; priority++) {
+      database.getTaskById("1").updatePriority(priority);
+      database.publishSnapshot();
+    }
+    assertEquals(1, dispatches.size(), "Later snapshots should join the waiting comparison");
+    dispatches.get(0).run();
+    assertEquals(1, sends.size());
+
+    database.getTaskById("1").updatePriority(1);
+    database.publishSnapshot();
+    assertEquals(2, dispatches.size());
+  }
+
+  @Test
+  void rejectedDispatchesResynchronizeSubscribers() {
+    List<Runnable> sends = new ArrayList<>();
+    ScheduleEventBroadcaster broadcaster = new ScheduleEventBroadcaster(16, 0, command -> {
+      throw new RejectedExecutionException("busy");
+    }, sends::add);
+    database.publishSnapshot();
+    broadcaster.subscribe("client", database);
+    broadcaster.subscribe("client", database);
+
+    database.getTaskById("1").updatePriority(3);
+    database.publishSnapshot();
+    assertEquals(2, broadcaster.getSubscriberCount("client"),
+        "Subscribers should be told to resynchronize rather than dropped");
+    assertEquals(2, sends.size());
+  }
+
+  @Test
+  void unchangedTasksProduceNoEvents() {
+    ClientSnapshot before = database.publishSnapshot();
+    resourceType.addResource();
+    ClientSnapshot after = database.publishSnapshot();
+    assertSame(before.getTasks(), after.getTasks());
+
+    List<ScheduleEventBroadcaster.Event> events = ScheduleEventBroadcaster.events(before, after);
+    assertEquals(1, events.size());
+    assertEquals(ScheduleEventBroadcaster.RESOURCE_ADDED, events.get(0).getName());
+  }
+
+  @Test
+  void bufferSizeMustBePositive() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ScheduleEventBroadcaster(0, 0, Runnable::run, Runnable::run));
+  }
+
+  private Task createTask(String taskId) {
+    Map<ResourceType, Integer> resources = new HashMap<>();
+    resources.put(resourceType, 1);
+    return new Task(taskId, "Task " + taskId, resources, 1, startTime, startTime.plusHours(1),
+        40.7128, -74.0060);
+  }
+
+  private static Map<String, List<ScheduleEventBroadcaster.Event>> byName(
+      List<ScheduleEventBroadcaster.Event> events) {
+    Map<String, List<ScheduleEventBroadcaster.Event>> byName = new HashMap<>();
+    for (ScheduleEventBroadcaster.Event event : events) {
+      byName.computeIfAbsent(event.getName(), name -> new ArrayList<>()).add(event);
+    }
+    return byName;
+  }
+}
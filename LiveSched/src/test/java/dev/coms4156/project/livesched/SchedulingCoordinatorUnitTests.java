@@ -0,0 +1,135 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SchedulingCoordinator class.
+ */
+class SchedulingCoordinatorUnitTests {
+
+  private final SchedulingCoordinator coordinator = new SchedulingCoordinator();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentCallersShareOnePass() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger passes = new AtomicInteger();
+    Map<Task, List<Resource>> schedule = new HashMap<>();
+
+    Future<Map<Task, List<Resource>>> leader = executor.submit(
+        () -> coordinator.run("client", 10, distance -> {
+          passes.incrementAndGet();
+          started.countDown();
+          await(release);
+          return schedule;
+        }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    AtomicReference<Thread> followerThread = new AtomicReference<>();
+    Future<Map<Task, List<Resource>>> follower = executor.submit(() -> {
+      followerThread.set(Thread.currentThread());
+      return coordinator.run("client", 10, distance -> {
+        passes.incrementAndGet();
+        return new HashMap<>();
+      });
+    });
+    while (followerThread.get() == null
+        || followerThread.get().getState() != Thread.State.WAITING) {
+      Thread.onSpinWait();
+    }
+    release.countDown();
+
+    assertSame(schedule, leader.get(5, TimeUnit.SECONDS));
+    assertSame(schedule, follower.get(5, TimeUnit.SECONDS));
+    assertEquals(1, passes.get());
+    assertEquals(0, coordinator.getPassesInProgress());
+  }
+
+  @Test
+  void differentDistancesShareOneFollowUpPass() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Double> distances = new CopyOnWriteArrayList<>();
+
+    Future<Map<Task, List<Resource>>> first = executor.submit(
+        () -> coordinator.run("client", 10, distance -> {
+          distances.add(distance);
+          started.countDown();
+          await(release);
+          return new HashMap<>();
+        }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    Map<Task, List<Resource>> other = new HashMap<>();
+    assertSame(other, coordinator.run("other", 10, distance -> other),
+        "Passes for other clients should not wait");
+    Future<Map<Task, List<Resource>>> second = executor.submit(
+        () -> coordinator.run("client", 20, distance -> {
+          distances.add(distance);
+          return new HashMap<>();
+        }));
+    while (coordinator.getPassesInProgress() < 2) {
+      Thread.onSpinWait();
+    }
+    AtomicReference<Thread> thirdThread = new AtomicReference<>();
+    Future<Map<Task, List<Resource>>> third = executor.submit(() -> {
+      thirdThread.set(Thread.currentThread());
+      return coordinator.run("client", 30, distance -> {
+        distances.add(distance);
+        return new HashMap<>();
+      });
+    });
+    while (thirdThread.get() == null || thirdThread.get().getState() != Thread.State.WAITING) {
+      Thread.onSpinWait();
+    }
+    assertEquals(2, coordinator.getPassesInProgress());
+
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    assertSame(second.get(5, TimeUnit.SECONDS), third.get(5, TimeUnit.SECONDS));
+    assertEquals(List.of(10.0, 30.0), distances,
+        "The follow-up pass should run once with the latest distance");
+    assertEquals(0, coordinator.getPassesInProgress());
+  }
+
+  @Test
+  void failedPassIsRethrownAndForgotten() {
+    assertThrows(IllegalStateException.class, () -> coordinator.run("client", 10, distance -> {
+      throw new IllegalStateException("failed");
+    }));
+    assertEquals(0, coordinator.getPassesInProgress());
+
+    Map<Task, List<Resource>> schedule = new HashMap<>();
+    assertSame(schedule, coordinator.run("client", 10, distance -> schedule));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
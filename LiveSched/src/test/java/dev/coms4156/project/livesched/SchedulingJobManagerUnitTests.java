@@ -0,0 +1,155 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SchedulingJobManager class.
+ */
+class SchedulingJobManagerUnitTests {
+
+  private SchedulingJobManager jobManager;
+  private CountDownLatch release;
+
+  @BeforeEach
+  void setUp() {
+    jobManager = new SchedulingJobManager(1, 1, 10);
+    release = new CountDownLatch(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    jobManager.shutdown();
+  }
+
+  @Test
+  void constructorRejectsNonPositiveArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new SchedulingJobManager(0, 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new SchedulingJobManager(1, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new SchedulingJobManager(1, 1, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SchedulingJobManager(1, 1, 1, null));
+  }
+
+  @Test
+  void submitRunsPassAndRecordsResult() throws InterruptedException {
+    SchedulingJob job = jobManager.submit("client", 10, (progress, distance) -> {
+      progress.start(2);
+      progress.taskConsidered();
+      progress.taskScheduled();
+      return new LinkedHashMap<>();
+    });
+
+    awaitFinished(job);
+    assertEquals(SchedulingJob.Status.SUCCEEDED, job.getStatus());
+    assertTrue(job.getResult().isEmpty(), "Result should be the map returned by the pass");
+    assertEquals(2, job.getProgress().getTotalTasks());
+    assertEquals(1, job.getProgress().getTasksConsidered());
+    assertEquals(1, job.getProgress().getTasksScheduled());
+    assertSame(job, jobManager.getJob(job.getJobId()));
+  }
+
+  @Test
+  void submitRecordsFailure() throws InterruptedException {
+    SchedulingJob job = jobManager.submit("client", 10, (progress, distance) -> {
+      throw new IllegalStateException("Tasks Not Found");
+    });
+
+    awaitFinished(job);
+    assertEquals(SchedulingJob.Status.FAILED, job.getStatus());
+    assertEquals("Tasks Not Found", job.getError());
+    assertNull(job.getResult());
+  }
+
+  @Test
+  void duplicateSubmissionsAreCoalesced() throws InterruptedException {
+    SchedulingJob first = jobManager.submit("client", 10,
+        (progress, distance) -> blockUntilReleased());
+    SchedulingJob duplicate = jobManager.submit("client", 10,
+        (progress, distance) -> new LinkedHashMap<>());
+
+    assertSame(first, duplicate, "A second submission should join the active job");
+
+    release.countDown();
+    awaitFinished(first);
+    SchedulingJob next = jobManager.submit("client", 10,
+        (progress, distance) -> new LinkedHashMap<>());
+    assertNotEquals(first.getJobId(), next.getJobId(),
+        "A submission after the job finished should start a new job");
+  }
+
+  @Test
+  void submitRejectsWhenQueueIsFull() {
+    jobManager.submit("client1", 10, (progress, distance) -> blockUntilReleased());
+    jobManager.submit("client2", 10, (progress, distance) -> blockUntilReleased());
+
+    assertThrows(RejectedExecutionException.class,
+        () -> jobManager.submit("client3", 10, (progress, distance) -> new LinkedHashMap<>()));
+  }
+
+  @Test
+  void jobPassesAreSharedWithOtherCallers() throws Exception {
+    SchedulingCoordinator coordinator = new SchedulingCoordinator();
+    SchedulingJobManager sharedManager = new SchedulingJobManager(1, 1, 10, coordinator);
+    try {
+      SchedulingJob job = sharedManager.submit("client", 10,
+          (progress, distance) -> blockUntilReleased());
+      while (coordinator.getPassesInProgress() == 0) {
+        Thread.onSpinWait();
+      }
+      AtomicReference<Map<Task, List<Resource>>> joined = new AtomicReference<>();
+      Thread caller = new Thread(() -> joined.set(coordinator.run("client", 10, distance -> {
+        throw new IllegalStateException("The caller should join the job's pass");
+      })));
+      caller.start();
+      while (caller.getState() != Thread.State.WAITING) {
+        Thread.onSpinWait();
+      }
+      release.countDown();
+
+      caller.join(5000);
+      awaitFinished(job);
+      assertEquals(SchedulingJob.Status.SUCCEEDED, job.getStatus());
+      assertSame(job.getResult(), joined.get());
+    } finally {
+      sharedManager.shutdown();
+    }
+  }
+
+  @Test
+  void getJobReturnsNullForUnknownJob() {
+    assertNull(jobManager.getJob("unknown"));
+  }
+
+  private LinkedHashMap<Task, List<Resource>> blockUntilReleased() {
+    try {
+      release.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return new LinkedHashMap<>();
+  }
+
+  private static void awaitFinished(SchedulingJob job) throws InterruptedException {
+    for (int attempt = 0; attempt < 500 && !job.isFinished(); attempt++) {
+      Thread.sleep(10);
+    }
+    assertTrue(job.isFinished(), "Job should finish in time");
+  }
+}
@@ -0,0 +1,89 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SchedulingTrace and SchedulingTraceLog classes.
+ */
+class SchedulingTraceUnitTests {
+
+  private static Task task(String taskId, Map<ResourceType, Integer> resources, int priority) {
+    return new Task(taskId, "task" + taskId, resources, priority, LocalDateTime.now(),
+        LocalDateTime.now().plusHours(1), 40.7128, -74.0060);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void passRecordsPhasesAndTaskSpans() {
+    ResourceType resourceType = new ResourceType("Type1", 2, 40.7128, -74.0060);
+    List<Task> tasks = new ArrayList<>();
+    tasks.add(task("1", new HashMap<>(Map.of(resourceType, 2)), 1));
+    tasks.add(task("2", new HashMap<>(Map.of(resourceType, 1)), 2));
+    tasks.add(task("3", new HashMap<>(), 3));
+    SchedulingTrace trace = new SchedulingTrace("client", 100, 1);
+
+    new Schedule().updateSchedule(tasks, 100, null, trace);
+
+    assertTrue(trace.isPassRecorded());
+    Map<String, Object> description = trace.describe();
+    assertEquals(3, description.get("tasksConsidered"));
+    Map<String, Object> phases = (Map<String, Object>) description.get("phaseMicros");
+    assertEquals(SchedulingTrace.Phase.values().length, phases.size());
+    assertTrue(phases.containsKey("availability"));
+    List<Map<String, Object>> spans = (List<Map<String, Object>>) description.get("taskSpans");
+    assertEquals(3, spans.size());
+    Map<String, String> outcomes = new HashMap<>();
+    for (Map<String, Object> span : spans) {
+      outcomes.put((String) span.get("taskId"), (String) span.get("outcome"));
+    }
+    assertEquals("scheduled", outcomes.get("1"));
+    assertEquals("insufficient_units", outcomes.get("2"));
+    assertEquals("no_requirements", outcomes.get("3"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void zeroSampleRateRecordsNoSpans() {
+    SchedulingTrace trace = new SchedulingTrace("client", 100, 0);
+    List<Task> tasks = new ArrayList<>(List.of(task("1", new HashMap<>(), 1)));
+
+    new Schedule().updateSchedule(tasks, 100, null, trace);
+
+    assertTrue(trace.isPassRecorded());
+    assertTrue(((List<Object>) trace.describe().get("taskSpans")).isEmpty());
+  }
+
+  @Test
+  void invalidSampleRateThrowsException() {
+    assertThrows(IllegalArgumentException.class, () -> new SchedulingTrace("client", 100, -0.1));
+    assertThrows(IllegalArgumentException.class, () -> new SchedulingTrace("client", 100, 1.5));
+    assertThrows(IllegalArgumentException.class,
+        () -> new SchedulingTrace("client", 100, Double.NaN));
+  }
+
+  @Test
+  void logKeepsNewestTracesPerClient() {
+    SchedulingTraceLog log = new SchedulingTraceLog();
+    SchedulingTrace first = new SchedulingTrace("client", 1, 0);
+    SchedulingTrace second = new SchedulingTrace("client", 2, 0);
+    SchedulingTrace third = new SchedulingTrace("client", 3, 0);
+    log.add(first, 2);
+    log.add(second, 2);
+    log.add(third, 2);
+    log.add(new SchedulingTrace("other", 1, 0), 2);
+
+    assertEquals(List.of(third, second), log.getTraces("client"));
+    assertEquals(1, log.getTraces("other").size());
+    assertFalse(log.getTraces("missing").iterator().hasNext());
+  }
+}
@@ -0,0 +1,66 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the TaskIdAllocator class.
+ */
+class TaskIdAllocatorUnitTests {
+
+  @Test
+  void idsFollowExistingAndPersistedIds() {
+    TaskIdAllocator allocator = TaskIdAllocator.seededFrom(
+        List.of(createTask("3"), createTask("7"), createTask("Custom")), 0);
+    assertEquals("8", allocator.allocate());
+
+    allocator = TaskIdAllocator.seededFrom(List.of(createTask("3")), 12);
+    assertEquals("12", allocator.allocate(),
+        "IDs of deleted tasks recorded in the persisted next ID should not be reused");
+
+    allocator = TaskIdAllocator.seededFrom(null, 0);
+    assertEquals("1", allocator.allocate());
+  }
+
+  @Test
+  void blocksAreContiguous() {
+    TaskIdAllocator allocator = new TaskIdAllocator(5);
+    assertEquals(5, allocator.reserve(10));
+    assertEquals("15", allocator.allocate());
+    assertEquals(16, allocator.getNextId());
+    assertThrows(IllegalArgumentException.class, () -> allocator.reserve(0));
+  }
+
+  @Test
+  void addedIdsAreSkipped() {
+    TaskIdAllocator allocator = new TaskIdAllocator(1);
+    allocator.advancePast("41");
+    allocator.advancePast("7");
+    allocator.advancePast("not a number");
+    allocator.advancePast("99999999999999999999");
+    assertEquals("42", allocator.allocate());
+  }
+
+  @Test
+  void concurrentAllocationsAreUnique() {
+    TaskIdAllocator allocator = new TaskIdAllocator(1);
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    IntStream.range(0, 10_000).parallel().forEach(index -> ids.add(allocator.allocate()));
+
+    assertEquals(10_000, ids.size());
+    assertEquals(10_001, allocator.getNextId());
+  }
+
+  private static Task createTask(String taskId) {
+    return new Task(taskId, "Task " + taskId, new HashMap<>(), 1, LocalDateTime.now(),
+        LocalDateTime.now().plusHours(1), 0, 0);
+  }
+}
@@ -0,0 +1,119 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the TaskIndex class.
+ */
+class TaskIndexUnitTests {
+
+  private LocalDateTime base;
+  private TaskIndex index;
+
+  @BeforeEach
+  void setUp() {
+    base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    List<Task> tasks = new ArrayList<>();
+    // Task i starts i hours after base; priority cycles 1..5; even IDs are scheduled
+    for (int i = 1; i <= 10; i++) {
+      tasks.add(createTask(String.valueOf(i), (i - 1) % 5 + 1, base.plusHours(i)));
+    }
+    // Two tasks sharing a start time are ordered by ID
+    tasks.add(createTask("11", 1, base.plusHours(3)));
+    index = new TaskIndex(tasks, task -> Integer.parseInt(task.getTaskId()) % 2 == 0);
+  }
+
+  @Test
+  void pagesCoverAllTasksInStartTimeOrder() {
+    List<String> ids = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      TaskIndex.Page page = index.findPage(null, null, null, null, cursor, 4);
+      page.getTasks().forEach(task -> ids.add(task.getTaskId()));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(List.of("1", "2", "11", "3", "4", "5", "6", "7", "8", "9", "10"), ids);
+    assertEquals(3, pages);
+    assertEquals(11, index.size());
+  }
+
+  @Test
+  void filtersByPriorityAndScheduledState() {
+    TaskIndex.Page page = index.findPage(Set.of(1), null, null, null, null, 10);
+    assertEquals(List.of("1", "11", "6"), taskIds(page));
+
+    page = index.findPage(null, true, null, null, null, 10);
+    assertEquals(List.of("2", "4", "6", "8", "10"), taskIds(page));
+
+    page = index.findPage(Set.of(1, 2), false, null, null, null, 10);
+    assertEquals(List.of("1", "11", "7"), taskIds(page));
+  }
+
+  @Test
+  void filtersByStartTimeRange() {
+    TaskIndex.Page page = index.findPage(null, null, base.plusHours(3), base.plusHours(5),
+        null, 10);
+    assertEquals(List.of("11", "3", "4"), taskIds(page));
+    assertNull(page.getNextCursor(), "The last page within the range should have no cursor");
+
+    page = index.findPage(null, null, base.plusHours(3), base.plusHours(5), null, 2);
+    assertEquals(List.of("11", "3"), taskIds(page));
+    assertNotNull(page.getNextCursor());
+    page = index.findPage(null, null, base.plusHours(3), base.plusHours(5),
+        page.getNextCursor(), 2);
+    assertEquals(List.of("4"), taskIds(page));
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  void updatedIndexLeavesTheOriginalUnchanged() {
+    Task first = index.findPage(null, null, null, null, null, 1).getTasks().get(0);
+    Task moved = createTask("1", 2, base.plusHours(1));
+    TaskIndex updated = index.updated(List.of(first), List.of(moved), task -> true);
+
+    assertEquals(List.of("1", "2", "4", "6", "8", "10"),
+        taskIds(updated.findPage(null, true, null, null, null, 10)));
+    assertEquals(List.of("11", "7"), taskIds(updated.findPage(Set.of(1, 2), false, null, null,
+        null, 10)));
+    assertEquals(List.of("1", "11", "7"),
+        taskIds(index.findPage(Set.of(1, 2), false, null, null, null, 10)));
+    assertEquals(11, updated.size());
+    assertSame(index, index.updated(List.of(moved), List.of(), task -> true),
+        "Removing a task the index does not hold should change nothing");
+  }
+
+  @Test
+  void rejectsInvalidArguments() {
+    assertThrows(IllegalArgumentException.class,
+        () -> index.findPage(null, null, null, null, null, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> index.findPage(Set.of(6), null, null, null, null, 10));
+    assertThrows(IllegalArgumentException.class,
+        () -> index.findPage(null, null, null, null, "not a cursor", 10));
+  }
+
+  private Task createTask(String taskId, int priority, LocalDateTime startTime) {
+    return new Task(taskId, "Task " + taskId, new HashMap<>(), priority, startTime,
+        startTime.plusMinutes(30), 40.7128, -74.0060);
+  }
+
+  private static List<String> taskIds(TaskIndex.Page page) {
+    return page.getTasks().stream().map(Task::getTaskId).toList();
+  }
+}
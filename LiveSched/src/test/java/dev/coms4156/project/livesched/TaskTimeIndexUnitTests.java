@@ -0,0 +1,121 @@
+package dev.coms4156.project.livesched;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the TaskTimeIndex class.
+ */
+class TaskTimeIndexUnitTests {
+
+  private LocalDateTime base;
+  private TaskTimeIndex index;
+
+  @BeforeEach
+  void setUp() {
+    base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+    List<Task> tasks = new ArrayList<>();
+    // Task i starts i hours after base and lasts one hour
+    for (int i = 1; i <= 6; i++) {
+      tasks.add(createTask(String.valueOf(i), base.plusHours(i), base.plusHours(i + 1)));
+    }
+    // A long task that starts first and a task sharing a start time with task 3
+    tasks.add(createTask("7", base, base.plusHours(10)));
+    tasks.add(createTask("8", base.plusHours(3), base.plusHours(5)));
+    index = new TaskTimeIndex(tasks);
+  }
+
+  @Test
+  void findsTasksStartingWithinRange() {
+    assertEquals(List.of("2", "3", "8", "4"),
+        taskIds(index.startingBetween(base.plusHours(2), base.plusHours(5))));
+    assertEquals(List.of("7"), taskIds(index.startingBetween(base, base.plusHours(1))));
+    assertTrue(index.startingBetween(base.plusHours(7), base.plusHours(9)).isEmpty());
+    assertEquals(8, index.size());
+  }
+
+  @Test
+  void findsTasksActiveAtTime() {
+    assertEquals(List.of("7", "3", "8"), taskIds(index.activeAt(base.plusHours(3))),
+        "Task 2 ends as task 3 starts, so it is no longer active");
+    assertEquals(List.of("7", "8", "4"),
+        taskIds(index.activeAt(base.plusHours(4).plusMinutes(30))));
+    assertEquals(List.of("7"), taskIds(index.activeAt(base.plusHours(8))));
+    assertTrue(index.activeAt(base.minusMinutes(1)).isEmpty());
+    assertTrue(index.activeAt(base.plusHours(10)).isEmpty());
+  }
+
+  @Test
+  void activeTasksMatchLinearScan() {
+    List<Task> tasks = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      LocalDateTime start = base.plusMinutes(i * 17 % 300);
+      tasks.add(createTask(String.valueOf(i), start, start.plusMinutes(10 + i * 13 % 120)));
+    }
+    TaskTimeIndex randomIndex = new TaskTimeIndex(tasks);
+    for (int minute = -5; minute < 450; minute += 7) {
+      LocalDateTime time = base.plusMinutes(minute);
+      List<String> expected = new ArrayList<>();
+      tasks.stream()
+          .filter(task -> !task.getStartTime().isAfter(time) && task.getEndTime().isAfter(time))
+          .sorted(TaskIndex.PAGE_ORDER)
+          .forEach(task -> expected.add(task.getTaskId()));
+      assertEquals(expected, taskIds(randomIndex.activeAt(time)));
+    }
+  }
+
+  @Test
+  void updatedIndexLeavesTheOriginalUnchanged() {
+    Task first = index.startingBetween(base, base.plusMinutes(1)).get(0);
+    Task replacement = createTask("7", base, base.plusHours(2));
+    Task sharingStart = createTask("7", base, base.plusHours(1));
+    TaskTimeIndex updated = index.updated(List.of(first), List.of(replacement, sharingStart));
+
+    assertEquals(9, updated.size());
+    assertEquals(List.of("7", "7", "1"),
+        taskIds(updated.startingBetween(base, base.plusHours(1).plusMinutes(1))));
+    assertEquals(List.of("7", "1"), taskIds(updated.activeAt(base.plusHours(1))),
+        "Only the replacement of task 7 is still active");
+    assertEquals(List.of("7", "1"), taskIds(index.activeAt(base.plusHours(1))));
+    assertEquals(8, index.size());
+    assertSame(index, index.updated(List.of(replacement), List.of()),
+        "Removing a task the index does not hold should change nothing");
+  }
+
+  @Test
+  void emptyIndexFindsNothing() {
+    TaskTimeIndex empty = new TaskTimeIndex(List.of());
+    assertTrue(empty.activeAt(base).isEmpty());
+    assertTrue(empty.startingBetween(base, base.plusHours(1)).isEmpty());
+  }
+
+  @Test
+  void rejectsInvalidRanges() {
+    assertThrows(IllegalArgumentException.class,
+        () -> index.startingBetween(base.plusHours(2), base.plusHours(1)));
+    assertThrows(IllegalArgumentException.class, () -> index.startingBetween(null, base));
+    assertThrows(IllegalArgumentException.class, () -> index.activeAt(null));
+  }
+
+  private static List<String> taskIds(List<Task> tasks) {
+    List<String> ids = new ArrayList<>();
+    tasks.forEach(task -> ids.add(task.getTaskId()));
+    return ids;
+  }
+
+  private static Task createTask(String taskId, LocalDateTime startTime,
+                                 LocalDateTime endTime) {
+    return new Task(taskId, "Task " + taskId, new HashMap<>(), 1, startTime, endTime,
+        40.7128, -74.0060);
+  }
+}
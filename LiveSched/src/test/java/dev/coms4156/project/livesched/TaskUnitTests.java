@@ -265,6 +265,37 @@ public class TaskUnitTests {
         "New resource type should be removed from the resource list.");
   }
 
+  /**
+   * Test for updateResources method in Task class.
+   */
+  @Test
+  void updateResourcesTest() {
+    ResourceType otherType = new ResourceType("OtherType", 10, latitude, longitude);
+    ResourceType unusedType = new ResourceType("UnusedType", 10, latitude, longitude);
+    Map<ResourceType, Integer> patch = new HashMap<>();
+    patch.put(otherType, 4);
+    patch.put(unusedType, 0);
+    testTask.updateResources(patch, false);
+
+    assertTrue(testTask.getResources().containsKey(resourceType),
+        "Patching should keep resource types that are not given.");
+    assertEquals(4, testTask.getResources().get(otherType).intValue());
+    assertFalse(testTask.getResources().containsKey(unusedType),
+        "A quantity of 0 should not add a resource type the task does not need.");
+
+    testTask.updateResources(Map.of(otherType, 2), true);
+    assertEquals(Map.of(otherType, 2), testTask.getResources(),
+        "Replacing should remove resource types that are not given.");
+
+    Map<ResourceType, Integer> invalid = new HashMap<>();
+    invalid.put(resourceType, 1);
+    invalid.put(otherType, -1);
+    assertThrows(IllegalArgumentException.class,
+        () -> testTask.updateResources(invalid, true));
+    assertEquals(Map.of(otherType, 2), testTask.getResources(),
+        "An invalid update should not change the task.");
+  }
+
   /**
    * Test for updateLocation method in Task class.
    */